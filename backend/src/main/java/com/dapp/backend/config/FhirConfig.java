@@ -0,0 +1,15 @@
+package com.dapp.backend.config;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FhirConfig {
+
+    // Building a FhirContext scans the whole R4 model, so the application shares one
+    @Bean
+    public FhirContext fhirContext() {
+        return FhirContext.forR4();
+    }
+}
@@ -0,0 +1,46 @@
+package com.dapp.backend.controller;
+
+import com.dapp.backend.annotation.ApiMessage;
+import com.dapp.backend.dto.response.AnchoringBacklogResponse;
+import com.dapp.backend.dto.response.ReconciliationReportResponse;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.service.RecordAnchoringService;
+import com.dapp.backend.service.RecordReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/anchoring")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AnchoringController {
+
+    private static final int MAX_FAILURES = 200;
+
+    private final RecordAnchoringService recordAnchoringService;
+    private final RecordReconciliationService recordReconciliationService;
+
+    @GetMapping("/backlog")
+    @ApiMessage("Get vaccine record anchoring backlog")
+    public ResponseEntity<AnchoringBacklogResponse> getBacklog(
+            @RequestParam(defaultValue = "50") int failures) {
+        return ResponseEntity.ok(recordAnchoringService.getBacklog(Math.max(1, Math.min(failures, MAX_FAILURES))));
+    }
+
+    @PostMapping("/{recordId}/retry")
+    @ApiMessage("Requeue vaccine record for anchoring")
+    public ResponseEntity<Void> retry(@PathVariable Long recordId) throws AppException {
+        recordAnchoringService.requeue(recordId);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/reconciliation")
+    @ApiMessage("Get latest vaccine record reconciliation report")
+    public ResponseEntity<ReconciliationReportResponse> getReconciliationReport(
+            @RequestParam(defaultValue = "50") int discrepancies) throws AppException {
+        return ResponseEntity.ok(recordReconciliationService.getReport(
+                Math.max(1, Math.min(discrepancies, MAX_FAILURES))));
+    }
+}
@@ -39,7 +39,13 @@ public class AppointmentController {
     @GetMapping
     @ApiMessage("Get all appointments")
     public ResponseEntity<Pagination> getAllAppointments(@Filter Specification<Appointment> specification,
-            Pageable pageable) throws AppException {
+            Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean count) throws AppException {
+        if (cursor != null) {
+            return ResponseEntity.ok(appointmentService.getAllAppointmentsByCursor(specification, cursor,
+                    pageable.getPageSize(), count));
+        }
         return ResponseEntity.ok(appointmentService.getAllAppointments(specification, pageable));
     }
 
@@ -3,6 +3,7 @@ package com.dapp.backend.controller;
 import com.dapp.backend.annotation.ApiMessage;
 import com.dapp.backend.dto.request.*;
 import com.dapp.backend.dto.response.AppointmentResponse;
+import com.dapp.backend.dto.response.IdentityProvisioningResponse;
 import com.dapp.backend.dto.response.LoginResponse;
 import com.dapp.backend.dto.response.RefreshResponse;
 import com.dapp.backend.dto.response.RegisterPatientResponse;
@@ -136,6 +137,12 @@ public class AuthController {
         return ResponseEntity.ok(authService.getAccount());
     }
 
+    @GetMapping("/identity")
+    @ApiMessage("Get current user identity provisioning status")
+    public ResponseEntity<IdentityProvisioningResponse> getIdentityStatus() throws AppException {
+        return ResponseEntity.ok(authService.getIdentityStatus());
+    }
+
     @PostMapping("/logout")
     @ApiMessage("logout user")
     public ResponseEntity<Void> logout() throws AppException {
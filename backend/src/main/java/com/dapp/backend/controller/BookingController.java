@@ -7,6 +7,8 @@ import com.dapp.backend.dto.request.WalkInBookingRequest;
 import com.dapp.backend.dto.response.*;
 import com.dapp.backend.model.Appointment;
 import com.dapp.backend.service.AppointmentService;
+import com.dapp.backend.service.IdempotencyService;
+import com.dapp.backend.service.SlotSearchService;
 import com.turkraft.springfilter.boot.Filter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -17,26 +19,33 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/bookings")
 @RequiredArgsConstructor
 public class BookingController {
         private final AppointmentService appointmentService;
+        private final SlotSearchService slotSearchService;
+        private final IdempotencyService idempotencyService;
 
         @PostMapping
         @ApiMessage("Create a booking")
         public ResponseEntity<PaymentResponse> createBooking(HttpServletRequest request,
+                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                         @RequestBody BookingRequest bookingRequest) throws Exception {
-                return ResponseEntity.ok(appointmentService.createBooking(request, bookingRequest));
+                return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, "booking", bookingRequest,
+                                PaymentResponse.class, () -> appointmentService.createBooking(request, bookingRequest)));
         }
 
         @PostMapping("/next-dose")
         @ApiMessage("Book next dose for a vaccination course")
         public ResponseEntity<PaymentResponse> bookNextDose(HttpServletRequest request,
+                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                         @Valid @RequestBody NextDoseBookingRequest bookingRequest)
                         throws Exception {
-                return ResponseEntity.ok(appointmentService.bookNextDose(request, bookingRequest));
+                return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, "next-dose", bookingRequest,
+                                PaymentResponse.class, () -> appointmentService.bookNextDose(request, bookingRequest)));
         }
 
         @GetMapping
@@ -49,9 +58,11 @@ public class BookingController {
 
         @PostMapping("/walk-in")
         @ApiMessage("Create walk-in booking with direct doctor assignment")
-        public ResponseEntity<AppointmentResponse> createWalkInBooking(@Valid @RequestBody WalkInBookingRequest request)
-                        throws Exception {
-                return ResponseEntity.ok(appointmentService.createWalkInBooking(request));
+        public ResponseEntity<AppointmentResponse> createWalkInBooking(
+                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                        @Valid @RequestBody WalkInBookingRequest request) throws Exception {
+                return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, "walk-in", request,
+                                AppointmentResponse.class, () -> appointmentService.createWalkInBooking(request)));
         }
 
         @GetMapping("/availability")
@@ -62,4 +73,27 @@ public class BookingController {
                 return ResponseEntity.ok(appointmentService.checkAvailability(centerId, date));
         }
 
+        @GetMapping("/earliest-slots")
+        @ApiMessage("Find the earliest bookable slots across centers")
+        public ResponseEntity<List<EarliestSlotResponse>> findEarliestSlots(
+                        @RequestParam Long vaccineId,
+                        @RequestParam(required = false) Double latitude,
+                        @RequestParam(required = false) Double longitude,
+                        @RequestParam(required = false) Double radiusKm,
+                        @RequestParam(required = false) LocalDate fromDate,
+                        @RequestParam(required = false) Integer days,
+                        @RequestParam(required = false) Integer limit) throws Exception {
+                return ResponseEntity.ok(slotSearchService.findEarliestSlots(vaccineId, latitude, longitude,
+                                radiusKm, fromDate, days, limit));
+        }
+
+        @GetMapping("/availability/calendar")
+        @ApiMessage("Check slot availability for a center over a date range")
+        public ResponseEntity<CenterAvailabilityCalendarResponse> checkAvailabilityRange(
+                        @RequestParam Long centerId,
+                        @RequestParam LocalDate startDate,
+                        @RequestParam LocalDate endDate) throws Exception {
+                return ResponseEntity.ok(appointmentService.checkAvailabilityRange(centerId, startDate, endDate));
+        }
+
 }
@@ -0,0 +1,28 @@
+package com.dapp.backend.controller;
+
+import com.dapp.backend.service.VaccineCertificateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/public/certificates")
+@RequiredArgsConstructor
+public class CertificateController {
+
+    private final VaccineCertificateService vaccineCertificateService;
+
+    // Public key set verifiers pin or cache to check certificates offline
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> getSigningKeys() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+                .body(vaccineCertificateService.getPublicKeys());
+    }
+}
@@ -0,0 +1,27 @@
+package com.dapp.backend.controller;
+
+import com.dapp.backend.dto.response.DidResolutionResponse;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.service.DidResolutionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/public")
+@RequiredArgsConstructor
+@Slf4j
+public class DidResolverController {
+
+    private final DidResolutionService didResolutionService;
+
+    @GetMapping("/did/{did}")
+    public ResponseEntity<DidResolutionResponse> resolveDid(@PathVariable String did) throws AppException {
+        log.debug("DID resolution request for {}", did);
+        return ResponseEntity.ok(didResolutionService.resolve(did));
+    }
+}
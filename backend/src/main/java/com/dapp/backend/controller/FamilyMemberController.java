@@ -4,6 +4,7 @@ import com.dapp.backend.annotation.ApiMessage;
 import com.dapp.backend.dto.request.FamilyMemberDetailRequest;
 import com.dapp.backend.dto.request.FamilyMemberRequest;
 import com.dapp.backend.dto.response.FamilyMemberResponse;
+import com.dapp.backend.dto.response.IdentityProvisioningResponse;
 import com.dapp.backend.dto.response.Pagination;
 import com.dapp.backend.dto.response.VaccinationRouteResponse;
 import com.dapp.backend.exception.AppException;
@@ -45,6 +46,20 @@ public class FamilyMemberController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{id}/identity")
+    @ApiMessage("Get family member identity provisioning status")
+    public ResponseEntity<IdentityProvisioningResponse> getIdentityStatus(@PathVariable Long id)
+            throws AppException {
+        return ResponseEntity.ok(familyMemberService.getIdentityStatus(id));
+    }
+
+    @PostMapping("/{id}/identity/retry")
+    @ApiMessage("Retry family member identity provisioning")
+    public ResponseEntity<IdentityProvisioningResponse> retryIdentityProvisioning(@PathVariable Long id)
+            throws AppException {
+        return ResponseEntity.ok(familyMemberService.retryIdentityProvisioning(id));
+    }
+
     @GetMapping
     @ApiMessage("Get all family members")
     public ResponseEntity<Pagination> getAllFamilyMembers(@Filter Specification<FamilyMember> specification,
@@ -0,0 +1,31 @@
+package com.dapp.backend.controller;
+
+import com.dapp.backend.annotation.ApiMessage;
+import com.dapp.backend.dto.response.IdentityBackfillResponse;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.service.IdentityBackfillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/identity-backfill")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class IdentityBackfillController {
+
+    private final IdentityBackfillService identityBackfillService;
+
+    @PostMapping
+    @ApiMessage("Start identity backfill")
+    public ResponseEntity<IdentityBackfillResponse> start() throws AppException {
+        return ResponseEntity.ok(identityBackfillService.start());
+    }
+
+    @GetMapping
+    @ApiMessage("Get identity backfill progress")
+    public ResponseEntity<IdentityBackfillResponse> getStatus() throws AppException {
+        return ResponseEntity.ok(identityBackfillService.getStatus());
+    }
+}
@@ -31,7 +31,13 @@ public class NewsController {
     @ApiMessage("Get all news with pagination and filtering")
     public ResponseEntity<Pagination> getAllNews(
             @Filter Specification<News> specification,
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean count) throws AppException {
+        if (cursor != null) {
+            return ResponseEntity.ok(newsService.getAllNewsByCursor(specification, cursor,
+                    pageable.getPageSize(), count));
+        }
         return ResponseEntity.ok(newsService.getAllNews(specification, pageable));
     }
 
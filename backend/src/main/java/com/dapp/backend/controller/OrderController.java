@@ -5,8 +5,8 @@ import com.dapp.backend.dto.request.OrderRequest;
 import com.dapp.backend.dto.response.OrderResponse;
 import com.dapp.backend.dto.response.PaymentResponse;
 import com.dapp.backend.exception.AppException;
+import com.dapp.backend.service.IdempotencyService;
 import com.dapp.backend.service.OrderService;
-import com.paypal.base.rest.PayPalRESTException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -19,12 +19,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @ApiMessage("Create a new order")
-    public ResponseEntity<PaymentResponse> create(@RequestBody OrderRequest request, HttpServletRequest httpRequest)
-            throws AppException, PayPalRESTException {
-        return ResponseEntity.ok(orderService.createOrder(request, httpRequest.getHeader("User-Agent")));
+    public ResponseEntity<PaymentResponse> create(@RequestBody OrderRequest request, HttpServletRequest httpRequest,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey)
+            throws Exception {
+        return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, "order", request, PaymentResponse.class,
+                () -> orderService.createOrder(request, httpRequest.getHeader("User-Agent"))));
     }
 
     @GetMapping
@@ -5,6 +5,7 @@ import com.dapp.backend.dto.request.PaymentRequest;
 import com.dapp.backend.dto.response.TransactionResultResponse;
 import com.dapp.backend.enums.TypeTransactionEnum;
 import com.dapp.backend.exception.AppException;
+import com.dapp.backend.service.IdempotencyService;
 import com.dapp.backend.service.PaymentService;
 import com.dapp.backend.util.VnpayUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,6 +32,7 @@ public class PaymentController {
     private String frontendCancelUrl;
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping("/paypal/success")
     @ApiMessage("Handle PayPal payment success callback")
@@ -105,8 +107,13 @@ public class PaymentController {
 
     @PostMapping("/meta-mask")
     @ApiMessage("Update payment with MetaMask")
-    public void updatePaymentMetaMask(@RequestBody PaymentRequest request) throws AppException {
-        paymentService.updatePaymentMetaMask(request);
+    public void updatePaymentMetaMask(@RequestBody PaymentRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey)
+            throws Exception {
+        idempotencyService.execute(idempotencyKey, "meta-mask", request, Void.class, () -> {
+            paymentService.updatePaymentMetaMask(request);
+            return null;
+        });
     }
 
     @GetMapping("/{paymentId}/result")
@@ -1,13 +1,19 @@
 package com.dapp.backend.controller;
 
+import com.dapp.backend.dto.request.BulkVerificationRequest;
+import com.dapp.backend.dto.response.BulkVerificationResponse;
 import com.dapp.backend.dto.response.VaccineRecordResponse;
 import com.dapp.backend.exception.AppException;
+import com.dapp.backend.service.BulkVerificationService;
 import com.dapp.backend.service.VaccineRecordService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -18,6 +24,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class PublicVerificationController {
 
     private final VaccineRecordService vaccineRecordService;
+    private final BulkVerificationService bulkVerificationService;
 
     @GetMapping("/verify-vaccine/{ipfsHash}")
     public ResponseEntity<VaccineRecordResponse> verifyVaccineRecord(@PathVariable String ipfsHash)
@@ -25,4 +32,11 @@ public class PublicVerificationController {
         log.info("Public verification request for IPFS Hash: {}", ipfsHash);
         return ResponseEntity.ok(vaccineRecordService.getRecordByIpfsHash(ipfsHash));
     }
+
+    @PostMapping("/verify-vaccine/batch")
+    public ResponseEntity<BulkVerificationResponse> verifyVaccineRecords(
+            @Valid @RequestBody BulkVerificationRequest request) {
+        log.info("Public bulk verification request for {} IPFS hashes", request.getIpfsHashes().size());
+        return ResponseEntity.ok(bulkVerificationService.verify(request.getIpfsHashes()));
+    }
 }
@@ -2,18 +2,21 @@ package com.dapp.backend.controller;
 
 import com.dapp.backend.annotation.ApiMessage;
 import com.dapp.backend.dto.request.FamilyMemberDetailRequest;
+import com.dapp.backend.dto.response.Pagination;
 import com.dapp.backend.dto.response.VaccineRecordResponse;
+import com.dapp.backend.enums.FhirExportFormat;
 import com.dapp.backend.exception.AppException;
 import com.dapp.backend.model.User;
 import com.dapp.backend.service.AuthService;
+import com.dapp.backend.service.FhirExportService;
 import com.dapp.backend.service.VaccineRecordService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,8 +26,11 @@ import java.util.List;
 @Slf4j
 public class VaccineRecordController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final VaccineRecordService vaccineRecordService;
     private final AuthService authService;
+    private final FhirExportService fhirExportService;
 
     @PostMapping("/my-records")
     @ApiMessage("Get my vaccine records")
@@ -38,6 +44,29 @@ public class VaccineRecordController {
         return ResponseEntity.ok(records);
     }
 
+    @GetMapping("/my-records/history")
+    @ApiMessage("Get my vaccine records by cursor")
+    public ResponseEntity<Pagination> getMyVaccineRecordHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean count) throws AppException {
+        User user = authService.getCurrentUserLogin();
+        return ResponseEntity.ok(vaccineRecordService.getVaccineRecordsByPatientCursor(user.getId(), cursor,
+                clampPageSize(size), count));
+    }
+
+    @GetMapping("/family-records/{familyMemberId}/history")
+    @ApiMessage("Get family member vaccine records by cursor")
+    public ResponseEntity<Pagination> getFamilyMemberRecordHistory(
+            @PathVariable Long familyMemberId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean count) throws AppException {
+        User user = authService.getCurrentUserLogin();
+        return ResponseEntity.ok(vaccineRecordService.getFamilyMemberVaccineRecordsCursor(familyMemberId,
+                user.getId(), cursor, clampPageSize(size), count));
+    }
+
     @PostMapping("/family-records")
     @ApiMessage("Get family member vaccine records")
     public ResponseEntity<List<VaccineRecordResponse>> getFamilyMemberRecords(
@@ -45,4 +74,29 @@ public class VaccineRecordController {
         User user = authService.getCurrentUserLogin();
         return ResponseEntity.ok(vaccineRecordService.getFamilyMemberVaccineRecords(request.getId(), user.getId()));
     }
+
+    // Own and family members' records as a FHIR R4 Bundle (format=json) or bulk-data NDJSON (format=ndjson)
+    @GetMapping("/my-records/export")
+    @ApiMessage("Export my immunization history as FHIR")
+    public ResponseEntity<StreamingResponseBody> exportMyRecords(
+            @RequestParam(defaultValue = "json") String format) throws AppException {
+        User user = authService.getCurrentUserLogin();
+        FhirExportFormat exportFormat;
+        try {
+            exportFormat = FhirExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new AppException("Unsupported export format: " + format);
+        }
+        log.info("FHIR {} export requested by user ID: {}", exportFormat, user.getId());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"immunizations-" + user.getId()
+                        + "." + exportFormat.getExtension() + "\"")
+                .body(outputStream -> fhirExportService.export(user.getId(), exportFormat, outputStream));
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
 }
@@ -0,0 +1,24 @@
+package com.dapp.backend.dto.blockchain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockchainBatchDetails {
+    private boolean success;
+    // Null when the root was never anchored
+    private BatchData data;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchData {
+        private String batchId;
+        private String merkleRoot;
+        private Long recordCount;
+        private String anchoredAt;
+    }
+}
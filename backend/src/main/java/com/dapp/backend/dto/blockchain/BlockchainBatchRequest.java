@@ -0,0 +1,15 @@
+package com.dapp.backend.dto.blockchain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockchainBatchRequest {
+    private String merkleRoot;
+    private int recordCount;
+}
@@ -0,0 +1,23 @@
+package com.dapp.backend.dto.blockchain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockchainBatchResponse {
+    private boolean success;
+    private String message;
+    private BatchData data;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchData {
+        private String batchId;
+        private String transactionHash;
+        private Long blockNumber;
+    }
+}
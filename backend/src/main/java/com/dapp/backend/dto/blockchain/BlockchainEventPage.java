@@ -0,0 +1,42 @@
+package com.dapp.backend.dto.blockchain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockchainEventPage {
+    private boolean success;
+    private String message;
+    private PageData data;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PageData {
+        private long fromBlock;
+        private long toBlock;
+        private long latestBlock;
+        private String parentHash;
+        private String toBlockHash;
+        private List<ChainEvent> events;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChainEvent {
+        private String contract;
+        private String event;
+        private long blockNumber;
+        private String blockHash;
+        private int logIndex;
+        private String transactionHash;
+        private Map<String, String> values;
+    }
+}
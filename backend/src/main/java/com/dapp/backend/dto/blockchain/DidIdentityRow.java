@@ -0,0 +1,21 @@
+package com.dapp.backend.dto.blockchain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The DB side of a DID document: the identity columns of a user or family member, plus the guardian's DID
+// (controllerDid) for family members.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DidIdentityRow {
+    private String did;
+    private String identityHash;
+    private String ipfsDataHash;
+    private String controllerDid;
+
+    public DidIdentityRow(String did, String identityHash, String ipfsDataHash) {
+        this(did, identityHash, ipfsDataHash, null);
+    }
+}
@@ -0,0 +1,30 @@
+package com.dapp.backend.dto.blockchain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Identity inputs of a user or family member, read by the backfill without loading the entity graph.
+// Guardian fields are only set for family members.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdentityBackfillRow {
+    private Long id;
+    private String fullName;
+    private LocalDate birthDate;
+    private String identityNumber;
+    private String identityHash;
+    private String did;
+    private String ipfsDataHash;
+    private String guardianFullName;
+    private LocalDate guardianBirthDate;
+    private String guardianIdentityNumber;
+
+    public IdentityBackfillRow(Long id, String fullName, LocalDate birthDate, String identityNumber,
+            String identityHash, String did, String ipfsDataHash) {
+        this(id, fullName, birthDate, identityNumber, identityHash, did, ipfsDataHash, null, null, null);
+    }
+}
@@ -0,0 +1,26 @@
+package com.dapp.backend.dto.blockchain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// What a vaccination certificate attests to, read for signing without loading the entity graph.
+// transactionHash is the batch's transaction for Merkle-anchored records, merkleRoot is only set for those.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordCertificateClaims {
+    private Long id;
+    private String identityHash;
+    private String contentHash;
+    private String ipfsHash;
+    private String vaccineName;
+    private Integer doseNumber;
+    private LocalDate vaccinationDate;
+    private String blockchainRecordId;
+    private String transactionHash;
+    private Long blockNumber;
+    private String merkleRoot;
+}
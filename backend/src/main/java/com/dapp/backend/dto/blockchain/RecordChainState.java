@@ -0,0 +1,20 @@
+package com.dapp.backend.dto.blockchain;
+
+import com.dapp.backend.enums.AnchorStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Anchoring columns of a vaccine record, as read by the reconciliation job without loading the entity graph
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordChainState {
+    private Long id;
+    private String ipfsHash;
+    private String blockchainRecordId;
+    private String contentHash;
+    private String merkleProof;
+    private String merkleRoot;
+    private AnchorStatus jobStatus;
+}
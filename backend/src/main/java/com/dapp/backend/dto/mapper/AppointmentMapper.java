@@ -1,5 +1,6 @@
 package com.dapp.backend.dto.mapper;
 
+import com.dapp.backend.dto.projection.AppointmentSummary;
 import com.dapp.backend.dto.response.AppointmentResponse;
 import com.dapp.backend.model.Appointment;
 import com.dapp.backend.model.User;
@@ -63,6 +64,46 @@ public class AppointmentMapper {
 
     }
 
+    public static AppointmentResponse toResponse(AppointmentSummary summary) {
+        AppointmentResponse response = new AppointmentResponse();
+        response.setId(summary.getId());
+        response.setDoseNumber(summary.getDoseNumber());
+        response.setScheduledTimeSlot(summary.getScheduledTimeSlot());
+        response.setActualScheduledTime(summary.getActualScheduledTime());
+        response.setScheduledDate(summary.getScheduledDate());
+        response.setDesiredDate(summary.getDesiredDate());
+        response.setDesiredTimeSlot(summary.getDesiredTimeSlot());
+
+        response.setRescheduledAt(summary.getRescheduledAt());
+        response.setAppointmentStatus(summary.getStatus());
+        response.setVaccineName(summary.getVaccineName());
+        response.setVaccineSlug(summary.getVaccineSlug());
+        response.setVaccinationCourseId(summary.getVaccinationCourseId());
+
+        response.setVaccineTotalDoses(summary.getVaccineDosesRequired());
+        response.setCreatedAt(summary.getCreatedAt());
+        response.setCenterId(summary.getCenterId());
+        response.setCenterName(summary.getCenterName());
+        response.setCenterAddress(summary.getCenterAddress());
+
+        if (summary.getFamilyMemberId() != null) {
+            response.setPatientName(summary.getFamilyMemberName());
+            response.setPatientPhone(summary.getFamilyMemberPhone());
+            response.setFamilyMemberId(summary.getFamilyMemberId());
+            response.setPatientEmail(summary.getPatientEmail());
+        } else {
+            response.setPatientName(summary.getPatientName());
+            response.setPatientPhone(summary.getPatientPhone());
+            response.setPatientEmail(summary.getPatientEmail());
+            response.setPatientId(summary.getPatientProfileId());
+        }
+
+        response.setCashierName(summary.getCashierName());
+        response.setDoctorName(summary.getDoctorName());
+
+        return response;
+    }
+
     public static void mapPaymentToResponse(AppointmentResponse response, com.dapp.backend.model.Payment payment) {
         if (payment != null) {
             response.setPaymentId(payment.getId());
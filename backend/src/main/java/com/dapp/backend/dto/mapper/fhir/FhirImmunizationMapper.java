@@ -8,8 +8,9 @@ import org.springframework.stereotype.Component;
 
 import java.time.ZoneId;
 import java.util.Date;
-import java.util.UUID;
 
+// Ids and timestamps come from the record, never from the clock or a random UUID, so encoding the same
+// record twice yields the same bytes and a re-upload is answered by the IPFS content index.
 @Component
 @RequiredArgsConstructor
 public class FhirImmunizationMapper {
@@ -21,10 +22,15 @@ public class FhirImmunizationMapper {
             return null;
         }
 
+        String recordKey = "vaccine-record-" + record.getId();
+        Date recordedAt = record.getCreatedAt() != null
+                ? Date.from(record.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant())
+                : null;
+
         Bundle bundle = new Bundle();
-        bundle.setId(UUID.randomUUID().toString());
+        bundle.setId(recordKey);
         bundle.setType(Bundle.BundleType.COLLECTION);
-        bundle.setTimestamp(new Date());
+        bundle.setTimestamp(recordedAt);
 
         // 1. Create & Add Patient Resource (Snapshot)
         Patient patientResource;
@@ -40,7 +46,7 @@ public class FhirImmunizationMapper {
 
         // Ensure patient has an ID for referencing within the bundle
         if (patientResource.getIdElement().isEmpty()) {
-            patientResource.setId(UUID.randomUUID().toString());
+            patientResource.setId(recordKey + "-patient");
         }
 
         bundle.addEntry().setResource(patientResource)
@@ -132,7 +138,7 @@ public class FhirImmunizationMapper {
             suspect.setInstance(new Reference("Immunization/" + immunization.getId()));
             adverseEvent.addSuspectEntity(suspect);
 
-            bundle.addEntry().setResource(adverseEvent).setFullUrl("AdverseEvent/" + UUID.randomUUID());
+            bundle.addEntry().setResource(adverseEvent).setFullUrl("AdverseEvent/" + recordKey);
         }
 
         // 4. Create Observation Resources for Vitals (Standard LOINC)
@@ -141,33 +147,33 @@ public class FhirImmunizationMapper {
         if (record.getWeight() != null) {
             Observation obs = createVitalObservation(patientRef, occurrenceDate, "29463-7", "Body Weight",
                     record.getWeight(), "kg");
-            bundle.addEntry().setResource(obs).setFullUrl("Observation/" + UUID.randomUUID());
+            bundle.addEntry().setResource(obs).setFullUrl("Observation/" + recordKey + "-29463-7");
         }
 
         // Height (LOINC 8302-2)
         if (record.getHeight() != null) {
             Observation obs = createVitalObservation(patientRef, occurrenceDate, "8302-2", "Body Height",
                     record.getHeight(), "cm");
-            bundle.addEntry().setResource(obs).setFullUrl("Observation/" + UUID.randomUUID());
+            bundle.addEntry().setResource(obs).setFullUrl("Observation/" + recordKey + "-8302-2");
         }
 
         // Temperature (LOINC 8310-5)
         if (record.getTemperature() != null) {
             Observation obs = createVitalObservation(patientRef, occurrenceDate, "8310-5", "Body Temperature",
                     record.getTemperature(), "Cel");
-            bundle.addEntry().setResource(obs).setFullUrl("Observation/" + UUID.randomUUID());
+            bundle.addEntry().setResource(obs).setFullUrl("Observation/" + recordKey + "-8310-5");
         }
 
         // Heart Rate / Pulse (LOINC 8867-4)
         if (record.getPulse() != null) {
             Observation obs = createVitalObservation(patientRef, occurrenceDate, "8867-4", "Heart Rate",
                     (double) record.getPulse(), "/min");
-            bundle.addEntry().setResource(obs).setFullUrl("Observation/" + UUID.randomUUID());
+            bundle.addEntry().setResource(obs).setFullUrl("Observation/" + recordKey + "-8867-4");
         }
 
         // 5. Create Provenance Resource for Digital Signatures
         Provenance provenance = new Provenance();
-        provenance.setRecorded(new Date());
+        provenance.setRecorded(recordedAt);
         provenance.addTarget(new Reference("Immunization/" + immunization.getId()));
 
         // Doctor Signature (Author/Verifier)
@@ -182,7 +188,7 @@ public class FhirImmunizationMapper {
 
             Signature doctorSig = new Signature();
             doctorSig.addType(new Coding("urn:iso-astm:E1762-95:2013", "1.2.840.10065.1.12.1.1", "Author's Signature"));
-            doctorSig.setWhen(new Date());
+            doctorSig.setWhen(recordedAt);
             doctorSig.setWho(new Reference("Practitioner/" + record.getDoctor().getId()));
             doctorSig.setSigFormat("application/jose");
             doctorSig.setData(record.getDoctorSignature().getBytes());
@@ -202,14 +208,14 @@ public class FhirImmunizationMapper {
             Signature patientSig = new Signature();
             patientSig
                     .addType(new Coding("urn:iso-astm:E1762-95:2013", "1.2.840.10065.1.12.1.14", "Consent Signature"));
-            patientSig.setWhen(new Date());
+            patientSig.setWhen(recordedAt);
             patientSig.setWho(patientRef);
             patientSig.setSigFormat("application/jose");
             patientSig.setData(record.getPatientConsentSignature().getBytes());
             provenance.addSignature(patientSig);
         }
 
-        bundle.addEntry().setResource(provenance).setFullUrl("Provenance/" + UUID.randomUUID());
+        bundle.addEntry().setResource(provenance).setFullUrl("Provenance/" + recordKey);
 
         return bundle;
     }
@@ -0,0 +1,50 @@
+package com.dapp.backend.dto.projection;
+
+import com.dapp.backend.enums.AppointmentStatus;
+import com.dapp.backend.enums.TimeSlotEnum;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Flat read model for appointment listings: only the columns AppointmentMapper needs.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AppointmentSummary {
+    Long id;
+    Integer doseNumber;
+    LocalDate scheduledDate;
+    TimeSlotEnum scheduledTimeSlot;
+    LocalTime actualScheduledTime;
+    LocalDate desiredDate;
+    TimeSlotEnum desiredTimeSlot;
+    LocalDateTime rescheduledAt;
+    AppointmentStatus status;
+    LocalDateTime createdAt;
+
+    String vaccineName;
+    String vaccineSlug;
+    Integer vaccineDosesRequired;
+    Long vaccinationCourseId;
+
+    Long centerId;
+    String centerName;
+    String centerAddress;
+
+    Long familyMemberId;
+    String familyMemberName;
+    String familyMemberPhone;
+
+    Long patientProfileId;
+    String patientName;
+    String patientPhone;
+    String patientEmail;
+
+    String cashierName;
+    String doctorName;
+}
@@ -0,0 +1,20 @@
+package com.dapp.backend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkVerificationRequest {
+
+    @NotEmpty(message = "At least one IPFS hash is required")
+    @Size(max = 500, message = "At most 500 IPFS hashes can be verified per request")
+    List<String> ipfsHashes;
+}
@@ -0,0 +1,31 @@
+package com.dapp.backend.dto.response;
+
+import com.dapp.backend.enums.AnchorStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class AnchoringBacklogResponse {
+    private Map<AnchorStatus, Long> counts;
+    private LocalDateTime oldestPendingSince;
+    private List<Job> recentFailures;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Job {
+        private Long vaccineRecordId;
+        private AnchorStatus status;
+        private int attempts;
+        private LocalDateTime nextAttemptAt;
+        private String lastError;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dapp.backend.dto.response;
+
+import com.dapp.backend.enums.VerificationVerdict;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkVerificationResponse {
+    private int total;
+    private int verified;
+    private int notFound;
+    private int failed;
+    private List<Result> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private String ipfsHash;
+        private VerificationVerdict verdict;
+        private String message;
+        private VaccineRecordResponse record;
+    }
+}
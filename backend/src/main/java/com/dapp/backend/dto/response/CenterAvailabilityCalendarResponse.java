@@ -0,0 +1,22 @@
+package com.dapp.backend.dto.response;
+
+import com.dapp.backend.enums.TimeSlotEnum;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Compact calendar: booked[i][j] is the booked count of day startDate + i and slots[j],
+// availableMask[i] has bit j set while slots[j] still has room on that day.
+@Data
+@Builder
+public class CenterAvailabilityCalendarResponse {
+    private Long centerId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int slotCapacity;
+    private List<TimeSlotEnum> slots;
+    private List<int[]> booked;
+    private List<Integer> availableMask;
+}
@@ -0,0 +1,60 @@
+package com.dapp.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// W3C DID resolution result for a did:vax identifier. Only pseudonymous data is published: the salted
+// identity hash, the guardian's DID and a pointer to the FHIR Patient profile on IPFS.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DidResolutionResponse {
+    private DidDocument didDocument;
+    private Metadata didDocumentMetadata;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class DidDocument {
+        @JsonProperty("@context")
+        private List<String> context;
+        private String id;
+        private String controller;
+        private List<Service> service;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Service {
+        private String id;
+        private String type;
+        private String serviceEndpoint;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Metadata {
+        private String identityHash;
+        private String identityType;
+        // True once the identity is found on chain; the fields below are only set then
+        private boolean anchored;
+        private Boolean active;
+        private String created;
+        private String chainIpfsDataHash;
+    }
+}
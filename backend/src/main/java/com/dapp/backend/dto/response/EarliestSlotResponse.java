@@ -0,0 +1,26 @@
+package com.dapp.backend.dto.response;
+
+import com.dapp.backend.enums.TimeSlotEnum;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EarliestSlotResponse {
+    Long centerId;
+    String centerName;
+    String centerAddress;
+    Double distanceKm;
+    Long doctorId;
+    String doctorName;
+    LocalDate slotDate;
+    LocalTime startTime;
+    LocalTime endTime;
+    TimeSlotEnum timeSlot;
+}
@@ -0,0 +1,22 @@
+package com.dapp.backend.dto.response;
+
+import com.dapp.backend.enums.BackfillStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class IdentityBackfillResponse {
+    private Long runId;
+    private BackfillStatus status;
+    private long lastUserId;
+    private boolean usersDone;
+    private long lastFamilyMemberId;
+    private long scanned;
+    private long hashed;
+    private long enqueued;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
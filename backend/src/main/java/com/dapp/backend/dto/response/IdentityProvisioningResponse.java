@@ -0,0 +1,26 @@
+package com.dapp.backend.dto.response;
+
+import com.dapp.backend.enums.IdentityOwnerType;
+import com.dapp.backend.enums.ProvisioningStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdentityProvisioningResponse {
+    private IdentityOwnerType ownerType;
+    private Long ownerId;
+    private String did;
+    private ProvisioningStatus status;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime completedAt;
+    private String transactionHash;
+    private String lastError;
+}
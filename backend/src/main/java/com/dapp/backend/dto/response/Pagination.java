@@ -1,5 +1,6 @@
 package com.dapp.backend.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,10 +13,14 @@ public class Pagination {
     private Object result;
 
     @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Meta {
         private int page;
         private int pageSize;
         private int pages;
-        private long total;
+        // Null in cursor mode unless the client asked for a count
+        private Long total;
+        private String nextCursor;
+        private Boolean hasNext;
     }
-}
\ No newline at end of file
+}
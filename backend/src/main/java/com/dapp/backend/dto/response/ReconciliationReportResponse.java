@@ -0,0 +1,37 @@
+package com.dapp.backend.dto.response;
+
+import com.dapp.backend.enums.DiscrepancyType;
+import com.dapp.backend.enums.ReconciliationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ReconciliationReportResponse {
+    private Long runId;
+    private ReconciliationStatus status;
+    private long lastRecordId;
+    private long scanned;
+    private long discrepancies;
+    private long requeued;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<Discrepancy> latestDiscrepancies;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Discrepancy {
+        private Long vaccineRecordId;
+        private DiscrepancyType type;
+        private String detail;
+        private boolean requeued;
+        private LocalDateTime detectedAt;
+    }
+}
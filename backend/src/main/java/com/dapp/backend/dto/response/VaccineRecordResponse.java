@@ -52,7 +52,11 @@ public class VaccineRecordResponse {
     String transactionHash;
     Long blockNumber;
     String ipfsHash;
+    String contentHash;
+    String merkleRoot;
+    String merkleProof;
     String digitalSignature;
+    String certificate;
     boolean isVerified;
     LocalDateTime verifiedAt;
 
@@ -0,0 +1,8 @@
+package com.dapp.backend.enums;
+
+public enum AnchorStatus {
+    PENDING_IPFS,
+    PENDING_CHAIN,
+    ANCHORED,
+    FAILED
+}
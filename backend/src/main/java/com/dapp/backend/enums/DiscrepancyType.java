@@ -0,0 +1,11 @@
+package com.dapp.backend.enums;
+
+public enum DiscrepancyType {
+    MISSING_IPFS_HASH,
+    MISSING_CHAIN_ID,
+    INVALID_CHAIN_ID,
+    CHAIN_RECORD_NOT_FOUND,
+    IPFS_MISMATCH,
+    MERKLE_PROOF_INVALID,
+    BATCH_ROOT_NOT_ON_CHAIN
+}
@@ -0,0 +1,20 @@
+package com.dapp.backend.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum EmailType {
+    APPOINTMENT_CONFIRMATION("appointment-confirmation", "Lịch hẹn đã tạo thành công - Chờ xử lý - VaxSafe"),
+    APPOINTMENT_SCHEDULED("appointment-scheduled", "Lịch hẹn đã được xác nhận - VaxSafe"),
+    APPOINTMENT_CANCELLATION("appointment-cancellation", "Thông báo hủy lịch hẹn - VaxSafe"),
+    VACCINATION_REMINDER("vaccination-reminder", "Nhắc nhở: Lịch tiêm chủng của bạn"),
+    NEXT_DOSE_REMINDER("next-dose-reminder", "Nhắc nhở: Đã đến lịch tiêm mũi tiếp theo - VaxSafe");
+
+    private final String template;
+    private final String subject;
+
+    EmailType(String template, String subject) {
+        this.template = template;
+        this.subject = subject;
+    }
+}
@@ -0,0 +1,19 @@
+package com.dapp.backend.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum FhirExportFormat {
+    // One compact FHIR Bundle of type collection
+    JSON("application/fhir+json", "json"),
+    // FHIR Bulk Data: one resource per line
+    NDJSON("application/fhir+ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    FhirExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+}
@@ -0,0 +1,6 @@
+package com.dapp.backend.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,8 @@
+package com.dapp.backend.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
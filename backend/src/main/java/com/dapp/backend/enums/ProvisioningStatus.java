@@ -0,0 +1,8 @@
+package com.dapp.backend.enums;
+
+public enum ProvisioningStatus {
+    PENDING_IPFS,
+    PENDING_CHAIN,
+    COMPLETED,
+    FAILED
+}
@@ -2,6 +2,8 @@ package com.dapp.backend.enums;
 
 import lombok.Getter;
 
+import java.time.LocalTime;
+
 
 @Getter
 public enum TimeSlotEnum {
@@ -13,10 +15,12 @@ public enum TimeSlotEnum {
 
     private final String time;
     private final String displayName;
+    private final LocalTime startTime;
 
     TimeSlotEnum(String time, String displayName) {
         this.time = time;
         this.displayName = displayName;
+        this.startTime = LocalTime.parse(time);
     }
 
     public static TimeSlotEnum fromTime(String time) {
@@ -27,4 +31,19 @@ public enum TimeSlotEnum {
         }
         throw new IllegalArgumentException("Invalid time slot: " + time);
     }
+
+    // The two-hour block a clock time falls into, or null outside 07:00 - 17:00.
+    public static TimeSlotEnum containing(LocalTime time) {
+        TimeSlotEnum result = null;
+        for (TimeSlotEnum slot : TimeSlotEnum.values()) {
+            if (time.isBefore(slot.startTime)) {
+                break;
+            }
+            result = slot;
+        }
+        if (result != null && !time.isBefore(result.startTime.plusHours(2))) {
+            return null;
+        }
+        return result;
+    }
 }
@@ -0,0 +1,7 @@
+package com.dapp.backend.enums;
+
+public enum VerificationVerdict {
+    VERIFIED,
+    NOT_FOUND,
+    FAILED
+}
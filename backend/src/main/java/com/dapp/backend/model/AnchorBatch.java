@@ -0,0 +1,37 @@
+package com.dapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "anchor_batches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@EqualsAndHashCode(callSuper = true)
+public class AnchorBatch extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    // Hex SHA-256 root, as anchored on chain
+    @Column(nullable = false, unique = true, length = 64)
+    String merkleRoot;
+
+    int recordCount;
+
+    String chainBatchId;
+
+    @Column(unique = true)
+    String transactionHash;
+
+    Long blockNumber;
+
+    LocalDateTime anchoredAt;
+}
@@ -0,0 +1,41 @@
+package com.dapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+// Local mirror of a VaxSafeIdentity contract entry, built from IdentityCreated events
+@Entity
+@Table(name = "chain_identities")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@EqualsAndHashCode(callSuper = true)
+public class ChainIdentity extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "identity_hash", nullable = false, unique = true, length = 66)
+    String identityHash;
+
+    String did;
+
+    String guardian;
+
+    @Column(length = 20)
+    String idType;
+
+    String ipfsDataHash;
+
+    // Unix seconds, as emitted by the contract
+    Long chainCreatedAt;
+
+    @Column(name = "created_block", nullable = false)
+    Long createdBlock;
+
+    String transactionHash;
+}
@@ -0,0 +1,35 @@
+package com.dapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+// Single-row progress marker for the chain event indexer
+@Entity
+@Table(name = "chain_index_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@EqualsAndHashCode(callSuper = true)
+public class ChainIndexCheckpoint extends BaseEntity {
+
+    @Id
+    Long id;
+
+    // Last block whose events are in the mirror tables
+    @Column(nullable = false)
+    Long blockNumber;
+
+    // Hash of blockNumber when it was indexed; the next page's parent hash must match it
+    @Column(length = 66)
+    String blockHash;
+
+    // Chain head reported by the last poll
+    Long latestBlock;
+
+    LocalDateTime polledAt;
+}
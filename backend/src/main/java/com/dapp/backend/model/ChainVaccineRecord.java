@@ -0,0 +1,51 @@
+package com.dapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+// Local mirror of a VaccineRecord contract entry, built from RecordCreated / RecordUpdated events
+@Entity
+@Table(name = "chain_vaccine_records", indexes = {
+        @Index(name = "idx_chain_vaccine_records_identity", columnList = "identity_hash")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@EqualsAndHashCode(callSuper = true)
+public class ChainVaccineRecord extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "chain_record_id", nullable = false, unique = true)
+    Long chainRecordId;
+
+    @Column(name = "identity_hash", nullable = false, length = 66)
+    String identityHash;
+
+    String vaccineId;
+
+    String vaccineName;
+
+    Integer doseNumber;
+
+    // Unix seconds, as emitted by the contract
+    Long vaccinationDate;
+
+    Long chainCreatedAt;
+
+    // Null after a reorg rolled back its last update; reads then go to the gateway until it is replayed
+    String ipfsHash;
+
+    @Column(name = "created_block", nullable = false)
+    Long createdBlock;
+
+    @Column(name = "ipfs_block")
+    Long ipfsBlock;
+
+    String transactionHash;
+}
@@ -0,0 +1,54 @@
+package com.dapp.backend.model;
+
+import com.dapp.backend.enums.EmailType;
+import com.dapp.backend.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next", columnList = "status,next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EmailOutbox extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    EmailType type;
+
+    @Column(nullable = false)
+    String recipient;
+
+    // Template variables as JSON
+    @Column(columnDefinition = "TEXT", nullable = false)
+    String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    OutboxStatus status;
+
+    @Builder.Default
+    int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    LocalDateTime nextAttemptAt;
+
+    // A SENDING row whose lock has expired was abandoned by a dead worker and is picked up again
+    LocalDateTime lockedUntil;
+
+    LocalDateTime sentAt;
+
+    @Column(columnDefinition = "TEXT")
+    String lastError;
+}
@@ -8,7 +8,9 @@ import lombok.experimental.FieldDefaults;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "family_members")
+@Table(name = "family_members", indexes = {
+        @Index(name = "idx_family_members_did", columnList = "did")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,48 @@
+package com.dapp.backend.model;
+
+import com.dapp.backend.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_records", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "idempotency_key", "scope", "principal" })
+}, indexes = {
+        @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IdempotencyRecord extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    String idempotencyKey;
+
+    @Column(nullable = false, length = 50)
+    String scope;
+
+    @Column(nullable = false)
+    String principal;
+
+    @Column(nullable = false, length = 64)
+    String fingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    IdempotencyStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    LocalDateTime expiresAt;
+}
@@ -0,0 +1,54 @@
+package com.dapp.backend.model;
+
+import com.dapp.backend.enums.BackfillStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+// One pass of the identity backfill: users first, then family members. The last ids are the resume point.
+@Entity
+@Table(name = "identity_backfill_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@EqualsAndHashCode(callSuper = true)
+public class IdentityBackfillRun extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    BackfillStatus status;
+
+    @Builder.Default
+    long lastUserId = 0;
+
+    boolean usersDone;
+
+    @Builder.Default
+    long lastFamilyMemberId = 0;
+
+    @Builder.Default
+    long scanned = 0;
+
+    // Identities that got a hash and DID from this run
+    @Builder.Default
+    long hashed = 0;
+
+    // Identities put on the provisioning queue for upload and anchoring
+    @Builder.Default
+    long enqueued = 0;
+
+    // Held by the node working on the run, so two nodes never process the same chunk
+    LocalDateTime lockedUntil;
+
+    LocalDateTime startedAt;
+
+    LocalDateTime finishedAt;
+}
@@ -0,0 +1,55 @@
+package com.dapp.backend.model;
+
+import com.dapp.backend.enums.IdentityOwnerType;
+import com.dapp.backend.enums.ProvisioningStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "identity_provisioning_jobs", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_identity_provisioning_owner", columnNames = { "owner_type", "owner_id" })
+}, indexes = {
+        @Index(name = "idx_identity_provisioning_status_next", columnList = "status,next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IdentityProvisioningJob extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", nullable = false, length = 20)
+    IdentityOwnerType ownerType;
+
+    // users.id or family_members.id, depending on ownerType
+    @Column(name = "owner_id", nullable = false)
+    Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    ProvisioningStatus status;
+
+    @Builder.Default
+    int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    LocalDateTime nextAttemptAt;
+
+    // Set while a worker owns the job; an expired lock means the worker died and the job is claimable again
+    LocalDateTime lockedUntil;
+
+    String transactionHash;
+
+    LocalDateTime completedAt;
+
+    @Column(columnDefinition = "TEXT")
+    String lastError;
+}
@@ -0,0 +1,28 @@
+package com.dapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+// Content hash -> CID of a JSON document already pinned to IPFS
+@Entity
+@Table(name = "ipfs_contents")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@EqualsAndHashCode(callSuper = true)
+public class IpfsContent extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    // Hex SHA-256 of the canonical JSON
+    @Column(nullable = false, unique = true, length = 64)
+    String contentHash;
+
+    @Column(nullable = false)
+    String cid;
+}
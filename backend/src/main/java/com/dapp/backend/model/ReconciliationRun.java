@@ -0,0 +1,48 @@
+package com.dapp.backend.model;
+
+import com.dapp.backend.enums.ReconciliationStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+// One pass of the DB-vs-chain reconciliation over vaccine_records; lastRecordId is its resume point
+@Entity
+@Table(name = "reconciliation_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@EqualsAndHashCode(callSuper = true)
+public class ReconciliationRun extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    ReconciliationStatus status;
+
+    // Highest vaccine record id already checked
+    @Builder.Default
+    long lastRecordId = 0;
+
+    @Builder.Default
+    long scanned = 0;
+
+    @Builder.Default
+    long discrepancies = 0;
+
+    @Builder.Default
+    long requeued = 0;
+
+    // Held by the node working on the run, so two nodes never check the same page
+    LocalDateTime lockedUntil;
+
+    LocalDateTime startedAt;
+
+    LocalDateTime finishedAt;
+}
@@ -0,0 +1,48 @@
+package com.dapp.backend.model;
+
+import com.dapp.backend.enums.AnchorStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "record_anchor_jobs", indexes = {
+        @Index(name = "idx_record_anchor_jobs_status_next", columnList = "status,next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RecordAnchorJob extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "vaccine_record_id", nullable = false, unique = true)
+    Long vaccineRecordId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    AnchorStatus status;
+
+    @Builder.Default
+    int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    LocalDateTime nextAttemptAt;
+
+    // Set while a worker owns the job; an expired lock means the worker died and the job is claimable again
+    LocalDateTime lockedUntil;
+
+    LocalDateTime anchoredAt;
+
+    // Set before the chain write is sent; a retry with this set looks for the record on chain before writing again
+    LocalDateTime chainSubmittedAt;
+
+    @Column(columnDefinition = "TEXT")
+    String lastError;
+}
@@ -0,0 +1,39 @@
+package com.dapp.backend.model;
+
+import com.dapp.backend.enums.DiscrepancyType;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Entity
+@Table(name = "record_discrepancies", indexes = {
+        @Index(name = "idx_record_discrepancies_run", columnList = "run_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@EqualsAndHashCode(callSuper = true)
+public class RecordDiscrepancy extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "run_id", nullable = false)
+    Long runId;
+
+    @Column(name = "vaccine_record_id", nullable = false)
+    Long vaccineRecordId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    DiscrepancyType type;
+
+    @Column(columnDefinition = "TEXT")
+    String detail;
+
+    // Put back on the anchoring queue by the reconciliation job
+    boolean requeued;
+}
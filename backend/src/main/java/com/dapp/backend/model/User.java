@@ -11,7 +11,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_did", columnList = "did")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -68,4 +68,7 @@ public class VaccinationReminder extends BaseEntity {
     Integer retryCount;
 
     LocalDateTime nextRetryAt;
+
+    // Lease held by ReminderDispatcher while the reminder's chunk is being sent
+    LocalDateTime lockedUntil;
 }
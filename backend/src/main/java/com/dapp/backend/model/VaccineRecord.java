@@ -80,9 +80,27 @@ public class VaccineRecord extends BaseEntity {
 
     String ipfsHash;
 
+    // Hex SHA-256 of the FHIR JSON stored at ipfsHash; the record's leaf in its Merkle batch
+    @Column(length = 64)
+    String contentHash;
+
+    // Set when the record was anchored as part of a Merkle batch instead of its own transaction
+    @ManyToOne
+    @JoinColumn(name = "anchor_batch_id")
+    AnchorBatch anchorBatch;
+
+    @Column(columnDefinition = "TEXT")
+    String merkleProof;
+
     @Column(columnDefinition = "TEXT")
     String digitalSignature;
 
+    // Compact JWS over the record's anchored hashes, verifiable offline with the published certificate key
+    @Column(columnDefinition = "TEXT")
+    String certificate;
+
+    LocalDateTime certificateIssuedAt;
+
     @Column(columnDefinition = "TEXT")
     String doctorSignature;
 
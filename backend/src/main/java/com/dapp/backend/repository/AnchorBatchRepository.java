@@ -0,0 +1,9 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.model.AnchorBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnchorBatchRepository extends JpaRepository<AnchorBatch, Long> {
+}
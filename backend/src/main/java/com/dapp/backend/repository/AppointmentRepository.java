@@ -12,7 +12,8 @@ import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
 import java.util.List;
 
-public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment>,
+                AppointmentSummaryRepository {
 
         List<Appointment> findByPatientAndStatusIn(User patient, List<AppointmentStatus> statuses);
 
@@ -58,6 +59,23 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>,
                         "GROUP BY a.scheduledTimeSlot")
         List<Object[]> countAppointmentsBySlot(@Param("centerId") Long centerId, @Param("date") LocalDate date);
 
+        @Query("SELECT a.center.centerId, a.scheduledDate, a.scheduledTimeSlot, COUNT(a) FROM Appointment a " +
+                        "WHERE a.scheduledDate BETWEEN :startDate AND :endDate " +
+                        "AND a.scheduledTimeSlot IS NOT NULL " +
+                        "AND a.status != 'CANCELLED' " +
+                        "GROUP BY a.center.centerId, a.scheduledDate, a.scheduledTimeSlot")
+        List<Object[]> countAppointmentsBySlotBetween(@Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        @Query("SELECT a.scheduledDate, a.scheduledTimeSlot, COUNT(a) FROM Appointment a " +
+                        "WHERE a.center.centerId = :centerId " +
+                        "AND a.scheduledDate BETWEEN :startDate AND :endDate " +
+                        "AND a.scheduledTimeSlot IS NOT NULL " +
+                        "AND a.status != 'CANCELLED' " +
+                        "GROUP BY a.scheduledDate, a.scheduledTimeSlot")
+        List<Object[]> countCenterAppointmentsBySlotBetween(@Param("centerId") Long centerId,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
         @Query("SELECT MAX(a.doseNumber) FROM Appointment a WHERE a.patient.id = :patientId AND a.vaccine.id = :vaccineId AND "
                         +
                         "((:familyMemberId IS NULL AND a.familyMember IS NULL) OR (:familyMemberId IS NOT NULL AND a.familyMember.id = :familyMemberId)) "
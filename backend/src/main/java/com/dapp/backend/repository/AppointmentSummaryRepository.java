@@ -0,0 +1,17 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.dto.projection.AppointmentSummary;
+import com.dapp.backend.model.Appointment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface AppointmentSummaryRepository {
+
+    Page<AppointmentSummary> findSummaries(Specification<Appointment> specification, Pageable pageable);
+
+    List<AppointmentSummary> findSummaries(Specification<Appointment> specification, Sort sort, int limit);
+}
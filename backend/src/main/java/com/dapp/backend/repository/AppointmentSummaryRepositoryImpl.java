@@ -0,0 +1,155 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.dto.projection.AppointmentSummary;
+import com.dapp.backend.enums.AppointmentStatus;
+import com.dapp.backend.enums.TimeSlotEnum;
+import com.dapp.backend.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+// Selects the listing columns through explicit left joins so a page is a single statement
+// and none of the eager associations on Appointment are hydrated.
+public class AppointmentSummaryRepositoryImpl implements AppointmentSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<AppointmentSummary> findSummaries(Specification<Appointment> specification, Pageable pageable) {
+        List<AppointmentSummary> content = pageable.isPaged()
+                ? select(specification, pageable.getSort(), (int) pageable.getOffset(), pageable.getPageSize())
+                : select(specification, pageable.getSort(), 0, -1);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    // Slice without the count query, used by keyset pagination.
+    @Override
+    public List<AppointmentSummary> findSummaries(Specification<Appointment> specification, Sort sort, int limit) {
+        return select(specification, sort, 0, limit);
+    }
+
+    private List<AppointmentSummary> select(Specification<Appointment> specification, Sort sort, int offset,
+            int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Appointment> root = query.from(Appointment.class);
+
+        Join<Appointment, Vaccine> vaccine = root.join("vaccine", JoinType.LEFT);
+        Join<Appointment, VaccinationCourse> course = root.join("vaccinationCourse", JoinType.LEFT);
+        Join<Appointment, Center> center = root.join("center", JoinType.LEFT);
+        Join<Appointment, FamilyMember> familyMember = root.join("familyMember", JoinType.LEFT);
+        Join<Appointment, User> patient = root.join("patient", JoinType.LEFT);
+        Join<User, Patient> patientProfile = patient.join("patientProfile", JoinType.LEFT);
+        Join<Appointment, User> cashier = root.join("cashier", JoinType.LEFT);
+        Join<Appointment, User> doctor = root.join("doctor", JoinType.LEFT);
+
+        query.multiselect(
+                root.get("id").alias("id"),
+                root.get("doseNumber").alias("doseNumber"),
+                root.get("scheduledDate").alias("scheduledDate"),
+                root.get("scheduledTimeSlot").alias("scheduledTimeSlot"),
+                root.get("actualScheduledTime").alias("actualScheduledTime"),
+                root.get("desiredDate").alias("desiredDate"),
+                root.get("desiredTimeSlot").alias("desiredTimeSlot"),
+                root.get("rescheduledAt").alias("rescheduledAt"),
+                root.get("status").alias("status"),
+                root.get("createdAt").alias("createdAt"),
+                vaccine.get("name").alias("vaccineName"),
+                vaccine.get("slug").alias("vaccineSlug"),
+                vaccine.get("dosesRequired").alias("vaccineDosesRequired"),
+                course.get("id").alias("vaccinationCourseId"),
+                center.get("centerId").alias("centerId"),
+                center.get("name").alias("centerName"),
+                center.get("address").alias("centerAddress"),
+                familyMember.get("id").alias("familyMemberId"),
+                familyMember.get("fullName").alias("familyMemberName"),
+                familyMember.get("phone").alias("familyMemberPhone"),
+                patientProfile.get("id").alias("patientProfileId"),
+                patient.get("fullName").alias("patientName"),
+                patient.get("phone").alias("patientPhone"),
+                patient.get("email").alias("patientEmail"),
+                cashier.get("fullName").alias("cashierName"),
+                doctor.get("fullName").alias("doctorName"));
+
+        Predicate predicate = toPredicate(specification, root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult(offset);
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        return typedQuery.getResultList().stream()
+                .map(this::toSummary)
+                .toList();
+    }
+
+    private long count(Specification<Appointment> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Appointment> root = query.from(Appointment.class);
+
+        Predicate predicate = toPredicate(specification, root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate toPredicate(Specification<Appointment> specification, Root<Appointment> root,
+            CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return specification != null ? specification.toPredicate(root, query, cb) : null;
+    }
+
+    private AppointmentSummary toSummary(Tuple tuple) {
+        return AppointmentSummary.builder()
+                .id(tuple.get("id", Long.class))
+                .doseNumber(tuple.get("doseNumber", Integer.class))
+                .scheduledDate(tuple.get("scheduledDate", LocalDate.class))
+                .scheduledTimeSlot(tuple.get("scheduledTimeSlot", TimeSlotEnum.class))
+                .actualScheduledTime(tuple.get("actualScheduledTime", LocalTime.class))
+                .desiredDate(tuple.get("desiredDate", LocalDate.class))
+                .desiredTimeSlot(tuple.get("desiredTimeSlot", TimeSlotEnum.class))
+                .rescheduledAt(tuple.get("rescheduledAt", LocalDateTime.class))
+                .status(tuple.get("status", AppointmentStatus.class))
+                .createdAt(tuple.get("createdAt", LocalDateTime.class))
+                .vaccineName(tuple.get("vaccineName", String.class))
+                .vaccineSlug(tuple.get("vaccineSlug", String.class))
+                .vaccineDosesRequired(tuple.get("vaccineDosesRequired", Integer.class))
+                .vaccinationCourseId(tuple.get("vaccinationCourseId", Long.class))
+                .centerId(tuple.get("centerId", Long.class))
+                .centerName(tuple.get("centerName", String.class))
+                .centerAddress(tuple.get("centerAddress", String.class))
+                .familyMemberId(tuple.get("familyMemberId", Long.class))
+                .familyMemberName(tuple.get("familyMemberName", String.class))
+                .familyMemberPhone(tuple.get("familyMemberPhone", String.class))
+                .patientProfileId(tuple.get("patientProfileId", Long.class))
+                .patientName(tuple.get("patientName", String.class))
+                .patientPhone(tuple.get("patientPhone", String.class))
+                .patientEmail(tuple.get("patientEmail", String.class))
+                .cashierName(tuple.get("cashierName", String.class))
+                .doctorName(tuple.get("doctorName", String.class))
+                .build();
+    }
+}
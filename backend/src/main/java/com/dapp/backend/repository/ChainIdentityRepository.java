@@ -0,0 +1,20 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.model.ChainIdentity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChainIdentityRepository extends JpaRepository<ChainIdentity, Long> {
+
+    Optional<ChainIdentity> findByIdentityHashIgnoreCase(String identityHash);
+
+    @Modifying
+    @Query("DELETE FROM ChainIdentity i WHERE i.createdBlock > :block")
+    int deleteCreatedAfter(@Param("block") Long block);
+}
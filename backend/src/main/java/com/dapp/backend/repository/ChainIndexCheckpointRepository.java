@@ -0,0 +1,19 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.model.ChainIndexCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChainIndexCheckpointRepository extends JpaRepository<ChainIndexCheckpoint, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ChainIndexCheckpoint c WHERE c.id = :id")
+    Optional<ChainIndexCheckpoint> lockById(@Param("id") Long id);
+}
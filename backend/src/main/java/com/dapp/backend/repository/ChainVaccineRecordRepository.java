@@ -0,0 +1,29 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.model.ChainVaccineRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChainVaccineRecordRepository extends JpaRepository<ChainVaccineRecord, Long> {
+
+    Optional<ChainVaccineRecord> findByChainRecordId(Long chainRecordId);
+
+    List<ChainVaccineRecord> findByIdentityHashIgnoreCaseOrderByChainRecordId(String identityHash);
+
+    // Reorg rollback: forget everything created above the new checkpoint...
+    @Modifying
+    @Query("DELETE FROM ChainVaccineRecord r WHERE r.createdBlock > :block")
+    int deleteCreatedAfter(@Param("block") Long block);
+
+    // ...and the IPFS hash of records whose last update is above it
+    @Modifying
+    @Query("UPDATE ChainVaccineRecord r SET r.ipfsHash = NULL, r.ipfsBlock = NULL WHERE r.ipfsBlock > :block")
+    int clearIpfsUpdatedAfter(@Param("block") Long block);
+}
@@ -0,0 +1,25 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Rows are locked until the claiming transaction commits; SKIP LOCKED lets several relays poll at once.
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+               OR (status = 'SENDING' AND locked_until < :now)
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
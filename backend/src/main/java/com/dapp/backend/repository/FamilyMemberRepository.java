@@ -1,11 +1,18 @@
 package com.dapp.backend.repository;
 
+import com.dapp.backend.dto.blockchain.DidIdentityRow;
+import com.dapp.backend.dto.blockchain.IdentityBackfillRow;
 import com.dapp.backend.model.FamilyMember;
 import com.dapp.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface FamilyMemberRepository extends JpaRepository<FamilyMember, Long>, JpaSpecificationExecutor<FamilyMember> {
     List<FamilyMember> findByUser(User user);
@@ -13,4 +20,34 @@ public interface FamilyMemberRepository extends JpaRepository<FamilyMember, Long
     List<FamilyMember> findByUserId(Long userId);
     
     boolean existsByIdentityNumber(String identityNumber);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE FamilyMember m SET m.ipfsDataHash = :ipfsDataHash WHERE m.id = :id")
+    int updateIpfsDataHash(@Param("id") Long id, @Param("ipfsDataHash") String ipfsDataHash);
+
+    // Keyset page of family member identity inputs, with the guardian's, for the identity backfill
+    @Query("""
+            SELECT new com.dapp.backend.dto.blockchain.IdentityBackfillRow(
+                m.id, m.fullName, m.dateOfBirth, m.identityNumber, m.blockchainIdentityHash, m.did, m.ipfsDataHash,
+                u.fullName, u.birthday, p.identityNumber)
+            FROM FamilyMember m
+            LEFT JOIN m.user u
+            LEFT JOIN u.patientProfile p
+            WHERE m.id > :afterId
+            ORDER BY m.id
+            """)
+    List<IdentityBackfillRow> findIdentityBackfillPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE FamilyMember m SET m.blockchainIdentityHash = :identityHash, m.did = :did WHERE m.id = :id")
+    int updateIdentity(@Param("id") Long id, @Param("identityHash") String identityHash, @Param("did") String did);
+
+    @Query("""
+            SELECT new com.dapp.backend.dto.blockchain.DidIdentityRow(
+                m.did, m.blockchainIdentityHash, m.ipfsDataHash, u.did)
+            FROM FamilyMember m
+            LEFT JOIN m.user u
+            WHERE m.did = :did
+            """)
+    Optional<DidIdentityRow> findDidIdentity(@Param("did") String did);
+}
@@ -0,0 +1,25 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.model.IdentityBackfillRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdentityBackfillRunRepository extends JpaRepository<IdentityBackfillRun, Long> {
+
+    Optional<IdentityBackfillRun> findFirstByOrderByIdDesc();
+
+    // Lease on a run; 0 rows means another node holds it
+    @Modifying
+    @Query("""
+            UPDATE IdentityBackfillRun r SET r.lockedUntil = :until
+            WHERE r.id = :id AND (r.lockedUntil IS NULL OR r.lockedUntil < :now)
+            """)
+    int tryLock(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,37 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.enums.IdentityOwnerType;
+import com.dapp.backend.enums.ProvisioningStatus;
+import com.dapp.backend.model.IdentityProvisioningJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IdentityProvisioningJobRepository extends JpaRepository<IdentityProvisioningJob, Long> {
+
+    Optional<IdentityProvisioningJob> findByOwnerTypeAndOwnerId(IdentityOwnerType ownerType, Long ownerId);
+
+    List<IdentityProvisioningJob> findByOwnerTypeAndOwnerIdIn(IdentityOwnerType ownerType, Collection<Long> ownerIds);
+
+    long countByStatusIn(Collection<ProvisioningStatus> statuses);
+
+    // Due jobs not owned by a live worker. SKIP LOCKED lets several nodes poll at once.
+    @Query(value = """
+            SELECT * FROM identity_provisioning_jobs
+            WHERE status IN (:statuses)
+            AND next_attempt_at <= :now
+            AND (locked_until IS NULL OR locked_until < :now)
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<IdentityProvisioningJob> lockDue(@Param("statuses") Collection<String> statuses,
+            @Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,13 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.model.IpfsContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IpfsContentRepository extends JpaRepository<IpfsContent, Long> {
+
+    Optional<IpfsContent> findByContentHash(String contentHash);
+}
@@ -6,12 +6,30 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     @Query("SELECT p FROM Payment p WHERE p.referenceId = :appointmentId AND p.referenceType = :referenceType")
     Optional<Payment> findByAppointmentId(@Param("appointmentId") Long appointmentId, @Param("referenceType") TypeTransactionEnum referenceType);
-}
 
+    @Query("SELECT p FROM Payment p WHERE p.referenceId IN :referenceIds AND p.referenceType = :referenceType")
+    List<Payment> findByReferenceIds(@Param("referenceIds") Collection<Long> referenceIds,
+            @Param("referenceType") TypeTransactionEnum referenceType);
 
+    // One query for a whole page; keeps the most recent payment when a reference has several.
+    default Map<Long, Payment> findMapByReferenceIds(Collection<Long> referenceIds,
+            TypeTransactionEnum referenceType) {
+        if (referenceIds == null || referenceIds.isEmpty()) {
+            return Map.of();
+        }
+        BinaryOperator<Payment> latest = (a, b) -> a.getId() >= b.getId() ? a : b;
+        return findByReferenceIds(referenceIds, referenceType).stream()
+                .collect(Collectors.toMap(Payment::getReferenceId, p -> p, latest));
+    }
+}
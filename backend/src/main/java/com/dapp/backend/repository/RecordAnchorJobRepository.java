@@ -0,0 +1,46 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.enums.AnchorStatus;
+import com.dapp.backend.model.RecordAnchorJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecordAnchorJobRepository extends JpaRepository<RecordAnchorJob, Long> {
+
+    Optional<RecordAnchorJob> findByVaccineRecordId(Long vaccineRecordId);
+
+    // Due jobs not owned by a live worker. SKIP LOCKED lets several nodes poll at once.
+    @Query(value = """
+            SELECT * FROM record_anchor_jobs
+            WHERE status IN (:statuses)
+            AND next_attempt_at <= :now
+            AND (locked_until IS NULL OR locked_until < :now)
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<RecordAnchorJob> lockDue(@Param("statuses") Collection<String> statuses, @Param("now") LocalDateTime now,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE RecordAnchorJob j SET j.chainSubmittedAt = :submittedAt WHERE j.id = :id")
+    int markChainSubmitted(@Param("id") Long id, @Param("submittedAt") LocalDateTime submittedAt);
+
+    @Query("SELECT j.status, COUNT(j) FROM RecordAnchorJob j GROUP BY j.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT MIN(j.createdAt) FROM RecordAnchorJob j WHERE j.status IN :statuses")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") Collection<AnchorStatus> statuses);
+
+    List<RecordAnchorJob> findByStatusOrderByUpdatedAtDesc(AnchorStatus status, Pageable pageable);
+}
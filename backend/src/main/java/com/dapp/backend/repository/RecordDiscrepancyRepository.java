@@ -0,0 +1,14 @@
+package com.dapp.backend.repository;
+
+import com.dapp.backend.model.RecordDiscrepancy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RecordDiscrepancyRepository extends JpaRepository<RecordDiscrepancy, Long> {
+
+    List<RecordDiscrepancy> findByRunIdOrderByIdDesc(Long runId, Pageable pageable);
+}
@@ -1,6 +1,9 @@
 package com.dapp.backend.repository;
 
+import com.dapp.backend.dto.blockchain.DidIdentityRow;
+import com.dapp.backend.dto.blockchain.IdentityBackfillRow;
 import com.dapp.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -8,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
@@ -25,4 +29,30 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     long countByRole_Name(String roleName);
 
     Optional<User> findByResetPasswordToken(String resetPasswordToken);
+
+    @Modifying
+    @Query("UPDATE User u SET u.ipfsDataHash = :ipfsDataHash WHERE u.id = :id")
+    int updateIpfsDataHash(@Param("id") Long id, @Param("ipfsDataHash") String ipfsDataHash);
+
+    // Keyset page of patient identity inputs for the identity backfill
+    @Query("""
+            SELECT new com.dapp.backend.dto.blockchain.IdentityBackfillRow(
+                u.id, u.fullName, u.birthday, p.identityNumber, u.blockchainIdentityHash, u.did, u.ipfsDataHash)
+            FROM User u
+            LEFT JOIN u.patientProfile p
+            WHERE u.id > :afterId AND u.role.name = 'PATIENT'
+            ORDER BY u.id
+            """)
+    List<IdentityBackfillRow> findIdentityBackfillPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE User u SET u.blockchainIdentityHash = :identityHash, u.did = :did WHERE u.id = :id")
+    int updateIdentity(@Param("id") Long id, @Param("identityHash") String identityHash, @Param("did") String did);
+
+    @Query("""
+            SELECT new com.dapp.backend.dto.blockchain.DidIdentityRow(u.did, u.blockchainIdentityHash, u.ipfsDataHash)
+            FROM User u
+            WHERE u.did = :did
+            """)
+    Optional<DidIdentityRow> findDidIdentity(@Param("did") String did);
 }
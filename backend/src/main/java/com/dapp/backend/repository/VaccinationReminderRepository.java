@@ -5,6 +5,7 @@ import com.dapp.backend.enums.ReminderStatus;
 import com.dapp.backend.enums.ReminderType;
 import com.dapp.backend.model.VaccinationReminder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -78,4 +79,68 @@ public interface VaccinationReminderRepository extends JpaRepository<Vaccination
         List<Object[]> getReminderStatistics(
                         @Param("startDate") LocalDate startDate,
                         @Param("endDate") LocalDate endDate);
+
+        // Chunk claims for ReminderDispatcher. Rows stay locked until the claiming transaction commits and
+        // leased until locked_until, so several nodes can dispatch at once and a dead node's chunk is
+        // claimed again once its lease passes.
+        @Query(value = """
+                        SELECT r.* FROM vaccination_reminders r
+                        JOIN appointments a ON a.id = r.appointment_id
+                        WHERE r.status = 'PENDING'
+                        AND r.scheduled_date = :today
+                        AND a.status IN ('SCHEDULED', 'CONFIRMED')
+                        AND (r.locked_until IS NULL OR r.locked_until < :now)
+                        ORDER BY r.id
+                        LIMIT :limit
+                        FOR UPDATE OF r SKIP LOCKED
+                        """, nativeQuery = true)
+        List<VaccinationReminder> lockDueAppointmentReminders(
+                        @Param("today") LocalDate today,
+                        @Param("now") LocalDateTime now,
+                        @Param("limit") int limit);
+
+        @Query(value = """
+                        SELECT * FROM vaccination_reminders
+                        WHERE status = 'PENDING'
+                        AND reminder_type = 'NEXT_DOSE_REMINDER'
+                        AND scheduled_date = :today
+                        AND (locked_until IS NULL OR locked_until < :now)
+                        ORDER BY id
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED
+                        """, nativeQuery = true)
+        List<VaccinationReminder> lockDueNextDoseReminders(
+                        @Param("today") LocalDate today,
+                        @Param("now") LocalDateTime now,
+                        @Param("limit") int limit);
+
+        @Query(value = """
+                        SELECT * FROM vaccination_reminders
+                        WHERE status = 'FAILED'
+                        AND appointment_id IS NOT NULL
+                        AND next_retry_at <= :now
+                        AND retry_count < 3
+                        AND (locked_until IS NULL OR locked_until < :now)
+                        ORDER BY id
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED
+                        """, nativeQuery = true)
+        List<VaccinationReminder> lockFailedForRetry(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+        // Chunk checkpoint: writes only the send outcome, so a reminder cancelled mid-chunk is not recreated
+        @Modifying
+        @Query("""
+                        UPDATE VaccinationReminder vr
+                        SET vr.status = :status, vr.sentAt = :sentAt, vr.errorMessage = :errorMessage,
+                            vr.retryCount = :retryCount, vr.nextRetryAt = :nextRetryAt, vr.lockedUntil = :lockedUntil
+                        WHERE vr.id = :id
+                        """)
+        int recordOutcome(
+                        @Param("id") Long id,
+                        @Param("status") ReminderStatus status,
+                        @Param("sentAt") LocalDateTime sentAt,
+                        @Param("errorMessage") String errorMessage,
+                        @Param("retryCount") Integer retryCount,
+                        @Param("nextRetryAt") LocalDateTime nextRetryAt,
+                        @Param("lockedUntil") LocalDateTime lockedUntil);
 }
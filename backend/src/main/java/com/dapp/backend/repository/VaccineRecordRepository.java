@@ -1,11 +1,19 @@
 package com.dapp.backend.repository;
 
+import com.dapp.backend.dto.blockchain.RecordCertificateClaims;
+import com.dapp.backend.dto.blockchain.RecordChainState;
+import com.dapp.backend.model.AnchorBatch;
 import com.dapp.backend.model.VaccineRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +45,47 @@ public interface VaccineRecordRepository extends JpaRepository<VaccineRecord, Lo
             @Param("userId") Long userId,
             @Param("familyMemberId") Long familyMemberId);
 
+    // Keyset pages of a vaccination history, newest first. The "After" variants seek past the
+    // (vaccinationDate, id) of the last row already returned.
+    @Query("""
+            SELECT vr FROM VaccineRecord vr
+            WHERE vr.user.id = :userId
+            ORDER BY vr.vaccinationDate DESC, vr.id DESC
+            """)
+    List<VaccineRecord> findUserHistoryPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            SELECT vr FROM VaccineRecord vr
+            WHERE vr.user.id = :userId
+            AND (vr.vaccinationDate < :afterDate OR (vr.vaccinationDate = :afterDate AND vr.id < :afterId))
+            ORDER BY vr.vaccinationDate DESC, vr.id DESC
+            """)
+    List<VaccineRecord> findUserHistoryPageAfter(
+            @Param("userId") Long userId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("""
+            SELECT vr FROM VaccineRecord vr
+            WHERE vr.familyMember.id = :familyMemberId
+            ORDER BY vr.vaccinationDate DESC, vr.id DESC
+            """)
+    List<VaccineRecord> findFamilyMemberHistoryPage(@Param("familyMemberId") Long familyMemberId,
+            Pageable pageable);
+
+    @Query("""
+            SELECT vr FROM VaccineRecord vr
+            WHERE vr.familyMember.id = :familyMemberId
+            AND (vr.vaccinationDate < :afterDate OR (vr.vaccinationDate = :afterDate AND vr.id < :afterId))
+            ORDER BY vr.vaccinationDate DESC, vr.id DESC
+            """)
+    List<VaccineRecord> findFamilyMemberHistoryPageAfter(
+            @Param("familyMemberId") Long familyMemberId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
     long countByUserId(Long userId);
 
     long countByFamilyMemberId(Long familyMemberId);
@@ -54,4 +103,91 @@ public interface VaccineRecordRepository extends JpaRepository<VaccineRecord, Lo
     List<VaccineRecord> findByCenter_CenterIdOrderByVaccinationDateDesc(Long centerId);
 
     Optional<VaccineRecord> findByIpfsHash(String ipfsHash);
+
+    // Bulk verification: one round trip for every hash in the request, with the associations the
+    // response needs fetched in the same query instead of one select per record
+    @Query("""
+            SELECT DISTINCT vr FROM VaccineRecord vr
+            LEFT JOIN FETCH vr.vaccine
+            LEFT JOIN FETCH vr.doctor
+            LEFT JOIN FETCH vr.center
+            LEFT JOIN FETCH vr.anchorBatch
+            LEFT JOIN FETCH vr.user
+            LEFT JOIN FETCH vr.familyMember
+            LEFT JOIN FETCH vr.appointment
+            WHERE vr.ipfsHash IN :ipfsHashes
+            """)
+    List<VaccineRecord> findAllByIpfsHashIn(@Param("ipfsHashes") Collection<String> ipfsHashes);
+
+    // Keyset page for the reconciliation job: anchoring columns only, plus the record's queue state
+    @Query("""
+            SELECT new com.dapp.backend.dto.blockchain.RecordChainState(
+                vr.id, vr.ipfsHash, vr.blockchainRecordId, vr.contentHash, vr.merkleProof, b.merkleRoot, j.status)
+            FROM VaccineRecord vr
+            LEFT JOIN vr.anchorBatch b
+            LEFT JOIN RecordAnchorJob j ON j.vaccineRecordId = vr.id
+            WHERE vr.id > :afterId
+            ORDER BY vr.id
+            """)
+    List<RecordChainState> findChainStatePage(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Targeted updates for the anchoring workers, so a late anchor never overwrites clinical edits
+    @Modifying
+    @Query("UPDATE VaccineRecord vr SET vr.ipfsHash = :ipfsHash, vr.contentHash = :contentHash WHERE vr.id = :id")
+    int updateIpfsContent(@Param("id") Long id, @Param("ipfsHash") String ipfsHash,
+            @Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("""
+            UPDATE VaccineRecord vr
+            SET vr.blockchainRecordId = :blockchainRecordId, vr.transactionHash = :transactionHash,
+                vr.blockNumber = :blockNumber
+            WHERE vr.id = :id
+            """)
+    int updateChainAnchor(
+            @Param("id") Long id,
+            @Param("blockchainRecordId") String blockchainRecordId,
+            @Param("transactionHash") String transactionHash,
+            @Param("blockNumber") Long blockNumber);
+
+    @Modifying
+    @Query("""
+            UPDATE VaccineRecord vr
+            SET vr.anchorBatch = :batch, vr.merkleProof = :merkleProof, vr.blockNumber = :blockNumber
+            WHERE vr.id = :id
+            """)
+    int updateBatchAnchor(
+            @Param("id") Long id,
+            @Param("batch") AnchorBatch batch,
+            @Param("merkleProof") String merkleProof,
+            @Param("blockNumber") Long blockNumber);
+
+    @Modifying
+    @Query("""
+            UPDATE VaccineRecord vr SET vr.certificate = :certificate, vr.certificateIssuedAt = :issuedAt
+            WHERE vr.id = :id
+            """)
+    int updateCertificate(@Param("id") Long id, @Param("certificate") String certificate,
+            @Param("issuedAt") LocalDateTime issuedAt);
+
+    @Query("""
+            SELECT new com.dapp.backend.dto.blockchain.RecordCertificateClaims(
+                vr.id, vr.patientIdentityHash, vr.contentHash, vr.ipfsHash, v.name, vr.doseNumber, vr.vaccinationDate,
+                vr.blockchainRecordId, COALESCE(b.transactionHash, vr.transactionHash), vr.blockNumber, b.merkleRoot)
+            FROM VaccineRecord vr
+            JOIN vr.vaccine v
+            LEFT JOIN vr.anchorBatch b
+            WHERE vr.id IN :ids
+            """)
+    List<RecordCertificateClaims> findCertificateClaims(@Param("ids") Collection<Long> ids);
+
+    // Keyset page of anchored records that have no certificate yet, for batch issuance. Every row returned is one
+    // VaccineCertificateService.issue signs, known transaction or not, so the scan never revisits a skipped row.
+    @Query("""
+            SELECT vr.id FROM VaccineRecord vr
+            WHERE vr.id > :afterId AND vr.certificate IS NULL
+                AND (vr.blockchainRecordId IS NOT NULL OR vr.anchorBatch IS NOT NULL)
+            ORDER BY vr.id
+            """)
+    List<Long> findUncertifiedAnchoredIds(@Param("afterId") Long afterId, Pageable pageable);
 }
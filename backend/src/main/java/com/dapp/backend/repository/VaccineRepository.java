@@ -3,7 +3,9 @@ package com.dapp.backend.repository;
 import com.dapp.backend.model.Vaccine;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +15,12 @@ public interface VaccineRepository extends JpaRepository<Vaccine, Long>, JpaSpec
     Optional<Vaccine> findBySlug(String slug);
     @Query("SELECT DISTINCT country FROM Vaccine")
     List<String> findDistinctCountries();
+
+    @Modifying
+    @Query("UPDATE Vaccine v SET v.stock = v.stock - :quantity WHERE v.id = :id AND v.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Vaccine v SET v.stock = v.stock + :quantity WHERE v.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -0,0 +1,40 @@
+package com.dapp.backend.scheduler;
+
+import com.dapp.backend.service.VaccineCertificateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Issues at most max-pages-per-tick pages within tick-budget-ms, then yields the shared scheduler thread;
+// each page signs up to page-size certificates on this thread
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CertificateIssuanceRelay {
+
+    private final VaccineCertificateService vaccineCertificateService;
+
+    @Value("${scheduling.relay.tick-budget-ms:2000}")
+    private long tickBudgetMs;
+
+    @Value("${certificate.batch.max-pages-per-tick:4}")
+    private int maxPagesPerTick;
+
+    @Scheduled(fixedDelayString = "${certificate.batch.poll-interval-ms:30000}")
+    public void relay() {
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tickBudgetMs);
+            int scanned;
+            int pages = 0;
+            do {
+                scanned = vaccineCertificateService.issueNextPage();
+            } while (scanned > 0 && ++pages < maxPagesPerTick && System.nanoTime() - deadline < 0);
+        } catch (Exception e) {
+            log.error("Error issuing vaccination certificates", e);
+        }
+    }
+}
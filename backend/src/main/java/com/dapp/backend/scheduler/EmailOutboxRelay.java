@@ -0,0 +1,38 @@
+package com.dapp.backend.scheduler;
+
+import com.dapp.backend.service.EmailOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Drains due work for at most tick-budget-ms per tick, then yields the shared scheduler thread
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxRelay {
+
+    private final EmailOutboxService emailOutboxService;
+
+    @Value("${scheduling.relay.tick-budget-ms:2000}")
+    private long tickBudgetMs;
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void relay() {
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tickBudgetMs);
+            int sent;
+            do {
+                sent = emailOutboxService.relayDue();
+                if (sent > 0) {
+                    log.debug("Relayed {} outbox emails", sent);
+                }
+            } while (sent > 0 && System.nanoTime() - deadline < 0);
+        } catch (Exception e) {
+            log.error("Error in email outbox relay", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.dapp.backend.scheduler;
+
+import com.dapp.backend.service.IdentityProvisioningService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Drains due work for at most tick-budget-ms per tick, then yields the shared scheduler thread
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdentityProvisioningRelay {
+
+    private final IdentityProvisioningService identityProvisioningService;
+
+    @Value("${scheduling.relay.tick-budget-ms:2000}")
+    private long tickBudgetMs;
+
+    @Scheduled(fixedDelayString = "${identity.provisioning.poll-interval-ms:5000}")
+    public void relay() {
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tickBudgetMs);
+            int processed;
+            do {
+                processed = identityProvisioningService.processDue();
+                if (processed > 0) {
+                    log.debug("Processed {} identity provisioning jobs", processed);
+                }
+            } while (processed > 0 && System.nanoTime() - deadline < 0);
+        } catch (Exception e) {
+            log.error("Error in identity provisioning relay", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.dapp.backend.scheduler;
+
+import com.dapp.backend.service.RecordReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// One page per tick: the gap between ticks is what keeps a full scan from crowding out live chain reads
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliationRelay {
+
+    private final RecordReconciliationService recordReconciliationService;
+
+    @Scheduled(fixedDelayString = "${reconciliation.poll-interval-ms:10000}")
+    public void relay() {
+        try {
+            int checked = recordReconciliationService.reconcileNextPage();
+            if (checked > 0) {
+                log.debug("Reconciled {} vaccine records against the chain", checked);
+            }
+        } catch (Exception e) {
+            log.error("Error in vaccine record reconciliation", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.dapp.backend.scheduler;
+
+import com.dapp.backend.service.RecordAnchoringService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Drains due work for at most tick-budget-ms per tick, then yields the shared scheduler thread
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecordAnchorRelay {
+
+    private final RecordAnchoringService recordAnchoringService;
+
+    @Value("${scheduling.relay.tick-budget-ms:2000}")
+    private long tickBudgetMs;
+
+    @Scheduled(fixedDelayString = "${anchoring.poll-interval-ms:5000}")
+    public void relay() {
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tickBudgetMs);
+            int processed;
+            do {
+                processed = recordAnchoringService.processDue();
+                if (processed > 0) {
+                    log.debug("Processed {} vaccine record anchoring jobs", processed);
+                }
+            } while (processed > 0 && System.nanoTime() - deadline < 0);
+        } catch (Exception e) {
+            log.error("Error in vaccine record anchoring relay", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${anchoring.batch.poll-interval-ms:10000}")
+    public void anchorBatches() {
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tickBudgetMs);
+            int anchored;
+            do {
+                anchored = recordAnchoringService.anchorDueBatch();
+                if (anchored > 0) {
+                    log.debug("Anchored Merkle batch of {} vaccine records", anchored);
+                }
+            } while (anchored > 0 && System.nanoTime() - deadline < 0);
+        } catch (Exception e) {
+            log.error("Error in vaccine record batch anchoring", e);
+        }
+    }
+}
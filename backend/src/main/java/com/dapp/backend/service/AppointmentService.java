@@ -2,6 +2,7 @@ package com.dapp.backend.service;
 
 import com.dapp.backend.dto.mapper.AppointmentMapper;
 import com.dapp.backend.dto.mapper.UserMapper;
+import com.dapp.backend.dto.projection.AppointmentSummary;
 import com.dapp.backend.dto.request.BookingRequest;
 import com.dapp.backend.dto.request.CompleteAppointmentRequest;
 import com.dapp.backend.dto.request.NextDoseBookingRequest;
@@ -14,12 +15,14 @@ import com.dapp.backend.exception.AppException;
 import com.dapp.backend.model.*;
 import com.dapp.backend.repository.*;
 import com.dapp.backend.service.spec.AppointmentSpecifications;
+import com.dapp.backend.util.CursorUtils;
 import com.dapp.backend.util.TokenExtractor;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -42,6 +45,8 @@ import static com.dapp.backend.service.PaypalService.EXCHANGE_RATE_TO_USD;
 @Slf4j
 public class AppointmentService {
 
+    private static final int MAX_AVAILABILITY_DAYS = 62;
+
     private final AuthService authService;
     private final AppointmentRepository appointmentRepository;
     private final DoctorRepository doctorRepository;
@@ -51,7 +56,7 @@ public class AppointmentService {
     private final VaccineRecordService vaccineRecordService;
     private final VaccinationReminderService reminderService;
     private final NextDoseReminderService nextDoseReminderService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
     private final PaymentService paymentService;
     private final VaccineRepository vaccineRepository;
     private final CenterRepository centerRepository;
@@ -59,6 +64,8 @@ public class AppointmentService {
     private final UserRepository userRepository;
     private final VaccinationCourseRepository vaccinationCourseRepository;
     private final PatientRepository patientRepository;
+    private final SlotCapacityLedger slotCapacityLedger;
+    private final VaccineStockService vaccineStockService;
 
     public Pagination getAllAppointmentOfCenter(Specification<Appointment> specification, Pageable pageable)
             throws AppException {
@@ -72,7 +79,7 @@ public class AppointmentService {
         Specification<Appointment> centerSpec = AppointmentSpecifications.findByCenter(center.getName());
         specification = Specification.where(specification).and(centerSpec);
 
-        Page<Appointment> page = appointmentRepository.findAll(specification, pageable);
+        Page<AppointmentSummary> page = appointmentRepository.findSummaries(specification, pageable);
         Pagination pagination = new Pagination();
         Pagination.Meta meta = new Pagination.Meta();
         meta.setPage(pageable.getPageNumber() + 1);
@@ -81,23 +88,7 @@ public class AppointmentService {
         meta.setTotal(page.getTotalElements());
 
         pagination.setMeta(meta);
-        List<Appointment> list = page.getContent();
-        List<AppointmentResponse> result = list.stream()
-                .map(apt -> {
-                    AppointmentResponse response = AppointmentMapper.toResponse(apt);
-
-                    paymentRepository.findByAppointmentId(apt.getId(), TypeTransactionEnum.APPOINTMENT)
-                            .ifPresent(payment -> {
-                                response.setPaymentId(payment.getId());
-                                response.setPaymentStatus(
-                                        payment.getStatus() != null ? payment.getStatus().name() : null);
-                                response.setPaymentMethod(
-                                        payment.getMethod() != null ? payment.getMethod().name() : null);
-                                response.setPaymentAmount(payment.getAmount());
-                            });
-                    return response;
-                })
-                .toList();
+        List<AppointmentResponse> result = summariesToResponses(page.getContent());
         pagination.setResult(result);
         return pagination;
     }
@@ -107,7 +98,7 @@ public class AppointmentService {
         User user = authService.getCurrentUserLogin();
         specification = Specification.where(specification)
                 .and(AppointmentSpecifications.findByDoctor(user.getFullName()));
-        Page<Appointment> page = appointmentRepository.findAll(specification, pageable);
+        Page<AppointmentSummary> page = appointmentRepository.findSummaries(specification, pageable);
         Pagination pagination = new Pagination();
         Pagination.Meta meta = new Pagination.Meta();
         meta.setPage(pageable.getPageNumber() + 1);
@@ -115,29 +106,13 @@ public class AppointmentService {
         meta.setPages(page.getTotalPages());
         meta.setTotal(page.getTotalElements());
         pagination.setMeta(meta);
-        List<Appointment> list = page.getContent();
-        List<AppointmentResponse> result = list.stream()
-                .map(apt -> {
-                    AppointmentResponse response = AppointmentMapper.toResponse(apt);
-
-                    paymentRepository.findByAppointmentId(apt.getId(), TypeTransactionEnum.APPOINTMENT)
-                            .ifPresent(payment -> {
-                                response.setPaymentId(payment.getId());
-                                response.setPaymentStatus(
-                                        payment.getStatus() != null ? payment.getStatus().name() : null);
-                                response.setPaymentMethod(
-                                        payment.getMethod() != null ? payment.getMethod().name() : null);
-                                response.setPaymentAmount(payment.getAmount());
-                            });
-                    return response;
-                })
-                .toList();
+        List<AppointmentResponse> result = summariesToResponses(page.getContent());
         pagination.setResult(result);
         return pagination;
     }
 
     public Pagination getAllAppointments(Specification<Appointment> specification, Pageable pageable) {
-        Page<Appointment> page = appointmentRepository.findAll(specification, pageable);
+        Page<AppointmentSummary> page = appointmentRepository.findSummaries(specification, pageable);
         Pagination pagination = new Pagination();
         Pagination.Meta meta = new Pagination.Meta();
         meta.setPage(pageable.getPageNumber() + 1);
@@ -146,27 +121,45 @@ public class AppointmentService {
         meta.setTotal(page.getTotalElements());
 
         pagination.setMeta(meta);
-        List<Appointment> list = page.getContent();
-        List<AppointmentResponse> result = list.stream()
-                .map(apt -> {
-                    AppointmentResponse response = AppointmentMapper.toResponse(apt);
-
-                    paymentRepository.findByAppointmentId(apt.getId(), TypeTransactionEnum.APPOINTMENT)
-                            .ifPresent(payment -> {
-                                response.setPaymentId(payment.getId());
-                                response.setPaymentStatus(
-                                        payment.getStatus() != null ? payment.getStatus().name() : null);
-                                response.setPaymentMethod(
-                                        payment.getMethod() != null ? payment.getMethod().name() : null);
-                                response.setPaymentAmount(payment.getAmount());
-                            });
-                    return response;
-                })
-                .toList();
+        List<AppointmentResponse> result = summariesToResponses(page.getContent());
         pagination.setResult(result);
         return pagination;
     }
 
+    // Keyset mode of getAllAppointments: seeks past the last id instead of skipping rows, and only
+    // counts when asked to.
+    public Pagination getAllAppointmentsByCursor(Specification<Appointment> specification, String cursor,
+            int pageSize, boolean withCount) throws AppException {
+        Specification<Appointment> seek = specification;
+        if (!CursorUtils.isFirstPage(cursor)) {
+            Long afterId = CursorUtils.decodeId(cursor);
+            seek = Specification.where(specification)
+                    .and((root, query, cb) -> cb.lessThan(root.get("id"), afterId));
+        }
+
+        List<AppointmentSummary> rows = appointmentRepository.findSummaries(seek,
+                Sort.by(Sort.Direction.DESC, "id"), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        Pagination pagination = new Pagination();
+        Pagination.Meta meta = new Pagination.Meta();
+        meta.setPageSize(pageSize);
+        meta.setHasNext(hasNext);
+        if (hasNext) {
+            meta.setNextCursor(CursorUtils.encode(rows.get(rows.size() - 1).getId()));
+        }
+        if (withCount) {
+            meta.setTotal(appointmentRepository.count(specification));
+        }
+
+        pagination.setMeta(meta);
+        pagination.setResult(summariesToResponses(rows));
+        return pagination;
+    }
+
     public AppointmentResponse getAppointmentById(long id) throws AppException {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new AppException("Appointment not found"));
@@ -184,6 +177,7 @@ public class AppointmentService {
         return response;
     }
 
+    @Transactional(rollbackFor = Exception.class)
     public AppointmentResponse updateScheduledAppointment(HttpServletRequest request,
             ProcessAppointmentRequest processAppointmentRequest) throws Exception {
         User cashier = authService.getCurrentUserLogin();
@@ -257,13 +251,14 @@ public class AppointmentService {
         }
 
         if (appointment.getStatus() == AppointmentStatus.RESCHEDULE) {
+            slotCapacityLedger.release(appointment);
             if (appointment.getDesiredDate() != null) {
                 appointment.setScheduledDate(appointment.getDesiredDate());
             }
             if (appointment.getDesiredTimeSlot() != null) {
                 appointment.setScheduledTimeSlot(appointment.getDesiredTimeSlot());
             }
-
+            slotCapacityLedger.occupy(appointment);
         }
 
         if (processAppointmentRequest.getActualScheduledTime() != null) {
@@ -298,7 +293,7 @@ public class AppointmentService {
 
                 String timeSlotString = slot.getStartTime() + " - " + slot.getEndTime();
 
-                emailService.sendAppointmentScheduled(
+                emailOutboxService.enqueueAppointmentScheduled(
                         patient.getEmail(),
                         patient.getFullName(),
                         savedAppointment.getVaccine().getName(),
@@ -432,11 +427,14 @@ public class AppointmentService {
                 && appointment.getStatus() != AppointmentStatus.COMPLETED) {
             Vaccine vaccine = appointment.getVaccine();
             if (vaccine != null) {
-                vaccine.setStock(vaccine.getStock() + 1);
-                vaccineRepository.save(vaccine);
+                vaccineStockService.release(vaccine.getId(), 1);
             }
         }
 
+        if (appointment.getStatus() != AppointmentStatus.CANCELLED) {
+            slotCapacityLedger.release(appointment);
+        }
+
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appointment);
 
@@ -450,7 +448,7 @@ public class AppointmentService {
         try {
             User patient = appointment.getPatient();
             if (patient != null && patient.getEmail() != null) {
-                emailService.sendAppointmentCancellation(
+                emailOutboxService.enqueueAppointmentCancellation(
                         patient.getEmail(),
                         patient.getFullName(),
                         appointment.getVaccine().getName(),
@@ -695,6 +693,8 @@ public class AppointmentService {
                 // Auto-cancel stale pending appointment
                 apt.setStatus(AppointmentStatus.CANCELLED);
                 appointmentRepository.save(apt);
+                slotCapacityLedger.release(apt);
+                vaccineStockService.release(apt.getVaccine().getId(), 1);
 
                 if (apt.getSlot() != null) {
                     DoctorAvailableSlot slot = apt.getSlot();
@@ -706,11 +706,9 @@ public class AppointmentService {
             }
         }
 
-        if (vaccine.getStock() < 1) {
+        if (!vaccineStockService.tryReserve(vaccine.getId(), 1)) {
             throw new AppException("Vaccine is out of stock!");
         }
-        vaccine.setStock(vaccine.getStock() - 1);
-        vaccineRepository.save(vaccine);
 
         Center center = null;
         if (bookingRequest.getAppointmentCenter() != null) {
@@ -719,19 +717,8 @@ public class AppointmentService {
 
             if (bookingRequest.getAppointmentDate() != null && bookingRequest.getAppointmentTime() != null) {
                 TimeSlotEnum requestedSlot = TimeSlotEnum.fromTime(bookingRequest.getAppointmentTime());
-                int slotCapacity = center.getCapacity() > 0 ? center.getCapacity() / 6 : 50;
-
-                List<Object[]> bookedCounts = appointmentRepository.countAppointmentsBySlot(center.getCenterId(),
-                        bookingRequest.getAppointmentDate());
-                int booked = 0;
-                for (Object[] row : bookedCounts) {
-                    if (row[0] == requestedSlot) {
-                        booked = ((Long) row[1]).intValue();
-                        break;
-                    }
-                }
-
-                if (booked >= slotCapacity) {
+                if (!slotCapacityLedger.tryReserve(center.getCenterId(), bookingRequest.getAppointmentDate(),
+                        requestedSlot, SlotCapacityLedger.slotCapacity(center))) {
                     throw new AppException("Selected time slot is full. Please choose another time.");
                 }
             }
@@ -809,7 +796,7 @@ public class AppointmentService {
                         String timeSlot = bookingRequest.getAppointmentTime() != null
                                 ? bookingRequest.getAppointmentTime().toString()
                                 : "Chưa xác định";
-                        emailService.sendAppointmentConfirmation(
+                        emailOutboxService.enqueueAppointmentConfirmation(
                                 user.getEmail(),
                                 user.getFullName(),
                                 vaccine.getName(),
@@ -833,11 +820,9 @@ public class AppointmentService {
         Vaccine vaccine = vaccineRepository.findById(bookingRequest.getVaccineId())
                 .orElseThrow(() -> new AppException("Vaccine not found!"));
 
-        if (vaccine.getStock() < 1) {
+        if (!vaccineStockService.tryReserve(vaccine.getId(), 1)) {
             throw new AppException("Vaccine is out of stock!");
         }
-        vaccine.setStock(vaccine.getStock() - 1);
-        vaccineRepository.save(vaccine);
 
         Center center = null;
         if (bookingRequest.getAppointmentCenter() != null) {
@@ -846,19 +831,8 @@ public class AppointmentService {
 
             if (bookingRequest.getAppointmentDate() != null && bookingRequest.getAppointmentTime() != null) {
                 TimeSlotEnum requestedSlot = TimeSlotEnum.fromTime(bookingRequest.getAppointmentTime());
-                int slotCapacity = center.getCapacity() > 0 ? center.getCapacity() / 6 : 50;
-
-                List<Object[]> bookedCounts = appointmentRepository.countAppointmentsBySlot(center.getCenterId(),
-                        bookingRequest.getAppointmentDate());
-                int booked = 0;
-                for (Object[] row : bookedCounts) {
-                    if (row[0] == requestedSlot) {
-                        booked = ((Long) row[1]).intValue();
-                        break;
-                    }
-                }
-
-                if (booked >= slotCapacity) {
+                if (!slotCapacityLedger.tryReserve(center.getCenterId(), bookingRequest.getAppointmentDate(),
+                        requestedSlot, SlotCapacityLedger.slotCapacity(center))) {
                     throw new AppException("Selected time slot is full. Please choose another time.");
                 }
             }
@@ -944,7 +918,7 @@ public class AppointmentService {
                         String timeSlot = bookingRequest.getAppointmentTime() != null
                                 ? bookingRequest.getAppointmentTime().toString()
                                 : "Chưa xác định";
-                        emailService.sendAppointmentConfirmation(
+                        emailOutboxService.enqueueAppointmentConfirmation(
                                 user.getEmail(),
                                 user.getFullName(),
                                 vaccine.getName(),
@@ -972,11 +946,9 @@ public class AppointmentService {
         Vaccine vaccine = vaccineRepository.findById(request.getVaccineId())
                 .orElseThrow(() -> new AppException("Vaccine not found!"));
 
-        if (vaccine.getStock() < 1) {
+        if (!vaccineStockService.tryReserve(vaccine.getId(), 1)) {
             throw new AppException("Vaccine is out of stock!");
         }
-        vaccine.setStock(vaccine.getStock() - 1);
-        vaccineRepository.save(vaccine);
 
         Center center = centerRepository.findById(request.getCenterId())
                 .orElseThrow(() -> new AppException("Center not found!"));
@@ -1058,6 +1030,7 @@ public class AppointmentService {
         slotRepository.save(slot);
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        slotCapacityLedger.occupy(savedAppointment);
 
         Payment payment = new Payment();
         payment.setReferenceId(savedAppointment.getId());
@@ -1070,7 +1043,7 @@ public class AppointmentService {
 
         try {
             if (patient.getEmail() != null && !patient.getEmail().isEmpty()) {
-                emailService.sendAppointmentScheduled(
+                emailOutboxService.enqueueAppointmentScheduled(
                         patient.getEmail(),
                         patient.getFullName(),
                         vaccine.getName(),
@@ -1100,15 +1073,14 @@ public class AppointmentService {
         List<Appointment> appointments = appointmentRepository
                 .findByPatientAndStatusIn(user,
                         List.of(AppointmentStatus.PENDING, AppointmentStatus.SCHEDULED, AppointmentStatus.RESCHEDULE));
+        Map<Long, Payment> payments = findPayments(appointments);
 
         return appointments.stream()
                 .filter(apt -> {
                     // Filter out stale PENDING online payments
                     if (apt.getStatus() == AppointmentStatus.PENDING) {
-                        var paymentOpt = paymentRepository.findByAppointmentId(apt.getId(),
-                                TypeTransactionEnum.APPOINTMENT);
-                        if (paymentOpt.isPresent()) {
-                            Payment p = paymentOpt.get();
+                        Payment p = payments.get(apt.getId());
+                        if (p != null) {
                             // If online payment (not CASH)
                             if (p.getMethod() != PaymentMethod.CASH && p.getStatus() != PaymentEnum.SUCCESS) {
                                 // If created > 30 mins ago, hide it (consider it abandoned)
@@ -1123,15 +1095,7 @@ public class AppointmentService {
                 })
                 .map(apt -> {
                     AppointmentResponse response = AppointmentMapper.toResponse(apt);
-                    paymentRepository.findByAppointmentId(apt.getId(), TypeTransactionEnum.APPOINTMENT)
-                            .ifPresent(payment -> {
-                                response.setPaymentId(payment.getId());
-                                response.setPaymentStatus(
-                                        payment.getStatus() != null ? payment.getStatus().name() : null);
-                                response.setPaymentMethod(
-                                        payment.getMethod() != null ? payment.getMethod().name() : null);
-                                response.setPaymentAmount(payment.getAmount());
-                            });
+                    AppointmentMapper.mapPaymentToResponse(response, payments.get(apt.getId()));
                     return response;
                 })
                 .toList();
@@ -1141,20 +1105,14 @@ public class AppointmentService {
         Center center = centerRepository.findById(centerId)
                 .orElseThrow(() -> new AppException("Center not found"));
 
-        int slotCapacity = center.getCapacity() > 0 ? center.getCapacity() / 6 : 50;
+        int slotCapacity = SlotCapacityLedger.slotCapacity(center);
 
-        List<Object[]> bookedCounts = appointmentRepository.countAppointmentsBySlot(centerId, date);
+        int[] bookedCounts = slotCapacityLedger.getBookedCounts(centerId, date);
 
         List<SlotAvailabilityDto> slots = new ArrayList<>();
 
         for (TimeSlotEnum slotEnum : TimeSlotEnum.values()) {
-            int booked = 0;
-            for (Object[] row : bookedCounts) {
-                if (row[0] == slotEnum) {
-                    booked = ((Long) row[1]).intValue();
-                    break;
-                }
-            }
+            int booked = bookedCounts[slotEnum.ordinal()];
 
             int available = Math.max(0, slotCapacity - booked);
 
@@ -1175,6 +1133,44 @@ public class AppointmentService {
                 .build();
     }
 
+    public CenterAvailabilityCalendarResponse checkAvailabilityRange(Long centerId, LocalDate startDate,
+            LocalDate endDate) throws AppException {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new AppException("Invalid date range");
+        }
+        if (!endDate.isBefore(startDate.plusDays(MAX_AVAILABILITY_DAYS))) {
+            throw new AppException("Date range cannot exceed " + MAX_AVAILABILITY_DAYS + " days");
+        }
+
+        Center center = centerRepository.findById(centerId)
+                .orElseThrow(() -> new AppException("Center not found"));
+
+        int slotCapacity = SlotCapacityLedger.slotCapacity(center);
+
+        List<int[]> booked = new ArrayList<>();
+        List<Integer> availableMask = new ArrayList<>();
+        for (int[] counts : slotCapacityLedger.getBookedCounts(centerId, startDate, endDate).values()) {
+            int mask = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] < slotCapacity) {
+                    mask |= 1 << i;
+                }
+            }
+            booked.add(counts);
+            availableMask.add(mask);
+        }
+
+        return CenterAvailabilityCalendarResponse.builder()
+                .centerId(centerId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .slotCapacity(slotCapacity)
+                .slots(List.of(TimeSlotEnum.values()))
+                .booked(booked)
+                .availableMask(availableMask)
+                .build();
+    }
+
     private VaccinationCourse handleVaccinationCourse(User patient, FamilyMember familyMember, Vaccine vaccine,
             LocalDate date) throws AppException {
         java.util.Optional<VaccinationCourse> existingCourseOpt;
@@ -1221,6 +1217,8 @@ public class AppointmentService {
                     // Auto-cancel stale pending appointment
                     apt.setStatus(AppointmentStatus.CANCELLED);
                     appointmentRepository.save(apt);
+                    slotCapacityLedger.release(apt);
+                    vaccineStockService.release(apt.getVaccine().getId(), 1);
 
                     if (apt.getSlot() != null) {
                         DoctorAvailableSlot slot = apt.getSlot();
@@ -1259,7 +1257,7 @@ public class AppointmentService {
 
     public Pagination getAllAppointmentsAsBookings(Specification<Appointment> specification, Pageable pageable)
             throws Exception {
-        Page<Appointment> page = appointmentRepository.findAll(specification, pageable);
+        Page<AppointmentSummary> page = appointmentRepository.findSummaries(specification, pageable);
         Pagination pagination = new Pagination();
         Pagination.Meta meta = new Pagination.Meta();
         meta.setPage(pageable.getPageNumber() + 1);
@@ -1268,9 +1266,7 @@ public class AppointmentService {
         meta.setTotal(page.getTotalElements());
 
         pagination.setMeta(meta);
-        List<Appointment> list = page.getContent();
-
-        List<AppointmentResponse> result = list.stream().map(AppointmentMapper::toResponse).toList();
+        List<AppointmentResponse> result = page.getContent().stream().map(AppointmentMapper::toResponse).toList();
         pagination.setResult(result);
 
         return pagination;
@@ -1278,15 +1274,10 @@ public class AppointmentService {
 
     public List<AppointmentResponse> getHistoryBooking() throws AppException {
         User user = authService.getCurrentUserLogin();
-        return appointmentRepository.findByPatient(user).stream()
+        List<Appointment> appointments = appointmentRepository.findByPatient(user).stream()
                 .filter(apt -> apt.getFamilyMember() == null)
-                .map(apt -> {
-                    AppointmentResponse response = AppointmentMapper.toResponse(apt);
-                    paymentRepository.findByAppointmentId(apt.getId(), TypeTransactionEnum.APPOINTMENT)
-                            .ifPresent(payment -> AppointmentMapper.mapPaymentToResponse(response, payment));
-                    return response;
-                })
                 .toList();
+        return toResponsesWithPayment(appointments);
     }
 
     private List<VaccinationRouteResponse> mapCoursesToRoutes(List<VaccinationCourse> courses) {
@@ -1294,6 +1285,7 @@ public class AppointmentService {
             return new ArrayList<>();
 
         List<Appointment> allAppointments = appointmentRepository.findByVaccinationCourseIn(courses);
+        Map<Long, Payment> payments = findPayments(allAppointments);
 
         // Group appointments by Course ID
         Map<Long, List<Appointment>> appsByCourse = allAppointments.stream()
@@ -1308,8 +1300,7 @@ public class AppointmentService {
 
             List<AppointmentResponse> appResponses = courseApps.stream().map(apt -> {
                 AppointmentResponse res = AppointmentMapper.toResponse(apt);
-                paymentRepository.findByAppointmentId(apt.getId(), TypeTransactionEnum.APPOINTMENT)
-                        .ifPresent(p -> AppointmentMapper.mapPaymentToResponse(res, p));
+                AppointmentMapper.mapPaymentToResponse(res, payments.get(apt.getId()));
                 return res;
             }).toList();
 
@@ -1345,6 +1336,34 @@ public class AppointmentService {
         }).collect(java.util.stream.Collectors.toList());
     }
 
+    private Map<Long, Payment> findPayments(List<Appointment> appointments) {
+        List<Long> ids = appointments.stream().map(Appointment::getId).toList();
+        return paymentRepository.findMapByReferenceIds(ids, TypeTransactionEnum.APPOINTMENT);
+    }
+
+    private List<AppointmentResponse> toResponsesWithPayment(List<Appointment> appointments) {
+        Map<Long, Payment> payments = findPayments(appointments);
+        return appointments.stream()
+                .map(apt -> {
+                    AppointmentResponse response = AppointmentMapper.toResponse(apt);
+                    AppointmentMapper.mapPaymentToResponse(response, payments.get(apt.getId()));
+                    return response;
+                })
+                .toList();
+    }
+
+    private List<AppointmentResponse> summariesToResponses(List<AppointmentSummary> summaries) {
+        List<Long> ids = summaries.stream().map(AppointmentSummary::getId).toList();
+        Map<Long, Payment> payments = paymentRepository.findMapByReferenceIds(ids, TypeTransactionEnum.APPOINTMENT);
+        return summaries.stream()
+                .map(summary -> {
+                    AppointmentResponse response = AppointmentMapper.toResponse(summary);
+                    AppointmentMapper.mapPaymentToResponse(response, payments.get(summary.getId()));
+                    return response;
+                })
+                .toList();
+    }
+
     public List<VaccinationRouteResponse> getGroupedHistoryBooking() throws AppException {
         User user = authService.getCurrentUserLogin();
         List<VaccinationCourse> courses = vaccinationCourseRepository.findByPatientAndFamilyMemberIsNull(user);
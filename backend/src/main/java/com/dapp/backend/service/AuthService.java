@@ -4,8 +4,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import com.dapp.backend.dto.request.*;
+import com.dapp.backend.dto.response.IdentityProvisioningResponse;
 import com.dapp.backend.dto.response.LoginResponse;
 import com.dapp.backend.dto.response.RegisterPatientResponse;
+import com.dapp.backend.enums.IdentityOwnerType;
 import com.dapp.backend.enums.IdentityType;
 import com.dapp.backend.exception.AppException;
 import com.dapp.backend.model.Center;
@@ -25,6 +27,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -37,8 +41,9 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final IdentityService identityService;
-    private final BlockchainService blockchainService;
+    private final IdentityProvisioningService identityProvisioningService;
     private final NotificationLogService notificationLogService;
+    private final TransactionTemplate transactionTemplate;
 
     @org.springframework.beans.factory.annotation.Value("${google.mobile.client-id}")
     private String googleClientId;
@@ -140,11 +145,9 @@ public class AuthService {
         try {
             String identityHash = identityService.generateUserIdentityHash(savedUser);
             String did = identityService.generateDID(identityHash, IdentityType.ADULT);
-            String ipfsDataHash = identityService.generateIdentityDataJson(savedUser);
 
             savedUser.setBlockchainIdentityHash(identityHash);
             savedUser.setDid(did);
-            savedUser.setIpfsDataHash(ipfsDataHash);
 
             savedUser = userRepository.save(savedUser);
 
@@ -246,6 +249,7 @@ public class AuthService {
         return userRepository.findByEmail(email).orElseThrow(() -> new AppException("User not found"));
     }
 
+    @Transactional(rollbackFor = Exception.class)
     public LoginResponse.UserLogin completeProfile(CompleteProfileRequest request) throws AppException {
         User user = getCurrentUserLogin();
 
@@ -283,18 +287,16 @@ public class AuthService {
         return toUserLogin(user);
     }
 
+    // The user and their provisioning job commit together: joins completeProfile's transaction, or opens one
+    // for the login self-heal. Failures propagate so the profile is never saved without its job.
     private void generateAndSyncBlockchainIdentity(User user) {
-        try {
-
+        transactionTemplate.executeWithoutResult(status -> {
             String identityHash = identityService.generateUserIdentityHash(user);
             String did = identityService.generateDID(identityHash, IdentityType.ADULT);
 
             user.setBlockchainIdentityHash(identityHash);
             user.setDid(did);
 
-            String ipfsDataHash = identityService.generateIdentityDataJson(user);
-            user.setIpfsDataHash(ipfsDataHash);
-
             log.info("\n" +
                     "╔═══════════════════════════════════════════════════════════════════╗\n" +
                     "║           🔐 IDENTITY HASH GENERATED                              ║\n" +
@@ -307,33 +309,14 @@ public class AuthService {
 
             userRepository.save(user);
 
-            if (blockchainService.isBlockchainServiceAvailable()) {
-                var response = blockchainService.createIdentity(
-                        identityHash,
-                        did,
-                        IdentityType.ADULT,
-                        ipfsDataHash,
-                        user.getEmail());
-                if (response != null && response.isSuccess()) {
-                    log.info("\n" +
-                            "╔═══════════════════════════════════════════════════════════════════╗\n" +
-                            "║           ⛓️  BLOCKCHAIN IDENTITY CREATED                         ║\n" +
-                            "╠═══════════════════════════════════════════════════════════════════╣\n" +
-                            "║  👤 User: {}\n" +
-                            "║  📜 TxHash: {}\n" +
-                            "║  ✅ Status: SUCCESS\n" +
-                            "╚═══════════════════════════════════════════════════════════════════╝",
-                            user.getEmail(), response.getData().getTransactionHash());
-                } else {
-                    log.warn("Failed to create blockchain identity for user: {} - {}",
-                            user.getEmail(), response != null ? response.getMessage() : "null response");
-                }
-            } else {
-                log.warn("Blockchain service not available, identity saved to database only");
-            }
-        } catch (Exception e) {
-            userRepository.save(user);
-        }
+            // IPFS upload and on-chain creation run in the background
+            identityProvisioningService.enqueue(IdentityOwnerType.USER, user.getId());
+        });
+    }
+
+    public IdentityProvisioningResponse getIdentityStatus() throws AppException {
+        User user = getCurrentUserLogin();
+        return identityProvisioningService.getStatus(IdentityOwnerType.USER, user.getId(), user.getDid());
     }
 
     // Self-healing: Check if user has profile but missing blockchain identity
@@ -357,9 +340,16 @@ public class AuthService {
                     if (user.getBlockchainIdentityHash() == null || user.getBlockchainIdentityHash().isEmpty()) {
                         log.info("Self-healing: Generating missing blockchain identity for user {}", user.getEmail());
                         generateAndSyncBlockchainIdentity(user);
-                        changed = false; // saved inside generateAndSync
-                    } else if (changed) {
-                        userRepository.save(user);
+                    } else {
+                        if (changed) {
+                            userRepository.save(user);
+                        }
+                        // Profiles completed before the queue existed, or whose enqueue was lost, have no job
+                        boolean needsUpload = user.getIpfsDataHash() == null || user.getIpfsDataHash().isEmpty();
+                        if (identityProvisioningService.enqueueIfAbsent(IdentityOwnerType.USER, user.getId(),
+                                needsUpload)) {
+                            log.info("Self-healing: Queued missing identity provisioning for user {}", user.getEmail());
+                        }
                     }
                 }
             }
@@ -0,0 +1,120 @@
+package com.dapp.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Health state of the blockchain gateway, fed by the outcome of every real call and by a background
+// status probe. isAvailable() only reads memory, so callers can check it before every operation.
+// CLOSED: calls go through. OPEN: calls are refused until open-seconds pass or the probe succeeds.
+// HALF_OPEN: calls go through again; the next success closes the circuit, the next failure reopens it.
+@Component
+@Slf4j
+public class BlockchainCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // State and the time it opened change together, so no reader sees OPEN with a previous opening's timestamp
+    private record Circuit(State state, long openedAt) {
+    }
+
+    private final AtomicReference<Circuit> circuit = new AtomicReference<>(new Circuit(State.CLOSED, 0));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    public BlockchainCircuitBreaker(MeterRegistry meterRegistry,
+            @Value("${blockchain.circuit.failure-threshold:3}") int failureThreshold,
+            @Value("${blockchain.circuit.open-seconds:30}") long openSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.SECONDS.toNanos(openSeconds);
+        Gauge.builder("blockchain.gateway.circuit.state", circuit, c -> c.get().state().ordinal())
+                .description("Blockchain gateway circuit state (0=closed, 1=open, 2=half-open)")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("blockchain.gateway.circuit.rejected")
+                .description("Blockchain calls refused while the circuit was open")
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        Circuit current = circuit.get();
+        if (current.state() != State.OPEN) {
+            return true;
+        }
+        if (System.nanoTime() - current.openedAt() >= openNanos && transition(current, State.HALF_OPEN)) {
+            return true;
+        }
+        if (getState() == State.HALF_OPEN) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public State getState() {
+        return circuit.get().state();
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    public void recordFailure() {
+        if (transition(State.HALF_OPEN, State.OPEN)) {
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            transition(State.CLOSED, State.OPEN);
+        }
+    }
+
+    // A passing probe only moves OPEN to HALF_OPEN; real traffic decides whether the circuit closes, so a
+    // probe never closes a half-open circuit or clears a failure streak.
+    public void recordProbe(boolean healthy) {
+        if (!healthy) {
+            recordFailure();
+        } else {
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        Circuit current = circuit.get();
+        return current.state() == from && transition(current, to);
+    }
+
+    // Compares against the exact snapshot read, so a circuit that reopened in between is never moved on
+    private boolean transition(Circuit current, State to) {
+        State from = current.state();
+        long openedAt = to == State.OPEN ? System.nanoTime() : current.openedAt();
+        if (!circuit.compareAndSet(current, new Circuit(to, openedAt))) {
+            return false;
+        }
+        if (to == State.CLOSED) {
+            consecutiveFailures.set(0);
+        }
+        meterRegistry.counter("blockchain.gateway.circuit.transitions", "from", from.name(), "to", to.name())
+                .increment();
+        if (to == State.OPEN) {
+            log.warn("⚠️ Blockchain gateway circuit {} -> {}", from, to);
+        } else {
+            log.info("Blockchain gateway circuit {} -> {}", from, to);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,174 @@
+package com.dapp.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// HTTP client for the Node blockchain service. All endpoint classes share one keep-alive connection
+// pool, but each has its own response timeout and a bulkhead (max concurrent calls), so slow IPFS
+// uploads or chain writes cannot take every connection away from status probes and verifications.
+// Every call is timed into blockchain.gateway.requests{endpoint,outcome}.
+@Component
+@Slf4j
+public class BlockchainGatewayClient {
+
+    public enum Endpoint {
+        STATUS("status", 2_000, 2),
+        CHAIN_READ("chain-read", 5_000, 32),
+        CHAIN_WRITE("chain-write", 30_000, 8),
+        IPFS("ipfs", 60_000, 4);
+
+        private final String key;
+        private final long defaultTimeoutMs;
+        private final int defaultMaxConcurrent;
+
+        Endpoint(String key, long defaultTimeoutMs, int defaultMaxConcurrent) {
+            this.key = key;
+            this.defaultTimeoutMs = defaultTimeoutMs;
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+        }
+    }
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final List<CloseableHttpClient> httpClients = new ArrayList<>();
+    private final Map<Endpoint, RestTemplate> restTemplates = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Semaphore> bulkheads = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> rejections = new EnumMap<>(Endpoint.class);
+    private final MeterRegistry meterRegistry;
+    private final long bulkheadWaitMs;
+
+    public BlockchainGatewayClient(Environment environment, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.bulkheadWaitMs = environment.getProperty("blockchain.gateway.bulkhead-wait-ms", Long.class, 200L);
+        long connectTimeoutMs = environment.getProperty("blockchain.gateway.connect-timeout-ms", Long.class, 2_000L);
+        long poolWaitMs = environment.getProperty("blockchain.gateway.pool-wait-ms", Long.class, 1_000L);
+        int maxConnections = environment.getProperty("blockchain.gateway.max-connections", Integer.class, 50);
+
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            String prefix = "blockchain.gateway." + endpoint.key;
+            long timeoutMs = environment.getProperty(prefix + ".timeout-ms", Long.class, endpoint.defaultTimeoutMs);
+            int maxConcurrent = environment.getProperty(prefix + ".max-concurrent", Integer.class,
+                    endpoint.defaultMaxConcurrent);
+
+            CloseableHttpClient httpClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setConnectionManagerShared(true)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolWaitMs))
+                            .setResponseTimeout(Timeout.ofMilliseconds(timeoutMs))
+                            .build())
+                    .build();
+            httpClients.add(httpClient);
+            restTemplates.put(endpoint, new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)));
+            bulkheads.put(endpoint, new Semaphore(maxConcurrent));
+            rejections.put(endpoint, Counter.builder("blockchain.gateway.bulkhead.rejected")
+                    .tag("endpoint", endpoint.key)
+                    .register(meterRegistry));
+        }
+
+        Gauge.builder("blockchain.gateway.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .register(meterRegistry);
+        Gauge.builder("blockchain.gateway.pool.available", connectionManager,
+                cm -> cm.getTotalStats().getAvailable()).register(meterRegistry);
+        Gauge.builder("blockchain.gateway.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .register(meterRegistry);
+    }
+
+    public <T> ResponseEntity<T> getForEntity(Endpoint endpoint, String url, Class<T> responseType) {
+        return exchange(endpoint, url, HttpMethod.GET, null, responseType);
+    }
+
+    public <T> ResponseEntity<T> exchange(Endpoint endpoint, String url, HttpMethod method, HttpEntity<?> entity,
+            Class<T> responseType) {
+        Semaphore bulkhead = bulkheads.get(endpoint);
+        if (!acquire(bulkhead)) {
+            rejections.get(endpoint).increment();
+            throw new RejectedExecutionException("Blockchain gateway bulkhead full for " + endpoint.key);
+        }
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            ResponseEntity<T> response = restTemplates.get(endpoint).exchange(url, method, entity, responseType);
+            outcome = response.getStatusCode().is2xxSuccessful() ? "success" : "error";
+            return response;
+        } catch (HttpClientErrorException e) {
+            outcome = "client_error";
+            throw e;
+        } catch (HttpServerErrorException e) {
+            outcome = "server_error";
+            throw e;
+        } catch (ResourceAccessException e) {
+            outcome = "io_error";
+            throw e;
+        } finally {
+            bulkhead.release();
+            Timer.builder("blockchain.gateway.requests")
+                    .tag("endpoint", endpoint.key)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (CloseableHttpClient httpClient : httpClients) {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                log.debug("Failed to close blockchain gateway client", e);
+            }
+        }
+        connectionManager.close();
+    }
+
+    private boolean acquire(Semaphore bulkhead) {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
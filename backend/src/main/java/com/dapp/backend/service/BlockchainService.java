@@ -3,23 +3,33 @@ package com.dapp.backend.service;
 import com.dapp.backend.dto.blockchain.*;
 import com.dapp.backend.enums.IdentityType;
 import com.dapp.backend.model.VaccineRecord;
+import com.dapp.backend.service.BlockchainGatewayClient.Endpoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class BlockchainService {
+public class BlockchainService implements ChainEventFeed {
 
-    private final RestTemplate restTemplate;
+    private final BlockchainGatewayClient gatewayClient;
+    private final BlockchainCircuitBreaker circuitBreaker;
+    private final ChainStateMirror chainStateMirror;
+    private final IpfsContentIndex ipfsContentIndex;
 
     @Value("${blockchain.service.url}")
     private String blockchainServiceUrl;
 
+    @Value("${ipfs.gateway-url:https://gateway.pinata.cloud/ipfs/}")
+    private String ipfsGatewayUrl;
+
     public BlockchainIdentityResponse createIdentity(
             String identityHash,
             String did,
@@ -41,11 +51,13 @@ public class BlockchainService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<BlockchainIdentityRequest> entity = new HttpEntity<>(request, headers);
 
-            ResponseEntity<BlockchainIdentityResponse> response = restTemplate.exchange(
+            ResponseEntity<BlockchainIdentityResponse> response = gatewayClient.exchange(
+                    Endpoint.CHAIN_WRITE,
                     url,
                     HttpMethod.POST,
                     entity,
                     BlockchainIdentityResponse.class);
+            circuitBreaker.recordSuccess();
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 var txHash = response.getBody().getData() != null ? response.getBody().getData().getTransactionHash()
@@ -66,6 +78,7 @@ public class BlockchainService {
                 return null;
             }
         } catch (Exception e) {
+            recordFailure(e);
             log.error("Error creating identity on blockchain", e);
             return null;
         }
@@ -88,11 +101,13 @@ public class BlockchainService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<BlockchainDocumentRequest> entity = new HttpEntity<>(request, headers);
 
-            ResponseEntity<BlockchainDocumentResponse> response = restTemplate.exchange(
+            ResponseEntity<BlockchainDocumentResponse> response = gatewayClient.exchange(
+                    Endpoint.CHAIN_WRITE,
                     url,
                     HttpMethod.POST,
                     entity,
                     BlockchainDocumentResponse.class);
+            circuitBreaker.recordSuccess();
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 var txHash = response.getBody().getData() != null ? response.getBody().getData().getTransactionHash()
@@ -113,18 +128,25 @@ public class BlockchainService {
                 return null;
             }
         } catch (Exception e) {
+            recordFailure(e);
             log.error("Error linking document on blockchain", e);
             return null;
         }
     }
 
     public BlockchainIdentityDetails getIdentity(String identityHash) {
+        BlockchainIdentityDetails mirrored = chainStateMirror.findIdentity(identityHash);
+        if (mirrored != null) {
+            return mirrored;
+        }
         try {
             String url = blockchainServiceUrl + "/identity/" + identityHash;
 
-            ResponseEntity<BlockchainIdentityDetails> response = restTemplate.getForEntity(
+            ResponseEntity<BlockchainIdentityDetails> response = gatewayClient.getForEntity(
+                    Endpoint.CHAIN_READ,
                     url,
                     BlockchainIdentityDetails.class);
+            circuitBreaker.recordSuccess();
 
             if (response.getStatusCode() == HttpStatus.OK) {
                 return response.getBody();
@@ -133,6 +155,7 @@ public class BlockchainService {
                 return null;
             }
         } catch (Exception e) {
+            recordFailure(e);
             log.error("Error getting identity from blockchain", e);
             return null;
         }
@@ -163,11 +186,13 @@ public class BlockchainService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<BlockchainVaccineRecordRequest> entity = new HttpEntity<>(request, headers);
 
-            ResponseEntity<BlockchainVaccineRecordResponse> response = restTemplate.exchange(
+            ResponseEntity<BlockchainVaccineRecordResponse> response = gatewayClient.exchange(
+                    Endpoint.CHAIN_WRITE,
                     url,
                     HttpMethod.POST,
                     entity,
                     BlockchainVaccineRecordResponse.class);
+            circuitBreaker.recordSuccess();
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 var data = response.getBody().getData();
@@ -192,18 +217,96 @@ public class BlockchainService {
                 return null;
             }
         } catch (Exception e) {
+            recordFailure(e);
             log.error("Error creating vaccine record on blockchain", e);
             return null;
         }
     }
 
+    // Anchors only the Merkle root of a batch; the records themselves stay off chain.
+    public BlockchainBatchResponse anchorBatch(String merkleRoot, int recordCount) {
+        try {
+            String url = blockchainServiceUrl + "/vaccine-records/batches";
+
+            BlockchainBatchRequest request = BlockchainBatchRequest.builder()
+                    .merkleRoot("0x" + merkleRoot)
+                    .recordCount(recordCount)
+                    .build();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<BlockchainBatchRequest> entity = new HttpEntity<>(request, headers);
+
+            ResponseEntity<BlockchainBatchResponse> response = gatewayClient.exchange(
+                    Endpoint.CHAIN_WRITE,
+                    url,
+                    HttpMethod.POST,
+                    entity,
+                    BlockchainBatchResponse.class);
+            circuitBreaker.recordSuccess();
+
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                var data = response.getBody().getData();
+                log.info("\n" +
+                        "╔═══════════════════════════════════════════════════════════════════╗\n" +
+                        "║           🌳 VACCINE RECORD BATCH ANCHORED                        ║\n" +
+                        "╠═══════════════════════════════════════════════════════════════════╣\n" +
+                        "║  🧾 Batch ID: {}\n" +
+                        "║  🌿 Merkle Root: {}\n" +
+                        "║  📦 Records: {}\n" +
+                        "║  📜 TxHash: {}\n" +
+                        "╚═══════════════════════════════════════════════════════════════════╝",
+                        data != null ? data.getBatchId() : "N/A", merkleRoot, recordCount,
+                        data != null ? data.getTransactionHash() : "N/A");
+                return response.getBody();
+            } else {
+                log.error("Failed to anchor record batch on blockchain: {}", response.getStatusCode());
+                return null;
+            }
+        } catch (Exception e) {
+            recordFailure(e);
+            log.error("Error anchoring record batch on blockchain", e);
+            return null;
+        }
+    }
+
+    // The batch anchored under a root (data null if the root is not on chain), or null if the lookup failed.
+    public BlockchainBatchDetails getBatchByRoot(String merkleRoot) {
+        try {
+            String url = blockchainServiceUrl + "/vaccine-records/batches/root/0x" + merkleRoot;
+
+            ResponseEntity<BlockchainBatchDetails> response = gatewayClient.getForEntity(
+                    Endpoint.CHAIN_READ,
+                    url,
+                    BlockchainBatchDetails.class);
+            circuitBreaker.recordSuccess();
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                return response.getBody();
+            } else {
+                log.error("Failed to get record batch from blockchain: {}", response.getStatusCode());
+                return null;
+            }
+        } catch (Exception e) {
+            recordFailure(e);
+            log.error("Error getting record batch from blockchain", e);
+            return null;
+        }
+    }
+
     public BlockchainVaccineRecordDetails getVaccineRecord(Long recordId) {
+        BlockchainVaccineRecordDetails mirrored = chainStateMirror.findRecord(recordId);
+        if (mirrored != null) {
+            return mirrored;
+        }
         try {
             String url = blockchainServiceUrl + "/vaccine-records/" + recordId;
 
-            ResponseEntity<BlockchainVaccineRecordDetails> response = restTemplate.getForEntity(
+            ResponseEntity<BlockchainVaccineRecordDetails> response = gatewayClient.getForEntity(
+                    Endpoint.CHAIN_READ,
                     url,
                     BlockchainVaccineRecordDetails.class);
+            circuitBreaker.recordSuccess();
 
             if (response.getStatusCode() == HttpStatus.OK) {
                 return response.getBody();
@@ -212,18 +315,30 @@ public class BlockchainService {
                 return null;
             }
         } catch (Exception e) {
+            recordFailure(e);
             log.error("Error getting vaccine record from blockchain", e);
             return null;
         }
     }
 
     public BlockchainVaccineRecordList getVaccineRecordsByIdentity(String identityHash) {
+        BlockchainVaccineRecordList mirrored = chainStateMirror.findRecordsByIdentity(identityHash);
+        if (mirrored != null) {
+            return mirrored;
+        }
+        return fetchVaccineRecordsByIdentity(identityHash);
+    }
+
+    // Reads the contract directly, for callers that must not act on a mirror lagging behind the chain.
+    public BlockchainVaccineRecordList fetchVaccineRecordsByIdentity(String identityHash) {
         try {
             String url = blockchainServiceUrl + "/vaccine-records/identity/" + identityHash;
 
-            ResponseEntity<BlockchainVaccineRecordList> response = restTemplate.getForEntity(
+            ResponseEntity<BlockchainVaccineRecordList> response = gatewayClient.getForEntity(
+                    Endpoint.CHAIN_READ,
                     url,
                     BlockchainVaccineRecordList.class);
+            circuitBreaker.recordSuccess();
 
             if (response.getStatusCode() == HttpStatus.OK) {
                 return response.getBody();
@@ -232,11 +347,37 @@ public class BlockchainService {
                 return null;
             }
         } catch (Exception e) {
+            recordFailure(e);
             log.error("Error getting vaccine records from blockchain", e);
             return null;
         }
     }
 
+    @Override
+    public BlockchainEventPage fetchEvents(long fromBlock, int maxBlocks, int confirmations) {
+        try {
+            String url = blockchainServiceUrl + "/chain-events?fromBlock=" + fromBlock + "&maxBlocks=" + maxBlocks
+                    + "&confirmations=" + confirmations;
+
+            ResponseEntity<BlockchainEventPage> response = gatewayClient.getForEntity(
+                    Endpoint.CHAIN_READ,
+                    url,
+                    BlockchainEventPage.class);
+            circuitBreaker.recordSuccess();
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                return response.getBody();
+            } else {
+                log.error("Failed to get chain events: {}", response.getStatusCode());
+                return null;
+            }
+        } catch (Exception e) {
+            recordFailure(e);
+            log.error("Error getting chain events from blockchain", e);
+            return null;
+        }
+    }
+
     public boolean updateVaccineRecordIpfs(String recordId, String ipfsHash) {
         try {
             String url = blockchainServiceUrl + "/vaccine-records/" + recordId + "/ipfs";
@@ -249,11 +390,13 @@ public class BlockchainService {
 
             HttpEntity<java.util.Map<String, String>> entity = new HttpEntity<>(requestBody, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
+            ResponseEntity<String> response = gatewayClient.exchange(
+                    Endpoint.CHAIN_WRITE,
                     url,
                     HttpMethod.PUT,
                     entity,
                     String.class);
+            circuitBreaker.recordSuccess();
 
             if (response.getStatusCode() == HttpStatus.OK) {
                 log.info("✅ Updated blockchain record {} with IPFS hash: {}", recordId, ipfsHash);
@@ -263,20 +406,29 @@ public class BlockchainService {
                 return false;
             }
         } catch (Exception e) {
+            recordFailure(e);
             log.error("Error updating vaccine record IPFS hash on blockchain", e);
             return false;
         }
     }
 
+    // Answered from the circuit breaker; no network round trip.
     public boolean isBlockchainServiceAvailable() {
+        return circuitBreaker.isAvailable();
+    }
+
+    @Scheduled(fixedDelayString = "${blockchain.circuit.probe-interval-ms:5000}")
+    public void probeStatus() {
+        boolean healthy;
         try {
             String url = blockchainServiceUrl + "/ganache/status";
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            return response.getStatusCode() == HttpStatus.OK;
+            ResponseEntity<String> response = gatewayClient.getForEntity(Endpoint.STATUS, url, String.class);
+            healthy = response.getStatusCode() == HttpStatus.OK;
         } catch (Exception e) {
-            log.warn("Blockchain service not available: {}", e.getMessage());
-            return false;
+            log.debug("Blockchain service status probe failed: {}", e.getMessage());
+            healthy = false;
         }
+        circuitBreaker.recordProbe(healthy);
     }
 
     public String uploadToIpfs(String jsonContent) {
@@ -284,6 +436,11 @@ public class BlockchainService {
     }
 
     public String uploadToIpfs(String jsonContent, String filename) {
+        String knownCid = ipfsContentIndex.findCid(jsonContent);
+        if (knownCid != null) {
+            log.info("♻️ IPFS content unchanged, reusing {} (Name: {})", knownCid, filename);
+            return knownCid;
+        }
         try {
             String url = blockchainServiceUrl + "/ipfs/upload";
 
@@ -313,11 +470,13 @@ public class BlockchainService {
 
             HttpEntity<String> entity = new HttpEntity<>(jsonContent, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
+            ResponseEntity<String> response = gatewayClient.exchange(
+                    Endpoint.IPFS,
                     url,
                     HttpMethod.POST,
                     entity,
                     String.class);
+            circuitBreaker.recordSuccess();
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
 
@@ -326,6 +485,7 @@ public class BlockchainService {
                 if (root.has("success") && root.get("success").asBoolean()) {
                     String ipfsHash = root.get("data").get("ipfsHash").asText();
                     log.info("Uploaded to IPFS: {} (Name: {})", ipfsHash, filename);
+                    ipfsContentIndex.remember(jsonContent, ipfsHash);
                     return ipfsHash;
                 }
             }
@@ -333,8 +493,38 @@ public class BlockchainService {
             log.error("Failed to upload to IPFS: {}", response.getBody());
             return null;
         } catch (Exception e) {
+            recordFailure(e);
             log.error("Error uploading to IPFS", e);
             return null;
         }
     }
+
+    // The bytes pinned under a CID, as served by the public IPFS gateway. The gateway is not the
+    // blockchain service, so its failures do not count against the circuit breaker.
+    public byte[] fetchFromIpfs(String cid) {
+        try {
+            ResponseEntity<byte[]> response = gatewayClient.getForEntity(
+                    Endpoint.IPFS,
+                    ipfsGatewayUrl + cid,
+                    byte[].class);
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                return response.getBody();
+            }
+            log.error("Failed to fetch {} from IPFS: {}", cid, response.getStatusCode());
+            return null;
+        } catch (Exception e) {
+            log.error("Error fetching {} from IPFS", cid, e);
+            return null;
+        }
+    }
+
+    // A 4xx answer still means the gateway is up; only transport errors and 5xx count against it.
+    // A full bulkhead is local back-pressure and says nothing about the gateway.
+    private void recordFailure(Exception e) {
+        if (e instanceof HttpClientErrorException) {
+            circuitBreaker.recordSuccess();
+        } else if (!(e instanceof RejectedExecutionException)) {
+            circuitBreaker.recordFailure();
+        }
+    }
 }
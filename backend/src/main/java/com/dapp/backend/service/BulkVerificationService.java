@@ -0,0 +1,208 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainBatchDetails;
+import com.dapp.backend.dto.response.BulkVerificationResponse;
+import com.dapp.backend.dto.response.VaccineRecordResponse;
+import com.dapp.backend.enums.VerificationVerdict;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.VaccineRecord;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Verifies many IPFS hashes in one call, e.g. a school or border desk checking a whole list.
+// Cached verdicts are answered first and the rest are loaded with a single IN query. Every loaded record
+// then needs network reads (the chain record, or the pinned content plus its batch root), so checks run
+// on a small fixed pool under one timeout and a large request cannot take every gateway connection.
+// A batch root shared by many records is read from the chain once per request. Each hash gets its own
+// verdict; one failure never fails the batch.
+@Service
+@Slf4j
+public class BulkVerificationService {
+
+    private static final String NOT_FOUND_MESSAGE = "Vaccine record not found for IPFS hash: ";
+    private static final String TIMEOUT_MESSAGE = "SERVICE UNAVAILABLE: Verification timed out";
+
+    private final VaccineRecordRepository vaccineRecordRepository;
+    private final VaccineRecordService vaccineRecordService;
+    private final VerificationCache verificationCache;
+    private final BlockchainService blockchainService;
+    private final ExecutorService verifiers;
+
+    @Value("${verification.bulk.timeout-seconds:20}")
+    private long timeoutSeconds;
+
+    public BulkVerificationService(VaccineRecordRepository vaccineRecordRepository,
+            VaccineRecordService vaccineRecordService, VerificationCache verificationCache,
+            BlockchainService blockchainService, @Value("${verification.bulk.parallelism:16}") int parallelism) {
+        this.vaccineRecordRepository = vaccineRecordRepository;
+        this.vaccineRecordService = vaccineRecordService;
+        this.verificationCache = verificationCache;
+        this.blockchainService = blockchainService;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.verifiers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-verify-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public BulkVerificationResponse verify(List<String> ipfsHashes) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String ipfsHash : ipfsHashes) {
+            if (ipfsHash != null && !ipfsHash.isBlank()) {
+                unique.add(ipfsHash.trim());
+            }
+        }
+
+        Map<String, BulkVerificationResponse.Result> results = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String ipfsHash : unique) {
+            VerificationCache.Entry cached = verificationCache.get(ipfsHash);
+            if (cached == null) {
+                misses.add(ipfsHash);
+            } else {
+                results.put(ipfsHash, cached.isNotFound() ? notFound(ipfsHash) : verified(ipfsHash, cached.response()));
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<String, VaccineRecord> records = new HashMap<>();
+            for (VaccineRecord record : vaccineRecordRepository.findAllByIpfsHashIn(misses)) {
+                records.putIfAbsent(record.getIpfsHash(), record);
+            }
+
+            BatchRootReads rootReads = new BatchRootReads(blockchainService);
+            Map<String, CompletableFuture<BulkVerificationResponse.Result>> checks = new LinkedHashMap<>();
+            for (String ipfsHash : misses) {
+                VaccineRecord record = records.get(ipfsHash);
+                if (record == null) {
+                    verificationCache.putNotFound(ipfsHash);
+                    results.put(ipfsHash, notFound(ipfsHash));
+                } else {
+                    checks.put(ipfsHash, CompletableFuture.supplyAsync(() -> check(record, ipfsHash, rootReads),
+                            verifiers));
+                }
+            }
+            awaitChecks(checks, results);
+        }
+
+        List<BulkVerificationResponse.Result> ordered = new ArrayList<>(unique.size());
+        int verified = 0;
+        int notFound = 0;
+        for (String ipfsHash : unique) {
+            BulkVerificationResponse.Result result = results.get(ipfsHash);
+            if (result.getVerdict() == VerificationVerdict.VERIFIED) {
+                verified++;
+            } else if (result.getVerdict() == VerificationVerdict.NOT_FOUND) {
+                notFound++;
+            }
+            ordered.add(result);
+        }
+        log.info("Bulk verification of {} hashes: {} verified, {} not found, {} failed", ordered.size(), verified,
+                notFound, ordered.size() - verified - notFound);
+
+        return BulkVerificationResponse.builder()
+                .total(ordered.size())
+                .verified(verified)
+                .notFound(notFound)
+                .failed(ordered.size() - verified - notFound)
+                .results(ordered)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        verifiers.shutdownNow();
+    }
+
+    private void awaitChecks(Map<String, CompletableFuture<BulkVerificationResponse.Result>> checks,
+            Map<String, BulkVerificationResponse.Result> results) {
+        if (checks.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(checks.values().toArray(new CompletableFuture[0]))
+                    .get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("⚠️ Bulk verification timed out after {}s", timeoutSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // check() never throws; every future completes normally
+        }
+        checks.forEach((ipfsHash, future) -> {
+            // Cancelling skips checks still queued behind the pool; running ones finish on their own
+            future.cancel(false);
+            BulkVerificationResponse.Result result = future.isDone() && !future.isCancelled() ? future.join() : null;
+            results.put(ipfsHash, result != null ? result : failed(ipfsHash, TIMEOUT_MESSAGE));
+        });
+    }
+
+    private BulkVerificationResponse.Result check(VaccineRecord record, String ipfsHash, BatchRootReads rootReads) {
+        try {
+            return verified(ipfsHash, vaccineRecordService.verifyRecord(record, ipfsHash, rootReads::get));
+        } catch (AppException e) {
+            return failed(ipfsHash, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Bulk verification failed for IPFS: {}", ipfsHash, e);
+            return failed(ipfsHash, "SERVICE UNAVAILABLE: Unable to connect to blockchain for verification");
+        }
+    }
+
+    // Per-request memo of batch root reads. The first check to need a root reads it on its own thread and
+    // the others wait for that read, so no pool thread ever waits on a task queued behind it.
+    private static final class BatchRootReads {
+        private final BlockchainService blockchainService;
+        private final Map<String, CompletableFuture<BlockchainBatchDetails>> reads = new ConcurrentHashMap<>();
+
+        BatchRootReads(BlockchainService blockchainService) {
+            this.blockchainService = blockchainService;
+        }
+
+        BlockchainBatchDetails get(String root) {
+            CompletableFuture<BlockchainBatchDetails> read = new CompletableFuture<>();
+            CompletableFuture<BlockchainBatchDetails> existing = reads.putIfAbsent(root, read);
+            if (existing != null) {
+                return existing.join();
+            }
+            try {
+                read.complete(blockchainService.getBatchByRoot(root));
+            } catch (RuntimeException e) {
+                read.completeExceptionally(e);
+            }
+            return read.join();
+        }
+    }
+
+    private static BulkVerificationResponse.Result verified(String ipfsHash, VaccineRecordResponse record) {
+        return new BulkVerificationResponse.Result(ipfsHash, VerificationVerdict.VERIFIED, null, record);
+    }
+
+    private static BulkVerificationResponse.Result notFound(String ipfsHash) {
+        return new BulkVerificationResponse.Result(ipfsHash, VerificationVerdict.NOT_FOUND,
+                NOT_FOUND_MESSAGE + ipfsHash, null);
+    }
+
+    private static BulkVerificationResponse.Result failed(String ipfsHash, String message) {
+        return new BulkVerificationResponse.Result(ipfsHash, VerificationVerdict.FAILED, message, null);
+    }
+}
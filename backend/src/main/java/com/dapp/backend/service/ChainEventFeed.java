@@ -0,0 +1,11 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainEventPage;
+
+// Source of contract events for the chain indexer. BlockchainService reads them from the Node
+// gateway; tests plug in an in-memory chain.
+public interface ChainEventFeed {
+
+    // Events in [fromBlock, min(head - confirmations, fromBlock + maxBlocks - 1)], or null if unreachable
+    BlockchainEventPage fetchEvents(long fromBlock, int maxBlocks, int confirmations);
+}
@@ -0,0 +1,209 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainEventPage;
+import com.dapp.backend.model.ChainIdentity;
+import com.dapp.backend.model.ChainIndexCheckpoint;
+import com.dapp.backend.model.ChainVaccineRecord;
+import com.dapp.backend.repository.ChainIdentityRepository;
+import com.dapp.backend.repository.ChainIndexCheckpointRepository;
+import com.dapp.backend.repository.ChainVaccineRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Follows VaccineRecord and VaxSafeIdentity events page by page and mirrors contract state into
+// chain_vaccine_records / chain_identities, stamping every row with the block it came from.
+// The checkpoint stores the hash of the last indexed block; if the next page's parent hash differs,
+// the chain reorganised under us and the index is rolled back reorg-depth blocks and replayed.
+// Events are applied as upserts, so replaying a range is harmless.
+@Service
+@Slf4j
+public class ChainEventIndexer {
+
+    private static final String[] IDENTITY_TYPES = {"ADULT", "CHILD", "NEWBORN"};
+
+    private final ChainEventFeed chainEventFeed;
+    private final ChainIndexCheckpointRepository checkpointRepository;
+    private final ChainVaccineRecordRepository chainVaccineRecordRepository;
+    private final ChainIdentityRepository chainIdentityRepository;
+    private final VerificationCache verificationCache;
+    private final DidResolutionCache didResolutionCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter reorgs;
+    private final AtomicLong lagBlocks = new AtomicLong();
+
+    @Value("${chain.indexer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chain.indexer.start-block:0}")
+    private long startBlock;
+
+    @Value("${chain.indexer.max-blocks-per-poll:500}")
+    private int maxBlocksPerPoll;
+
+    @Value("${chain.indexer.confirmations:0}")
+    private int confirmations;
+
+    @Value("${chain.indexer.reorg-depth:12}")
+    private long reorgDepth;
+
+    public ChainEventIndexer(ChainEventFeed chainEventFeed, ChainIndexCheckpointRepository checkpointRepository,
+            ChainVaccineRecordRepository chainVaccineRecordRepository,
+            ChainIdentityRepository chainIdentityRepository, VerificationCache verificationCache,
+            DidResolutionCache didResolutionCache, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.chainEventFeed = chainEventFeed;
+        this.checkpointRepository = checkpointRepository;
+        this.chainVaccineRecordRepository = chainVaccineRecordRepository;
+        this.chainIdentityRepository = chainIdentityRepository;
+        this.verificationCache = verificationCache;
+        this.didResolutionCache = didResolutionCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reorgs = Counter.builder("chain.indexer.reorgs")
+                .description("Chain reorganisations detected by the event indexer")
+                .register(meterRegistry);
+        Gauge.builder("chain.indexer.lag.blocks", lagBlocks, AtomicLong::get)
+                .description("Blocks between the chain head and the last indexed block")
+                .register(meterRegistry);
+    }
+
+    // Indexes one page of blocks. Returns how many blocks were indexed or rolled back, 0 once caught up.
+    public int indexNext() {
+        if (!enabled) {
+            return 0;
+        }
+        ChainIndexCheckpoint checkpoint = transactionTemplate.execute(status -> checkpointRepository
+                .findById(ChainStateMirror.CHECKPOINT_ID)
+                .orElseGet(() -> checkpointRepository.save(ChainIndexCheckpoint.builder()
+                        .id(ChainStateMirror.CHECKPOINT_ID)
+                        .blockNumber(startBlock - 1)
+                        .build())));
+        long indexedBlock = checkpoint.getBlockNumber();
+
+        // Network read outside any transaction; the page is applied only if nobody moved the checkpoint meanwhile
+        BlockchainEventPage page = chainEventFeed.fetchEvents(indexedBlock + 1, maxBlocksPerPoll, confirmations);
+        if (page == null || !page.isSuccess() || page.getData() == null) {
+            return 0;
+        }
+        Integer advanced = transactionTemplate.execute(status -> apply(indexedBlock, page.getData()));
+        return advanced != null ? advanced : 0;
+    }
+
+    private int apply(long indexedBlock, BlockchainEventPage.PageData data) {
+        ChainIndexCheckpoint checkpoint = checkpointRepository.lockById(ChainStateMirror.CHECKPOINT_ID)
+                .orElseThrow();
+        if (checkpoint.getBlockNumber() != indexedBlock || data.getFromBlock() != indexedBlock + 1) {
+            return 0;
+        }
+        checkpoint.setLatestBlock(data.getLatestBlock());
+        checkpoint.setPolledAt(LocalDateTime.now());
+
+        if (checkpoint.getBlockHash() != null && data.getParentHash() != null
+                && !checkpoint.getBlockHash().equalsIgnoreCase(data.getParentHash())) {
+            return rewind(checkpoint);
+        }
+        if (data.getToBlock() < data.getFromBlock()) {
+            lagBlocks.set(Math.max(0, data.getLatestBlock() - indexedBlock));
+            return 0;
+        }
+
+        if (data.getEvents() != null) {
+            for (BlockchainEventPage.ChainEvent event : data.getEvents()) {
+                applyEvent(event);
+            }
+        }
+        checkpoint.setBlockNumber(data.getToBlock());
+        checkpoint.setBlockHash(data.getToBlockHash());
+        lagBlocks.set(Math.max(0, data.getLatestBlock() - data.getToBlock()));
+        if (data.getEvents() != null && !data.getEvents().isEmpty()) {
+            log.info("⛓️ Indexed {} chain events in blocks {}-{}", data.getEvents().size(), data.getFromBlock(),
+                    data.getToBlock());
+        }
+        return (int) (data.getToBlock() - data.getFromBlock() + 1);
+    }
+
+    // Rows created above the new checkpoint are dropped; rows whose IPFS hash was set above it lose the
+    // hash and are served by the gateway until the replay sets it again. Reorgs deeper than reorg-depth
+    // are not detected, which is what confirmations is for.
+    private int rewind(ChainIndexCheckpoint checkpoint) {
+        long from = checkpoint.getBlockNumber();
+        long target = Math.max(startBlock - 1, from - reorgDepth);
+        int removed = chainVaccineRecordRepository.deleteCreatedAfter(target)
+                + chainIdentityRepository.deleteCreatedAfter(target);
+        int cleared = chainVaccineRecordRepository.clearIpfsUpdatedAfter(target);
+        checkpoint.setBlockNumber(target);
+        checkpoint.setBlockHash(null);
+        reorgs.increment();
+        verificationCache.invalidateAll();
+        didResolutionCache.invalidateAll();
+        log.warn("⚠️ Chain reorg detected below block {}: index rewound to block {} "
+                + "({} rows removed, {} hashes cleared)", from, target, removed, cleared);
+        return (int) Math.max(1, from - target);
+    }
+
+    private void applyEvent(BlockchainEventPage.ChainEvent event) {
+        Map<String, String> values = event.getValues() != null ? event.getValues() : Map.of();
+        switch (event.getContract() + "." + event.getEvent()) {
+            case "VaccineRecord.RecordCreated" -> {
+                Long chainRecordId = Long.valueOf(values.get("recordId"));
+                ChainVaccineRecord record = chainVaccineRecordRepository.findByChainRecordId(chainRecordId)
+                        .orElseGet(ChainVaccineRecord::new);
+                record.setChainRecordId(chainRecordId);
+                record.setIdentityHash(values.get("identityHash"));
+                record.setVaccineId(values.get("vaccineId"));
+                record.setVaccineName(values.get("vaccineName"));
+                Long doseNumber = parseLong(values.get("doseNumber"));
+                record.setDoseNumber(doseNumber != null ? doseNumber.intValue() : null);
+                record.setVaccinationDate(parseLong(values.get("vaccinationDate")));
+                record.setChainCreatedAt(parseLong(values.get("timestamp")));
+                record.setIpfsHash(values.get("ipfsHash"));
+                record.setCreatedBlock(event.getBlockNumber());
+                record.setIpfsBlock(event.getBlockNumber());
+                record.setTransactionHash(event.getTransactionHash());
+                chainVaccineRecordRepository.save(record);
+            }
+            case "VaccineRecord.RecordUpdated" -> chainVaccineRecordRepository
+                    .findByChainRecordId(Long.valueOf(values.get("recordId")))
+                    .ifPresent(record -> {
+                        record.setIpfsHash(values.get("ipfsHash"));
+                        record.setIpfsBlock(event.getBlockNumber());
+                    });
+            case "VaxSafeIdentity.IdentityCreated" -> {
+                ChainIdentity identity = chainIdentityRepository
+                        .findByIdentityHashIgnoreCase(values.get("identityHash"))
+                        .orElseGet(ChainIdentity::new);
+                identity.setIdentityHash(values.get("identityHash"));
+                identity.setDid(values.get("did"));
+                identity.setGuardian(values.get("guardian"));
+                identity.setIdType(identityType(values.get("idType")));
+                identity.setIpfsDataHash(values.get("ipfsDataHash"));
+                identity.setChainCreatedAt(parseLong(values.get("timestamp")));
+                identity.setCreatedBlock(event.getBlockNumber());
+                identity.setTransactionHash(event.getTransactionHash());
+                chainIdentityRepository.save(identity);
+                didResolutionCache.invalidate(values.get("did"));
+            }
+            default -> {
+                // Batches and identity documents are not mirrored
+            }
+        }
+    }
+
+    private static String identityType(String ordinal) {
+        int index = ordinal != null ? Integer.parseInt(ordinal) : -1;
+        return index >= 0 && index < IDENTITY_TYPES.length ? IDENTITY_TYPES[index] : "UNKNOWN";
+    }
+
+    private static Long parseLong(String value) {
+        return value != null ? Long.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainIdentityDetails;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordDetails;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordList;
+import com.dapp.backend.model.ChainIdentity;
+import com.dapp.backend.model.ChainIndexCheckpoint;
+import com.dapp.backend.model.ChainVaccineRecord;
+import com.dapp.backend.repository.ChainIdentityRepository;
+import com.dapp.backend.repository.ChainIndexCheckpointRepository;
+import com.dapp.backend.repository.ChainVaccineRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Read side of the chain event index. Answers contract reads from Postgres in the same shape the
+// Node gateway returns, or null when the mirror cannot vouch for the answer and the caller should
+// ask the gateway. Only rows the indexer has seen count as evidence; an identity with none is always
+// answered by the gateway. Created identities never change, so they are served as soon as they are indexed;
+// record reads also need the indexer to be polling and within max-lag-blocks of the head, since a
+// newer RecordUpdated may not be mirrored yet.
+@Component
+@RequiredArgsConstructor
+public class ChainStateMirror {
+
+    static final Long CHECKPOINT_ID = 1L;
+
+    private static final DateTimeFormatter ISO_MILLIS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private final ChainIndexCheckpointRepository checkpointRepository;
+    private final ChainVaccineRecordRepository chainVaccineRecordRepository;
+    private final ChainIdentityRepository chainIdentityRepository;
+
+    @Value("${chain.indexer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chain.indexer.max-lag-blocks:2}")
+    private long maxLagBlocks;
+
+    @Value("${chain.indexer.max-staleness-seconds:30}")
+    private long maxStalenessSeconds;
+
+    public boolean isFresh() {
+        if (!enabled) {
+            return false;
+        }
+        ChainIndexCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_ID).orElse(null);
+        return checkpoint != null
+                && checkpoint.getLatestBlock() != null
+                && checkpoint.getPolledAt() != null
+                && checkpoint.getLatestBlock() - checkpoint.getBlockNumber() <= maxLagBlocks
+                && checkpoint.getPolledAt().isAfter(LocalDateTime.now().minusSeconds(maxStalenessSeconds));
+    }
+
+    public BlockchainVaccineRecordDetails findRecord(Long chainRecordId) {
+        if (!enabled) {
+            return null;
+        }
+        ChainVaccineRecord record = chainVaccineRecordRepository.findByChainRecordId(chainRecordId).orElse(null);
+        if (record == null || record.getIpfsHash() == null || !isFresh()) {
+            return null;
+        }
+        return new BlockchainVaccineRecordDetails(true, toDetailData(record));
+    }
+
+    public BlockchainVaccineRecordList findRecordsByIdentity(String identityHash) {
+        if (!isFresh()) {
+            return null;
+        }
+        List<ChainVaccineRecord> records = chainVaccineRecordRepository
+                .findByIdentityHashIgnoreCaseOrderByChainRecordId(identityHash);
+        // No rows is not proof of no records: the indexer may have started after them, or decoded none of a
+        // contract deployed with older event signatures
+        if (records.isEmpty() || records.stream().anyMatch(record -> record.getIpfsHash() == null)) {
+            return null;
+        }
+        return new BlockchainVaccineRecordList(true, records.size(),
+                records.stream().map(this::toDetailData).toList());
+    }
+
+    public BlockchainIdentityDetails findIdentity(String identityHash) {
+        if (!enabled) {
+            return null;
+        }
+        return chainIdentityRepository.findByIdentityHashIgnoreCase(identityHash)
+                .map(identity -> new BlockchainIdentityDetails(true, toIdentityData(identity)))
+                .orElse(null);
+    }
+
+    private BlockchainVaccineRecordDetails.VaccineRecordDetailData toDetailData(ChainVaccineRecord record) {
+        BlockchainVaccineRecordDetails.VaccineRecordDetailData data =
+                new BlockchainVaccineRecordDetails.VaccineRecordDetailData();
+        data.setRecordId(String.valueOf(record.getChainRecordId()));
+        data.setIdentityHash(record.getIdentityHash());
+        data.setVaccineId(record.getVaccineId());
+        data.setVaccineName(record.getVaccineName());
+        data.setDoseNumber(record.getDoseNumber());
+        data.setVaccinationDate(formatEpoch(record.getVaccinationDate()));
+        data.setIpfsHash(record.getIpfsHash());
+        data.setCreatedAt(formatEpoch(record.getChainCreatedAt()));
+        data.setActive(true);
+        return data;
+    }
+
+    private BlockchainIdentityDetails.IdentityData toIdentityData(ChainIdentity identity) {
+        return new BlockchainIdentityDetails.IdentityData(
+                identity.getIdentityHash(),
+                identity.getDid(),
+                identity.getGuardian(),
+                identity.getIdType(),
+                formatEpoch(identity.getChainCreatedAt()),
+                true,
+                identity.getIpfsDataHash());
+    }
+
+    private static String formatEpoch(Long epochSeconds) {
+        return epochSeconds != null ? ISO_MILLIS.format(Instant.ofEpochSecond(epochSeconds)) : null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.response.DidResolutionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Resolved DID documents, keyed by DID. Documents of anchored identities live for ttl-seconds; unknown DIDs
+// and identities not yet on chain only for negative-ttl-seconds, since provisioning may finish any moment.
+// Entries are dropped when identity provisioning, the backfill or the chain indexer changes an identity.
+@Component
+@Slf4j
+public class DidResolutionCache {
+
+    public record Entry(DidResolutionResponse response, long expiresAt) {
+
+        public boolean isNotFound() {
+            return response == null;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    public DidResolutionCache(MeterRegistry meterRegistry,
+            @Value("${did.resolution.cache.max-entries:100000}") int maxEntries,
+            @Value("${did.resolution.cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${did.resolution.cache.negative-ttl-seconds:60}") long negativeTtlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.hits = meterRegistry.counter("did.resolution.cache.requests", "result", "hit");
+        this.negativeHits = meterRegistry.counter("did.resolution.cache.requests", "result", "negative_hit");
+        this.misses = meterRegistry.counter("did.resolution.cache.requests", "result", "miss");
+        meterRegistry.gaugeMapSize("did.resolution.cache.size", Tags.empty(), entries);
+    }
+
+    public Entry get(String did) {
+        Entry entry = entries.get(did);
+        if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) {
+            if (entry != null) {
+                entries.remove(did, entry);
+            }
+            misses.increment();
+            return null;
+        }
+        (entry.isNotFound() ? negativeHits : hits).increment();
+        return entry;
+    }
+
+    public void put(String did, DidResolutionResponse response) {
+        long ttl = response.getDidDocumentMetadata().isAnchored() ? ttlNanos : negativeTtlNanos;
+        put(did, new Entry(response, System.nanoTime() + ttl));
+    }
+
+    public void putNotFound(String did) {
+        put(did, new Entry(null, System.nanoTime() + negativeTtlNanos));
+    }
+
+    public void invalidate(String did) {
+        if (did != null) {
+            entries.remove(did);
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${did.resolution.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+        int removed = before - entries.size();
+        if (removed > 0) {
+            log.debug("Purged {} expired DID resolution cache entries", removed);
+        }
+    }
+
+    private void put(String did, Entry entry) {
+        if (entries.size() >= maxEntries) {
+            purgeExpired();
+            if (entries.size() >= maxEntries) {
+                // Full of live entries: serve this one uncached rather than evict hot DIDs
+                return;
+            }
+        }
+        entries.put(did, entry);
+    }
+}
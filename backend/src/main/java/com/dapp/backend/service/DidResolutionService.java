@@ -0,0 +1,97 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainIdentityDetails;
+import com.dapp.backend.dto.blockchain.DidIdentityRow;
+import com.dapp.backend.dto.response.DidResolutionResponse;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.repository.FamilyMemberRepository;
+import com.dapp.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Resolves did:vax identifiers into DID documents. A document is assembled from the identity columns in the
+// DB and the chain's view of the identity (served by the chain state mirror when it is caught up), then kept
+// in DidResolutionCache so hot DIDs resolve without touching either.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DidResolutionService {
+
+    private static final List<String> DID_CONTEXT = List.of("https://www.w3.org/ns/did/v1");
+
+    private final UserRepository userRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final BlockchainService blockchainService;
+    private final IdentityService identityService;
+    private final DidResolutionCache didResolutionCache;
+
+    public DidResolutionResponse resolve(String did) throws AppException {
+        if (!identityService.isValidDID(did)) {
+            throw new AppException("Invalid DID: " + did);
+        }
+
+        DidResolutionCache.Entry cached = didResolutionCache.get(did);
+        if (cached != null) {
+            if (cached.isNotFound()) {
+                throw new AppException("DID not found: " + did);
+            }
+            return cached.response();
+        }
+
+        DidIdentityRow row = userRepository.findDidIdentity(did)
+                .or(() -> familyMemberRepository.findDidIdentity(did))
+                .orElse(null);
+        if (row == null) {
+            didResolutionCache.putNotFound(did);
+            throw new AppException("DID not found: " + did);
+        }
+
+        BlockchainIdentityDetails.IdentityData chainIdentity = null;
+        if (row.getIdentityHash() != null) {
+            BlockchainIdentityDetails details = blockchainService.getIdentity(row.getIdentityHash());
+            if (details != null && details.isSuccess() && details.getData() != null) {
+                chainIdentity = details.getData();
+            }
+        }
+
+        DidResolutionResponse response = toResponse(row, chainIdentity);
+        // A null lookup while the gateway is down says nothing about the chain; don't pin it in the cache
+        if (chainIdentity != null || blockchainService.isBlockchainServiceAvailable()) {
+            didResolutionCache.put(did, response);
+        }
+        return response;
+    }
+
+    private DidResolutionResponse toResponse(DidIdentityRow row, BlockchainIdentityDetails.IdentityData chain) {
+        List<DidResolutionResponse.Service> services = row.getIpfsDataHash() == null
+                ? null
+                : List.of(DidResolutionResponse.Service.builder()
+                        .id(row.getDid() + "#fhir-profile")
+                        .type("FhirPatientProfile")
+                        .serviceEndpoint("ipfs://" + row.getIpfsDataHash())
+                        .build());
+
+        DidResolutionResponse.Metadata.MetadataBuilder metadata = DidResolutionResponse.Metadata.builder()
+                .identityHash(row.getIdentityHash())
+                .identityType(row.getDid().split(":")[3].toUpperCase())
+                .anchored(chain != null);
+        if (chain != null) {
+            metadata.active(chain.isActive())
+                    .created(chain.getCreatedAt())
+                    .chainIpfsDataHash(chain.getIpfsDataHash());
+        }
+
+        return DidResolutionResponse.builder()
+                .didDocument(DidResolutionResponse.DidDocument.builder()
+                        .context(DID_CONTEXT)
+                        .id(row.getDid())
+                        .controller(row.getControllerDid())
+                        .service(services)
+                        .build())
+                .didDocumentMetadata(metadata.build())
+                .build();
+    }
+}
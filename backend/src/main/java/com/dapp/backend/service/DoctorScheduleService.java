@@ -47,14 +47,12 @@ public class DoctorScheduleService {
     }
 
     public List<DoctorAvailableSlotResponse> getAvailableSlots(Long doctorId, LocalDate date) {
-        try {
-            return getDoctorSlotsInRange(doctorId, date, date).stream()
-                    .filter(slot -> slot.getStatus() == SlotStatus.AVAILABLE)
-                    .collect(Collectors.toList());
-        } catch (AppException e) {
-            log.error("Error getting slots for doctor {}: {}", doctorId, e.getMessage());
-            return List.of();
-        }
+        return doctorRepository.findById(doctorId)
+                .map(doctor -> toSlotResponses(doctor, buildGrid(doctor, date, date), true))
+                .orElseGet(() -> {
+                    log.error("Error getting slots for doctor {}: Doctor not found with id: {}", doctorId, doctorId);
+                    return List.of();
+                });
     }
 
     public List<DoctorAvailableSlotResponse> getAvailableSlotsByCenter(Long centerId, LocalDate date) {
@@ -85,60 +83,16 @@ public class DoctorScheduleService {
                     List<DoctorAvailableSlot> doctorRealSlots = slotsByDoctor.getOrDefault(doctor.getDoctorId(),
                             List.of());
 
-                    return generateSlotsForDate(doctor, date, doctorRealSlots).stream();
+                    DoctorSlotGrid grid = new DoctorSlotGrid(doctor.getConsultationDuration(), date, date);
+                    grid.addAll(doctorRealSlots);
+                    return toSlotResponses(doctor, grid, true).stream();
                 })
-                .filter(slot -> slot.getStatus() == SlotStatus.AVAILABLE)
                 .sorted(java.util.Comparator
                         .comparing(DoctorAvailableSlotResponse::getStartTime)
                         .thenComparing(DoctorAvailableSlotResponse::getDoctorId))
                 .collect(Collectors.toList());
     }
 
-    private List<DoctorAvailableSlotResponse> generateSlotsForDate(
-            Doctor doctor, LocalDate date, List<DoctorAvailableSlot> existingSlots) {
-
-        java.util.Map<String, DoctorAvailableSlot> slotMap = existingSlots.stream()
-                .collect(Collectors.toMap(
-                        s -> s.getSlotDate().toString() + "_" + s.getStartTime().toString(),
-                        s -> s,
-                        (existing, replacement) -> existing));
-
-        List<DoctorAvailableSlotResponse> slots = new java.util.ArrayList<>();
-
-        LocalTime startTime = LocalTime.of(7, 0);
-        LocalTime endTime = LocalTime.of(17, 0);
-
-        int duration = doctor.getConsultationDuration() != null
-                ? doctor.getConsultationDuration()
-                : 30;
-
-        LocalTime time = startTime;
-
-        while (time.isBefore(endTime)) {
-            LocalTime slotEnd = time.plusMinutes(duration);
-            if (slotEnd.isAfter(endTime))
-                break;
-
-            String key = date.toString() + "_" + time.toString();
-
-            if (slotMap.containsKey(key)) {
-                slots.add(toSlotResponse(slotMap.get(key)));
-            } else {
-                slots.add(DoctorAvailableSlotResponse.builder()
-                        .doctorId(doctor.getDoctorId())
-                        .doctorName(doctor.getUser().getFullName())
-                        .slotDate(date)
-                        .startTime(time)
-                        .endTime(slotEnd)
-                        .status(SlotStatus.AVAILABLE)
-                        .build());
-            }
-            time = slotEnd;
-        }
-
-        return slots;
-    }
-
     public List<DoctorAvailableSlotResponse> getAvailableSlotsByCenterAndTimeSlot(
             Long centerId, LocalDate date, TimeSlotEnum timeSlot) {
         LocalTime startTime = getTimeSlotStartTime(timeSlot);
@@ -172,7 +126,16 @@ public class DoctorScheduleService {
 
     public List<DoctorAvailableSlotResponse> getDoctorSlotsInRange(
             Doctor doctor, LocalDate startDate, LocalDate endDate) {
+        DoctorSlotGrid grid = buildGrid(doctor, startDate, endDate);
+        List<DoctorAvailableSlotResponse> allSlots = toSlotResponses(doctor, grid, false);
+
+        log.info("Generated {} total slots for doctor {} ({} real, {} virtual)",
+                allSlots.size(), doctor.getDoctorId(), grid.realSlotCount(), allSlots.size() - grid.realSlotCount());
 
+        return allSlots;
+    }
+
+    private DoctorSlotGrid buildGrid(Doctor doctor, LocalDate startDate, LocalDate endDate) {
         long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate);
         if (daysBetween > 90) {
             log.warn("Date range too large for doctor {}: {} days. Limited to 90 days.",
@@ -186,70 +149,39 @@ public class DoctorScheduleService {
         log.debug("Found {} real slots in DB for doctor {} from {} to {}",
                 existingSlots.size(), doctor.getDoctorId(), startDate, endDate);
 
-        java.util.Map<String, DoctorAvailableSlot> slotMap = existingSlots.stream()
-                .collect(Collectors.toMap(
-                        s -> s.getSlotDate().toString() + "_" + s.getStartTime().toString(),
-                        s -> s,
-                        (existing, replacement) -> {
-                            log.warn("Duplicate slot key detected: date={}, time={}",
-                                    existing.getSlotDate(), existing.getStartTime());
-                            return existing;
-                        }));
-
-        int estimatedSlots = (int) (daysBetween * 16);
-        List<DoctorAvailableSlotResponse> allSlots = new java.util.ArrayList<>(estimatedSlots);
-
-        LocalTime defaultStartTime = LocalTime.of(7, 0);
-        LocalTime defaultEndTime = LocalTime.of(17, 0);
-
-        int duration = doctor.getConsultationDuration() != null
-                ? doctor.getConsultationDuration()
-                : 30;
-
-        LocalDate currentDate = startDate;
-        int virtualSlotCount = 0;
-
-        while (!currentDate.isAfter(endDate)) {
-
-            LocalTime time = defaultStartTime;
+        DoctorSlotGrid grid = new DoctorSlotGrid(doctor.getConsultationDuration(), startDate, endDate);
+        grid.addAll(existingSlots);
+        return grid;
+    }
 
-            while (time.isBefore(defaultEndTime)) {
-                LocalTime endTime = time.plusMinutes(duration);
+    // Responses are only built here, at the edge; free slots come from the grid as virtual rows.
+    private List<DoctorAvailableSlotResponse> toSlotResponses(Doctor doctor, DoctorSlotGrid grid,
+            boolean availableOnly) {
+        List<DoctorAvailableSlotResponse> slots = new java.util.ArrayList<>();
+        String doctorName = doctor.getUser().getFullName();
 
-                if (endTime.isAfter(defaultEndTime)) {
-                    break;
+        for (int day = 0; day < grid.days(); day++) {
+            LocalDate date = grid.date(day);
+            for (int index = 0; index < grid.slotsPerDay(); index++) {
+                if (availableOnly && !grid.isAvailable(day, index)) {
+                    continue;
                 }
-
-                String key = currentDate.toString() + "_" + time.toString();
-
-                if (slotMap.containsKey(key)) {
-
-                    allSlots.add(toSlotResponse(slotMap.get(key)));
+                DoctorAvailableSlot realSlot = grid.realSlot(day, index);
+                if (realSlot != null) {
+                    slots.add(toSlotResponse(realSlot));
                 } else {
-
-                    allSlots.add(DoctorAvailableSlotResponse.builder()
+                    slots.add(DoctorAvailableSlotResponse.builder()
                             .doctorId(doctor.getDoctorId())
-                            .doctorName(doctor.getUser().getFullName())
-                            .slotDate(currentDate)
-                            .startTime(time)
-                            .endTime(endTime)
+                            .doctorName(doctorName)
+                            .slotDate(date)
+                            .startTime(grid.startTime(index))
+                            .endTime(grid.endTime(index))
                             .status(SlotStatus.AVAILABLE)
                             .build());
-                    virtualSlotCount++;
                 }
-                time = endTime;
             }
-            currentDate = currentDate.plusDays(1);
         }
-
-        allSlots.sort(java.util.Comparator
-                .comparing(DoctorAvailableSlotResponse::getSlotDate)
-                .thenComparing(DoctorAvailableSlotResponse::getStartTime));
-
-        log.info("Generated {} total slots for doctor {} ({} real, {} virtual)",
-                allSlots.size(), doctor.getDoctorId(), existingSlots.size(), virtualSlotCount);
-
-        return allSlots;
+        return slots;
     }
 
     @Transactional
@@ -277,18 +209,13 @@ public class DoctorScheduleService {
 
     private DoctorWithScheduleResponse toDoctorWithScheduleResponse(Doctor doctor, LocalDate date) {
 
-        List<DoctorAvailableSlotResponse> slots = getDoctorSlotsInRange(doctor, date, date);
+        DoctorSlotGrid grid = buildGrid(doctor, date, date);
+        List<DoctorAvailableSlotResponse> slots = toSlotResponses(doctor, grid, false);
 
         int totalSlots = slots.size();
-        int availableSlots = (int) slots.stream()
-                .filter(s -> s.getStatus() == SlotStatus.AVAILABLE)
-                .count();
-        int bookedSlots = (int) slots.stream()
-                .filter(s -> s.getStatus() == SlotStatus.BOOKED)
-                .count();
-        int blockedSlots = (int) slots.stream()
-                .filter(s -> s.getStatus() == SlotStatus.BLOCKED)
-                .count();
+        int availableSlots = grid.countAvailable(0);
+        int bookedSlots = grid.countBooked(0);
+        int blockedSlots = grid.countBlocked(0);
 
         String workingHours = getWorkingHoursForDate(doctor, date);
 
@@ -0,0 +1,142 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.enums.SlotStatus;
+import com.dapp.backend.model.DoctorAvailableSlot;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+// Availability of one doctor over a date range as bitsets: one bit per consultation slot between
+// 07:00 and 17:00, with separate booked and blocked masks. Only rows that exist in
+// doctor_available_slots are kept as objects; free virtual slots are never materialized here.
+public class DoctorSlotGrid {
+
+    public static final LocalTime DAY_START = LocalTime.of(7, 0);
+    public static final LocalTime DAY_END = LocalTime.of(17, 0);
+    private static final int DEFAULT_DURATION = 30;
+
+    private final LocalDate startDate;
+    private final int days;
+    private final int duration;
+    private final int slotsPerDay;
+    private final int wordsPerDay;
+    private final long[] booked;
+    private final long[] blocked;
+    private final Map<Integer, DoctorAvailableSlot> realSlots = new HashMap<>();
+
+    public DoctorSlotGrid(Integer consultationDuration, LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        this.duration = consultationDuration != null && consultationDuration > 0
+                ? consultationDuration
+                : DEFAULT_DURATION;
+        this.slotsPerDay = (int) (ChronoUnit.MINUTES.between(DAY_START, DAY_END) / duration);
+        this.wordsPerDay = (slotsPerDay + 63) / 64;
+        this.booked = new long[Math.max(days, 0) * wordsPerDay];
+        this.blocked = new long[Math.max(days, 0) * wordsPerDay];
+    }
+
+    // Rows that do not fall on the grid (other duration, outside working hours) are ignored,
+    // and the first row wins when two share a start time.
+    public void add(DoctorAvailableSlot slot) {
+        int day = (int) ChronoUnit.DAYS.between(startDate, slot.getSlotDate());
+        LocalTime start = slot.getStartTime();
+        int minutes = (start.toSecondOfDay() - DAY_START.toSecondOfDay()) / 60;
+        if (day < 0 || day >= days || minutes < 0 || minutes % duration != 0
+                || start.getSecond() != 0 || start.getNano() != 0) {
+            return;
+        }
+        int index = minutes / duration;
+        if (index >= slotsPerDay || realSlots.putIfAbsent(cell(day, index), slot) != null) {
+            return;
+        }
+        if (slot.getStatus() == SlotStatus.BOOKED) {
+            set(booked, day, index);
+        } else if (slot.getStatus() == SlotStatus.BLOCKED) {
+            set(blocked, day, index);
+        }
+    }
+
+    public void addAll(Iterable<DoctorAvailableSlot> slots) {
+        for (DoctorAvailableSlot slot : slots) {
+            add(slot);
+        }
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public int slotsPerDay() {
+        return slotsPerDay;
+    }
+
+    public LocalDate date(int day) {
+        return startDate.plusDays(day);
+    }
+
+    public LocalTime startTime(int index) {
+        return DAY_START.plusMinutes((long) index * duration);
+    }
+
+    public LocalTime endTime(int index) {
+        return startTime(index).plusMinutes(duration);
+    }
+
+    public DoctorAvailableSlot realSlot(int day, int index) {
+        return realSlots.isEmpty() ? null : realSlots.get(cell(day, index));
+    }
+
+    public int realSlotCount() {
+        return realSlots.size();
+    }
+
+    public boolean isAvailable(int day, int index) {
+        int word = day * wordsPerDay + (index >>> 6);
+        long bit = 1L << index;
+        return ((booked[word] | blocked[word]) & bit) == 0;
+    }
+
+    public SlotStatus status(int day, int index) {
+        int word = day * wordsPerDay + (index >>> 6);
+        long bit = 1L << index;
+        if ((booked[word] & bit) != 0) {
+            return SlotStatus.BOOKED;
+        }
+        if ((blocked[word] & bit) != 0) {
+            return SlotStatus.BLOCKED;
+        }
+        return SlotStatus.AVAILABLE;
+    }
+
+    public int countBooked(int day) {
+        return count(booked, day);
+    }
+
+    public int countBlocked(int day) {
+        return count(blocked, day);
+    }
+
+    public int countAvailable(int day) {
+        return slotsPerDay - countBooked(day) - countBlocked(day);
+    }
+
+    private int cell(int day, int index) {
+        return day * slotsPerDay + index;
+    }
+
+    private void set(long[] mask, int day, int index) {
+        mask[day * wordsPerDay + (index >>> 6)] |= 1L << index;
+    }
+
+    private int count(long[] mask, int day) {
+        int total = 0;
+        for (int w = day * wordsPerDay, end = w + wordsPerDay; w < end; w++) {
+            total += Long.bitCount(mask[w]);
+        }
+        return total;
+    }
+}
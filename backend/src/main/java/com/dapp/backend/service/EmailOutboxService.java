@@ -0,0 +1,225 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.enums.EmailType;
+import com.dapp.backend.enums.OutboxStatus;
+import com.dapp.backend.model.EmailOutbox;
+import com.dapp.backend.repository.EmailOutboxRepository;
+import com.dapp.backend.util.RetryBackoff;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Transactional outbox for appointment emails. Callers enqueue inside their own transaction, so the row
+// only exists if the booking committed. EmailOutboxRelay drains due rows on a small worker pool and
+// retries failed sends with exponential backoff; rows left SENDING by a dead JVM are retried after
+// their lock expires, so delivery is at-least-once.
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int workerCount;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${email.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${email.outbox.lock-seconds:300}")
+    private long lockSeconds;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository, EmailService emailService,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${email.outbox.workers:4}") int workerCount) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerCount = workerCount;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Transactional
+    public void enqueueAppointmentConfirmation(
+            String toEmail,
+            String patientName,
+            String vaccineName,
+            LocalDate appointmentDate,
+            String timeSlot,
+            String centerName,
+            Long appointmentId) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("patientName", patientName);
+        variables.put("vaccineName", vaccineName);
+        variables.put("appointmentDate", appointmentDate.format(DATE_FORMAT));
+        variables.put("timeSlot", timeSlot);
+        variables.put("centerName", centerName);
+        variables.put("appointmentId", appointmentId);
+        enqueue(EmailType.APPOINTMENT_CONFIRMATION, toEmail, variables);
+    }
+
+    @Transactional
+    public void enqueueAppointmentScheduled(
+            String toEmail,
+            String patientName,
+            String vaccineName,
+            LocalDate appointmentDate,
+            String timeSlot,
+            String centerName,
+            String centerAddress,
+            Long appointmentId,
+            Integer doseNumber,
+            String cashierName,
+            String cashierPhone,
+            String doctorName,
+            String doctorPhone) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("patientName", patientName);
+        variables.put("vaccineName", vaccineName);
+        variables.put("appointmentDate", appointmentDate.format(DATE_FORMAT));
+        variables.put("timeSlot", timeSlot);
+        variables.put("centerName", centerName);
+        variables.put("centerAddress", centerAddress);
+        variables.put("appointmentId", appointmentId);
+        variables.put("doseNumber", doseNumber);
+        variables.put("cashierName", cashierName);
+        variables.put("cashierPhone", cashierPhone);
+        variables.put("doctorName", doctorName);
+        variables.put("doctorPhone", doctorPhone);
+        enqueue(EmailType.APPOINTMENT_SCHEDULED, toEmail, variables);
+    }
+
+    @Transactional
+    public void enqueueAppointmentCancellation(
+            String toEmail,
+            String patientName,
+            String vaccineName,
+            LocalDate appointmentDate,
+            String reason) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("patientName", patientName);
+        variables.put("vaccineName", vaccineName);
+        variables.put("appointmentDate", appointmentDate.format(DATE_FORMAT));
+        variables.put("reason", reason);
+        enqueue(EmailType.APPOINTMENT_CANCELLATION, toEmail, variables);
+    }
+
+    // Claims up to batch-size due rows, sends them on the worker pool and waits for the batch,
+    // so a slow SMTP server slows the relay down instead of piling up claimed rows.
+    public int relayDue() {
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> rows = emailOutboxRepository.lockDue(now, Math.max(batchSize, workerCount));
+            for (EmailOutbox row : rows) {
+                row.setStatus(OutboxStatus.SENDING);
+                row.setLockedUntil(now.plusSeconds(lockSeconds));
+            }
+            return emailOutboxRepository.saveAll(rows);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Void>> sends = new ArrayList<>(claimed.size());
+        for (EmailOutbox row : claimed) {
+            sends.add(CompletableFuture.runAsync(() -> deliver(row), workers));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+        return claimed.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void enqueue(EmailType type, String toEmail, Map<String, Object> variables) {
+        try {
+            emailOutboxRepository.save(EmailOutbox.builder()
+                    .type(type)
+                    .recipient(toEmail)
+                    .payload(objectMapper.writeValueAsString(variables))
+                    .status(OutboxStatus.PENDING)
+                    .nextAttemptAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize email payload", e);
+        }
+    }
+
+    private void deliver(EmailOutbox row) {
+        try {
+            Map<String, Object> variables = objectMapper.readValue(row.getPayload(),
+                    new TypeReference<Map<String, Object>>() {
+                    });
+            emailService.sendTemplateEmail(row.getType(), row.getRecipient(), variables);
+            row.setStatus(OutboxStatus.SENT);
+            row.setSentAt(LocalDateTime.now());
+            row.setLastError(null);
+        } catch (Exception e) {
+            int attempts = row.getAttempts() + 1;
+            row.setAttempts(attempts);
+            row.setLastError(e.getMessage());
+            if (attempts >= maxAttempts) {
+                row.setStatus(OutboxStatus.FAILED);
+                log.error("Giving up on {} email {} to {} after {} attempts", row.getType(), row.getId(),
+                        row.getRecipient(), attempts, e);
+            } else {
+                row.setStatus(OutboxStatus.PENDING);
+                row.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+                log.warn("Failed to send {} email {} (attempt {}), retrying at {}: {}", row.getType(),
+                        row.getId(), attempts, row.getNextAttemptAt(), e.getMessage());
+            }
+        }
+        row.setLockedUntil(null);
+        try {
+            emailOutboxRepository.save(row);
+        } catch (Exception e) {
+            // The lock expires and the row is retried; the recipient may get a duplicate.
+            log.error("Failed to record outcome of email {}", row.getId(), e);
+        }
+    }
+
+    long backoffSeconds(int attempts) {
+        return RetryBackoff.seconds(attempts, backoffBaseSeconds, backoffMaxSeconds);
+    }
+}
@@ -1,5 +1,6 @@
 package com.dapp.backend.service;
 
+import com.dapp.backend.enums.EmailType;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -7,14 +8,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import java.io.UnsupportedEncodingException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -30,134 +30,19 @@ public class EmailService {
         @Value("${mail.from.name}")
         private String fromName;
 
-        @Async
-        public void sendVaccinationReminder(
-                        String toEmail,
-                        String patientName,
-                        String vaccineName,
-                        LocalDate appointmentDate,
-                        String timeSlot,
-                        String centerName,
-                        String centerAddress,
-                        Integer doseNumber) throws MessagingException, UnsupportedEncodingException {
-
-                Context context = new Context();
-                context.setVariable("patientName", patientName);
-                context.setVariable("vaccineName", vaccineName);
-                context.setVariable("appointmentDate",
-                                appointmentDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-                context.setVariable("timeSlot", timeSlot);
-                context.setVariable("centerName", centerName);
-                context.setVariable("centerAddress", centerAddress);
-                context.setVariable("doseNumber", doseNumber);
-                context.setVariable("year", LocalDate.now().getYear());
-
-                String htmlContent = templateEngine.process("vaccination-reminder", context);
-
-                sendHtmlEmail(
-                                toEmail,
-                                "Nhắc nhở: Lịch tiêm chủng của bạn",
-                                htmlContent);
-
-                log.info("Sent vaccination reminder email to: {}", toEmail);
-        }
-
-        @Async
-        public void sendAppointmentConfirmation(
-                        String toEmail,
-                        String patientName,
-                        String vaccineName,
-                        LocalDate appointmentDate,
-                        String timeSlot,
-                        String centerName,
-                        Long appointmentId) throws MessagingException, UnsupportedEncodingException {
-
-                Context context = new Context();
-                context.setVariable("patientName", patientName);
-                context.setVariable("vaccineName", vaccineName);
-                context.setVariable("appointmentDate",
-                                appointmentDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-                context.setVariable("timeSlot", timeSlot);
-                context.setVariable("centerName", centerName);
-                context.setVariable("appointmentId", appointmentId);
-                context.setVariable("year", LocalDate.now().getYear());
-
-                String htmlContent = templateEngine.process("appointment-confirmation", context);
-
-                sendHtmlEmail(
-                                toEmail,
-                                "Lịch hẹn đã tạo thành công - Chờ xử lý - VaxSafe",
-                                htmlContent);
-
-                log.info("Sent appointment confirmation email to: {}", toEmail);
-        }
-
-        @Async
-        public void sendAppointmentScheduled(
-                        String toEmail,
-                        String patientName,
-                        String vaccineName,
-                        LocalDate appointmentDate,
-                        String timeSlot,
-                        String centerName,
-                        String centerAddress,
-                        Long appointmentId,
-                        Integer doseNumber,
-                        String cashierName,
-                        String cashierPhone,
-                        String doctorName,
-                        String doctorPhone) throws MessagingException, UnsupportedEncodingException {
-
-                Context context = new Context();
-                context.setVariable("patientName", patientName);
-                context.setVariable("vaccineName", vaccineName);
-                context.setVariable("appointmentDate",
-                                appointmentDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-                context.setVariable("timeSlot", timeSlot);
-                context.setVariable("centerName", centerName);
-                context.setVariable("centerAddress", centerAddress);
-                context.setVariable("appointmentId", appointmentId);
-                context.setVariable("doseNumber", doseNumber);
-                context.setVariable("cashierName", cashierName);
-                context.setVariable("cashierPhone", cashierPhone);
-                context.setVariable("doctorName", doctorName);
-                context.setVariable("doctorPhone", doctorPhone);
-                context.setVariable("year", LocalDate.now().getYear());
-
-                String htmlContent = templateEngine.process("appointment-scheduled", context);
-
-                sendHtmlEmail(
-                                toEmail,
-                                "Lịch hẹn đã được xác nhận - VaxSafe",
-                                htmlContent);
-
-                log.info("Sent appointment scheduled email to: {}", toEmail);
-        }
-
-        @Async
-        public void sendAppointmentCancellation(
-                        String toEmail,
-                        String patientName,
-                        String vaccineName,
-                        LocalDate appointmentDate,
-                        String reason) throws MessagingException, UnsupportedEncodingException {
-
+        // Synchronous send used by the email outbox relay and the reminder dispatcher, which handle
+        // failures and retries.
+        public void sendTemplateEmail(EmailType type, String toEmail, Map<String, Object> variables)
+                        throws MessagingException, UnsupportedEncodingException {
                 Context context = new Context();
-                context.setVariable("patientName", patientName);
-                context.setVariable("vaccineName", vaccineName);
-                context.setVariable("appointmentDate",
-                                appointmentDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-                context.setVariable("reason", reason);
+                context.setVariables(variables);
                 context.setVariable("year", LocalDate.now().getYear());
 
-                String htmlContent = templateEngine.process("appointment-cancellation", context);
+                String htmlContent = templateEngine.process(type.getTemplate(), context);
 
-                sendHtmlEmail(
-                                toEmail,
-                                "Thông báo hủy lịch hẹn - VaxSafe",
-                                htmlContent);
+                sendHtmlEmail(toEmail, type.getSubject(), htmlContent);
 
-                log.info("Sent appointment cancellation email to: {}", toEmail);
+                log.info("Sent {} email to: {}", type, toEmail);
         }
 
         public void sendHtmlEmail(String toEmail, String subject, String htmlContent)
@@ -180,29 +65,6 @@ public class EmailService {
                 }
         }
 
-        @Async
-        public void sendNextDoseReminder(
-                        String toEmail,
-                        String patientName,
-                        String vaccineName,
-                        Integer nextDoseNumber) throws MessagingException, UnsupportedEncodingException {
-
-                Context context = new Context();
-                context.setVariable("patientName", patientName);
-                context.setVariable("vaccineName", vaccineName);
-                context.setVariable("nextDoseNumber", nextDoseNumber);
-                context.setVariable("year", LocalDate.now().getYear());
-
-                String htmlContent = templateEngine.process("next-dose-reminder", context);
-
-                sendHtmlEmail(
-                                toEmail,
-                                "Nhắc nhở: Đã đến lịch tiêm mũi tiếp theo - VaxSafe",
-                                htmlContent);
-
-                log.info("Sent next dose reminder email to: {} for dose #{}", toEmail, nextDoseNumber);
-        }
-
         public void sendSimpleEmail(String toEmail, String subject, String text)
                         throws MessagingException, UnsupportedEncodingException {
                 MimeMessage message = mailSender.createMimeMessage();
@@ -2,7 +2,9 @@ package com.dapp.backend.service;
 
 import com.dapp.backend.dto.request.FamilyMemberRequest;
 import com.dapp.backend.dto.response.FamilyMemberResponse;
+import com.dapp.backend.dto.response.IdentityProvisioningResponse;
 import com.dapp.backend.dto.response.Pagination;
+import com.dapp.backend.enums.IdentityOwnerType;
 import com.dapp.backend.enums.IdentityType;
 import com.dapp.backend.exception.AppException;
 import com.dapp.backend.model.FamilyMember;
@@ -16,6 +18,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,7 +34,8 @@ public class FamilyMemberService {
     private final AuthService authService;
     private final FamilyMemberRepository familyMemberRepository;
     private final IdentityService identityService;
-    private final BlockchainService blockchainService;
+    private final IdentityProvisioningService identityProvisioningService;
+    private final DidResolutionCache didResolutionCache;
     private final com.dapp.backend.repository.VaccineRecordRepository vaccineRecordRepository;
 
     public FamilyMember toEntity(FamilyMemberRequest request) {
@@ -118,46 +123,20 @@ public class FamilyMemberService {
         FamilyMember familyMember = toEntity(request);
         familyMember.setUser(user);
 
-        // --- NEW LOGIC: Generate Identity BEFORE Save ---
-
         try {
-            // 1. Generate Identity Hash & DID
+            // 1. Generate Identity Hash & DID (local only)
             IdentityType idType = identityService.determineIdentityType(familyMember.getDateOfBirth());
             String identityHash = identityService.generateFamilyMemberIdentityHash(familyMember);
             String did = identityService.generateDID(identityHash, idType);
-
-            // 2. Set Identity Info on Entity
             familyMember.setBlockchainIdentityHash(identityHash);
             familyMember.setDid(did);
 
-            // 3. Generate & Upload FHIR Data to IPFS (uses identityHash for filename)
-            String ipfsDataHash = identityService.generateFamilyMemberDataJson(familyMember);
-            familyMember.setIpfsDataHash(ipfsDataHash);
-
-            log.debug("Presaved identity for family member: {} (hash: {}, DID: {})",
-                    familyMember.getFullName(), identityHash, did);
-
-            // 4. Save to Database (Single Save)
+            // 2. Save, and queue IPFS upload + on-chain identity creation in the same transaction
             FamilyMember savedMember = familyMemberRepository.save(familyMember);
+            identityProvisioningService.enqueue(IdentityOwnerType.FAMILY_MEMBER, savedMember.getId());
 
-            // 5. Blockchain Sync (Async/Fire-and-forget logic if needed, but here sync)
-            if (blockchainService.isBlockchainServiceAvailable()) {
-                var response = blockchainService.createIdentity(
-                        savedMember.getBlockchainIdentityHash(),
-                        savedMember.getDid(),
-                        idType,
-                        savedMember.getIpfsDataHash(),
-                        "family-member-" + savedMember.getFullName());
-
-                if (response != null && response.isSuccess()) {
-                    log.info("Blockchain identity created for family member: {} (txHash: {})",
-                            savedMember.getFullName(), response.getData().getTransactionHash());
-                } else {
-                    log.warn("Failed to create blockchain identity for family member: {}", savedMember.getFullName());
-                }
-            } else {
-                log.warn("Blockchain service not available, identity saved to database only");
-            }
+            log.debug("Saved family member: {} (hash: {}, DID: {}), identity provisioning queued",
+                    savedMember.getFullName(), identityHash, did);
 
             return toResponse(savedMember);
 
@@ -167,6 +146,27 @@ public class FamilyMemberService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public IdentityProvisioningResponse getIdentityStatus(Long id) throws AppException {
+        FamilyMember member = findOwnedMember(id);
+        return identityProvisioningService.getStatus(IdentityOwnerType.FAMILY_MEMBER, member.getId(),
+                member.getDid());
+    }
+
+    public IdentityProvisioningResponse retryIdentityProvisioning(Long id) throws AppException {
+        FamilyMember member = findOwnedMember(id);
+        identityProvisioningService.retry(IdentityOwnerType.FAMILY_MEMBER, member.getId());
+        return identityProvisioningService.getStatus(IdentityOwnerType.FAMILY_MEMBER, member.getId(),
+                member.getDid());
+    }
+
+    private FamilyMember findOwnedMember(Long id) throws AppException {
+        User user = authService.getCurrentUserLogin();
+        return familyMemberRepository.findById(id)
+                .filter(fm -> fm.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new AppException("Family member not found with ID: " + id));
+    }
+
     public FamilyMemberResponse updateFamilyMember(FamilyMemberRequest request) throws AppException {
         User user = authService.getCurrentUserLogin();
         FamilyMember existing = familyMemberRepository.findById(request.getId())
@@ -187,6 +187,14 @@ public class FamilyMemberService {
             throw new AppException("Unauthorized delete attempt for family member ID: " + id);
         }
         familyMemberRepository.delete(existing);
+        // Invalidating before commit would let a concurrent resolve cache the member again from the old row
+        String did = existing.getDid();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                didResolutionCache.invalidate(did);
+            }
+        });
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,188 @@
+package com.dapp.backend.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import com.dapp.backend.dto.mapper.fhir.FhirImmunizationMapper;
+import com.dapp.backend.enums.FhirExportFormat;
+import com.dapp.backend.model.FamilyMember;
+import com.dapp.backend.model.VaccineRecord;
+import com.dapp.backend.repository.FamilyMemberRepository;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.InstantType;
+import org.hl7.fhir.r4.model.Patient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Streams a user's immunization history, and that of every family member, as FHIR R4 straight to
+// the response. Records are read in keyset pages, each in its own short read-only transaction, and
+// written out before the next page is loaded, so memory stays flat however long the history is.
+// Each record's bundle repeats its Patient; the export writes each Patient only once.
+@Service
+@Slf4j
+public class FhirExportService {
+
+    private final VaccineRecordRepository vaccineRecordRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final FhirImmunizationMapper fhirImmunizationMapper;
+    private final FhirContext fhirContext;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${fhir.export.page-size:100}")
+    private int pageSize;
+
+    public FhirExportService(VaccineRecordRepository vaccineRecordRepository,
+            FamilyMemberRepository familyMemberRepository, FhirImmunizationMapper fhirImmunizationMapper,
+            FhirContext fhirContext, PlatformTransactionManager transactionManager) {
+        this.vaccineRecordRepository = vaccineRecordRepository;
+        this.familyMemberRepository = familyMemberRepository;
+        this.fhirImmunizationMapper = fhirImmunizationMapper;
+        this.fhirContext = fhirContext;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(Long userId, FhirExportFormat format, OutputStream outputStream) throws IOException {
+        // Parsers are cheap but not thread-safe: one per export, reused for every resource in it
+        IParser parser = fhirContext.newJsonParser().setPrettyPrint(false);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ResourceSink sink = new ResourceSink(parser, writer, format);
+
+        sink.begin();
+        int records = writeRecords(sink, (afterDate, afterId, limit) -> afterDate == null
+                ? vaccineRecordRepository.findUserHistoryPage(userId, limit)
+                : vaccineRecordRepository.findUserHistoryPageAfter(userId, afterDate, afterId, limit));
+
+        List<Long> familyMemberIds = readOnlyTransaction.execute(status -> familyMemberRepository
+                .findByUserId(userId).stream().map(FamilyMember::getId).toList());
+        for (Long familyMemberId : familyMemberIds) {
+            records += writeRecords(sink, (afterDate, afterId, limit) -> afterDate == null
+                    ? vaccineRecordRepository.findFamilyMemberHistoryPage(familyMemberId, limit)
+                    : vaccineRecordRepository.findFamilyMemberHistoryPageAfter(familyMemberId, afterDate, afterId,
+                            limit));
+        }
+        sink.end();
+        writer.flush();
+
+        log.info("Exported {} vaccine records ({} resources) as FHIR {} for user {}", records, sink.resources,
+                format, userId);
+    }
+
+    private int writeRecords(ResourceSink sink, PageQuery query) throws IOException {
+        Pageable limit = PageRequest.of(0, pageSize);
+        LocalDate afterDate = null;
+        Long afterId = null;
+        int written = 0;
+        while (true) {
+            LocalDate pageAfterDate = afterDate;
+            Long pageAfterId = afterId;
+            Page page = readOnlyTransaction.execute(status -> {
+                List<VaccineRecord> rows = query.fetch(pageAfterDate, pageAfterId, limit);
+                if (rows.isEmpty()) {
+                    return new Page(List.of(), null, null);
+                }
+                VaccineRecord last = rows.get(rows.size() - 1);
+                return new Page(rows.stream().map(fhirImmunizationMapper::toFhirBundle).toList(),
+                        last.getVaccinationDate(), last.getId());
+            });
+            for (Bundle bundle : page.bundles()) {
+                for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+                    sink.write(entry);
+                }
+            }
+            written += page.bundles().size();
+            if (page.bundles().size() < pageSize) {
+                return written;
+            }
+            afterDate = page.lastDate();
+            afterId = page.lastId();
+        }
+    }
+
+    private interface PageQuery {
+        List<VaccineRecord> fetch(LocalDate afterDate, Long afterId, Pageable limit);
+    }
+
+    private record Page(List<Bundle> bundles, LocalDate lastDate, Long lastId) {
+    }
+
+    // Writes entries as they come: inside a hand-written Bundle envelope for JSON, one per line for NDJSON
+    private static class ResourceSink {
+        private final IParser parser;
+        private final Writer writer;
+        // The parser may flush or close the writer it encodes into; keep the response stream open and buffered
+        private final Writer resourceWriter;
+        private final FhirExportFormat format;
+        private final Set<String> patients = new HashSet<>();
+        private int resources;
+
+        ResourceSink(IParser parser, Writer writer, FhirExportFormat format) {
+            this.parser = parser;
+            this.writer = writer;
+            this.resourceWriter = new FilterWriter(writer) {
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            this.format = format;
+        }
+
+        void begin() throws IOException {
+            if (format == FhirExportFormat.JSON) {
+                writer.write("{\"resourceType\":\"Bundle\",\"id\":\"" + UUID.randomUUID()
+                        + "\",\"type\":\"collection\",\"timestamp\":\"" + new InstantType(new Date()).getValueAsString()
+                        + "\",\"entry\":[");
+            }
+        }
+
+        void write(Bundle.BundleEntryComponent entry) throws IOException {
+            if (entry.getResource() instanceof Patient && !patients.add(entry.getFullUrl())) {
+                return;
+            }
+            if (format == FhirExportFormat.JSON) {
+                writer.write(resources > 0 ? ",{\"fullUrl\":\"" : "{\"fullUrl\":\"");
+                writer.write(escape(entry.getFullUrl()));
+                writer.write("\",\"resource\":");
+                parser.encodeResourceToWriter(entry.getResource(), resourceWriter);
+                writer.write('}');
+            } else {
+                parser.encodeResourceToWriter(entry.getResource(), resourceWriter);
+                writer.write('\n');
+            }
+            resources++;
+        }
+
+        void end() throws IOException {
+            if (format == FhirExportFormat.JSON) {
+                writer.write("]}");
+            }
+        }
+
+        private static String escape(String value) {
+            return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.enums.IdempotencyStatus;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.IdempotencyRecord;
+import com.dapp.backend.repository.IdempotencyRecordRepository;
+import com.dapp.backend.util.CryptoUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Replays the stored response of a POST retried with the same Idempotency-Key instead of running it again.
+// Keys are scoped per endpoint and per caller. Duplicates arriving on this instance while the first call
+// is still running wait for its result; an in-progress row in the database covers other instances.
+// Failed calls are not stored, so a retry after an error runs normally.
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long IN_PROGRESS_LEASE_MINUTES = 5;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.wait-seconds:30}")
+    private long waitSeconds;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @FunctionalInterface
+    public interface IdempotentAction<T> {
+        T execute() throws Exception;
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<String> result) {
+    }
+
+    public <T> T execute(String key, String scope, Object request, Class<T> responseType,
+            IdempotentAction<T> action) throws Exception {
+        if (key == null || key.isBlank()) {
+            return action.execute();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new AppException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String principal = currentPrincipal();
+        String fingerprint = fingerprint(scope, request);
+        String localKey = scope + "|" + principal + "|" + key;
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(localKey, mine);
+        if (running != null) {
+            checkFingerprint(running.fingerprint(), fingerprint);
+            return read(await(running), responseType);
+        }
+
+        try {
+            Optional<IdempotencyRecord> existing = idempotencyRecordRepository
+                    .findByIdempotencyKeyAndScopeAndPrincipal(key, scope, principal);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (record.getExpiresAt().isAfter(LocalDateTime.now())) {
+                    checkFingerprint(record.getFingerprint(), fingerprint);
+                    if (record.getStatus() != IdempotencyStatus.COMPLETED) {
+                        throw new AppException("A request with this " + HEADER + " is still being processed");
+                    }
+                    log.info("Replaying {} response for {} key {}", scope, principal, key);
+                    mine.result().complete(record.getResponseBody());
+                    return read(record.getResponseBody(), responseType);
+                }
+                idempotencyRecordRepository.delete(record);
+            }
+
+            IdempotencyRecord record = claim(key, scope, principal, fingerprint);
+            T response;
+            try {
+                response = action.execute();
+            } catch (Exception e) {
+                idempotencyRecordRepository.delete(record);
+                throw e;
+            }
+
+            String body = objectMapper.writeValueAsString(response);
+            record.setStatus(IdempotencyStatus.COMPLETED);
+            record.setResponseBody(body);
+            record.setExpiresAt(LocalDateTime.now().plusHours(ttlHours));
+            idempotencyRecordRepository.save(record);
+            mine.result().complete(body);
+            return response;
+        } catch (Exception e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, mine);
+        }
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 0 * * * ?}")
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency records", deleted);
+        }
+    }
+
+    private IdempotencyRecord claim(String key, String scope, String principal, String fingerprint)
+            throws AppException {
+        try {
+            return idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .idempotencyKey(key)
+                    .scope(scope)
+                    .principal(principal)
+                    .fingerprint(fingerprint)
+                    .status(IdempotencyStatus.IN_PROGRESS)
+                    .expiresAt(LocalDateTime.now().plusMinutes(IN_PROGRESS_LEASE_MINUTES))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new AppException("A request with this " + HEADER + " is still being processed");
+        }
+    }
+
+    private String await(InFlight running) throws Exception {
+        try {
+            return running.result().get(waitSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new AppException("A request with this " + HEADER + " is still being processed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> T read(String body, Class<T> responseType) throws AppException {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (Exception e) {
+            throw new AppException("Failed to replay stored response");
+        }
+    }
+
+    private static void checkFingerprint(String stored, String fingerprint) throws AppException {
+        if (!stored.equals(fingerprint)) {
+            throw new AppException(HEADER + " was already used for a different request");
+        }
+    }
+
+    private String fingerprint(String scope, Object request) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(scope.getBytes(StandardCharsets.UTF_8));
+        digest.update(objectMapper.writeValueAsBytes(request));
+        return CryptoUtils.bytesToHex(digest.digest());
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getName() != null ? authentication.getName() : "anonymous";
+    }
+}
@@ -0,0 +1,341 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.IdentityBackfillRow;
+import com.dapp.backend.dto.response.IdentityBackfillResponse;
+import com.dapp.backend.enums.BackfillStatus;
+import com.dapp.backend.enums.IdentityOwnerType;
+import com.dapp.backend.enums.IdentityType;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.FamilyMember;
+import com.dapp.backend.model.IdentityBackfillRun;
+import com.dapp.backend.model.Patient;
+import com.dapp.backend.model.User;
+import com.dapp.backend.repository.FamilyMemberRepository;
+import com.dapp.backend.repository.IdentityBackfillRunRepository;
+import com.dapp.backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Brings identities created while the blockchain service was down (or before identities existed) up to date.
+// Scans users, then family members, in id-ordered chunks: missing hashes and DIDs are computed on a small
+// pool and written back, and every identity that was never anchored is handed to IdentityProvisioningService,
+// whose workers bound the IPFS and chain concurrency. The scan pauses while that queue is longer than
+// max-pending-jobs, so a large backfill never starves live registrations. Progress is checkpointed on the run
+// after every chunk, so a restarted node resumes where it stopped.
+@Service
+@Slf4j
+public class IdentityBackfillService {
+
+    private final IdentityBackfillRunRepository runRepository;
+    private final UserRepository userRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final IdentityService identityService;
+    private final IdentityProvisioningService identityProvisioningService;
+    private final DidResolutionCache didResolutionCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService hashers;
+    private final int parallelism;
+
+    @Value("${identity.backfill.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${identity.backfill.max-pending-jobs:2000}")
+    private long maxPendingJobs;
+
+    @Value("${identity.backfill.lock-seconds:300}")
+    private long lockSeconds;
+
+    public IdentityBackfillService(IdentityBackfillRunRepository runRepository, UserRepository userRepository,
+            FamilyMemberRepository familyMemberRepository, IdentityService identityService,
+            IdentityProvisioningService identityProvisioningService, DidResolutionCache didResolutionCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${identity.backfill.parallelism:4}") int parallelism) {
+        this.runRepository = runRepository;
+        this.userRepository = userRepository;
+        this.familyMemberRepository = familyMemberRepository;
+        this.identityService = identityService;
+        this.identityProvisioningService = identityProvisioningService;
+        this.didResolutionCache = didResolutionCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = Math.max(1, parallelism);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.hashers = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "identity-backfill-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public IdentityBackfillResponse start() throws AppException {
+        IdentityBackfillRun run = transactionTemplate.execute(status -> {
+            IdentityBackfillRun latest = runRepository.findFirstByOrderByIdDesc().orElse(null);
+            if (latest != null && latest.getStatus() == BackfillStatus.RUNNING) {
+                return null;
+            }
+            return runRepository.save(IdentityBackfillRun.builder()
+                    .status(BackfillStatus.RUNNING)
+                    .startedAt(LocalDateTime.now())
+                    .build());
+        });
+        if (run == null) {
+            throw new AppException("An identity backfill is already running");
+        }
+        log.info("Starting identity backfill run {}", run.getId());
+        return toResponse(run);
+    }
+
+    public IdentityBackfillResponse getStatus() throws AppException {
+        return runRepository.findFirstByOrderByIdDesc()
+                .map(this::toResponse)
+                .orElseThrow(() -> new AppException("No identity backfill has been started"));
+    }
+
+    // Processes the next chunk of the running backfill. Returns the number of identities scanned; 0 when
+    // there is no running backfill, another node holds it, or the provisioning queue is full.
+    public int processNextChunk() {
+        IdentityBackfillRun run = runRepository.findFirstByOrderByIdDesc()
+                .filter(latest -> latest.getStatus() == BackfillStatus.RUNNING)
+                .orElse(null);
+        if (run == null || identityProvisioningService.countPending() >= maxPendingJobs) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer locked = transactionTemplate.execute(
+                status -> runRepository.tryLock(run.getId(), now, now.plusSeconds(lockSeconds)));
+        if (locked == null || locked == 0) {
+            return 0;
+        }
+
+        ChunkResult result = null;
+        try {
+            result = run.isUsersDone() ? backfillFamilyMembers(run.getLastFamilyMemberId())
+                    : backfillUsers(run.getLastUserId());
+            if (result.scanned() == 0 && run.isUsersDone()) {
+                return 0;
+            }
+            // An empty user scan still counts: it moves the run on to family members
+            return Math.max(result.scanned(), 1);
+        } finally {
+            saveProgress(run.getId(), result);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        hashers.shutdownNow();
+        hashers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private ChunkResult backfillUsers(long afterId) {
+        List<IdentityBackfillRow> rows = userRepository.findIdentityBackfillPage(afterId,
+                PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return ChunkResult.EMPTY;
+        }
+        Map<Long, String[]> identities = computeMissing(rows, row -> {
+            if (row.getFullName() == null) {
+                return null;
+            }
+            User user = User.builder()
+                    .fullName(row.getFullName())
+                    .birthday(row.getBirthDate())
+                    .patientProfile(Patient.builder().identityNumber(row.getIdentityNumber()).build())
+                    .build();
+            String identityHash = !isBlank(row.getIdentityHash()) ? row.getIdentityHash()
+                    : identityService.generateUserIdentityHash(user);
+            return new String[] { identityHash, identityService.generateDID(identityHash, IdentityType.ADULT) };
+        });
+        int hashed = writeIdentities(identities, userRepository::updateIdentity);
+
+        // Only patients with a completed profile get an on-chain identity, as at profile completion
+        Map<Long, Boolean> needsUpload = new LinkedHashMap<>();
+        for (IdentityBackfillRow row : rows) {
+            if (row.getIdentityNumber() != null && !row.getIdentityNumber().isBlank()
+                    && (!isBlank(row.getIdentityHash()) || identities.containsKey(row.getId()))) {
+                needsUpload.put(row.getId(), isBlank(row.getIpfsDataHash()));
+            }
+        }
+        int enqueued = identityProvisioningService.enqueueMissing(IdentityOwnerType.USER, needsUpload);
+        return new ChunkResult(rows.size(), rows.get(rows.size() - 1).getId(), hashed, enqueued);
+    }
+
+    private ChunkResult backfillFamilyMembers(long afterId) {
+        List<IdentityBackfillRow> rows = familyMemberRepository.findIdentityBackfillPage(afterId,
+                PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return ChunkResult.EMPTY;
+        }
+        Map<Long, String[]> identities = computeMissing(rows, row -> {
+            if (row.getFullName() == null || row.getBirthDate() == null) {
+                return null;
+            }
+            FamilyMember member = FamilyMember.builder()
+                    .fullName(row.getFullName())
+                    .dateOfBirth(row.getBirthDate())
+                    .user(row.getGuardianFullName() == null ? null : User.builder()
+                            .fullName(row.getGuardianFullName())
+                            .birthday(row.getGuardianBirthDate())
+                            .patientProfile(Patient.builder().identityNumber(row.getGuardianIdentityNumber()).build())
+                            .build())
+                    .build();
+            String identityHash = !isBlank(row.getIdentityHash()) ? row.getIdentityHash()
+                    : identityService.generateFamilyMemberIdentityHash(member);
+            IdentityType idType = identityService.determineIdentityType(row.getBirthDate());
+            return new String[] { identityHash, identityService.generateDID(identityHash, idType) };
+        });
+        int hashed = writeIdentities(identities, familyMemberRepository::updateIdentity);
+
+        Map<Long, Boolean> needsUpload = new LinkedHashMap<>();
+        for (IdentityBackfillRow row : rows) {
+            if (!isBlank(row.getIdentityHash()) || identities.containsKey(row.getId())) {
+                needsUpload.put(row.getId(), isBlank(row.getIpfsDataHash()));
+            }
+        }
+        int enqueued = identityProvisioningService.enqueueMissing(IdentityOwnerType.FAMILY_MEMBER, needsUpload);
+        return new ChunkResult(rows.size(), rows.get(rows.size() - 1).getId(), hashed, enqueued);
+    }
+
+    // Hashes the rows missing a hash or DID, split into one slice per hasher thread. Rows that cannot be
+    // hashed are logged and left out rather than failing the chunk. Returns id -> {identityHash, did}.
+    private Map<Long, String[]> computeMissing(List<IdentityBackfillRow> rows, IdentityComputer computer) {
+        List<IdentityBackfillRow> missing = rows.stream()
+                .filter(row -> isBlank(row.getIdentityHash()) || isBlank(row.getDid()))
+                .toList();
+        if (missing.isEmpty()) {
+            return Map.of();
+        }
+        int sliceSize = (missing.size() + parallelism - 1) / parallelism;
+        List<CompletableFuture<Map<Long, String[]>>> slices = new ArrayList<>();
+        for (int from = 0; from < missing.size(); from += sliceSize) {
+            List<IdentityBackfillRow> slice = missing.subList(from, Math.min(from + sliceSize, missing.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> {
+                Map<Long, String[]> computed = new LinkedHashMap<>();
+                for (IdentityBackfillRow row : slice) {
+                    try {
+                        String[] identity = computer.compute(row);
+                        if (identity != null) {
+                            computed.put(row.getId(), identity);
+                        } else {
+                            log.warn("⚠️ Identity backfill skipped {}: name or birth date missing", row.getId());
+                        }
+                    } catch (RuntimeException e) {
+                        log.warn("⚠️ Identity backfill could not hash {}: {}", row.getId(), e.getMessage());
+                    }
+                }
+                return computed;
+            }, hashers));
+        }
+        Map<Long, String[]> identities = new LinkedHashMap<>();
+        for (CompletableFuture<Map<Long, String[]>> slice : slices) {
+            identities.putAll(slice.join());
+        }
+        return identities;
+    }
+
+    // One transaction per chunk; if an identity collides with an existing one (same person registered twice),
+    // the chunk is redone row by row and the colliding rows are skipped.
+    private int writeIdentities(Map<Long, String[]> identities, IdentityWriter writer) {
+        if (identities.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> identities.forEach(
+                    (id, identity) -> writer.write(id, identity[0], identity[1])));
+        } catch (DataIntegrityViolationException e) {
+            List<Long> skipped = new ArrayList<>();
+            for (Map.Entry<Long, String[]> entry : identities.entrySet()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writer.write(entry.getKey(),
+                            entry.getValue()[0], entry.getValue()[1]));
+                } catch (DataIntegrityViolationException duplicate) {
+                    log.warn("⚠️ Identity backfill skipped {}: identity hash {} already in use", entry.getKey(),
+                            entry.getValue()[0]);
+                    skipped.add(entry.getKey());
+                }
+            }
+            skipped.forEach(identities::remove);
+        }
+        // A new DID may have been cached as unknown by a resolution that raced the backfill
+        identities.values().forEach(identity -> didResolutionCache.invalidate(identity[1]));
+        return identities.size();
+    }
+
+    // Advances the checkpoint past a processed chunk, moves on to family members or completes the run once
+    // a scan comes back empty, and always releases the run's lease.
+    private void saveProgress(Long runId, ChunkResult result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            IdentityBackfillRun run = runRepository.findById(runId).orElseThrow();
+            run.setLockedUntil(null);
+            if (result == null) {
+                runRepository.save(run);
+                return;
+            }
+            if (result.scanned() > 0) {
+                if (run.isUsersDone()) {
+                    run.setLastFamilyMemberId(result.lastId());
+                } else {
+                    run.setLastUserId(result.lastId());
+                }
+                run.setScanned(run.getScanned() + result.scanned());
+                run.setHashed(run.getHashed() + result.hashed());
+                run.setEnqueued(run.getEnqueued() + result.enqueued());
+            } else if (!run.isUsersDone()) {
+                run.setUsersDone(true);
+            } else {
+                run.setStatus(BackfillStatus.COMPLETED);
+                run.setFinishedAt(LocalDateTime.now());
+                log.info("✅ Identity backfill run {} finished: {} scanned, {} hashed, {} queued for anchoring",
+                        runId, run.getScanned(), run.getHashed(), run.getEnqueued());
+            }
+            runRepository.save(run);
+        });
+    }
+
+    private IdentityBackfillResponse toResponse(IdentityBackfillRun run) {
+        return IdentityBackfillResponse.builder()
+                .runId(run.getId())
+                .status(run.getStatus())
+                .lastUserId(run.getLastUserId())
+                .usersDone(run.isUsersDone())
+                .lastFamilyMemberId(run.getLastFamilyMemberId())
+                .scanned(run.getScanned())
+                .hashed(run.getHashed())
+                .enqueued(run.getEnqueued())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private interface IdentityComputer {
+        String[] compute(IdentityBackfillRow row);
+    }
+
+    private interface IdentityWriter {
+        int write(Long id, String identityHash, String did);
+    }
+
+    private record ChunkResult(int scanned, long lastId, int hashed, int enqueued) {
+        static final ChunkResult EMPTY = new ChunkResult(0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,327 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainIdentityDetails;
+import com.dapp.backend.dto.blockchain.BlockchainIdentityResponse;
+import com.dapp.backend.dto.response.IdentityProvisioningResponse;
+import com.dapp.backend.enums.IdentityOwnerType;
+import com.dapp.backend.enums.IdentityType;
+import com.dapp.backend.enums.ProvisioningStatus;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.IdentityProvisioningJob;
+import com.dapp.backend.repository.FamilyMemberRepository;
+import com.dapp.backend.repository.IdentityProvisioningJobRepository;
+import com.dapp.backend.repository.UserRepository;
+import com.dapp.backend.util.RetryBackoff;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Background provisioning of a user's or family member's identity after the local save: the FHIR Patient
+// profile is uploaded to IPFS, then the identity is created on chain. Each owner has one job row:
+// PENDING_IPFS -> PENDING_CHAIN -> COMPLETED, or FAILED once max-attempts is spent. A step whose result
+// already exists (ipfsDataHash on the owner, identity on chain) is skipped, so retries never duplicate it.
+@Service
+@Slf4j
+public class IdentityProvisioningService {
+
+    private static final List<String> ALL_PENDING = List.of(ProvisioningStatus.PENDING_IPFS.name(),
+            ProvisioningStatus.PENDING_CHAIN.name());
+
+    private final IdentityProvisioningJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final IdentityService identityService;
+    private final BlockchainService blockchainService;
+    private final DidResolutionCache didResolutionCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int workerCount;
+
+    @Value("${identity.provisioning.batch-size:20}")
+    private int batchSize;
+
+    @Value("${identity.provisioning.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${identity.provisioning.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${identity.provisioning.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${identity.provisioning.lock-seconds:300}")
+    private long lockSeconds;
+
+    public IdentityProvisioningService(IdentityProvisioningJobRepository jobRepository,
+            UserRepository userRepository, FamilyMemberRepository familyMemberRepository,
+            IdentityService identityService, BlockchainService blockchainService,
+            DidResolutionCache didResolutionCache, PlatformTransactionManager transactionManager,
+            @Value("${identity.provisioning.workers:4}") int workerCount) {
+        this.jobRepository = jobRepository;
+        this.userRepository = userRepository;
+        this.familyMemberRepository = familyMemberRepository;
+        this.identityService = identityService;
+        this.blockchainService = blockchainService;
+        this.didResolutionCache = didResolutionCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerCount = workerCount;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "identity-provision-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Called in the caller's transaction, so the job commits with the owner's identity hash and DID.
+    // An existing job is restarted from the IPFS step: the profile it uploads may have changed.
+    @Transactional
+    public void enqueue(IdentityOwnerType ownerType, Long ownerId) {
+        IdentityProvisioningJob job = jobRepository.findByOwnerTypeAndOwnerId(ownerType, ownerId)
+                .orElseGet(() -> IdentityProvisioningJob.builder().ownerType(ownerType).ownerId(ownerId).build());
+        job.setStatus(ProvisioningStatus.PENDING_IPFS);
+        job.setAttempts(0);
+        job.setNextAttemptAt(LocalDateTime.now());
+        job.setLockedUntil(null);
+        job.setLastError(null);
+        jobRepository.save(job);
+    }
+
+    // Queues an owner that has no job at all, e.g. one whose profile predates the queue. An existing job, failed
+    // or not, is left to its own retries. Returns whether a job was created.
+    @Transactional
+    public boolean enqueueIfAbsent(IdentityOwnerType ownerType, Long ownerId, boolean needsUpload) {
+        if (jobRepository.findByOwnerTypeAndOwnerId(ownerType, ownerId).isPresent()) {
+            return false;
+        }
+        jobRepository.save(IdentityProvisioningJob.builder()
+                .ownerType(ownerType)
+                .ownerId(ownerId)
+                .status(needsUpload ? ProvisioningStatus.PENDING_IPFS : ProvisioningStatus.PENDING_CHAIN)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        return true;
+    }
+
+    // Bulk enqueue for the identity backfill, one saveAll per chunk. Owners whose job is pending or completed
+    // are left alone; owners with a profile on IPFS start at the chain step (which skips identities already
+    // on chain). Maps owner id -> whether the profile still has to be uploaded. Returns the number queued.
+    @Transactional
+    public int enqueueMissing(IdentityOwnerType ownerType, Map<Long, Boolean> needsUpload) {
+        if (needsUpload.isEmpty()) {
+            return 0;
+        }
+        Map<Long, IdentityProvisioningJob> existing = new HashMap<>();
+        for (IdentityProvisioningJob job : jobRepository.findByOwnerTypeAndOwnerIdIn(ownerType, needsUpload.keySet())) {
+            existing.put(job.getOwnerId(), job);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<IdentityProvisioningJob> queued = new ArrayList<>();
+        needsUpload.forEach((ownerId, upload) -> {
+            IdentityProvisioningJob job = existing.get(ownerId);
+            if (job != null && job.getStatus() != ProvisioningStatus.FAILED) {
+                return;
+            }
+            if (job == null) {
+                job = IdentityProvisioningJob.builder().ownerType(ownerType).ownerId(ownerId).build();
+            }
+            job.setStatus(upload ? ProvisioningStatus.PENDING_IPFS : ProvisioningStatus.PENDING_CHAIN);
+            job.setAttempts(0);
+            job.setNextAttemptAt(now);
+            job.setLockedUntil(null);
+            job.setLastError(null);
+            queued.add(job);
+        });
+        jobRepository.saveAll(queued);
+        return queued.size();
+    }
+
+    public long countPending() {
+        return jobRepository.countByStatusIn(List.of(ProvisioningStatus.PENDING_IPFS,
+                ProvisioningStatus.PENDING_CHAIN));
+    }
+
+    // Puts a FAILED job back on the queue; steps that already succeeded are skipped again.
+    @Transactional
+    public void retry(IdentityOwnerType ownerType, Long ownerId) throws AppException {
+        IdentityProvisioningJob job = jobRepository.findByOwnerTypeAndOwnerId(ownerType, ownerId)
+                .orElseThrow(() -> new AppException("No identity provisioning found"));
+        if (job.getStatus() != ProvisioningStatus.FAILED) {
+            throw new AppException("Identity provisioning is not in a failed state");
+        }
+        job.setStatus(ProvisioningStatus.PENDING_IPFS);
+        job.setAttempts(0);
+        job.setNextAttemptAt(LocalDateTime.now());
+        job.setLastError(null);
+        jobRepository.save(job);
+    }
+
+    @Transactional(readOnly = true)
+    public IdentityProvisioningResponse getStatus(IdentityOwnerType ownerType, Long ownerId, String did) {
+        IdentityProvisioningResponse.IdentityProvisioningResponseBuilder response = IdentityProvisioningResponse
+                .builder()
+                .ownerType(ownerType)
+                .ownerId(ownerId)
+                .did(did);
+        jobRepository.findByOwnerTypeAndOwnerId(ownerType, ownerId).ifPresent(job -> response
+                .status(job.getStatus())
+                .attempts(job.getAttempts())
+                .nextAttemptAt(job.getStatus() == ProvisioningStatus.COMPLETED ? null : job.getNextAttemptAt())
+                .completedAt(job.getCompletedAt())
+                .transactionHash(job.getTransactionHash())
+                .lastError(job.getLastError()));
+        return response.build();
+    }
+
+    // Claims up to batch-size due jobs and runs them on the worker pool, waiting for the batch so the
+    // blockchain service never sees more than `workers` concurrent calls from this node.
+    public int processDue() {
+        if (!blockchainService.isBlockchainServiceAvailable()) {
+            return 0;
+        }
+        List<IdentityProvisioningJob> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<IdentityProvisioningJob> jobs = jobRepository.lockDue(ALL_PENDING, now,
+                    Math.max(batchSize, workerCount));
+            for (IdentityProvisioningJob job : jobs) {
+                job.setLockedUntil(now.plusSeconds(lockSeconds));
+            }
+            return jobRepository.saveAll(jobs);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Void>> runs = new ArrayList<>(claimed.size());
+        for (IdentityProvisioningJob job : claimed) {
+            runs.add(CompletableFuture.runAsync(() -> process(job), workers));
+        }
+        CompletableFuture.allOf(runs.toArray(new CompletableFuture[0])).join();
+        return claimed.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    void process(IdentityProvisioningJob job) {
+        try {
+            // Load and encode inside a read transaction; the network calls run outside it
+            PreparedIdentity identity = transactionTemplate.execute(status -> prepare(job));
+            if (identity == null) {
+                job.setStatus(ProvisioningStatus.FAILED);
+                job.setLastError("Identity owner no longer exists");
+                return;
+            }
+
+            String ipfsDataHash = identity.ipfsDataHash();
+            if (job.getStatus() == ProvisioningStatus.PENDING_IPFS) {
+                ipfsDataHash = blockchainService.uploadToIpfs(identity.fhirJson(),
+                        "VaxSafe_Patient_" + identity.identityHash() + ".json");
+                if (ipfsDataHash == null) {
+                    throw new IllegalStateException("IPFS upload returned no hash");
+                }
+                String uploaded = ipfsDataHash;
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (job.getOwnerType() == IdentityOwnerType.USER) {
+                        userRepository.updateIpfsDataHash(job.getOwnerId(), uploaded);
+                    } else {
+                        familyMemberRepository.updateIpfsDataHash(job.getOwnerId(), uploaded);
+                    }
+                });
+                didResolutionCache.invalidate(identity.did());
+                log.info("✅ Identity profile (FHIR) of {} {} uploaded to IPFS: {}", job.getOwnerType(),
+                        job.getOwnerId(), ipfsDataHash);
+                job.setStatus(ProvisioningStatus.PENDING_CHAIN);
+            }
+
+            // A create whose response was lost may already have landed; never create the identity twice
+            BlockchainIdentityDetails existing = blockchainService.getIdentity(identity.identityHash());
+            if (existing == null || !existing.isSuccess() || existing.getData() == null) {
+                BlockchainIdentityResponse response = blockchainService.createIdentity(identity.identityHash(),
+                        identity.did(), identity.idType(), ipfsDataHash, identity.label());
+                if (response == null || !response.isSuccess()) {
+                    throw new IllegalStateException("Blockchain identity creation failed"
+                            + (response != null && response.getMessage() != null ? ": " + response.getMessage() : ""));
+                }
+                job.setTransactionHash(response.getData() != null ? response.getData().getTransactionHash() : null);
+                log.info("✅ Blockchain identity created for {} {} (txHash: {})", job.getOwnerType(),
+                        job.getOwnerId(), job.getTransactionHash());
+                didResolutionCache.invalidate(identity.did());
+            }
+            job.setStatus(ProvisioningStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setLastError(null);
+        } catch (Exception e) {
+            recordFailure(job, e);
+        } finally {
+            job.setLockedUntil(null);
+            try {
+                jobRepository.save(job);
+            } catch (Exception e) {
+                // The lock expires and the job is picked up again; completed steps are skipped
+                log.error("Failed to record provisioning state of {} {}", job.getOwnerType(), job.getOwnerId(), e);
+            }
+        }
+    }
+
+    private PreparedIdentity prepare(IdentityProvisioningJob job) {
+        boolean upload = job.getStatus() == ProvisioningStatus.PENDING_IPFS;
+        if (job.getOwnerType() == IdentityOwnerType.USER) {
+            return userRepository.findById(job.getOwnerId())
+                    .filter(user -> user.getBlockchainIdentityHash() != null)
+                    .map(user -> new PreparedIdentity(user.getBlockchainIdentityHash(), user.getDid(),
+                            IdentityType.ADULT, user.getIpfsDataHash(), user.getEmail(),
+                            upload ? identityService.toUserFhirJson(user) : null))
+                    .orElse(null);
+        }
+        return familyMemberRepository.findById(job.getOwnerId())
+                .filter(member -> member.getBlockchainIdentityHash() != null)
+                .map(member -> new PreparedIdentity(member.getBlockchainIdentityHash(), member.getDid(),
+                        identityService.determineIdentityType(member.getDateOfBirth()), member.getIpfsDataHash(),
+                        "family-member-" + member.getFullName(),
+                        upload ? identityService.toFamilyMemberFhirJson(member) : null))
+                .orElse(null);
+    }
+
+    private void recordFailure(IdentityProvisioningJob job, Exception e) {
+        int attempts = job.getAttempts() + 1;
+        job.setAttempts(attempts);
+        job.setLastError(e.getMessage());
+        if (attempts >= maxAttempts) {
+            job.setStatus(ProvisioningStatus.FAILED);
+            log.error("❌ Giving up provisioning identity of {} {} after {} attempts", job.getOwnerType(),
+                    job.getOwnerId(), attempts, e);
+        } else {
+            job.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+            log.warn("⚠️ Provisioning identity of {} {} failed at {} (attempt {}), retrying at {}: {}",
+                    job.getOwnerType(), job.getOwnerId(), job.getStatus(), attempts, job.getNextAttemptAt(),
+                    e.getMessage());
+        }
+    }
+
+    long backoffSeconds(int attempts) {
+        return RetryBackoff.seconds(attempts, backoffBaseSeconds, backoffMaxSeconds);
+    }
+
+    private record PreparedIdentity(String identityHash, String did, IdentityType idType, String ipfsDataHash,
+            String label, String fhirJson) {
+    }
+}
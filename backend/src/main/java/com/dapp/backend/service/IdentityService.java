@@ -9,9 +9,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.IParser;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.util.HexFormat;
 
@@ -26,7 +28,16 @@ public class IdentityService {
     private final BlockchainService blockchainService;
     private final FamilyMemberRepository familyMemberRepository;
     private final com.dapp.backend.dto.mapper.fhir.FhirPatientMapper fhirPatientMapper;
-    private static final ca.uhn.fhir.context.FhirContext fhirContext = ca.uhn.fhir.context.FhirContext.forR4();
+    private final FhirContext fhirContext;
+
+    // One digest per thread, reused across calls (digest() resets it); the backfill hashes on several threads
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
 
     public String generateUserIdentityHash(User user) {
         try {
@@ -151,21 +162,24 @@ public class IdentityService {
     }
 
     private String generateSha256Hash(String input) throws Exception {
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        MessageDigest digest = SHA256.get();
         byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
 
         return "0x" + HexFormat.of().formatHex(hash);
     }
 
+    // FHIR Patient JSON for a user's identity profile, without uploading it
+    public String toUserFhirJson(User user) {
+        org.hl7.fhir.r4.model.Patient fhirPatient = fhirPatientMapper.toFhirPatient(user, user.getPatientProfile());
+        IParser parser = fhirContext.newJsonParser();
+        parser.setPrettyPrint(true);
+        return parser.encodeResourceToString(fhirPatient);
+    }
+
     public String generateIdentityDataJson(User user) {
         try {
-            // 1. Convert User to FHIR Patient resource
-            org.hl7.fhir.r4.model.Patient fhirPatient = fhirPatientMapper.toFhirPatient(user, user.getPatientProfile());
-
-            // 2. Serialize FHIR resource to JSON string
-            IParser parser = fhirContext.newJsonParser();
-            parser.setPrettyPrint(true);
-            String fhirJson = parser.encodeResourceToString(fhirPatient);
+            // 1-2. Convert User to FHIR Patient resource and serialize it
+            String fhirJson = toUserFhirJson(user);
 
             // 3. Upload to IPFS
             if (blockchainService.isBlockchainServiceAvailable()) {
@@ -205,87 +219,7 @@ public class IdentityService {
 
     public String generateFamilyMemberDataJson(FamilyMember member) {
         try {
-            // 1. Convert FamilyMember to FHIR Patient resource.
-            // Note: member.getDid() might be null if called before DID generation ?
-            // BUT we are refactoring to set DID before this call.
-
-            org.hl7.fhir.r4.model.Patient fhirPatient = new org.hl7.fhir.r4.model.Patient();
-
-            // Set ID as DID if available, else temporary
-            if (member.getDid() != null) {
-                fhirPatient.setId(member.getDid());
-                fhirPatient.addIdentifier().setSystem("http://vaxsafe.com/did").setValue(member.getDid());
-            } else {
-                fhirPatient.setId("TEMP-ID");
-            }
-
-            // Set Name
-            org.hl7.fhir.r4.model.HumanName name = new org.hl7.fhir.r4.model.HumanName();
-            name.setText(member.getFullName());
-            fhirPatient.addName(name);
-
-            // Set DOB
-            if (member.getDateOfBirth() != null) {
-                java.util.Date date = java.util.Date
-                        .from(member.getDateOfBirth().atStartOfDay(java.time.ZoneId.systemDefault()).toInstant());
-                fhirPatient.setBirthDate(date);
-            }
-
-            // Set Gender
-            if (member.getGender() != null) {
-                switch (member.getGender()) {
-                    case MALE -> fhirPatient.setGender(org.hl7.fhir.r4.model.Enumerations.AdministrativeGender.MALE);
-                    case FEMALE ->
-                        fhirPatient.setGender(org.hl7.fhir.r4.model.Enumerations.AdministrativeGender.FEMALE);
-                    default -> fhirPatient.setGender(org.hl7.fhir.r4.model.Enumerations.AdministrativeGender.OTHER);
-                }
-            }
-
-            // Set Phone (Telecom)
-            if (member.getPhone() != null && !member.getPhone().isEmpty()) {
-                org.hl7.fhir.r4.model.ContactPoint phone = new org.hl7.fhir.r4.model.ContactPoint();
-                phone.setSystem(org.hl7.fhir.r4.model.ContactPoint.ContactPointSystem.PHONE);
-                phone.setValue(member.getPhone());
-                phone.setUse(org.hl7.fhir.r4.model.ContactPoint.ContactPointUse.MOBILE);
-                fhirPatient.addTelecom(phone);
-            }
-
-            // Set Identifiers (National ID, Birth Certificate)
-            if (member.getIdentityNumber() != null && !member.getIdentityNumber().isEmpty()) {
-                fhirPatient.addIdentifier()
-                        .setSystem("urn:oid:2.16.840.1.113883.4.1") // Standard OID or custom
-                        .setValue(member.getIdentityNumber())
-                        .setUse(org.hl7.fhir.r4.model.Identifier.IdentifierUse.OFFICIAL);
-            }
-
-            if (member.getBirthCertificateNumber() != null && !member.getBirthCertificateNumber().isEmpty()) {
-                fhirPatient.addIdentifier()
-                        .setSystem("http://vaxsafe.com/fhir/StructureDefinition/birth-certificate")
-                        .setValue(member.getBirthCertificateNumber())
-                        .setUse(org.hl7.fhir.r4.model.Identifier.IdentifierUse.OFFICIAL);
-            }
-
-            // Set Relationship as Extension
-            if (member.getRelationship() != null && !member.getRelationship().isEmpty()) {
-                org.hl7.fhir.r4.model.Extension relExt = new org.hl7.fhir.r4.model.Extension();
-                relExt.setUrl("http://vaxsafe.com/fhir/StructureDefinition/patient-relationship");
-                relExt.setValue(new org.hl7.fhir.r4.model.StringType(member.getRelationship()));
-                fhirPatient.addExtension(relExt);
-            }
-
-            // Guardian DID (Extension)
-            if (member.getUser() != null) {
-                org.hl7.fhir.r4.model.Extension guardianExt = new org.hl7.fhir.r4.model.Extension();
-                guardianExt.setUrl("http://vaxsafe.com/fhir/StructureDefinition/guardian-did");
-                String guardianDid = member.getUser().getDid() != null ? member.getUser().getDid()
-                        : "user-" + member.getUser().getId();
-                guardianExt.setValue(new org.hl7.fhir.r4.model.StringType(guardianDid));
-                fhirPatient.addExtension(guardianExt);
-            }
-
-            IParser parser = fhirContext.newJsonParser();
-            parser.setPrettyPrint(true);
-            String jsonContent = parser.encodeResourceToString(fhirPatient);
+            String jsonContent = toFamilyMemberFhirJson(member);
 
             // Use Identity Hash for filename (passed in member object)
             String filename;
@@ -315,6 +249,88 @@ public class IdentityService {
         }
     }
 
+    // FHIR Patient JSON for a family member's identity profile, without uploading it.
+    // Expects the DID to be set already; the guardian is read from member.getUser().
+    public String toFamilyMemberFhirJson(FamilyMember member) {
+        org.hl7.fhir.r4.model.Patient fhirPatient = new org.hl7.fhir.r4.model.Patient();
+
+        // Set ID as DID if available, else temporary
+        if (member.getDid() != null) {
+            fhirPatient.setId(member.getDid());
+            fhirPatient.addIdentifier().setSystem("http://vaxsafe.com/did").setValue(member.getDid());
+        } else {
+            fhirPatient.setId("TEMP-ID");
+        }
+
+        // Set Name
+        org.hl7.fhir.r4.model.HumanName name = new org.hl7.fhir.r4.model.HumanName();
+        name.setText(member.getFullName());
+        fhirPatient.addName(name);
+
+        // Set DOB
+        if (member.getDateOfBirth() != null) {
+            java.util.Date date = java.util.Date
+                    .from(member.getDateOfBirth().atStartOfDay(java.time.ZoneId.systemDefault()).toInstant());
+            fhirPatient.setBirthDate(date);
+        }
+
+        // Set Gender
+        if (member.getGender() != null) {
+            switch (member.getGender()) {
+                case MALE -> fhirPatient.setGender(org.hl7.fhir.r4.model.Enumerations.AdministrativeGender.MALE);
+                case FEMALE ->
+                    fhirPatient.setGender(org.hl7.fhir.r4.model.Enumerations.AdministrativeGender.FEMALE);
+                default -> fhirPatient.setGender(org.hl7.fhir.r4.model.Enumerations.AdministrativeGender.OTHER);
+            }
+        }
+
+        // Set Phone (Telecom)
+        if (member.getPhone() != null && !member.getPhone().isEmpty()) {
+            org.hl7.fhir.r4.model.ContactPoint phone = new org.hl7.fhir.r4.model.ContactPoint();
+            phone.setSystem(org.hl7.fhir.r4.model.ContactPoint.ContactPointSystem.PHONE);
+            phone.setValue(member.getPhone());
+            phone.setUse(org.hl7.fhir.r4.model.ContactPoint.ContactPointUse.MOBILE);
+            fhirPatient.addTelecom(phone);
+        }
+
+        // Set Identifiers (National ID, Birth Certificate)
+        if (member.getIdentityNumber() != null && !member.getIdentityNumber().isEmpty()) {
+            fhirPatient.addIdentifier()
+                    .setSystem("urn:oid:2.16.840.1.113883.4.1") // Standard OID or custom
+                    .setValue(member.getIdentityNumber())
+                    .setUse(org.hl7.fhir.r4.model.Identifier.IdentifierUse.OFFICIAL);
+        }
+
+        if (member.getBirthCertificateNumber() != null && !member.getBirthCertificateNumber().isEmpty()) {
+            fhirPatient.addIdentifier()
+                    .setSystem("http://vaxsafe.com/fhir/StructureDefinition/birth-certificate")
+                    .setValue(member.getBirthCertificateNumber())
+                    .setUse(org.hl7.fhir.r4.model.Identifier.IdentifierUse.OFFICIAL);
+        }
+
+        // Set Relationship as Extension
+        if (member.getRelationship() != null && !member.getRelationship().isEmpty()) {
+            org.hl7.fhir.r4.model.Extension relExt = new org.hl7.fhir.r4.model.Extension();
+            relExt.setUrl("http://vaxsafe.com/fhir/StructureDefinition/patient-relationship");
+            relExt.setValue(new org.hl7.fhir.r4.model.StringType(member.getRelationship()));
+            fhirPatient.addExtension(relExt);
+        }
+
+        // Guardian DID (Extension)
+        if (member.getUser() != null) {
+            org.hl7.fhir.r4.model.Extension guardianExt = new org.hl7.fhir.r4.model.Extension();
+            guardianExt.setUrl("http://vaxsafe.com/fhir/StructureDefinition/guardian-did");
+            String guardianDid = member.getUser().getDid() != null ? member.getUser().getDid()
+                    : "user-" + member.getUser().getId();
+            guardianExt.setValue(new org.hl7.fhir.r4.model.StringType(guardianDid));
+            fhirPatient.addExtension(guardianExt);
+        }
+
+        IParser parser = fhirContext.newJsonParser();
+        parser.setPrettyPrint(true);
+        return parser.encodeResourceToString(fhirPatient);
+    }
+
     public void linkBirthCertificate(FamilyMember member, String birthCertificateNumber) {
         log.info("\n" +
                 "╔═══════════════════════════════════════════════════════════════════╗\n" +
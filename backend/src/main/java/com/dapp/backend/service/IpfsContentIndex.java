@@ -0,0 +1,85 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.model.IpfsContent;
+import com.dapp.backend.repository.IpfsContentRepository;
+import com.dapp.backend.util.MerkleTree;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+// Remembers which JSON documents are already on IPFS so unchanged profiles are not uploaded again.
+// The gateway parses the JSON and Pinata pins its re-serialisation, so formatting never changes the
+// CID but key order and values do. The key is therefore the SHA-256 of the document re-written
+// compact with key order kept: pretty and compact encodings of one resource share an entry.
+// Lookups are counted in ipfs.upload.dedup{result=hit|miss}.
+@Component
+@Slf4j
+public class IpfsContentIndex {
+
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper();
+
+    private final IpfsContentRepository ipfsContentRepository;
+    private final TransactionTemplate ownTransaction;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${ipfs.dedup.enabled:true}")
+    private boolean enabled;
+
+    public IpfsContentIndex(IpfsContentRepository ipfsContentRepository, MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.ipfsContentRepository = ipfsContentRepository;
+        // Uploads happen inside callers' transactions (registration, profile edits); a duplicate-key
+        // insert must not poison them
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.hits = meterRegistry.counter("ipfs.upload.dedup", "result", "hit");
+        this.misses = meterRegistry.counter("ipfs.upload.dedup", "result", "miss");
+    }
+
+    public String findCid(String json) {
+        if (!enabled) {
+            return null;
+        }
+        String cid = ipfsContentRepository.findByContentHash(contentHash(json)).map(IpfsContent::getCid).orElse(null);
+        (cid != null ? hits : misses).increment();
+        return cid;
+    }
+
+    public void remember(String json, String cid) {
+        if (!enabled) {
+            return;
+        }
+        String contentHash = contentHash(json);
+        try {
+            ownTransaction.executeWithoutResult(status -> {
+                if (ipfsContentRepository.findByContentHash(contentHash).isEmpty()) {
+                    ipfsContentRepository.save(IpfsContent.builder().contentHash(contentHash).cid(cid).build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another upload of the same content got there first; its CID is as good as ours
+            log.debug("IPFS content already indexed for CID {}", cid);
+        }
+    }
+
+    static String contentHash(String json) {
+        String canonical;
+        try {
+            canonical = CANONICAL_MAPPER.writeValueAsString(CANONICAL_MAPPER.readTree(json));
+        } catch (JsonProcessingException e) {
+            canonical = json;
+        }
+        return MerkleTree.toHex(MerkleTree.sha256(canonical.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -9,8 +9,10 @@ import com.dapp.backend.exception.AppException;
 import com.dapp.backend.model.News;
 import com.dapp.backend.repository.NewsRepository;
 import com.dapp.backend.service.spec.NewsSpecifications;
+import com.dapp.backend.util.CursorUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -92,6 +94,47 @@ public class NewsService {
     }
 
     
+    public Pagination getAllNewsByCursor(Specification<News> specification, String cursor, int pageSize,
+            boolean withCount) throws AppException {
+        Specification<News> finalSpec = specification != null
+                ? specification.and(NewsSpecifications.notDeleted())
+                : NewsSpecifications.notDeleted();
+
+        Specification<News> seek = finalSpec;
+        if (!CursorUtils.isFirstPage(cursor)) {
+            Long afterId = CursorUtils.decodeId(cursor);
+            seek = finalSpec.and((root, query, cb) -> cb.lessThan(root.get("id"), afterId));
+        }
+
+        List<News> rows = newsRepository.findBy(seek, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                .limit(pageSize + 1)
+                .all());
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        Pagination pagination = new Pagination();
+        Pagination.Meta meta = new Pagination.Meta();
+        meta.setPageSize(pageSize);
+        meta.setHasNext(hasNext);
+        if (hasNext) {
+            meta.setNextCursor(CursorUtils.encode(rows.get(rows.size() - 1).getId()));
+        }
+        if (withCount) {
+            meta.setTotal(newsRepository.count(finalSpec));
+        }
+
+        pagination.setMeta(meta);
+        pagination.setResult(rows.stream()
+                .map(NewsMapper::toResponse)
+                .collect(Collectors.toList()));
+
+        return pagination;
+    }
+
+    
     public List<NewsResponse> getPublishedNews() {
         return newsRepository.findPublishedNews().stream()
                 .map(NewsMapper::toResponse)
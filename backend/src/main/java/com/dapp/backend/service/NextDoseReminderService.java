@@ -1,5 +1,6 @@
 package com.dapp.backend.service;
 
+import com.dapp.backend.enums.EmailType;
 import com.dapp.backend.enums.ReminderChannel;
 import com.dapp.backend.enums.ReminderStatus;
 import com.dapp.backend.enums.ReminderType;
@@ -14,7 +15,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
@@ -26,6 +29,7 @@ public class NextDoseReminderService {
     private final VaccineRepository vaccineRepository;
     private final EmailService emailService;
     private final NotificationLogService notificationLogService;
+    private final ReminderDispatcher reminderDispatcher;
 
     @Transactional
     public List<VaccinationReminder> createNextDoseReminder(Appointment completedAppointment) throws AppException {
@@ -102,36 +106,14 @@ public class NextDoseReminderService {
         return reminders;
     }
 
-    @Transactional
     public void sendNextDoseReminders() {
         log.info("Starting to send next dose reminders for today...");
-
-        List<VaccinationReminder> reminders = reminderRepository
-                .findByReminderTypeAndScheduledDateAndStatus(
-                        ReminderType.NEXT_DOSE_REMINDER,
-                        LocalDate.now(),
-                        ReminderStatus.PENDING);
-
-        log.info("Found {} next dose reminders to send", reminders.size());
-
-        int successCount = 0;
-        int failCount = 0;
-
-        for (VaccinationReminder reminder : reminders) {
-            try {
-                sendNextDoseReminder(reminder);
-                successCount++;
-            } catch (Exception e) {
-                log.error("Failed to send next dose reminder ID: {}", reminder.getId(), e);
-                handleReminderFailure(reminder, e.getMessage());
-                failCount++;
-            }
-        }
-
-        log.info("Finished sending next dose reminders. Success: {}, Failed: {}", successCount, failCount);
+        reminderDispatcher.dispatch("next dose",
+                (now, limit) -> reminderRepository.lockDueNextDoseReminders(LocalDate.now(), now, limit),
+                this::sendNextDoseReminder, this::handleReminderFailure);
     }
 
-    @Transactional
+    // Sends one reminder and marks it SENT; ReminderDispatcher saves it with the rest of its chunk
     public void sendNextDoseReminder(VaccinationReminder reminder) throws Exception {
         log.info("Sending next dose reminder ID: {} via {}", reminder.getId(), reminder.getChannel());
 
@@ -146,15 +128,14 @@ public class NextDoseReminderService {
         if (reminder.getChannel() == ReminderChannel.EMAIL) {
             String content = buildNextDoseEmailContent(patientName, vaccineName, nextDoseNumber);
 
-            emailService.sendNextDoseReminder(
-                    reminder.getRecipientEmail(),
-                    patientName,
-                    vaccineName,
-                    nextDoseNumber);
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("patientName", patientName);
+            variables.put("vaccineName", vaccineName);
+            variables.put("nextDoseNumber", nextDoseNumber);
+            emailService.sendTemplateEmail(EmailType.NEXT_DOSE_REMINDER, reminder.getRecipientEmail(), variables);
 
             reminder.setStatus(ReminderStatus.SENT);
             reminder.setSentAt(java.time.LocalDateTime.now());
-            reminderRepository.save(reminder);
 
             notificationLogService.logSuccess(
                     user,
@@ -184,8 +165,6 @@ public class NextDoseReminderService {
             reminder.setNextRetryAt(java.time.LocalDateTime.now().plusMinutes(retryDelayMinutes));
         }
 
-        reminderRepository.save(reminder);
-
         notificationLogService.logFailure(
                 reminder.getUser(),
                 ReminderType.NEXT_DOSE_REMINDER,
@@ -31,6 +31,7 @@ public class OrderService {
     private final VaccineRepository vaccineRepository;
     private final PaymentRepository paymentRepository;
     private final PaymentService paymentService;
+    private final VaccineStockService vaccineStockService;
 
     @org.springframework.transaction.annotation.Transactional(rollbackFor = Exception.class)
     public PaymentResponse createOrder(OrderRequest request, String userAgent)
@@ -42,11 +43,9 @@ public class OrderService {
             Vaccine vaccine = vaccineRepository.findById(item.getId())
                     .orElseThrow(() -> new AppException("Vaccine not found"));
 
-            if (vaccine.getStock() < item.getQuantity()) {
+            if (!vaccineStockService.tryReserve(vaccine.getId(), item.getQuantity())) {
                 throw new AppException("Not enough stock for vaccine: " + vaccine.getName());
             }
-            vaccine.setStock(vaccine.getStock() - item.getQuantity());
-            vaccineRepository.save(vaccine);
 
             OrderItem orderItem = new OrderItem();
             orderItem.setQuantity(item.getQuantity());
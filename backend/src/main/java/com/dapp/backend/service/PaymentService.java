@@ -16,6 +16,7 @@ import com.dapp.backend.repository.PaymentRepository;
 import com.paypal.base.rest.PayPalRESTException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.UnsupportedEncodingException;
 
@@ -28,7 +29,9 @@ public class PaymentService {
         private final PaymentRepository paymentRepository;
         private final VnpayService vnpayService;
         private final PaypalService paypalService;
-        private final EmailService emailService;
+        private final EmailOutboxService emailOutboxService;
+        private final SlotCapacityLedger slotCapacityLedger;
+        private final VaccineStockService vaccineStockService;
 
         public String createBankUrl(long amount, Long referenceId, Long paymentId, TypeTransactionEnum type,
                         String ipAddress, String userAgent) throws UnsupportedEncodingException {
@@ -40,6 +43,7 @@ public class PaymentService {
                 return paypalService.createPaymentUrl(amount, referenceId, paymentId, type, userAgent);
         }
 
+        @Transactional(rollbackFor = Exception.class)
         public void successPayment(PaymentRequest request) throws AppException {
                 Payment payment = paymentRepository.findById(request.getPaymentId())
                                 .orElseThrow(() -> new AppException("Payment not found!"));
@@ -71,7 +75,7 @@ public class PaymentService {
                                         String timeSlot = appointment.getScheduledTimeSlot() != null
                                                         ? appointment.getScheduledTimeSlot().toString()
                                                         : "Chưa xác định";
-                                        emailService.sendAppointmentConfirmation(
+                                        emailOutboxService.enqueueAppointmentConfirmation(
                                                         patient.getEmail(),
                                                         patient.getFullName(),
                                                         appointment.getVaccine().getName(),
@@ -97,6 +101,9 @@ public class PaymentService {
                 if (request.getType() == TypeTransactionEnum.ORDER) {
                         Order order = orderRepository.findById(Long.parseLong(request.getReferenceId()))
                                         .orElseThrow(() -> new AppException("Order not found!"));
+                        if (order.getStatus() != OrderStatus.CANCELLED) {
+                                vaccineStockService.release(order);
+                        }
                         order.setStatus(OrderStatus.CANCELLED);
                         payment.setReferenceType(request.getType());
                 } else if (request.getType() == TypeTransactionEnum.APPOINTMENT) {
@@ -104,6 +111,12 @@ public class PaymentService {
                         Appointment appointment = appointmentRepository
                                         .findById(Long.parseLong(request.getReferenceId()))
                                         .orElseThrow(() -> new AppException("Appointment not found!"));
+                        if (appointment.getStatus() != AppointmentStatus.CANCELLED) {
+                                slotCapacityLedger.release(appointment);
+                                if (appointment.getVaccine() != null) {
+                                        vaccineStockService.release(appointment.getVaccine().getId(), 1);
+                                }
+                        }
                         appointment.setStatus(AppointmentStatus.CANCELLED);
                         appointmentRepository.save(appointment);
                         payment.setReferenceType(request.getType());
@@ -113,6 +126,7 @@ public class PaymentService {
                 paymentRepository.save(payment);
         }
 
+        @Transactional(rollbackFor = Exception.class)
         public void updatePaymentMetaMask(PaymentRequest request) throws AppException {
 
                 Appointment appointment = appointmentRepository.findById(Long.parseLong(request.getReferenceId()))
@@ -132,7 +146,7 @@ public class PaymentService {
                                 String timeSlot = appointment.getScheduledTimeSlot() != null
                                                 ? appointment.getScheduledTimeSlot().toString()
                                                 : "Chưa xác định";
-                                emailService.sendAppointmentConfirmation(
+                                emailOutboxService.enqueueAppointmentConfirmation(
                                                 patient.getEmail(),
                                                 patient.getFullName(),
                                                 appointment.getVaccine().getName(),
@@ -0,0 +1,487 @@
+package com.dapp.backend.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.dapp.backend.dto.blockchain.BlockchainBatchDetails;
+import com.dapp.backend.dto.blockchain.BlockchainBatchResponse;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordDetails;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordList;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordResponse;
+import com.dapp.backend.dto.mapper.fhir.FhirImmunizationMapper;
+import com.dapp.backend.dto.response.AnchoringBacklogResponse;
+import com.dapp.backend.enums.AnchorStatus;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.AnchorBatch;
+import com.dapp.backend.model.ChainVaccineRecord;
+import com.dapp.backend.model.RecordAnchorJob;
+import com.dapp.backend.model.VaccineRecord;
+import com.dapp.backend.repository.AnchorBatchRepository;
+import com.dapp.backend.repository.ChainVaccineRecordRepository;
+import com.dapp.backend.repository.RecordAnchorJobRepository;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import com.dapp.backend.util.MerkleTree;
+import com.dapp.backend.util.RetryBackoff;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Durable queue that moves a vaccine record through IPFS upload and on-chain creation after the doctor's
+// request has committed. Each record has one job row: PENDING_IPFS -> PENDING_CHAIN -> ANCHORED, or FAILED
+// once max-attempts is spent. Steps whose result is already on the record are skipped, so a job re-run
+// after a crash does not upload or anchor twice.
+// In batch mode PENDING_CHAIN jobs are not anchored one by one: anchorDueBatch collects them over a size
+// or time window and anchors a single Merkle root, storing each record's inclusion proof.
+@Service
+@Slf4j
+public class RecordAnchoringService {
+
+    private static final List<String> ALL_PENDING = List.of(AnchorStatus.PENDING_IPFS.name(),
+            AnchorStatus.PENDING_CHAIN.name());
+    private static final List<String> IPFS_PENDING = List.of(AnchorStatus.PENDING_IPFS.name());
+    private static final List<String> CHAIN_PENDING = List.of(AnchorStatus.PENDING_CHAIN.name());
+
+    private final RecordAnchorJobRepository anchorJobRepository;
+    private final AnchorBatchRepository anchorBatchRepository;
+    private final VaccineRecordRepository vaccineRecordRepository;
+    private final ChainVaccineRecordRepository chainVaccineRecordRepository;
+    private final BlockchainService blockchainService;
+    private final FhirImmunizationMapper fhirImmunizationMapper;
+    private final FhirContext fhirContext;
+    private final VerificationCache verificationCache;
+    private final VaccineCertificateService vaccineCertificateService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int workerCount;
+
+    @Value("${anchoring.batch-size:20}")
+    private int batchSize;
+
+    @Value("${anchoring.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${anchoring.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${anchoring.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${anchoring.lock-seconds:600}")
+    private long lockSeconds;
+
+    // single: one chain transaction per record; batch: one Merkle root per window
+    @Value("${anchoring.mode:single}")
+    private String mode;
+
+    @Value("${anchoring.batch.max-records:256}")
+    private int batchMaxRecords;
+
+    @Value("${anchoring.batch.min-records:32}")
+    private int batchMinRecords;
+
+    @Value("${anchoring.batch.window-seconds:60}")
+    private long batchWindowSeconds;
+
+    public RecordAnchoringService(RecordAnchorJobRepository anchorJobRepository,
+            AnchorBatchRepository anchorBatchRepository, VaccineRecordRepository vaccineRecordRepository,
+            ChainVaccineRecordRepository chainVaccineRecordRepository, BlockchainService blockchainService,
+            FhirImmunizationMapper fhirImmunizationMapper, FhirContext fhirContext, VerificationCache verificationCache,
+            VaccineCertificateService vaccineCertificateService, PlatformTransactionManager transactionManager,
+            @Value("${anchoring.workers:4}") int workerCount) {
+        this.anchorJobRepository = anchorJobRepository;
+        this.anchorBatchRepository = anchorBatchRepository;
+        this.vaccineRecordRepository = vaccineRecordRepository;
+        this.chainVaccineRecordRepository = chainVaccineRecordRepository;
+        this.blockchainService = blockchainService;
+        this.fhirImmunizationMapper = fhirImmunizationMapper;
+        this.fhirContext = fhirContext;
+        this.verificationCache = verificationCache;
+        this.vaccineCertificateService = vaccineCertificateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerCount = workerCount;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "record-anchor-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Called inside the transaction that saves the record, so the job exists exactly when the record does.
+    @Transactional
+    public void enqueue(VaccineRecord record) {
+        anchorJobRepository.save(RecordAnchorJob.builder()
+                .vaccineRecordId(record.getId())
+                .status(needsUpload(record) ? AnchorStatus.PENDING_IPFS : AnchorStatus.PENDING_CHAIN)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Puts a record back on the queue (FAILED jobs, or records created before the queue existed).
+    @Transactional
+    public void requeue(Long vaccineRecordId) throws AppException {
+        VaccineRecord record = vaccineRecordRepository.findById(vaccineRecordId)
+                .orElseThrow(() -> new AppException("Vaccine record not found"));
+        if (record.getBlockchainRecordId() != null || record.getAnchorBatch() != null) {
+            throw new AppException("Vaccine record is already anchored");
+        }
+        RecordAnchorJob job = anchorJobRepository.findByVaccineRecordId(vaccineRecordId)
+                .orElseGet(() -> RecordAnchorJob.builder().vaccineRecordId(vaccineRecordId).build());
+        job.setStatus(needsUpload(record) ? AnchorStatus.PENDING_IPFS : AnchorStatus.PENDING_CHAIN);
+        job.setAttempts(0);
+        job.setNextAttemptAt(LocalDateTime.now());
+        job.setLockedUntil(null);
+        job.setLastError(null);
+        anchorJobRepository.save(job);
+    }
+
+    public AnchoringBacklogResponse getBacklog(int failureLimit) {
+        Map<AnchorStatus, Long> counts = new EnumMap<>(AnchorStatus.class);
+        for (AnchorStatus status : AnchorStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : anchorJobRepository.countByStatus()) {
+            counts.put((AnchorStatus) row[0], (Long) row[1]);
+        }
+
+        List<AnchoringBacklogResponse.Job> failures = anchorJobRepository
+                .findByStatusOrderByUpdatedAtDesc(AnchorStatus.FAILED, PageRequest.of(0, failureLimit))
+                .stream()
+                .map(job -> AnchoringBacklogResponse.Job.builder()
+                        .vaccineRecordId(job.getVaccineRecordId())
+                        .status(job.getStatus())
+                        .attempts(job.getAttempts())
+                        .nextAttemptAt(job.getNextAttemptAt())
+                        .lastError(job.getLastError())
+                        .build())
+                .toList();
+
+        return AnchoringBacklogResponse.builder()
+                .counts(counts)
+                .oldestPendingSince(anchorJobRepository.findOldestCreatedAt(
+                        List.of(AnchorStatus.PENDING_IPFS, AnchorStatus.PENDING_CHAIN)))
+                .recentFailures(failures)
+                .build();
+    }
+
+    // Claims up to batch-size due jobs and runs them on the worker pool, waiting for the batch so the
+    // blockchain service never sees more than `workers` concurrent calls from this node.
+    public int processDue() {
+        if (!blockchainService.isBlockchainServiceAvailable()) {
+            return 0;
+        }
+        List<RecordAnchorJob> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<RecordAnchorJob> jobs = anchorJobRepository.lockDue(isBatchMode() ? IPFS_PENDING : ALL_PENDING, now,
+                    Math.max(batchSize, workerCount));
+            for (RecordAnchorJob job : jobs) {
+                job.setLockedUntil(now.plusSeconds(lockSeconds));
+            }
+            return anchorJobRepository.saveAll(jobs);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Void>> runs = new ArrayList<>(claimed.size());
+        for (RecordAnchorJob job : claimed) {
+            runs.add(CompletableFuture.runAsync(() -> process(job), workers));
+        }
+        CompletableFuture.allOf(runs.toArray(new CompletableFuture[0])).join();
+        return claimed.size();
+    }
+
+    // Anchors one Merkle batch of PENDING_CHAIN jobs once min-records are waiting or the oldest has waited
+    // window-seconds. Leaves are ordered by record id, so a retry that claims the same jobs rebuilds the same
+    // root and finds it already on chain; a retry that claims a different set anchors a new root.
+    public int anchorDueBatch() {
+        if (!isBatchMode() || !blockchainService.isBlockchainServiceAvailable()) {
+            return 0;
+        }
+        List<RecordAnchorJob> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<RecordAnchorJob> jobs = anchorJobRepository.lockDue(CHAIN_PENDING, now, batchMaxRecords);
+            boolean windowElapsed = !jobs.isEmpty()
+                    && !jobs.get(0).getNextAttemptAt().isAfter(now.minusSeconds(batchWindowSeconds));
+            if (jobs.size() < batchMinRecords && !windowElapsed) {
+                return List.of();
+            }
+            for (RecordAnchorJob job : jobs) {
+                job.setLockedUntil(now.plusSeconds(lockSeconds));
+            }
+            return anchorJobRepository.saveAll(jobs);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            Map<Long, VaccineRecord> records = transactionTemplate.execute(status -> vaccineRecordRepository
+                    .findAllById(claimed.stream().map(RecordAnchorJob::getVaccineRecordId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(VaccineRecord::getId, Function.identity())));
+
+            List<RecordAnchorJob> leaves = new ArrayList<>();
+            for (RecordAnchorJob job : claimed) {
+                VaccineRecord record = records.get(job.getVaccineRecordId());
+                if (record == null) {
+                    job.setStatus(AnchorStatus.FAILED);
+                    job.setLastError("Vaccine record no longer exists");
+                } else if (record.getContentHash() == null) {
+                    // Uploaded before content hashes were kept; upload again to get a leaf
+                    job.setStatus(AnchorStatus.PENDING_IPFS);
+                    job.setNextAttemptAt(LocalDateTime.now());
+                } else {
+                    leaves.add(job);
+                }
+            }
+            leaves.sort(Comparator.comparing(RecordAnchorJob::getVaccineRecordId));
+            if (!leaves.isEmpty()) {
+                anchorBatch(leaves, records);
+            }
+        } catch (Exception e) {
+            for (RecordAnchorJob job : claimed) {
+                if (job.getStatus() == AnchorStatus.PENDING_CHAIN) {
+                    recordFailure(job, e);
+                }
+            }
+        }
+
+        for (RecordAnchorJob job : claimed) {
+            job.setLockedUntil(null);
+        }
+        try {
+            anchorJobRepository.saveAll(claimed);
+        } catch (Exception e) {
+            log.error("Failed to record state of anchoring batch", e);
+        }
+        return claimed.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    void process(RecordAnchorJob job) {
+        try {
+            // Load and encode inside a read transaction; the network calls run outside it
+            PreparedRecord prepared = transactionTemplate.execute(status -> vaccineRecordRepository
+                    .findById(job.getVaccineRecordId())
+                    .map(record -> new PreparedRecord(record, needsUpload(record) ? toFhirJson(record) : null))
+                    .orElse(null));
+            if (prepared == null) {
+                job.setStatus(AnchorStatus.FAILED);
+                job.setLastError("Vaccine record no longer exists");
+                return;
+            }
+            VaccineRecord record = prepared.record();
+
+            if (job.getStatus() == AnchorStatus.PENDING_IPFS) {
+                if (prepared.fhirJson() != null) {
+                    String ipfsHash = blockchainService.uploadToIpfs(prepared.fhirJson());
+                    if (ipfsHash == null) {
+                        throw new IllegalStateException("IPFS upload returned no hash");
+                    }
+                    String contentHash = isBatchMode() ? pinnedContentHash(ipfsHash) : null;
+                    transactionTemplate.executeWithoutResult(status -> vaccineRecordRepository
+                            .updateIpfsContent(record.getId(), ipfsHash, contentHash));
+                    // A scan before the upload may have cached "not found" for the new hash
+                    verificationCache.invalidate(record.getIpfsHash());
+                    verificationCache.invalidate(ipfsHash);
+                    record.setIpfsHash(ipfsHash);
+                    record.setContentHash(contentHash);
+                    log.info("✅ FHIR Immunization JSON for record {} uploaded to IPFS. Hash: {}", record.getId(),
+                            ipfsHash);
+                }
+                job.setStatus(AnchorStatus.PENDING_CHAIN);
+            }
+
+            if (isBatchMode()) {
+                // Wait for the next Merkle batch; the window starts now
+                job.setNextAttemptAt(LocalDateTime.now());
+                job.setLastError(null);
+                return;
+            }
+
+            if (record.getBlockchainRecordId() == null) {
+                // A write sent by an earlier attempt may have landed even though its outcome was never saved
+                var existing = job.getChainSubmittedAt() != null ? findOnChain(record) : null;
+                if (existing != null) {
+                    // The contract does not keep the creating transaction; the mirror has it once indexed
+                    ChainVaccineRecord mirrored = chainVaccineRecordRepository
+                            .findByChainRecordId(Long.valueOf(existing.getRecordId()))
+                            .orElse(null);
+                    String txHash = mirrored != null ? mirrored.getTransactionHash() : null;
+                    Long blockNumber = mirrored != null ? mirrored.getCreatedBlock() : null;
+                    transactionTemplate.executeWithoutResult(status -> vaccineRecordRepository.updateChainAnchor(
+                            record.getId(), existing.getRecordId(), txHash, blockNumber));
+                    log.info("✅ Vaccine record {} was already on blockchain as recordId={} (txHash={}), linked "
+                            + "without rewriting", record.getId(), existing.getRecordId(), txHash);
+                } else {
+                    LocalDateTime submittedAt = LocalDateTime.now();
+                    transactionTemplate.executeWithoutResult(status -> anchorJobRepository
+                            .markChainSubmitted(job.getId(), submittedAt));
+                    job.setChainSubmittedAt(submittedAt);
+
+                    BlockchainVaccineRecordResponse response = blockchainService.createVaccineRecord(record);
+                    if (response == null || !response.isSuccess() || response.getData() == null) {
+                        throw new IllegalStateException("Blockchain record creation failed");
+                    }
+                    var data = response.getData();
+                    transactionTemplate.executeWithoutResult(status -> vaccineRecordRepository.updateChainAnchor(
+                            record.getId(), data.getRecordId(), data.getTransactionHash(), data.getBlockNumber()));
+                    log.info("✅ Vaccine record {} synced to blockchain: recordId={}, txHash={}", record.getId(),
+                            data.getRecordId(), data.getTransactionHash());
+                }
+                verificationCache.invalidate(record.getIpfsHash());
+            }
+            job.setStatus(AnchorStatus.ANCHORED);
+            job.setAnchoredAt(LocalDateTime.now());
+            job.setLastError(null);
+            vaccineCertificateService.issue(List.of(record.getId()));
+        } catch (Exception e) {
+            recordFailure(job, e);
+        } finally {
+            job.setLockedUntil(null);
+            try {
+                anchorJobRepository.save(job);
+            } catch (Exception e) {
+                // The lock expires and the job is picked up again; completed steps are skipped
+                log.error("Failed to record anchoring state of vaccine record {}", job.getVaccineRecordId(), e);
+            }
+        }
+    }
+
+    // The chain record written for this record's appointment, or null if none exists. Reads the contract
+    // directly: the mirror may not have indexed a write from a moment ago, and a miss here means writing again.
+    private BlockchainVaccineRecordDetails.VaccineRecordDetailData findOnChain(VaccineRecord record) {
+        BlockchainVaccineRecordList onChain = blockchainService
+                .fetchVaccineRecordsByIdentity(record.getPatientIdentityHash());
+        if (onChain == null || !onChain.isSuccess()) {
+            throw new IllegalStateException("Could not check blockchain for an earlier write of this record");
+        }
+        if (onChain.getData() == null || record.getAppointment() == null) {
+            return null;
+        }
+        String appointmentId = String.valueOf(record.getAppointment().getId());
+        return onChain.getData().stream()
+                .filter(data -> appointmentId.equals(data.getAppointmentId()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void anchorBatch(List<RecordAnchorJob> leaves, Map<Long, VaccineRecord> records) {
+        List<byte[]> contentHashes = leaves.stream()
+                .map(job -> MerkleTree.fromHex(records.get(job.getVaccineRecordId()).getContentHash()))
+                .toList();
+        MerkleTree tree = MerkleTree.of(contentHashes);
+
+        // The contract rejects a root it has seen; if an earlier attempt's write landed, record that batch
+        BlockchainBatchDetails existing = blockchainService.getBatchByRoot(tree.rootHex());
+        if (existing == null || !existing.isSuccess()) {
+            throw new IllegalStateException("Could not check whether Merkle root is already anchored");
+        }
+        BlockchainBatchResponse.BatchData data;
+        if (existing.getData() != null) {
+            data = new BlockchainBatchResponse.BatchData(existing.getData().getBatchId(), null, null);
+            log.info("✅ Merkle root {} was already anchored as batch {}, recording it without a new write",
+                    tree.rootHex(), data.getBatchId());
+        } else {
+            BlockchainBatchResponse response = blockchainService.anchorBatch(tree.rootHex(), tree.size());
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                throw new IllegalStateException("Merkle batch anchoring failed");
+            }
+            data = response.getData();
+        }
+        LocalDateTime anchoredAt = LocalDateTime.now();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            AnchorBatch batch = anchorBatchRepository.save(AnchorBatch.builder()
+                    .merkleRoot(tree.rootHex())
+                    .recordCount(tree.size())
+                    .chainBatchId(data.getBatchId())
+                    .transactionHash(data.getTransactionHash())
+                    .blockNumber(data.getBlockNumber())
+                    .anchoredAt(anchoredAt)
+                    .build());
+            for (int i = 0; i < leaves.size(); i++) {
+                vaccineRecordRepository.updateBatchAnchor(leaves.get(i).getVaccineRecordId(), batch,
+                        tree.proof(i), data.getBlockNumber());
+            }
+        });
+        for (RecordAnchorJob job : leaves) {
+            verificationCache.invalidate(records.get(job.getVaccineRecordId()).getIpfsHash());
+            job.setStatus(AnchorStatus.ANCHORED);
+            job.setAnchoredAt(anchoredAt);
+            job.setLastError(null);
+        }
+        log.info("✅ Anchored {} vaccine records under Merkle root {} (txHash={})", tree.size(), tree.rootHex(),
+                data.getTransactionHash());
+        vaccineCertificateService.issue(leaves.stream().map(RecordAnchorJob::getVaccineRecordId).toList());
+    }
+
+    private void recordFailure(RecordAnchorJob job, Exception e) {
+        int attempts = job.getAttempts() + 1;
+        job.setAttempts(attempts);
+        job.setLastError(e.getMessage());
+        if (attempts >= maxAttempts) {
+            job.setStatus(AnchorStatus.FAILED);
+            log.error("❌ Giving up anchoring vaccine record {} after {} attempts", job.getVaccineRecordId(),
+                    attempts, e);
+        } else {
+            job.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+            log.warn("⚠️ Anchoring vaccine record {} failed at {} (attempt {}), retrying at {}: {}",
+                    job.getVaccineRecordId(), job.getStatus(), attempts, job.getNextAttemptAt(), e.getMessage());
+        }
+    }
+
+    // The leaf is the hash of the bytes IPFS actually serves: the gateway pins a re-serialisation of the
+    // uploaded JSON, so hashing the JSON we sent would give a leaf nobody can recompute from the CID.
+    private String pinnedContentHash(String ipfsHash) {
+        byte[] pinned = blockchainService.fetchFromIpfs(ipfsHash);
+        if (pinned == null) {
+            throw new IllegalStateException("Could not read pinned content of " + ipfsHash + " from IPFS");
+        }
+        return MerkleTree.toHex(MerkleTree.sha256(pinned));
+    }
+
+    private boolean isBatchMode() {
+        return "batch".equalsIgnoreCase(mode);
+    }
+
+    // In batch mode the record's leaf is the hash of the uploaded JSON, so legacy uploads without one are redone
+    private boolean needsUpload(VaccineRecord record) {
+        return record.getIpfsHash() == null || (isBatchMode() && record.getContentHash() == null);
+    }
+
+    long backoffSeconds(int attempts) {
+        return RetryBackoff.seconds(attempts, backoffBaseSeconds, backoffMaxSeconds);
+    }
+
+    private String toFhirJson(VaccineRecord record) {
+        org.hl7.fhir.r4.model.Bundle fhirBundle = fhirImmunizationMapper.toFhirBundle(record);
+        return fhirContext.newJsonParser().setPrettyPrint(true).encodeResourceToString(fhirBundle);
+    }
+
+    private record PreparedRecord(VaccineRecord record, String fhirJson) {
+    }
+}
@@ -0,0 +1,378 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainBatchDetails;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordDetails;
+import com.dapp.backend.dto.blockchain.RecordChainState;
+import com.dapp.backend.dto.response.ReconciliationReportResponse;
+import com.dapp.backend.enums.AnchorStatus;
+import com.dapp.backend.enums.DiscrepancyType;
+import com.dapp.backend.enums.ReconciliationStatus;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.ReconciliationRun;
+import com.dapp.backend.model.RecordDiscrepancy;
+import com.dapp.backend.repository.ReconciliationRunRepository;
+import com.dapp.backend.repository.RecordDiscrepancyRepository;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import com.dapp.backend.util.MerkleTree;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Walks vaccine_records in id order and checks each record against its anchor: batch-anchored records
+// by their Merkle proof and by reading the batch root back from the chain, single-anchored ones by
+// reading the chain record back. Discrepancies are written per run; records that never finished
+// anchoring are put back on the anchoring queue. Progress is checkpointed on the run after every
+// page, so a restart resumes where it stopped.
+// Chain reads run on a small pool. They spend a budget that refills at max-chain-reads-per-second
+// between ticks; a tick that runs out checks only part of its page and leaves the rest for the next
+// tick, so the scheduler thread never sleeps. The job backs off entirely while the circuit is open.
+@Service
+@Slf4j
+public class RecordReconciliationService {
+
+    private final ReconciliationRunRepository runRepository;
+    private final RecordDiscrepancyRepository discrepancyRepository;
+    private final VaccineRecordRepository vaccineRecordRepository;
+    private final RecordAnchoringService recordAnchoringService;
+    private final BlockchainService blockchainService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService checkers;
+
+    private double readBudget;
+    private long budgetRefilledAt;
+
+    @Value("${reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reconciliation.page-size:200}")
+    private int pageSize;
+
+    @Value("${reconciliation.interval-hours:24}")
+    private long intervalHours;
+
+    @Value("${reconciliation.max-chain-reads-per-second:20}")
+    private int maxChainReadsPerSecond;
+
+    @Value("${reconciliation.page-timeout-seconds:120}")
+    private long pageTimeoutSeconds;
+
+    @Value("${reconciliation.lock-seconds:300}")
+    private long lockSeconds;
+
+    public RecordReconciliationService(ReconciliationRunRepository runRepository,
+            RecordDiscrepancyRepository discrepancyRepository, VaccineRecordRepository vaccineRecordRepository,
+            RecordAnchoringService recordAnchoringService, BlockchainService blockchainService,
+            MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+            @Value("${reconciliation.parallelism:4}") int parallelism) {
+        this.runRepository = runRepository;
+        this.discrepancyRepository = discrepancyRepository;
+        this.vaccineRecordRepository = vaccineRecordRepository;
+        this.recordAnchoringService = recordAnchoringService;
+        this.blockchainService = blockchainService;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.checkers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "record-reconcile-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Checks the next page of the current run. Returns the number of records checked; 0 when idle,
+    // paused, or when the page has to be retried on a later tick.
+    public int reconcileNextPage() {
+        if (!enabled || !blockchainService.isBlockchainServiceAvailable()) {
+            return 0;
+        }
+        ReconciliationRun run = transactionTemplate.execute(status -> currentRun());
+        if (run == null) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer locked = transactionTemplate.execute(
+                status -> runRepository.tryLock(run.getId(), now, now.plusSeconds(lockSeconds)));
+        if (locked == null || locked == 0) {
+            return 0;
+        }
+
+        List<RecordChainState> page = null;
+        PageCheck checked = null;
+        try {
+            page = vaccineRecordRepository.findChainStatePage(run.getLastRecordId(), PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                return 0;
+            }
+            refillReadBudget();
+            checked = checkPage(run.getId(), page);
+            if (checked != null) {
+                requeueRepairable(checked.found());
+            }
+            return checked != null ? checked.count() : 0;
+        } finally {
+            saveProgress(run.getId(), page, checked);
+        }
+    }
+
+    public ReconciliationReportResponse getReport(int discrepancyLimit) throws AppException {
+        ReconciliationRun run = runRepository.findFirstByOrderByIdDesc()
+                .orElseThrow(() -> new AppException("No reconciliation run has started yet"));
+        List<ReconciliationReportResponse.Discrepancy> discrepancies = discrepancyRepository
+                .findByRunIdOrderByIdDesc(run.getId(), PageRequest.of(0, discrepancyLimit)).stream()
+                .map(d -> ReconciliationReportResponse.Discrepancy.builder()
+                        .vaccineRecordId(d.getVaccineRecordId())
+                        .type(d.getType())
+                        .detail(d.getDetail())
+                        .requeued(d.isRequeued())
+                        .detectedAt(d.getCreatedAt())
+                        .build())
+                .toList();
+        return ReconciliationReportResponse.builder()
+                .runId(run.getId())
+                .status(run.getStatus())
+                .lastRecordId(run.getLastRecordId())
+                .scanned(run.getScanned())
+                .discrepancies(run.getDiscrepancies())
+                .requeued(run.getRequeued())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .latestDiscrepancies(discrepancies)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        checkers.shutdownNow();
+        checkers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // The open run, or a new one once interval-hours have passed since the last run finished.
+    private ReconciliationRun currentRun() {
+        ReconciliationRun latest = runRepository.findFirstByOrderByIdDesc().orElse(null);
+        if (latest != null && latest.getStatus() == ReconciliationStatus.RUNNING) {
+            return latest;
+        }
+        if (latest != null && latest.getFinishedAt() != null
+                && latest.getFinishedAt().isAfter(LocalDateTime.now().minusHours(intervalHours))) {
+            return null;
+        }
+        log.info("Starting vaccine record reconciliation run");
+        return runRepository.save(ReconciliationRun.builder()
+                .status(ReconciliationStatus.RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Checks the page's records in order until the read budget runs out. Returns how many were checked and
+    // their discrepancies, or null if the checked records could not be verified and must be retried.
+    private PageCheck checkPage(Long runId, List<RecordChainState> page) {
+        List<RecordDiscrepancy> found = new ArrayList<>();
+        Map<RecordChainState, CompletableFuture<BlockchainVaccineRecordDetails>> chainReads = new LinkedHashMap<>();
+        Map<String, CompletableFuture<BlockchainBatchDetails>> rootReads = new LinkedHashMap<>();
+        List<RecordChainState> batchRecords = new ArrayList<>();
+        int count = 0;
+        for (RecordChainState state : page) {
+            if (state.getMerkleRoot() != null) {
+                if (!merkleProofValid(state)) {
+                    found.add(discrepancy(runId, state, DiscrepancyType.MERKLE_PROOF_INVALID,
+                            "Proof does not lead to batch root " + state.getMerkleRoot()));
+                } else {
+                    // Records of one batch share a single root read
+                    String root = state.getMerkleRoot();
+                    if (!rootReads.containsKey(root)) {
+                        if (!takeRead()) {
+                            break;
+                        }
+                        rootReads.put(root, CompletableFuture.supplyAsync(
+                                () -> blockchainService.getBatchByRoot(root), checkers));
+                    }
+                    batchRecords.add(state);
+                }
+            } else if (state.getJobStatus() == AnchorStatus.PENDING_IPFS
+                    || state.getJobStatus() == AnchorStatus.PENDING_CHAIN) {
+                // Still owned by the anchoring workers
+            } else if (state.getIpfsHash() == null) {
+                found.add(discrepancy(runId, state, DiscrepancyType.MISSING_IPFS_HASH,
+                        "Record was never uploaded to IPFS"));
+            } else if (state.getBlockchainRecordId() == null) {
+                found.add(discrepancy(runId, state, DiscrepancyType.MISSING_CHAIN_ID,
+                        "Record was never anchored on chain"));
+            } else {
+                Long chainId = parseChainId(state.getBlockchainRecordId());
+                if (chainId == null) {
+                    found.add(discrepancy(runId, state, DiscrepancyType.INVALID_CHAIN_ID,
+                            "Blockchain record id is not numeric: " + state.getBlockchainRecordId()));
+                } else if (!takeRead()) {
+                    break;
+                } else {
+                    chainReads.put(state, CompletableFuture.supplyAsync(
+                            () -> blockchainService.getVaccineRecord(chainId), checkers));
+                }
+            }
+            count++;
+        }
+
+        List<CompletableFuture<?>> reads = new ArrayList<>(chainReads.values());
+        reads.addAll(rootReads.values());
+        try {
+            CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)).get(pageTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(reads);
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("⚠️ Reconciliation chain reads did not finish, retrying page later: {}", e.toString());
+            cancel(reads);
+            return null;
+        }
+
+        for (RecordChainState state : batchRecords) {
+            BlockchainBatchDetails batch = rootReads.get(state.getMerkleRoot()).join();
+            if (batch == null && !blockchainService.isBlockchainServiceAvailable()) {
+                log.warn("⚠️ Blockchain service unavailable, pausing reconciliation at record {}", state.getId());
+                return null;
+            }
+            if (batch == null || !batch.isSuccess() || batch.getData() == null) {
+                found.add(discrepancy(runId, state, DiscrepancyType.BATCH_ROOT_NOT_ON_CHAIN,
+                        "Batch root " + state.getMerkleRoot() + " not found on chain"));
+            }
+        }
+
+        for (Map.Entry<RecordChainState, CompletableFuture<BlockchainVaccineRecordDetails>> entry
+                : chainReads.entrySet()) {
+            RecordChainState state = entry.getKey();
+            BlockchainVaccineRecordDetails details = entry.getValue().join();
+            if (details == null && !blockchainService.isBlockchainServiceAvailable()) {
+                // Gateway went down mid-page: an unreadable record is not a missing one
+                log.warn("⚠️ Blockchain service unavailable, pausing reconciliation at record {}", state.getId());
+                return null;
+            }
+            if (details == null || !details.isSuccess() || details.getData() == null) {
+                found.add(discrepancy(runId, state, DiscrepancyType.CHAIN_RECORD_NOT_FOUND,
+                        "Chain record " + state.getBlockchainRecordId() + " not found"));
+            } else if (!state.getIpfsHash().equalsIgnoreCase(details.getData().getIpfsHash())) {
+                found.add(discrepancy(runId, state, DiscrepancyType.IPFS_MISMATCH,
+                        "Chain IPFS hash " + details.getData().getIpfsHash()));
+            }
+        }
+        return new PageCheck(count, found);
+    }
+
+    private void requeueRepairable(List<RecordDiscrepancy> found) {
+        for (RecordDiscrepancy discrepancy : found) {
+            if (discrepancy.getType() != DiscrepancyType.MISSING_IPFS_HASH
+                    && discrepancy.getType() != DiscrepancyType.MISSING_CHAIN_ID) {
+                continue;
+            }
+            try {
+                recordAnchoringService.requeue(discrepancy.getVaccineRecordId());
+                discrepancy.setRequeued(true);
+            } catch (AppException e) {
+                discrepancy.setDetail(discrepancy.getDetail() + " (not requeued: " + e.getMessage() + ")");
+            }
+        }
+    }
+
+    // Advances the checkpoint past the checked part of the page, closes the run once the table is
+    // exhausted (empty page), and always releases the run's lease.
+    private void saveProgress(Long runId, List<RecordChainState> page, PageCheck checked) {
+        List<RecordDiscrepancy> found = checked != null ? checked.found() : null;
+        transactionTemplate.executeWithoutResult(status -> {
+            ReconciliationRun run = runRepository.findById(runId).orElseThrow();
+            run.setLockedUntil(null);
+            if (checked != null && checked.count() > 0) {
+                discrepancyRepository.saveAll(found);
+                run.setLastRecordId(page.get(checked.count() - 1).getId());
+                run.setScanned(run.getScanned() + checked.count());
+                run.setDiscrepancies(run.getDiscrepancies() + found.size());
+                run.setRequeued(run.getRequeued() + found.stream().filter(RecordDiscrepancy::isRequeued).count());
+            } else if (page != null && page.isEmpty()) {
+                run.setStatus(ReconciliationStatus.COMPLETED);
+                run.setFinishedAt(LocalDateTime.now());
+                log.info("✅ Reconciliation run {} finished: {} records, {} discrepancies, {} requeued",
+                        runId, run.getScanned(), run.getDiscrepancies(), run.getRequeued());
+            }
+            runRepository.save(run);
+        });
+        if (found != null) {
+            for (RecordDiscrepancy discrepancy : found) {
+                meterRegistry.counter("reconciliation.discrepancies", "type", discrepancy.getType().name())
+                        .increment();
+            }
+        }
+    }
+
+    // Adds max-chain-reads-per-second for the time since the last tick, capped at one page of reads.
+    // Only the relay calls it, and never concurrently.
+    private void refillReadBudget() {
+        long now = System.nanoTime();
+        if (budgetRefilledAt == 0) {
+            readBudget = pageSize;
+        } else {
+            double earned = (now - budgetRefilledAt) / (double) TimeUnit.SECONDS.toNanos(1) * maxChainReadsPerSecond;
+            readBudget = Math.min(pageSize, readBudget + earned);
+        }
+        budgetRefilledAt = now;
+    }
+
+    private boolean takeRead() {
+        if (readBudget < 1) {
+            return false;
+        }
+        readBudget--;
+        return true;
+    }
+
+    private static boolean merkleProofValid(RecordChainState state) {
+        try {
+            return state.getContentHash() != null && MerkleTree.verify(MerkleTree.fromHex(state.getContentHash()),
+                    state.getMerkleProof(), MerkleTree.fromHex(state.getMerkleRoot()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static Long parseChainId(String blockchainRecordId) {
+        try {
+            return Long.parseLong(blockchainRecordId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static RecordDiscrepancy discrepancy(Long runId, RecordChainState state, DiscrepancyType type,
+            String detail) {
+        return RecordDiscrepancy.builder()
+                .runId(runId)
+                .vaccineRecordId(state.getId())
+                .type(type)
+                .detail(detail)
+                .build();
+    }
+
+    private static void cancel(List<CompletableFuture<?>> reads) {
+        reads.forEach(future -> future.cancel(true));
+    }
+
+    private record PageCheck(int count, List<RecordDiscrepancy> found) {
+    }
+}
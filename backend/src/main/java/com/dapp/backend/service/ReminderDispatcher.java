@@ -0,0 +1,139 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.enums.ReminderStatus;
+import com.dapp.backend.model.VaccinationReminder;
+import com.dapp.backend.repository.VaccinationReminderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends due reminders chunk by chunk. Each chunk is claimed and leased in one short transaction, sent on a
+// bounded worker pool, and its outcomes are saved in a second short transaction, which is the checkpoint:
+// after a crash only the chunk in flight is sent again, once its lease expires.
+@Service
+@Slf4j
+public class ReminderDispatcher {
+
+    @FunctionalInterface
+    public interface ChunkClaim {
+        List<VaccinationReminder> claim(LocalDateTime now, int limit);
+    }
+
+    // Sends one reminder and marks it SENT; the dispatcher persists the outcome
+    @FunctionalInterface
+    public interface ReminderSender {
+        void send(VaccinationReminder reminder) throws Exception;
+    }
+
+    // Marks a reminder FAILED and schedules its retry; the dispatcher persists the outcome
+    @FunctionalInterface
+    public interface FailureHandler {
+        void onFailure(VaccinationReminder reminder, String errorMessage);
+    }
+
+    private final VaccinationReminderRepository reminderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+
+    @Value("${reminder.dispatch.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${reminder.dispatch.lease-seconds:600}")
+    private long leaseSeconds;
+
+    public ReminderDispatcher(VaccinationReminderRepository reminderRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${reminder.dispatch.workers:8}") int workerCount) {
+        this.reminderRepository = reminderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "reminder-dispatch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Drains everything the claim returns and answers the number of reminders sent
+    public int dispatch(String name, ChunkClaim claim, ReminderSender sender, FailureHandler failureHandler) {
+        int sent = 0;
+        int failed = 0;
+        while (true) {
+            List<VaccinationReminder> chunk = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<VaccinationReminder> reminders = claim.claim(now, chunkSize);
+                for (VaccinationReminder reminder : reminders) {
+                    reminder.setLockedUntil(now.plusSeconds(leaseSeconds));
+                }
+                return reminderRepository.saveAll(reminders);
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+
+            List<CompletableFuture<Boolean>> sends = new ArrayList<>(chunk.size());
+            for (VaccinationReminder reminder : chunk) {
+                sends.add(CompletableFuture.supplyAsync(() -> send(reminder, sender, failureHandler), workers));
+            }
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+
+            for (int i = 0; i < chunk.size(); i++) {
+                VaccinationReminder reminder = chunk.get(i);
+                if (!sends.get(i).join()) {
+                    // Outcome unknown: keep the lease so the reminder waits it out instead of looping here
+                    continue;
+                }
+                reminder.setLockedUntil(null);
+                if (reminder.getStatus() == ReminderStatus.SENT) {
+                    sent++;
+                } else {
+                    failed++;
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> chunk.forEach(reminder -> reminderRepository
+                    .recordOutcome(reminder.getId(), reminder.getStatus(), reminder.getSentAt(),
+                            reminder.getErrorMessage(), reminder.getRetryCount(), reminder.getNextRetryAt(),
+                            reminder.getLockedUntil())));
+            log.debug("Dispatched chunk of {} {} reminders", chunk.size(), name);
+        }
+        if (sent + failed > 0) {
+            log.info("✅ Finished dispatching {} reminders. Success: {}, Failed: {}", name, sent, failed);
+        }
+        return sent;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Answers whether the reminder's outcome was recorded on it
+    private boolean send(VaccinationReminder reminder, ReminderSender sender, FailureHandler failureHandler) {
+        try {
+            sender.send(reminder);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to send reminder ID: {}", reminder.getId(), e);
+            try {
+                failureHandler.onFailure(reminder, e.getMessage());
+                return true;
+            } catch (Exception handlerError) {
+                log.error("Failed to record failure of reminder ID: {}", reminder.getId(), handlerError);
+                return false;
+            }
+        }
+    }
+}
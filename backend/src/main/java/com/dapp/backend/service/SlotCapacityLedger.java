@@ -0,0 +1,264 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.enums.TimeSlotEnum;
+import com.dapp.backend.model.Appointment;
+import com.dapp.backend.model.Center;
+import com.dapp.backend.repository.AppointmentRepository;
+import com.dapp.backend.repository.CenterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// In-memory booked counter per (center, date, time slot).
+// A center-day is loaded from the database once, then every reservation and release is a CAS on its array.
+// Reads only cache days from today up to the horizon; anything else is answered straight from the database.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotCapacityLedger {
+
+    private static final int DEFAULT_SLOT_CAPACITY = 50;
+    private static final int SLOT_COUNT = TimeSlotEnum.values().length;
+
+    private final AppointmentRepository appointmentRepository;
+    private final CenterRepository centerRepository;
+
+    private final Map<DayKey, AtomicIntegerArray> ledger = new ConcurrentHashMap<>();
+
+    @Value("${booking.capacity.warmup-days:14}")
+    private int warmupDays;
+
+    @Value("${booking.capacity.horizon-days:90}")
+    private int horizonDays;
+
+    private record DayKey(Long centerId, LocalDate date) {
+    }
+
+    public static int slotCapacity(Center center) {
+        return center.getCapacity() > 0 ? center.getCapacity() / 6 : DEFAULT_SLOT_CAPACITY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDate start = LocalDate.now();
+        LocalDate end = start.plusDays(warmupDays);
+        try {
+            Map<DayKey, int[]> counts = new HashMap<>();
+            for (Center center : centerRepository.findAll()) {
+                for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+                    counts.put(new DayKey(center.getCenterId(), d), new int[SLOT_COUNT]);
+                }
+            }
+            for (Object[] row : appointmentRepository.countAppointmentsBySlotBetween(start, end)) {
+                int[] slots = counts.computeIfAbsent(new DayKey((Long) row[0], (LocalDate) row[1]),
+                        k -> new int[SLOT_COUNT]);
+                slots[((TimeSlotEnum) row[2]).ordinal()] = ((Long) row[3]).intValue();
+            }
+            counts.forEach((key, slots) -> ledger.putIfAbsent(key, new AtomicIntegerArray(slots)));
+            log.info("Slot capacity ledger warmed with {} center-days ({} to {})", counts.size(), start, end);
+        } catch (Exception e) {
+            log.error("Failed to warm slot capacity ledger, falling back to lazy loading", e);
+        }
+    }
+
+    public int[] getBookedCounts(Long centerId, LocalDate date) {
+        return toArray(readDay(centerId, date));
+    }
+
+    // Booked counts for every day in [startDate, endDate]. Days not yet in the ledger are loaded
+    // together with one grouped query rather than one query per day.
+    public Map<LocalDate, int[]> getBookedCounts(Long centerId, LocalDate startDate, LocalDate endDate) {
+        boolean missing = false;
+        for (LocalDate d = startDate; !d.isAfter(endDate) && !missing; d = d.plusDays(1)) {
+            missing = !ledger.containsKey(new DayKey(centerId, d));
+        }
+        Map<LocalDate, int[]> loaded = missing ? loadRange(centerId, startDate, endDate) : Map.of();
+
+        Map<LocalDate, int[]> result = new LinkedHashMap<>();
+        for (LocalDate d = startDate; !d.isAfter(endDate); d = d.plusDays(1)) {
+            AtomicIntegerArray slots = ledger.get(new DayKey(centerId, d));
+            int[] counts = slots != null ? toArray(slots) : loaded.get(d);
+            result.put(d, counts != null ? counts : getBookedCounts(centerId, d));
+        }
+        return result;
+    }
+
+    public int getBooked(Long centerId, LocalDate date, TimeSlotEnum slot) {
+        return readDay(centerId, date).get(slot.ordinal());
+    }
+
+    // Reserves one seat if the slot is below capacity. The seat is handed back if the surrounding
+    // transaction rolls back.
+    public boolean tryReserve(Long centerId, LocalDate date, TimeSlotEnum slot, int capacity) {
+        AtomicIntegerArray slots = day(centerId, date);
+        int index = slot.ordinal();
+        while (true) {
+            int booked = slots.get(index);
+            if (booked >= capacity) {
+                return false;
+            }
+            if (slots.compareAndSet(index, booked, booked + 1)) {
+                releaseOnRollback(slots, index);
+                return true;
+            }
+        }
+    }
+
+    // Records a seat without a capacity check (walk-ins and cashier-approved reschedules). Must run in the
+    // caller's transaction: when this call first loads the day, the count query already sees the caller's
+    // saved or flushed appointment, so it is not counted a second time.
+    public void occupy(Appointment appointment) {
+        if (!isTracked(appointment)) {
+            return;
+        }
+        boolean[] loaded = new boolean[1];
+        AtomicIntegerArray slots = ledger.computeIfAbsent(
+                new DayKey(appointment.getCenter().getCenterId(), appointment.getScheduledDate()), key -> {
+                    loaded[0] = true;
+                    return load(key);
+                });
+        int index = appointment.getScheduledTimeSlot().ordinal();
+        if (!loaded[0]) {
+            slots.incrementAndGet(index);
+        }
+        releaseOnRollback(slots, index);
+    }
+
+    public void release(Appointment appointment) {
+        if (!isTracked(appointment)) {
+            return;
+        }
+        release(appointment.getCenter().getCenterId(), appointment.getScheduledDate(),
+                appointment.getScheduledTimeSlot());
+    }
+
+    public void release(Long centerId, LocalDate date, TimeSlotEnum slot) {
+        if (centerId == null || date == null || slot == null) {
+            return;
+        }
+        runAfterCommit(() -> {
+            AtomicIntegerArray slots = ledger.get(new DayKey(centerId, date));
+            if (slots != null) {
+                decrement(slots, slot.ordinal());
+            }
+        });
+    }
+
+    public void evict(Long centerId, LocalDate date) {
+        ledger.remove(new DayKey(centerId, date));
+    }
+
+    @Scheduled(cron = "${booking.capacity.evict-cron:0 5 0 * * ?}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        int before = ledger.size();
+        ledger.keySet().removeIf(key -> key.date().isBefore(today));
+        log.info("Evicted {} past center-days from slot capacity ledger", before - ledger.size());
+    }
+
+    // Reservations always go through the ledger so concurrent bookings share one counter
+    private AtomicIntegerArray day(Long centerId, LocalDate date) {
+        return ledger.computeIfAbsent(new DayKey(centerId, date), this::load);
+    }
+
+    private AtomicIntegerArray readDay(Long centerId, LocalDate date) {
+        DayKey key = new DayKey(centerId, date);
+        AtomicIntegerArray slots = ledger.get(key);
+        if (slots != null) {
+            return slots;
+        }
+        return withinHorizon(date) ? ledger.computeIfAbsent(key, this::load) : load(key);
+    }
+
+    private boolean withinHorizon(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today) && !date.isAfter(today.plusDays(horizonDays));
+    }
+
+    private AtomicIntegerArray load(DayKey key) {
+        AtomicIntegerArray slots = new AtomicIntegerArray(SLOT_COUNT);
+        List<Object[]> rows = appointmentRepository.countAppointmentsBySlot(key.centerId(), key.date());
+        for (Object[] row : rows) {
+            if (row[0] instanceof TimeSlotEnum slot) {
+                slots.set(slot.ordinal(), ((Long) row[1]).intValue());
+            }
+        }
+        return slots;
+    }
+
+    private Map<LocalDate, int[]> loadRange(Long centerId, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, int[]> counts = new HashMap<>();
+        for (LocalDate d = startDate; !d.isAfter(endDate); d = d.plusDays(1)) {
+            counts.put(d, new int[SLOT_COUNT]);
+        }
+        for (Object[] row : appointmentRepository.countCenterAppointmentsBySlotBetween(centerId, startDate, endDate)) {
+            counts.get((LocalDate) row[0])[((TimeSlotEnum) row[1]).ordinal()] = ((Long) row[2]).intValue();
+        }
+        // Days already tracked keep their live counters
+        counts.forEach((date, slots) -> {
+            if (withinHorizon(date)) {
+                ledger.putIfAbsent(new DayKey(centerId, date), new AtomicIntegerArray(slots));
+            }
+        });
+        return counts;
+    }
+
+    private boolean isTracked(Appointment appointment) {
+        return appointment.getCenter() != null
+                && appointment.getScheduledDate() != null
+                && appointment.getScheduledTimeSlot() != null;
+    }
+
+    private static int[] toArray(AtomicIntegerArray slots) {
+        int[] result = new int[SLOT_COUNT];
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            result[i] = slots.get(i);
+        }
+        return result;
+    }
+
+    private static void decrement(AtomicIntegerArray slots, int index) {
+        slots.getAndUpdate(index, booked -> booked > 0 ? booked - 1 : 0);
+    }
+
+    private static void releaseOnRollback(AtomicIntegerArray slots, int index) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    decrement(slots, index);
+                }
+            }
+        });
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,212 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.response.EarliestSlotResponse;
+import com.dapp.backend.enums.TimeSlotEnum;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.Center;
+import com.dapp.backend.model.Doctor;
+import com.dapp.backend.model.DoctorAvailableSlot;
+import com.dapp.backend.model.Vaccine;
+import com.dapp.backend.repository.DoctorAvailableSlotRepository;
+import com.dapp.backend.repository.DoctorRepository;
+import com.dapp.backend.repository.VaccineRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+// "Earliest available slot" search. Every candidate doctor gets a DoctorSlotGrid over the horizon,
+// all loaded with one slot query, and a priority queue merges their next bookable slots in
+// (date, time, distance) order until enough results are collected.
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class SlotSearchService {
+
+    private static final int DEFAULT_DAYS = 14;
+    private static final int MAX_DAYS = 60;
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final Comparator<Cursor> EARLIEST_FIRST = Comparator
+            .comparing((Cursor c) -> c.grid.date(c.day))
+            .thenComparing(c -> c.grid.startTime(c.index))
+            .thenComparingDouble(c -> c.distanceKm != null ? c.distanceKm : Double.MAX_VALUE)
+            .thenComparing(c -> c.doctor.getDoctorId());
+
+    VaccineRepository vaccineRepository;
+    DoctorRepository doctorRepository;
+    DoctorAvailableSlotRepository slotRepository;
+    SlotCapacityLedger slotCapacityLedger;
+
+    public List<EarliestSlotResponse> findEarliestSlots(Long vaccineId, Double latitude, Double longitude,
+            Double radiusKm, LocalDate fromDate, Integer days, Integer limit) throws AppException {
+        Vaccine vaccine = vaccineRepository.findById(vaccineId)
+                .orElseThrow(() -> new AppException("Vaccine not found"));
+        if (vaccine.getStock() <= 0) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate startDate = fromDate == null || fromDate.isBefore(now.toLocalDate()) ? now.toLocalDate() : fromDate;
+        LocalDate endDate = startDate.plusDays(clamp(days, DEFAULT_DAYS, MAX_DAYS) - 1);
+        int maxResults = clamp(limit, DEFAULT_LIMIT, MAX_LIMIT);
+        boolean hasLocation = latitude != null && longitude != null;
+
+        List<Doctor> candidates = new ArrayList<>();
+        Map<Long, Double> distances = new HashMap<>();
+        for (Doctor doctor : doctorRepository.findAllAvailable()) {
+            Center center = doctor.getCenter();
+            if (center == null) {
+                continue;
+            }
+            Double distance = hasLocation && center.getLatitude() != null && center.getLongitude() != null
+                    ? distanceKm(latitude, longitude, center.getLatitude(), center.getLongitude())
+                    : null;
+            if (radiusKm != null && hasLocation && (distance == null || distance > radiusKm)) {
+                continue;
+            }
+            distances.put(center.getCenterId(), distance);
+            candidates.add(doctor);
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<DoctorAvailableSlot>> slotsByDoctor = slotRepository
+                .findSlotsByDoctorIdsAndDateRange(
+                        candidates.stream().map(Doctor::getDoctorId).collect(Collectors.toList()),
+                        startDate, endDate)
+                .stream()
+                .collect(Collectors.groupingBy(s -> s.getDoctor().getDoctorId()));
+
+        Map<Long, Map<LocalDate, int[]>> bookedByCenter = new HashMap<>();
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(EARLIEST_FIRST);
+        for (Doctor doctor : candidates) {
+            Center center = doctor.getCenter();
+            DoctorSlotGrid grid = new DoctorSlotGrid(doctor.getConsultationDuration(), startDate, endDate);
+            grid.addAll(slotsByDoctor.getOrDefault(doctor.getDoctorId(), List.of()));
+
+            Map<LocalDate, int[]> centerBooked = bookedByCenter.computeIfAbsent(center.getCenterId(),
+                    id -> slotCapacityLedger.getBookedCounts(id, startDate, endDate));
+            Cursor cursor = new Cursor(doctor, grid, distances.get(center.getCenterId()), centerBooked,
+                    SlotCapacityLedger.slotCapacity(center), now);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        List<EarliestSlotResponse> results = new ArrayList<>(maxResults);
+        while (!queue.isEmpty() && results.size() < maxResults) {
+            Cursor cursor = queue.poll();
+            results.add(cursor.toResponse());
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        log.debug("Earliest slot search for vaccine {} scanned {} doctors, returned {}", vaccineId,
+                candidates.size(), results.size());
+        return results;
+    }
+
+    private static int clamp(Integer value, int defaultValue, int max) {
+        if (value == null || value <= 0) {
+            return defaultValue;
+        }
+        return Math.min(value, max);
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    // Position of one doctor in their grid. A slot is bookable when the doctor is free, it has not
+    // started yet and the center still has capacity in that two-hour block.
+    private static final class Cursor {
+        final Doctor doctor;
+        final DoctorSlotGrid grid;
+        final Double distanceKm;
+        final Map<LocalDate, int[]> centerBooked;
+        final int slotCapacity;
+        final LocalDateTime now;
+        int day;
+        int index = -1;
+
+        Cursor(Doctor doctor, DoctorSlotGrid grid, Double distanceKm, Map<LocalDate, int[]> centerBooked,
+                int slotCapacity, LocalDateTime now) {
+            this.doctor = doctor;
+            this.grid = grid;
+            this.distanceKm = distanceKm;
+            this.centerBooked = centerBooked;
+            this.slotCapacity = slotCapacity;
+            this.now = now;
+        }
+
+        boolean advance() {
+            while (true) {
+                index++;
+                if (index >= grid.slotsPerDay()) {
+                    day++;
+                    index = 0;
+                }
+                if (day >= grid.days()) {
+                    return false;
+                }
+                if (isBookable()) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean isBookable() {
+            if (!grid.isAvailable(day, index)) {
+                return false;
+            }
+            LocalDate date = grid.date(day);
+            LocalTime start = grid.startTime(index);
+            if (!LocalDateTime.of(date, start).isAfter(now)) {
+                return false;
+            }
+            TimeSlotEnum block = TimeSlotEnum.containing(start);
+            int[] booked = centerBooked.get(date);
+            return block != null && (booked == null || booked[block.ordinal()] < slotCapacity);
+        }
+
+        EarliestSlotResponse toResponse() {
+            Center center = doctor.getCenter();
+            LocalTime start = grid.startTime(index);
+            return EarliestSlotResponse.builder()
+                    .centerId(center.getCenterId())
+                    .centerName(center.getName())
+                    .centerAddress(center.getAddress())
+                    .distanceKm(distanceKm != null ? Math.round(distanceKm * 10) / 10.0 : null)
+                    .doctorId(doctor.getDoctorId())
+                    .doctorName(doctor.getUser().getFullName())
+                    .slotDate(grid.date(day))
+                    .startTime(start)
+                    .endTime(grid.endTime(index))
+                    .timeSlot(TimeSlotEnum.containing(start))
+                    .build();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.dapp.backend.service;
 
+import com.dapp.backend.enums.EmailType;
 import com.dapp.backend.enums.ReminderChannel;
 import com.dapp.backend.enums.ReminderStatus;
 import com.dapp.backend.enums.ReminderType;
@@ -17,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,8 +27,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class VaccinationReminderService {
 
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     private final VaccinationReminderRepository reminderRepository;
     private final EmailService emailService;
+    private final ReminderDispatcher reminderDispatcher;
 
     @Value("${reminder.days.before:1,3,7}")
     private String reminderDaysBeforeConfig;
@@ -91,31 +96,14 @@ public class VaccinationReminderService {
         return reminders;
     }
 
-    @Transactional
     public void sendPendingReminders() {
         log.info("Starting to send pending reminders for today...");
-
-        List<VaccinationReminder> reminders = reminderRepository.findPendingRemindersForToday(LocalDate.now());
-        log.info("Found {} pending reminders to send", reminders.size());
-
-        int successCount = 0;
-        int failCount = 0;
-
-        for (VaccinationReminder reminder : reminders) {
-            try {
-                sendReminder(reminder);
-                successCount++;
-            } catch (Exception e) {
-                log.error("Failed to send reminder ID: {}", reminder.getId(), e);
-                handleReminderFailure(reminder, e.getMessage());
-                failCount++;
-            }
-        }
-
-        log.info("Finished sending reminders. Success: {}, Failed: {}", successCount, failCount);
+        reminderDispatcher.dispatch("appointment",
+                (now, limit) -> reminderRepository.lockDueAppointmentReminders(LocalDate.now(), now, limit),
+                this::sendReminder, this::handleReminderFailure);
     }
 
-    @Transactional
+    // Sends one reminder and marks it SENT; ReminderDispatcher saves it with the rest of its chunk
     public void sendReminder(VaccinationReminder reminder) throws Exception {
         log.info("Sending reminder ID: {} via {}", reminder.getId(), reminder.getChannel());
 
@@ -125,58 +113,35 @@ public class VaccinationReminderService {
                 ? appointment.getPatient().getFullName()
                 : appointment.getFamilyMember().getFullName();
 
-        String vaccineName = appointment.getVaccine().getName();
-        LocalDate appointmentDate = appointment.getScheduledDate();
         String timeSlot = appointment.getScheduledTimeSlot() != null
                 ? appointment.getScheduledTimeSlot().name()
                 : "Chưa xác định";
-        String centerName = appointment.getCenter().getName();
-        String centerAddress = appointment.getCenter().getAddress();
-        Integer doseNumber = appointment.getDoseNumber();
 
         if (reminder.getChannel() == ReminderChannel.EMAIL) {
-            emailService.sendVaccinationReminder(
-                    reminder.getRecipientEmail(),
-                    patientName,
-                    vaccineName,
-                    appointmentDate,
-                    timeSlot,
-                    centerName,
-                    centerAddress,
-                    doseNumber);
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("patientName", patientName);
+            variables.put("vaccineName", appointment.getVaccine().getName());
+            variables.put("appointmentDate", appointment.getScheduledDate().format(DATE_FORMAT));
+            variables.put("timeSlot", timeSlot);
+            variables.put("centerName", appointment.getCenter().getName());
+            variables.put("centerAddress", appointment.getCenter().getAddress());
+            variables.put("doseNumber", appointment.getDoseNumber());
+            emailService.sendTemplateEmail(EmailType.VACCINATION_REMINDER, reminder.getRecipientEmail(), variables);
         } else {
             throw new Exception("Unsupported reminder channel: " + reminder.getChannel());
         }
 
         reminder.setStatus(ReminderStatus.SENT);
         reminder.setSentAt(LocalDateTime.now());
-        reminderRepository.save(reminder);
 
         log.info("Successfully sent reminder ID: {}", reminder.getId());
     }
 
-    @Transactional
     public void retryFailedReminders() {
         log.info("Starting to retry failed reminders...");
-
-        List<VaccinationReminder> reminders = reminderRepository.findFailedRemindersForRetry(LocalDateTime.now());
-        log.info("Found {} failed reminders to retry", reminders.size());
-
-        int successCount = 0;
-        int failCount = 0;
-
-        for (VaccinationReminder reminder : reminders) {
-            try {
-                sendReminder(reminder);
-                successCount++;
-            } catch (Exception e) {
-                log.error("Retry failed for reminder ID: {}", reminder.getId(), e);
-                handleReminderFailure(reminder, e.getMessage());
-                failCount++;
-            }
-        }
-
-        log.info("Finished retrying reminders. Success: {}, Failed: {}", successCount, failCount);
+        reminderDispatcher.dispatch("retried",
+                (now, limit) -> reminderRepository.lockFailedForRetry(now, limit),
+                this::sendReminder, this::handleReminderFailure);
     }
 
     @Transactional
@@ -239,8 +204,6 @@ public class VaccinationReminderService {
 
         int retryDelayMinutes = (int) Math.pow(2, reminder.getRetryCount()) * 30;
         reminder.setNextRetryAt(LocalDateTime.now().plusMinutes(retryDelayMinutes));
-
-        reminderRepository.save(reminder);
         log.info("Scheduled retry for reminder ID: {} in {} minutes", reminder.getId(), retryDelayMinutes);
     }
 }
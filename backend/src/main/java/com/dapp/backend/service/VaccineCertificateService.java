@@ -0,0 +1,176 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.RecordCertificateClaims;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Issues offline-verifiable vaccination certificates: an ES256 JWS over what the chain anchors for a record
+// (content hash, identity hash, vaccine, dose and anchoring transaction). Verifiers check it against the key
+// published at /api/public/certificates/jwks without calling back. Retired keys stay published there so
+// certificates signed before a rotation keep verifying. A certificate is issued as soon as its
+// record is anchored; issueNextPage covers records anchored before certificates existed or whose issuance
+// failed.
+@Service
+@Slf4j
+public class VaccineCertificateService {
+
+    private final VaccineRecordRepository vaccineRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ECKey signingKey;
+    private final JWSSigner signer;
+    private final JWKSet publicKeys;
+    // Keyset cursor of the batch scan; wraps to the start once a scan comes back empty
+    private final AtomicLong cursor = new AtomicLong();
+
+    @Value("${certificate.issuer:VaxSafe}")
+    private String issuer;
+
+    @Value("${certificate.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    @Value("${certificate.batch.page-size:500}")
+    private int batchPageSize;
+
+    public VaccineCertificateService(VaccineRecordRepository vaccineRecordRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${certificate.signing.jwk}") String signingJwk,
+            @Value("${certificate.signing.retired-jwks:}") String retiredJwks) throws Exception {
+        this.vaccineRecordRepository = vaccineRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // An ephemeral key would silently invalidate every issued certificate on restart
+        if (signingJwk == null || signingJwk.isBlank()) {
+            throw new IllegalStateException("certificate.signing.jwk must be set to an EC P-256 private JWK");
+        }
+        ECKey key = ECKey.parse(signingJwk);
+        if (!key.isPrivate()) {
+            throw new IllegalStateException("certificate.signing.jwk must contain the private key");
+        }
+        this.signingKey = withKeyId(key);
+        this.signer = new ECDSASigner(signingKey);
+
+        List<JWK> keys = new ArrayList<>();
+        keys.add(signingKey.toPublicJWK());
+        if (retiredJwks != null && !retiredJwks.isBlank()) {
+            for (JWK retired : JWKSet.parse(retiredJwks).getKeys()) {
+                if (!(retired instanceof ECKey retiredKey)) {
+                    throw new IllegalStateException("certificate.signing.retired-jwks must contain EC keys only");
+                }
+                keys.add(withKeyId(retiredKey).toPublicJWK());
+            }
+        }
+        this.publicKeys = new JWKSet(keys);
+    }
+
+    public Map<String, Object> getPublicKeys() {
+        return publicKeys.toJSONObject();
+    }
+
+    // Signs and stores certificates for the given anchored records. Never throws: a record left without a
+    // certificate is picked up again by the batch scan. A record linked to an earlier write, or to a root
+    // anchored by an earlier attempt, may have no known transaction; its certificate then omits "tx".
+    public int issue(Collection<Long> recordIds) {
+        if (recordIds.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<RecordCertificateClaims> claims = transactionTemplate.execute(status -> vaccineRecordRepository
+                    .findCertificateClaims(recordIds));
+            Map<Long, String> certificates = new LinkedHashMap<>();
+            for (RecordCertificateClaims claim : claims) {
+                // Same condition as findUncertifiedAnchoredIds, so the scan only returns rows signed here
+                if (claim.getBlockchainRecordId() == null && claim.getMerkleRoot() == null) {
+                    continue;
+                }
+                try {
+                    certificates.put(claim.getId(), sign(claim));
+                } catch (JOSEException e) {
+                    log.error("❌ Failed to sign certificate for vaccine record {}", claim.getId(), e);
+                }
+            }
+            if (certificates.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime issuedAt = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> certificates.forEach(
+                    (id, certificate) -> vaccineRecordRepository.updateCertificate(id, certificate, issuedAt)));
+            return certificates.size();
+        } catch (Exception e) {
+            log.warn("⚠️ Certificate issuance for {} vaccine records failed: {}", recordIds.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    // Batch mode: certifies the next page of anchored records that have none. Returns the records scanned.
+    public int issueNextPage() {
+        if (!batchEnabled) {
+            return 0;
+        }
+        List<Long> ids = vaccineRecordRepository.findUncertifiedAnchoredIds(cursor.get(),
+                PageRequest.of(0, batchPageSize));
+        if (ids.isEmpty()) {
+            cursor.set(0);
+            return 0;
+        }
+        cursor.set(ids.get(ids.size() - 1));
+        int issued = issue(ids);
+        if (issued > 0) {
+            log.info("✅ Issued {} vaccination certificates (up to record {})", issued, cursor.get());
+        }
+        return ids.size();
+    }
+
+    // Certificates carry the key id; keys configured without one get their thumbprint, as at signing time
+    private static ECKey withKeyId(ECKey key) throws JOSEException {
+        return key.getKeyID() != null ? key
+                : new ECKey.Builder(key).keyID(key.computeThumbprint().toString()).build();
+    }
+
+    String sign(RecordCertificateClaims claim) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .issueTime(new Date())
+                .jwtID("vaxsafe:record:" + claim.getId())
+                .subject(claim.getIdentityHash())
+                .claim("contentHash", claim.getContentHash())
+                .claim("ipfsHash", claim.getIpfsHash())
+                .claim("vaccine", claim.getVaccineName())
+                .claim("dose", claim.getDoseNumber())
+                .claim("date", claim.getVaccinationDate() != null ? claim.getVaccinationDate().toString() : null)
+                .claim("chainRecordId", claim.getBlockchainRecordId())
+                .claim("merkleRoot", claim.getMerkleRoot())
+                .claim("tx", claim.getTransactionHash())
+                .claim("block", claim.getBlockNumber())
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.ES256)
+                .keyID(signingKey.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build(), claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+}
@@ -1,15 +1,20 @@
 package com.dapp.backend.service;
 
 import com.dapp.backend.dto.request.CompleteAppointmentRequest;
-import com.dapp.backend.dto.mapper.fhir.FhirImmunizationMapper;
+import com.dapp.backend.dto.response.Pagination;
 import com.dapp.backend.dto.response.VaccineRecordResponse;
 import com.dapp.backend.exception.AppException;
 import com.dapp.backend.model.*;
+import com.dapp.backend.dto.blockchain.BlockchainBatchDetails;
 import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordDetails;
 import com.dapp.backend.repository.FamilyMemberRepository;
 import com.dapp.backend.repository.VaccineRecordRepository;
+import com.dapp.backend.util.CursorUtils;
+import com.dapp.backend.util.MerkleTree;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +22,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,9 +33,8 @@ public class VaccineRecordService {
     private final VaccineRecordRepository vaccineRecordRepository;
     private final FamilyMemberRepository familyMemberRepository;
     private final BlockchainService blockchainService;
-    private final FhirImmunizationMapper fhirImmunizationMapper;
-
-    private static final ca.uhn.fhir.context.FhirContext fhirContext = ca.uhn.fhir.context.FhirContext.forR4();
+    private final RecordAnchoringService recordAnchoringService;
+    private final VerificationCache verificationCache;
 
     @Transactional
     public VaccineRecord createFromAppointment(
@@ -102,54 +107,8 @@ public class VaccineRecordService {
 
         log.info("Created vaccine record {} for appointment {}", saved.getId(), appointment.getId());
 
-        String ipfsHash = null;
-
-        try {
-            if (blockchainService.isBlockchainServiceAvailable()) {
-
-                org.hl7.fhir.r4.model.Bundle fhirBundle = fhirImmunizationMapper.toFhirBundle(saved);
-
-                String fhirJson = fhirContext.newJsonParser().setPrettyPrint(true)
-                        .encodeResourceToString(fhirBundle);
-
-                ipfsHash = blockchainService.uploadToIpfs(fhirJson);
-
-                if (ipfsHash != null) {
-                    saved.setIpfsHash(ipfsHash);
-                    saved = vaccineRecordRepository.save(saved);
-                    log.info("✅ FHIR Immunization JSON uploaded to IPFS. Hash: {}", ipfsHash);
-                } else {
-                    log.warn("⚠️ Failed to upload FHIR JSON to IPFS (Hash is null)");
-                }
-            } else {
-                log.warn("⚠️ Blockchain service unavailable, skipping IPFS and Blockchain sync");
-            }
-        } catch (Exception e) {
-            log.error("⚠️ Failed to generate FHIR JSON or upload to IPFS", e);
-
-        }
-
-        try {
-            if (blockchainService.isBlockchainServiceAvailable()) {
-
-                var blockchainResponse = blockchainService.createVaccineRecord(saved);
-
-                if (blockchainResponse != null && blockchainResponse.isSuccess()) {
-                    saved.setBlockchainRecordId(blockchainResponse.getData().getRecordId());
-                    saved.setTransactionHash(blockchainResponse.getData().getTransactionHash());
-                    saved.setBlockNumber(blockchainResponse.getData().getBlockNumber());
-                    vaccineRecordRepository.save(saved);
-
-                    log.info("✅ Vaccine record synced to blockchain: recordId={}, txHash={}",
-                            blockchainResponse.getData().getRecordId(),
-                            blockchainResponse.getData().getTransactionHash());
-                } else {
-                    log.warn("⚠️ Blockchain record creation failed");
-                }
-            }
-        } catch (Exception e) {
-            log.error("❌ Failed to sync vaccine record to blockchain", e);
-        }
+        // IPFS upload and chain anchoring run in the background once this transaction commits
+        recordAnchoringService.enqueue(saved);
 
         return saved;
     }
@@ -268,6 +227,73 @@ public class VaccineRecordService {
                 .collect(Collectors.toList());
     }
 
+    public Pagination getVaccineRecordsByPatientCursor(Long userId, String cursor, int pageSize, boolean withCount)
+            throws AppException {
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<VaccineRecord> rows;
+        if (CursorUtils.isFirstPage(cursor)) {
+            rows = vaccineRecordRepository.findUserHistoryPage(userId, limit);
+        } else {
+            HistoryPosition after = HistoryPosition.decode(cursor);
+            rows = vaccineRecordRepository.findUserHistoryPageAfter(userId, after.date(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize, withCount ? vaccineRecordRepository.countByUserId(userId) : null);
+    }
+
+    public Pagination getFamilyMemberVaccineRecordsCursor(Long familyMemberId, Long ownerUserId, String cursor,
+            int pageSize, boolean withCount) throws AppException {
+        familyMemberRepository.findById(familyMemberId)
+                .filter(fm -> fm.getUser().getId().equals(ownerUserId))
+                .orElseThrow(() -> new AppException("Family member not found or does not belong to user"));
+
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<VaccineRecord> rows;
+        if (CursorUtils.isFirstPage(cursor)) {
+            rows = vaccineRecordRepository.findFamilyMemberHistoryPage(familyMemberId, limit);
+        } else {
+            HistoryPosition after = HistoryPosition.decode(cursor);
+            rows = vaccineRecordRepository.findFamilyMemberHistoryPageAfter(familyMemberId, after.date(),
+                    after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize,
+                withCount ? vaccineRecordRepository.countByFamilyMemberId(familyMemberId) : null);
+    }
+
+    private Pagination toCursorPage(List<VaccineRecord> rows, int pageSize, Long total) {
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        Pagination pagination = new Pagination();
+        Pagination.Meta meta = new Pagination.Meta();
+        meta.setPageSize(pageSize);
+        meta.setHasNext(hasNext);
+        meta.setTotal(total);
+        if (hasNext) {
+            VaccineRecord last = rows.get(rows.size() - 1);
+            meta.setNextCursor(CursorUtils.encode(last.getVaccinationDate(), last.getId()));
+        }
+
+        pagination.setMeta(meta);
+        pagination.setResult(rows.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList()));
+        return pagination;
+    }
+
+    private record HistoryPosition(LocalDate date, Long id) {
+
+        static HistoryPosition decode(String cursor) throws AppException {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            try {
+                return new HistoryPosition(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new AppException("Invalid cursor");
+            }
+        }
+    }
+
     private VaccineRecordResponse mapToResponse(VaccineRecord record) {
         return VaccineRecordResponse.builder()
                 .id(record.getId())
@@ -295,10 +321,15 @@ public class VaccineRecordService {
                 .temperature(record.getTemperature())
                 .pulse(record.getPulse())
                 .blockchainRecordId(record.getBlockchainRecordId())
-                .transactionHash(record.getTransactionHash())
+                .transactionHash(record.getAnchorBatch() != null ? record.getAnchorBatch().getTransactionHash()
+                        : record.getTransactionHash())
                 .blockNumber(record.getBlockNumber())
                 .ipfsHash(record.getIpfsHash())
+                .contentHash(record.getContentHash())
+                .merkleRoot(record.getAnchorBatch() != null ? record.getAnchorBatch().getMerkleRoot() : null)
+                .merkleProof(record.getMerkleProof())
                 .digitalSignature(record.getDigitalSignature())
+                .certificate(record.getCertificate())
                 .isVerified(record.isVerified())
                 .verifiedAt(record.getVerifiedAt())
                 .nextDoseDate(record.getNextDoseDate())
@@ -309,8 +340,40 @@ public class VaccineRecordService {
     }
 
     public VaccineRecordResponse getRecordByIpfsHash(String ipfsHash) throws AppException {
-        VaccineRecord record = vaccineRecordRepository.findByIpfsHash(ipfsHash)
-                .orElseThrow(() -> new AppException("Vaccine record not found for IPFS hash: " + ipfsHash));
+        VerificationCache.Entry cached = verificationCache.get(ipfsHash);
+        if (cached != null) {
+            if (cached.isNotFound()) {
+                throw new AppException("Vaccine record not found for IPFS hash: " + ipfsHash);
+            }
+            return cached.response();
+        }
+
+        VaccineRecord record = vaccineRecordRepository.findByIpfsHash(ipfsHash).orElse(null);
+        if (record == null) {
+            verificationCache.putNotFound(ipfsHash);
+            throw new AppException("Vaccine record not found for IPFS hash: " + ipfsHash);
+        }
+        return verifyRecord(record, ipfsHash);
+    }
+
+    // Checks one loaded record against its anchor and caches the verdict on success. Shared with the
+    // bulk verification endpoint, so both report the same errors for the same record.
+    VaccineRecordResponse verifyRecord(VaccineRecord record, String ipfsHash) throws AppException {
+        return verifyRecord(record, ipfsHash, blockchainService::getBatchByRoot);
+    }
+
+    // batchLookup reads a batch root from the chain; bulk verification passes one that reads each root once.
+    VaccineRecordResponse verifyRecord(VaccineRecord record, String ipfsHash,
+            Function<String, BlockchainBatchDetails> batchLookup) throws AppException {
+        // Batch-anchored records: the leaf is recomputed from the bytes pinned under the CID, the stored proof
+        // must lead from it to the batch root, and that root must be anchored on chain as this batch.
+        if (record.getAnchorBatch() != null) {
+            verifyBatchAnchor(record, ipfsHash, batchLookup);
+            log.info("✅ Merkle proof verified for IPFS: {} (batch {})", ipfsHash, record.getAnchorBatch().getId());
+            VaccineRecordResponse response = mapToResponse(record);
+            verificationCache.putVerified(ipfsHash, response);
+            return response;
+        }
 
         if (blockchainService.isBlockchainServiceAvailable()) {
             if (record.getBlockchainRecordId() != null) {
@@ -345,6 +408,32 @@ public class VaccineRecordService {
             throw new AppException("SERVICE UNAVAILABLE: Unable to connect to blockchain for verification");
         }
 
-        return mapToResponse(record);
+        VaccineRecordResponse response = mapToResponse(record);
+        verificationCache.putVerified(ipfsHash, response);
+        return response;
+    }
+
+    private void verifyBatchAnchor(VaccineRecord record, String ipfsHash,
+            Function<String, BlockchainBatchDetails> batchLookup) throws AppException {
+        String root = record.getAnchorBatch().getMerkleRoot();
+        byte[] pinned = blockchainService.fetchFromIpfs(ipfsHash);
+        if (pinned == null) {
+            throw new AppException("SERVICE UNAVAILABLE: Unable to read the record content from IPFS");
+        }
+        if (!MerkleTree.verify(MerkleTree.sha256(pinned), record.getMerkleProof(), MerkleTree.fromHex(root))) {
+            log.error("❌ Merkle proof mismatch for IPFS: {}, batch root: {}", ipfsHash, root);
+            throw new AppException("BLOCKCHAIN INTEGRITY ERROR: Merkle proof does not match the anchored root");
+        }
+
+        BlockchainBatchDetails onChain = batchLookup.apply(root);
+        if (onChain == null || !onChain.isSuccess()) {
+            throw new AppException("SERVICE UNAVAILABLE: Unable to connect to blockchain for verification");
+        }
+        String chainBatchId = record.getAnchorBatch().getChainBatchId();
+        if (onChain.getData() == null
+                || (chainBatchId != null && !chainBatchId.equals(onChain.getData().getBatchId()))) {
+            log.error("❌ Merkle root {} of batch {} is not anchored on chain", root, record.getAnchorBatch().getId());
+            throw new AppException("BLOCKCHAIN VERIFICATION FAILED: Batch root not found on chain");
+        }
     }
 }
@@ -0,0 +1,91 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.model.Order;
+import com.dapp.backend.model.OrderItem;
+import com.dapp.backend.repository.VaccineRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Stock is reserved with a conditional decrement committed in its own short transaction, so the
+// vaccine row is locked only for the UPDATE and never for the rest of the booking.
+// If the booking transaction rolls back afterwards the reservation is handed back.
+@Service
+@Slf4j
+public class VaccineStockService {
+
+    private final VaccineRepository vaccineRepository;
+    private final TransactionTemplate requiresNew;
+
+    public VaccineStockService(VaccineRepository vaccineRepository, PlatformTransactionManager transactionManager) {
+        this.vaccineRepository = vaccineRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean tryReserve(Long vaccineId, int quantity) {
+        if (quantity <= 0) {
+            return true;
+        }
+        Integer updated = requiresNew.execute(status -> vaccineRepository.reserveStock(vaccineId, quantity));
+        if (updated == null || updated == 0) {
+            return false;
+        }
+        releaseOnRollback(vaccineId, quantity);
+        return true;
+    }
+
+    // Returns stock once the surrounding transaction (cancel, failed payment) has committed.
+    public void release(Long vaccineId, int quantity) {
+        if (vaccineId == null || quantity <= 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseNow(vaccineId, quantity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseNow(vaccineId, quantity);
+            }
+        });
+    }
+
+    public void release(Order order) {
+        if (order.getOrderItems() == null) {
+            return;
+        }
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getVaccine() != null) {
+                release(item.getVaccine().getId(), item.getQuantity());
+            }
+        }
+    }
+
+    private void releaseNow(Long vaccineId, int quantity) {
+        try {
+            requiresNew.executeWithoutResult(status -> vaccineRepository.releaseStock(vaccineId, quantity));
+        } catch (Exception e) {
+            log.error("Failed to return {} dose(s) of vaccine {} to stock", quantity, vaccineId, e);
+        }
+    }
+
+    private void releaseOnRollback(Long vaccineId, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    releaseNow(vaccineId, quantity);
+                }
+            }
+        });
+    }
+}
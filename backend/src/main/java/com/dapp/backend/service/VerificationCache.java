@@ -0,0 +1,103 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.response.VaccineRecordResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Results of public verify-vaccine lookups, keyed by IPFS hash. Only chain-confirmed verdicts and
+// "no such record" answers are cached; integrity and availability errors are always recomputed.
+// Entries are dropped when the anchoring pipeline changes a record's ipfsHash or chain id.
+@Component
+@Slf4j
+public class VerificationCache {
+
+    public record Entry(VaccineRecordResponse response, Long blockNumber, long expiresAt) {
+
+        public boolean isNotFound() {
+            return response == null;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    public VerificationCache(MeterRegistry meterRegistry,
+            @Value("${verification.cache.max-entries:100000}") int maxEntries,
+            @Value("${verification.cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${verification.cache.negative-ttl-seconds:60}") long negativeTtlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.hits = meterRegistry.counter("verification.cache.requests", "result", "hit");
+        this.negativeHits = meterRegistry.counter("verification.cache.requests", "result", "negative_hit");
+        this.misses = meterRegistry.counter("verification.cache.requests", "result", "miss");
+        meterRegistry.gaugeMapSize("verification.cache.size", Tags.empty(), entries);
+    }
+
+    public Entry get(String ipfsHash) {
+        Entry entry = entries.get(ipfsHash);
+        if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) {
+            if (entry != null) {
+                entries.remove(ipfsHash, entry);
+            }
+            misses.increment();
+            return null;
+        }
+        (entry.isNotFound() ? negativeHits : hits).increment();
+        return entry;
+    }
+
+    public void putVerified(String ipfsHash, VaccineRecordResponse response) {
+        put(ipfsHash, new Entry(response, response.getBlockNumber(), System.nanoTime() + ttlNanos));
+    }
+
+    public void putNotFound(String ipfsHash) {
+        put(ipfsHash, new Entry(null, null, System.nanoTime() + negativeTtlNanos));
+    }
+
+    public void invalidate(String ipfsHash) {
+        if (ipfsHash != null) {
+            entries.remove(ipfsHash);
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${verification.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+        int removed = before - entries.size();
+        if (removed > 0) {
+            log.debug("Purged {} expired verification cache entries", removed);
+        }
+    }
+
+    private void put(String ipfsHash, Entry entry) {
+        if (entries.size() >= maxEntries) {
+            purgeExpired();
+            if (entries.size() >= maxEntries) {
+                // Full of live entries: serve this one uncached rather than evict hot hashes
+                return;
+            }
+        }
+        entries.put(ipfsHash, entry);
+    }
+}
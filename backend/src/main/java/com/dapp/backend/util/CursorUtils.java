@@ -0,0 +1,48 @@
+package com.dapp.backend.util;
+
+import com.dapp.backend.exception.AppException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+// Opaque continuation token for keyset pagination: the sort key values of the last row,
+// joined and base64url encoded. Clients must pass it back unchanged.
+public class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(Object... values) {
+        StringJoiner joiner = new StringJoiner(SEPARATOR);
+        for (Object value : values) {
+            joiner.add(String.valueOf(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) throws AppException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new AppException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new AppException("Invalid cursor");
+        }
+    }
+
+    public static Long decodeId(String cursor) throws AppException {
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new AppException("Invalid cursor");
+        }
+    }
+
+    public static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+}
@@ -0,0 +1,121 @@
+package com.dapp.backend.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.StringJoiner;
+
+// Binary SHA-256 Merkle tree over record content hashes. Leaves and inner nodes are hashed with
+// different prefixes (0x00 / 0x01) so an inner node can never be passed off as a leaf, and an odd
+// node at the end of a level is promoted unchanged instead of being paired with itself.
+// A proof is the list of siblings from leaf to root, e.g. "R:ab12...,L:cd34...", where L/R is the
+// side the sibling sits on.
+public class MerkleTree {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final List<byte[][]> levels;
+
+    private MerkleTree(List<byte[][]> levels) {
+        this.levels = levels;
+    }
+
+    public static MerkleTree of(List<byte[]> contentHashes) {
+        if (contentHashes.isEmpty()) {
+            throw new IllegalArgumentException("Merkle tree needs at least one leaf");
+        }
+        byte[][] level = new byte[contentHashes.size()][];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = leafHash(contentHashes.get(i));
+        }
+        List<byte[][]> levels = new ArrayList<>();
+        levels.add(level);
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parent.length; i++) {
+                int left = 2 * i;
+                parent[i] = left + 1 < level.length ? nodeHash(level[left], level[left + 1]) : level[left];
+            }
+            levels.add(parent);
+            level = parent;
+        }
+        return new MerkleTree(levels);
+    }
+
+    public byte[] root() {
+        return levels.get(levels.size() - 1)[0];
+    }
+
+    public String rootHex() {
+        return HEX.formatHex(root());
+    }
+
+    public int size() {
+        return levels.get(0).length;
+    }
+
+    public String proof(int leafIndex) {
+        StringJoiner proof = new StringJoiner(",");
+        int index = leafIndex;
+        for (int depth = 0; depth < levels.size() - 1; depth++) {
+            byte[][] level = levels.get(depth);
+            int sibling = index ^ 1;
+            if (sibling < level.length) {
+                proof.add((sibling < index ? "L:" : "R:") + HEX.formatHex(level[sibling]));
+            }
+            index /= 2;
+        }
+        return proof.toString();
+    }
+
+    public static boolean verify(byte[] contentHash, String proof, byte[] root) {
+        byte[] current = leafHash(contentHash);
+        if (proof != null && !proof.isEmpty()) {
+            for (String step : proof.split(",")) {
+                if (step.length() < 3 || step.charAt(1) != ':') {
+                    return false;
+                }
+                byte[] sibling = HEX.parseHex(step.substring(2));
+                current = step.charAt(0) == 'L' ? nodeHash(sibling, current) : nodeHash(current, sibling);
+            }
+        }
+        return MessageDigest.isEqual(current, root);
+    }
+
+    public static byte[] sha256(byte[] data) {
+        return digest().digest(data);
+    }
+
+    public static byte[] fromHex(String hex) {
+        return HEX.parseHex(hex.startsWith("0x") ? hex.substring(2) : hex);
+    }
+
+    public static String toHex(byte[] bytes) {
+        return HEX.formatHex(bytes);
+    }
+
+    private static byte[] leafHash(byte[] contentHash) {
+        MessageDigest digest = digest();
+        digest.update(LEAF_PREFIX);
+        return digest.digest(contentHash);
+    }
+
+    private static byte[] nodeHash(byte[] left, byte[] right) {
+        MessageDigest digest = digest();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        return digest.digest(right);
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.dapp.backend.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Exponential backoff with +/-20% jitter shared by the retry queues (outbox, anchoring, provisioning),
+// so a burst of failures against one dependency does not retry in lockstep.
+public class RetryBackoff {
+
+    public static long seconds(int attempts, long baseSeconds, long maxSeconds) {
+        long delay = Math.min(maxSeconds, baseSeconds << Math.min(Math.max(attempts - 1, 0), 20));
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Math.max(1, (long) (delay * jitter));
+    }
+}
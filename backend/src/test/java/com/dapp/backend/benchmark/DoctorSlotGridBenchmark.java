@@ -0,0 +1,210 @@
+package com.dapp.backend.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.dapp.backend.dto.response.DoctorAvailableSlotResponse;
+import com.dapp.backend.enums.SlotStatus;
+import com.dapp.backend.model.Doctor;
+import com.dapp.backend.model.DoctorAvailableSlot;
+import com.dapp.backend.model.User;
+import com.dapp.backend.repository.DoctorAvailableSlotRepository;
+import com.dapp.backend.repository.DoctorRepository;
+import com.dapp.backend.service.DoctorScheduleService;
+import com.dapp.backend.service.DoctorSlotGrid;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Doctor schedule for 50 doctors x 90 days: the previous string-keyed generator against the production
+// DoctorScheduleService, whose repositories are stubbed to hand back the same in-memory slots.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//           -Dexec.mainClass=com.dapp.backend.benchmark.DoctorSlotGridBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoctorSlotGridBenchmark {
+
+    private static final int DOCTORS = 50;
+    private static final int DAYS = 90;
+    private static final LocalTime DAY_START = LocalTime.of(7, 0);
+    private static final LocalTime DAY_END = LocalTime.of(17, 0);
+
+    private final LocalDate startDate = LocalDate.of(2025, 1, 1);
+    private final LocalDate endDate = startDate.plusDays(DAYS - 1);
+
+    private List<Doctor> doctors;
+    private List<List<DoctorAvailableSlot>> realSlots;
+    private DoctorScheduleService scheduleService;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        doctors = new ArrayList<>();
+        realSlots = new ArrayList<>();
+        for (long id = 1; id <= DOCTORS; id++) {
+            Doctor doctor = Doctor.builder()
+                    .doctorId(id)
+                    .user(User.builder().id(id).fullName("Doctor " + id).build())
+                    .consultationDuration(30)
+                    .build();
+            doctors.add(doctor);
+
+            // Roughly a quarter of the slots have a row, mostly bookings
+            List<DoctorAvailableSlot> slots = new ArrayList<>();
+            for (int day = 0; day < DAYS; day++) {
+                for (LocalTime t = DAY_START; t.isBefore(DAY_END); t = t.plusMinutes(30)) {
+                    if (random.nextInt(4) == 0) {
+                        slots.add(DoctorAvailableSlot.builder()
+                                .slotId((long) slots.size() + 1)
+                                .doctor(doctor)
+                                .slotDate(startDate.plusDays(day))
+                                .startTime(t)
+                                .endTime(t.plusMinutes(30))
+                                .status(random.nextInt(5) == 0 ? SlotStatus.BLOCKED : SlotStatus.BOOKED)
+                                .build());
+                    }
+                }
+            }
+            realSlots.add(slots);
+        }
+
+        Map<Long, List<DoctorAvailableSlot>> slotsByDoctor = new HashMap<>();
+        Map<LocalDate, List<DoctorAvailableSlot>> slotsByDate = new HashMap<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            slotsByDoctor.put(doctors.get(i).getDoctorId(), realSlots.get(i));
+            for (DoctorAvailableSlot slot : realSlots.get(i)) {
+                slotsByDate.computeIfAbsent(slot.getSlotDate(), date -> new ArrayList<>()).add(slot);
+            }
+        }
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        DoctorAvailableSlotRepository slotRepository = mock(DoctorAvailableSlotRepository.class);
+        when(doctorRepository.findByCenter_CenterIdAndIsAvailableTrue(1L)).thenReturn(doctors);
+        when(slotRepository.findDoctorSlotsInRange(anyLong(), any(), any()))
+                .thenAnswer(invocation -> slotsByDoctor.get(invocation.<Long>getArgument(0)));
+        when(slotRepository.findSlotsByDoctorIdsAndDateRange(anyList(), any(), any()))
+                .thenAnswer(invocation -> slotsByDate.getOrDefault(invocation.<LocalDate>getArgument(1), List.of()));
+        scheduleService = new DoctorScheduleService(doctorRepository, slotRepository);
+        // The range lookup logs each call at info; keep the appender out of the measurement
+        ((Logger) LoggerFactory.getLogger(DoctorScheduleService.class)).setLevel(Level.WARN);
+    }
+
+    @Benchmark
+    public void stringKeyedAllSlots(Blackhole blackhole) {
+        for (int i = 0; i < DOCTORS; i++) {
+            blackhole.consume(stringKeyed(doctors.get(i), realSlots.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void gridAllSlots(Blackhole blackhole) {
+        for (Doctor doctor : doctors) {
+            blackhole.consume(scheduleService.getDoctorSlotsInRange(doctor, startDate, endDate));
+        }
+    }
+
+    @Benchmark
+    public void gridAvailableSlotsByCenter(Blackhole blackhole) {
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            blackhole.consume(scheduleService.getAvailableSlotsByCenter(1L, date));
+        }
+    }
+
+    @Benchmark
+    public void gridAvailableCounts(Blackhole blackhole) {
+        for (int i = 0; i < DOCTORS; i++) {
+            DoctorSlotGrid grid = grid(i);
+            for (int day = 0; day < grid.days(); day++) {
+                blackhole.consume(grid.countAvailable(day));
+            }
+        }
+    }
+
+    private DoctorSlotGrid grid(int doctorIndex) {
+        DoctorSlotGrid grid = new DoctorSlotGrid(doctors.get(doctorIndex).getConsultationDuration(), startDate,
+                endDate);
+        grid.addAll(realSlots.get(doctorIndex));
+        return grid;
+    }
+
+    // Previous DoctorScheduleService.getDoctorSlotsInRange, kept as the baseline.
+    private List<DoctorAvailableSlotResponse> stringKeyed(Doctor doctor, List<DoctorAvailableSlot> existingSlots) {
+        Map<String, DoctorAvailableSlot> slotMap = existingSlots.stream()
+                .collect(Collectors.toMap(
+                        s -> s.getSlotDate().toString() + "_" + s.getStartTime().toString(),
+                        s -> s,
+                        (existing, replacement) -> existing));
+
+        List<DoctorAvailableSlotResponse> allSlots = new ArrayList<>(DAYS * 16);
+        int duration = doctor.getConsultationDuration();
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            LocalTime time = DAY_START;
+            while (time.isBefore(DAY_END)) {
+                LocalTime end = time.plusMinutes(duration);
+                if (end.isAfter(DAY_END)) {
+                    break;
+                }
+                String key = date.toString() + "_" + time.toString();
+                if (slotMap.containsKey(key)) {
+                    allSlots.add(toResponse(slotMap.get(key)));
+                } else {
+                    allSlots.add(DoctorAvailableSlotResponse.builder()
+                            .doctorId(doctor.getDoctorId())
+                            .doctorName(doctor.getUser().getFullName())
+                            .slotDate(date)
+                            .startTime(time)
+                            .endTime(end)
+                            .status(SlotStatus.AVAILABLE)
+                            .build());
+                }
+                time = end;
+            }
+        }
+
+        allSlots.sort(Comparator
+                .comparing(DoctorAvailableSlotResponse::getSlotDate)
+                .thenComparing(DoctorAvailableSlotResponse::getStartTime));
+        return allSlots;
+    }
+
+    private static DoctorAvailableSlotResponse toResponse(DoctorAvailableSlot slot) {
+        return DoctorAvailableSlotResponse.builder()
+                .slotId(slot.getSlotId())
+                .doctorId(slot.getDoctor().getDoctorId())
+                .doctorName(slot.getDoctor().getUser().getFullName())
+                .slotDate(slot.getSlotDate())
+                .startTime(slot.getStartTime())
+                .endTime(slot.getEndTime())
+                .status(slot.getStatus())
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DoctorSlotGridBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
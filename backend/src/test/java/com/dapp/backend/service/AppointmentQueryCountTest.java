@@ -0,0 +1,126 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.response.Pagination;
+import com.dapp.backend.enums.AppointmentStatus;
+import com.dapp.backend.enums.PaymentEnum;
+import com.dapp.backend.enums.PaymentMethod;
+import com.dapp.backend.enums.TimeSlotEnum;
+import com.dapp.backend.enums.TypeTransactionEnum;
+import com.dapp.backend.model.Appointment;
+import com.dapp.backend.model.Center;
+import com.dapp.backend.model.Payment;
+import com.dapp.backend.model.User;
+import com.dapp.backend.model.Vaccine;
+import com.dapp.backend.util.TokenExtractor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Counts the statements a listing page prepares against an embedded database: the page, its count and one
+// payment lookup, however many rows the page holds.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(AppointmentService.class)
+class AppointmentQueryCountTest {
+
+    private static final int APPOINTMENTS = 150;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @MockBean
+    private AuthService authService;
+    @MockBean
+    private TokenExtractor tokenExtractor;
+    @MockBean
+    private VaccineRecordService vaccineRecordService;
+    @MockBean
+    private VaccinationReminderService reminderService;
+    @MockBean
+    private NextDoseReminderService nextDoseReminderService;
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+    @MockBean
+    private PaymentService paymentService;
+    @MockBean
+    private SlotCapacityLedger slotCapacityLedger;
+    @MockBean
+    private VaccineStockService vaccineStockService;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine vaccine = new Vaccine();
+        vaccine.setSlug("vaxigrip-tetra");
+        vaccine.setName("Vaxigrip Tetra");
+        entityManager.persist(vaccine);
+        Center center = new Center();
+        center.setName("Center 1");
+        entityManager.persist(center);
+        User patient = User.builder().email("patient@example.com").fullName("Nguyen Van A").build();
+        entityManager.persist(patient);
+
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = Appointment.builder()
+                    .patient(patient)
+                    .vaccine(vaccine)
+                    .center(center)
+                    .doseNumber(1)
+                    .scheduledDate(LocalDate.now().plusDays(i % 30))
+                    .scheduledTimeSlot(TimeSlotEnum.SLOT_07_00)
+                    .status(AppointmentStatus.PENDING)
+                    .build();
+            entityManager.persist(appointment);
+            entityManager.persist(Payment.builder()
+                    .referenceId(appointment.getId())
+                    .referenceType(TypeTransactionEnum.APPOINTMENT)
+                    .method(PaymentMethod.CASH)
+                    .amount(100.0)
+                    .status(PaymentEnum.SUCCESS)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testStatementsPerPageDoNotGrowWithPageSize() {
+        long smallPage = statementsFor(10);
+        long largePage = statementsFor(100);
+
+        assertEquals(smallPage, largePage, "A page of 100 should prepare as many statements as a page of 10");
+        assertEquals(3, largePage, "Page, count and one payment lookup");
+    }
+
+    private long statementsFor(int pageSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Pagination pagination = appointmentService.getAllAppointments(null, PageRequest.of(0, pageSize));
+        assertEquals(pageSize, ((List<?>) pagination.getResult()).size());
+        long prepared = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return prepared;
+    }
+}
@@ -0,0 +1,254 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.mapper.AppointmentMapper;
+import com.dapp.backend.dto.projection.AppointmentSummary;
+import com.dapp.backend.dto.response.AppointmentResponse;
+import com.dapp.backend.dto.response.CenterAvailabilityCalendarResponse;
+import com.dapp.backend.dto.response.Pagination;
+import com.dapp.backend.enums.AppointmentStatus;
+import com.dapp.backend.enums.PaymentEnum;
+import com.dapp.backend.enums.PaymentMethod;
+import com.dapp.backend.enums.TimeSlotEnum;
+import com.dapp.backend.enums.TypeTransactionEnum;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.Appointment;
+import com.dapp.backend.model.Center;
+import com.dapp.backend.model.Payment;
+import com.dapp.backend.model.User;
+import com.dapp.backend.model.Vaccine;
+import com.dapp.backend.repository.AppointmentRepository;
+import com.dapp.backend.repository.CenterRepository;
+import com.dapp.backend.repository.PaymentRepository;
+import com.dapp.backend.util.CursorUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentServiceTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private CenterRepository centerRepository;
+
+    @Mock
+    private SlotCapacityLedger slotCapacityLedger;
+
+    @InjectMocks
+    private AppointmentService appointmentService;
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 10, 100 })
+    void testGetAllAppointments_PaymentQueriesConstantPerPage(int pageSize) {
+        List<AppointmentSummary> summaries = buildSummaries(pageSize);
+        Pageable pageable = PageRequest.of(0, pageSize);
+
+        when(appointmentRepository.findSummaries(ArgumentMatchers.<Specification<Appointment>>any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(summaries, pageable, 1000));
+        when(paymentRepository.findMapByReferenceIds(anyCollection(), eq(TypeTransactionEnum.APPOINTMENT)))
+                .thenReturn(paymentsFor(summaries.stream().map(AppointmentSummary::getId).toList()));
+
+        Pagination pagination = appointmentService.getAllAppointments(null, pageable);
+
+        verify(appointmentRepository, never()).findAll(ArgumentMatchers.<Specification<Appointment>>any(),
+                any(Pageable.class));
+
+        verify(paymentRepository, times(1))
+                .findMapByReferenceIds(anyCollection(), eq(TypeTransactionEnum.APPOINTMENT));
+        verify(paymentRepository, never()).findByAppointmentId(any(), any());
+        verifyNoMoreInteractions(paymentRepository);
+
+        @SuppressWarnings("unchecked")
+        List<AppointmentResponse> result = (List<AppointmentResponse>) pagination.getResult();
+        assertEquals(pageSize, result.size());
+        for (AppointmentResponse response : result) {
+            assertEquals(response.getId() + 1000, response.getPaymentId(), "Payment should be matched to its row");
+            assertEquals(PaymentEnum.SUCCESS.name(), response.getPaymentStatus());
+            assertEquals("Vaxigrip Tetra", response.getVaccineName());
+        }
+    }
+
+    @Test
+    void testGetAllAppointmentsByCursor_SeeksWithoutCounting() throws Exception {
+        List<AppointmentSummary> rows = buildSummaries(11);
+        when(appointmentRepository.findSummaries(ArgumentMatchers.<Specification<Appointment>>any(), any(Sort.class),
+                eq(11))).thenReturn(rows);
+        when(paymentRepository.findMapByReferenceIds(anyCollection(), eq(TypeTransactionEnum.APPOINTMENT)))
+                .thenReturn(Map.of());
+
+        Pagination pagination = appointmentService.getAllAppointmentsByCursor(null, "", 10, false);
+
+        @SuppressWarnings("unchecked")
+        List<AppointmentResponse> result = (List<AppointmentResponse>) pagination.getResult();
+        assertEquals(10, result.size());
+        assertTrue(pagination.getMeta().getHasNext());
+        assertNull(pagination.getMeta().getTotal());
+        assertEquals(10L, CursorUtils.decodeId(pagination.getMeta().getNextCursor()));
+        verify(appointmentRepository, never()).count(ArgumentMatchers.<Specification<Appointment>>any());
+    }
+
+    @Test
+    void testSummaryMapping_FamilyMemberKeepsAccountEmail() {
+        AppointmentSummary summary = AppointmentSummary.builder()
+                .id(7L)
+                .vaccineName("Vaxigrip Tetra")
+                .familyMemberId(3L)
+                .familyMemberName("Nguyen Van B")
+                .familyMemberPhone("0900000002")
+                .patientProfileId(9L)
+                .patientName("Nguyen Van A")
+                .patientEmail("a@vaxsafe.com")
+                .build();
+
+        AppointmentResponse response = AppointmentMapper.toResponse(summary);
+
+        assertEquals("Nguyen Van B", response.getPatientName());
+        assertEquals("0900000002", response.getPatientPhone());
+        assertEquals("a@vaxsafe.com", response.getPatientEmail());
+        assertEquals(3L, response.getFamilyMemberId());
+        assertNull(response.getPatientId());
+    }
+
+    @Test
+    void testGetHistoryBooking_RowsWithoutPayment() throws Exception {
+        User patient = User.builder().id(1L).fullName("Nguyen Van A").email("a@vaxsafe.com").build();
+        List<Appointment> appointments = buildAppointments(5);
+
+        when(authService.getCurrentUserLogin()).thenReturn(patient);
+        when(appointmentRepository.findByPatient(patient)).thenReturn(appointments);
+        when(paymentRepository.findMapByReferenceIds(anyCollection(), eq(TypeTransactionEnum.APPOINTMENT)))
+                .thenReturn(Map.of());
+
+        List<AppointmentResponse> result = appointmentService.getHistoryBooking();
+
+        verify(paymentRepository, times(1))
+                .findMapByReferenceIds(anyCollection(), eq(TypeTransactionEnum.APPOINTMENT));
+        verifyNoMoreInteractions(paymentRepository);
+        assertEquals(5, result.size());
+        result.forEach(response -> assertNull(response.getPaymentId()));
+    }
+
+    @Test
+    void testCheckAvailabilityRange_MaxDaysInclusive() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(1);
+        LocalDate end = start.plusDays(61);
+        int fullSlot = TimeSlotEnum.SLOT_09_00.ordinal();
+        Map<LocalDate, int[]> counts = new LinkedHashMap<>();
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            counts.put(d, new int[TimeSlotEnum.values().length]);
+        }
+        counts.get(start)[fullSlot] = 50;
+
+        Center center = Center.builder().centerId(1L).capacity(300).build();
+        when(centerRepository.findById(1L)).thenReturn(Optional.of(center));
+        when(slotCapacityLedger.getBookedCounts(1L, start, end)).thenReturn(counts);
+
+        CenterAvailabilityCalendarResponse response = appointmentService.checkAvailabilityRange(1L, start, end);
+
+        int allSlots = (1 << TimeSlotEnum.values().length) - 1;
+        assertEquals(62, response.getBooked().size());
+        assertEquals(50, response.getSlotCapacity());
+        assertEquals(allSlots & ~(1 << fullSlot), response.getAvailableMask().get(0));
+        assertEquals(allSlots, response.getAvailableMask().get(1));
+    }
+
+    @Test
+    void testCheckAvailabilityRange_RejectsMoreThanMaxDays() {
+        LocalDate start = LocalDate.now().plusDays(1);
+
+        assertThrows(AppException.class,
+                () -> appointmentService.checkAvailabilityRange(1L, start, start.plusDays(62)));
+        assertThrows(AppException.class,
+                () -> appointmentService.checkAvailabilityRange(1L, start, start.minusDays(1)));
+        verify(slotCapacityLedger, never()).getBookedCounts(any(), any(), any());
+    }
+
+    private List<Appointment> buildAppointments(int count) {
+        Vaccine vaccine = Vaccine.builder().id(1L).name("Vaxigrip Tetra").slug("vaxigrip-tetra").dosesRequired(1)
+                .build();
+        User patient = User.builder().id(1L).fullName("Nguyen Van A").email("a@vaxsafe.com").build();
+
+        List<Appointment> appointments = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            appointments.add(Appointment.builder()
+                    .id(i)
+                    .patient(patient)
+                    .vaccine(vaccine)
+                    .doseNumber(1)
+                    .status(AppointmentStatus.PENDING)
+                    .build());
+        }
+        return appointments;
+    }
+
+    private List<AppointmentSummary> buildSummaries(int count) {
+        List<AppointmentSummary> summaries = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            summaries.add(AppointmentSummary.builder()
+                    .id(i)
+                    .vaccineName("Vaxigrip Tetra")
+                    .vaccineSlug("vaxigrip-tetra")
+                    .vaccineDosesRequired(1)
+                    .doseNumber(1)
+                    .patientName("Nguyen Van A")
+                    .patientEmail("a@vaxsafe.com")
+                    .status(AppointmentStatus.PENDING)
+                    .build());
+        }
+        return summaries;
+    }
+
+    private Map<Long, Payment> paymentsFor(List<Long> appointmentIds) {
+        Map<Long, Payment> payments = new HashMap<>();
+        for (Long appointmentId : appointmentIds) {
+            payments.put(appointmentId, Payment.builder()
+                    .id(appointmentId + 1000)
+                    .referenceId(appointmentId)
+                    .referenceType(TypeTransactionEnum.APPOINTMENT)
+                    .method(PaymentMethod.CASH)
+                    .status(PaymentEnum.SUCCESS)
+                    .amount(500000.0)
+                    .build());
+        }
+        return payments;
+    }
+}
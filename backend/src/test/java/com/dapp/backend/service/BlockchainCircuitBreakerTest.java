@@ -0,0 +1,105 @@
+package com.dapp.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockchainCircuitBreakerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        BlockchainCircuitBreaker breaker = new BlockchainCircuitBreaker(registry, 3, 30);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertTrue(breaker.isAvailable(), "A success in between resets the failure streak");
+
+        breaker.recordFailure();
+        assertEquals(BlockchainCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isAvailable());
+        assertEquals(1.0, registry.get("blockchain.gateway.circuit.rejected").counter().count());
+        assertEquals(1.0, registry.get("blockchain.gateway.circuit.transitions")
+                .tags("from", "CLOSED", "to", "OPEN").counter().count());
+        assertEquals(1.0, registry.get("blockchain.gateway.circuit.state").gauge().value());
+    }
+
+    @Test
+    void testHalfOpenAfterTimeoutClosesOnSuccess() {
+        BlockchainCircuitBreaker breaker = new BlockchainCircuitBreaker(registry, 1, 0);
+
+        breaker.recordFailure();
+        assertTrue(breaker.isAvailable(), "Open time has elapsed, so a trial call is let through");
+        assertEquals(BlockchainCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.recordSuccess();
+        assertEquals(BlockchainCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenFailureReopens() {
+        BlockchainCircuitBreaker breaker = new BlockchainCircuitBreaker(registry, 1, 30);
+
+        breaker.recordFailure();
+        breaker.recordProbe(true);
+        assertEquals(BlockchainCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.recordFailure();
+        assertEquals(BlockchainCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isAvailable());
+    }
+
+    @Test
+    void testReopenedCircuitWaitsOutItsOwnOpenTime() throws InterruptedException {
+        BlockchainCircuitBreaker breaker = new BlockchainCircuitBreaker(registry, 1, 1);
+
+        breaker.recordFailure();
+        Thread.sleep(1_100);
+        assertTrue(breaker.isAvailable(), "The first opening has expired");
+        assertEquals(BlockchainCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.recordFailure();
+        assertFalse(breaker.isAvailable(), "The expired first opening must not half-open the new one");
+        assertEquals(BlockchainCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2.0, registry.get("blockchain.gateway.circuit.transitions")
+                .tags("from", "HALF_OPEN", "to", "OPEN").counter().count()
+                + registry.get("blockchain.gateway.circuit.transitions")
+                .tags("from", "CLOSED", "to", "OPEN").counter().count());
+    }
+
+    @Test
+    void testPassingProbeLeavesHalfOpenToRealTraffic() {
+        BlockchainCircuitBreaker breaker = new BlockchainCircuitBreaker(registry, 2, 30);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordProbe(true);
+        breaker.recordProbe(true);
+        assertEquals(BlockchainCircuitBreaker.State.HALF_OPEN, breaker.getState(),
+                "Only a real call may close the circuit");
+
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordProbe(true);
+        breaker.recordFailure();
+        assertEquals(BlockchainCircuitBreaker.State.OPEN, breaker.getState(),
+                "A passing probe does not reset the failure streak");
+    }
+
+    @Test
+    void testProbeFailuresOpenIdleCircuit() {
+        BlockchainCircuitBreaker breaker = new BlockchainCircuitBreaker(registry, 2, 30);
+
+        breaker.recordProbe(false);
+        breaker.recordProbe(false);
+
+        assertEquals(BlockchainCircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,156 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.service.BlockchainGatewayClient.Endpoint;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Runs the client against a stub HTTP server on localhost: /slow answers after 1s, /held answers once
+// the test releases it.
+class BlockchainGatewayClientTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch held = new CountDownLatch(1);
+
+    private HttpServer server;
+    private String baseUrl;
+    private BlockchainGatewayClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/slow", exchange -> {
+            sleep(1_000);
+            respond(exchange, "{\"success\":true}");
+        });
+        server.createContext("/held", exchange -> {
+            held.countDown();
+            await(release);
+            respond(exchange, "{\"success\":true}");
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("blockchain.gateway.bulkhead-wait-ms", "50")
+                .withProperty("blockchain.gateway.chain-read.timeout-ms", "200")
+                .withProperty("blockchain.gateway.chain-write.timeout-ms", "5000")
+                .withProperty("blockchain.gateway.chain-write.max-concurrent", "1");
+        client = new BlockchainGatewayClient(environment, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testTimeoutsArePerEndpoint() {
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class,
+                () -> client.getForEntity(Endpoint.CHAIN_READ, baseUrl + "/slow", String.class));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 900,
+                "A chain read gives up at its own 200ms timeout");
+
+        ResponseEntity<String> response = client.getForEntity(Endpoint.CHAIN_WRITE, baseUrl + "/slow", String.class);
+        assertEquals(200, response.getStatusCode().value(), "A chain write waits out the same delay");
+
+        assertEquals(1, registry.get("blockchain.gateway.requests")
+                .tags("endpoint", "chain-read", "outcome", "io_error").timer().count());
+        assertEquals(1, registry.get("blockchain.gateway.requests")
+                .tags("endpoint", "chain-write", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void testFullBulkheadRejectsWithoutTouchingOtherEndpoints() throws Exception {
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(
+                () -> client.getForEntity(Endpoint.CHAIN_WRITE, baseUrl + "/held", String.class));
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        assertThrows(RejectedExecutionException.class,
+                () -> client.getForEntity(Endpoint.CHAIN_WRITE, baseUrl + "/held", String.class));
+        assertEquals(1.0, registry.get("blockchain.gateway.bulkhead.rejected")
+                .tags("endpoint", "chain-write").counter().count());
+        assertEquals(0.0, registry.get("blockchain.gateway.bulkhead.rejected")
+                .tags("endpoint", "chain-read").counter().count());
+
+        release.countDown();
+        assertEquals(200, first.get(5, TimeUnit.SECONDS).getStatusCode().value());
+        // The permit is returned once the call completes
+        assertEquals(200, client.getForEntity(Endpoint.CHAIN_WRITE, baseUrl + "/held", String.class)
+                .getStatusCode().value());
+    }
+
+    @Test
+    void testBulkheadRejectionDoesNotTripCircuitBreaker() throws Exception {
+        BlockchainCircuitBreaker breaker = new BlockchainCircuitBreaker(registry, 1, 30);
+        BlockchainService blockchainService = new BlockchainService(client, breaker, mock(ChainStateMirror.class),
+                mock(IpfsContentIndex.class));
+        ReflectionTestUtils.setField(blockchainService, "blockchainServiceUrl", baseUrl + "/held");
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(
+                () -> client.getForEntity(Endpoint.CHAIN_WRITE, baseUrl + "/held", String.class));
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(blockchainService.anchorBatch("ab12", 2), "The bulkhead is full, so the call is refused");
+        }
+        assertEquals(BlockchainCircuitBreaker.State.CLOSED, breaker.getState(),
+                "Local back-pressure says nothing about the gateway's health");
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainBatchDetails;
+import com.dapp.backend.dto.response.BulkVerificationResponse;
+import com.dapp.backend.dto.response.VaccineRecordResponse;
+import com.dapp.backend.enums.VerificationVerdict;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.AnchorBatch;
+import com.dapp.backend.model.VaccineRecord;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkVerificationServiceTest {
+
+    private final VaccineRecordRepository vaccineRecordRepository = mock(VaccineRecordRepository.class);
+    private final VaccineRecordService vaccineRecordService = mock(VaccineRecordService.class);
+    private final VerificationCache verificationCache = new VerificationCache(new SimpleMeterRegistry(), 100, 600, 60);
+    private final BlockchainService blockchainService = mock(BlockchainService.class);
+    private final BulkVerificationService service = new BulkVerificationService(vaccineRecordRepository,
+            vaccineRecordService, verificationCache, blockchainService, 4);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testVerdictPerHashInRequestOrder() throws AppException {
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 5L);
+        VaccineRecordResponse cachedResponse = VaccineRecordResponse.builder().id(1L).ipfsHash("QmCached").build();
+        verificationCache.putVerified("QmCached", cachedResponse);
+
+        VaccineRecord good = VaccineRecord.builder().id(2L).ipfsHash("QmGood").blockchainRecordId("7").build();
+        VaccineRecord tampered = VaccineRecord.builder().id(3L).ipfsHash("QmTampered").blockchainRecordId("8").build();
+        VaccineRecordResponse goodResponse = VaccineRecordResponse.builder().id(2L).ipfsHash("QmGood").build();
+        when(vaccineRecordRepository.findAllByIpfsHashIn(anyCollection())).thenReturn(List.of(good, tampered));
+        when(vaccineRecordService.verifyRecord(eq(good), eq("QmGood"), any())).thenReturn(goodResponse);
+        when(vaccineRecordService.verifyRecord(eq(tampered), eq("QmTampered"), any())).thenThrow(
+                new AppException("BLOCKCHAIN INTEGRITY ERROR: Hash does not match the valid chain record"));
+
+        BulkVerificationResponse response = service.verify(
+                List.of("QmTampered", "QmCached", "QmMissing", "QmGood", "QmGood", " "));
+
+        assertEquals(4, response.getTotal());
+        assertEquals(2, response.getVerified());
+        assertEquals(1, response.getNotFound());
+        assertEquals(1, response.getFailed());
+        List<BulkVerificationResponse.Result> results = response.getResults();
+        assertEquals("QmTampered", results.get(0).getIpfsHash());
+        assertEquals(VerificationVerdict.FAILED, results.get(0).getVerdict());
+        assertSame(cachedResponse, results.get(1).getRecord());
+        assertEquals(VerificationVerdict.NOT_FOUND, results.get(2).getVerdict());
+        assertSame(goodResponse, results.get(3).getRecord());
+
+        // Only cache misses go to the database, in a single query
+        verify(vaccineRecordRepository).findAllByIpfsHashIn(
+                argThat(hashes -> hashes.size() == 3 && !hashes.contains("QmCached")));
+        assertTrue(verificationCache.get("QmMissing").isNotFound());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchAnchoredChecksRunInParallelAndReadEachRootOnce() throws AppException {
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 5L);
+        AnchorBatch first = AnchorBatch.builder().id(1L).merkleRoot("aa").build();
+        AnchorBatch second = AnchorBatch.builder().id(2L).merkleRoot("bb").build();
+        List<VaccineRecord> records = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            records.add(VaccineRecord.builder().id(id).ipfsHash("QmBatch" + id)
+                    .anchorBatch(id % 2 == 0 ? first : second).build());
+            hashes.add("QmBatch" + id);
+        }
+        when(vaccineRecordRepository.findAllByIpfsHashIn(anyCollection())).thenReturn(records);
+        when(blockchainService.getBatchByRoot(anyString())).thenReturn(new BlockchainBatchDetails(true, null));
+        // Stands in for the IPFS fetch and root read: 200ms per record
+        when(vaccineRecordService.verifyRecord(any(), anyString(), any())).thenAnswer(invocation -> {
+            VaccineRecord record = invocation.getArgument(0);
+            ((Function<String, BlockchainBatchDetails>) invocation.getArgument(2))
+                    .apply(record.getAnchorBatch().getMerkleRoot());
+            Thread.sleep(200);
+            return VaccineRecordResponse.builder().id(record.getId()).ipfsHash(record.getIpfsHash()).build();
+        });
+
+        long start = System.nanoTime();
+        BulkVerificationResponse response = service.verify(hashes);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(8, response.getVerified());
+        assertTrue(elapsedMs < 1_200, "8 checks on 4 verifiers take two rounds, not eight: " + elapsedMs + "ms");
+        verify(blockchainService, times(1)).getBatchByRoot("aa");
+        verify(blockchainService, times(1)).getBatchByRoot("bb");
+    }
+
+    @Test
+    void testSlowBatchAnchoredCheckIsBoundByTimeout() throws AppException {
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 1L);
+        VaccineRecord slow = VaccineRecord.builder().id(1L).ipfsHash("QmSlow")
+                .anchorBatch(AnchorBatch.builder().id(1L).merkleRoot("aa").build()).build();
+        when(vaccineRecordRepository.findAllByIpfsHashIn(anyCollection())).thenReturn(List.of(slow));
+        when(vaccineRecordService.verifyRecord(eq(slow), eq("QmSlow"), any())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        long start = System.nanoTime();
+        BulkVerificationResponse response = service.verify(List.of("QmSlow"));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3_000);
+        assertEquals(VerificationVerdict.FAILED, response.getResults().get(0).getVerdict());
+        assertEquals("SERVICE UNAVAILABLE: Verification timed out", response.getResults().get(0).getMessage());
+    }
+}
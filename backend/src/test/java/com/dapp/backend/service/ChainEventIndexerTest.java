@@ -0,0 +1,168 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainEventPage;
+import com.dapp.backend.model.ChainIndexCheckpoint;
+import com.dapp.backend.model.ChainVaccineRecord;
+import com.dapp.backend.repository.ChainIdentityRepository;
+import com.dapp.backend.repository.ChainIndexCheckpointRepository;
+import com.dapp.backend.repository.ChainVaccineRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChainEventIndexerTest {
+
+    // Stand-in for the Node gateway: block i has hash "0x<fork><i>" and the events listed for it
+    private static class InMemoryChain implements ChainEventFeed {
+        final List<List<BlockchainEventPage.ChainEvent>> blocks = new ArrayList<>();
+        String fork = "a";
+
+        void mine(BlockchainEventPage.ChainEvent... events) {
+            for (BlockchainEventPage.ChainEvent event : events) {
+                event.setBlockNumber(blocks.size());
+            }
+            blocks.add(List.of(events));
+        }
+
+        String hash(long block) {
+            return "0x" + fork + block;
+        }
+
+        @Override
+        public BlockchainEventPage fetchEvents(long fromBlock, int maxBlocks, int confirmations) {
+            long latest = blocks.size() - 1;
+            long toBlock = Math.min(latest - confirmations, fromBlock + maxBlocks - 1);
+            List<BlockchainEventPage.ChainEvent> events = new ArrayList<>();
+            for (long block = fromBlock; block <= toBlock; block++) {
+                events.addAll(blocks.get((int) block));
+            }
+            String parentHash = fromBlock > 0 ? hash(fromBlock - 1) : null;
+            return new BlockchainEventPage(true, null, new BlockchainEventPage.PageData(fromBlock,
+                    Math.max(toBlock, fromBlock - 1), latest, parentHash,
+                    toBlock >= fromBlock ? hash(toBlock) : parentHash, events));
+        }
+    }
+
+    private final InMemoryChain chain = new InMemoryChain();
+    private ChainVaccineRecordRepository recordRepository;
+    private ChainIdentityRepository identityRepository;
+    private ChainIndexCheckpoint checkpoint;
+    private ChainEventIndexer indexer;
+    private ChainStateMirror mirror;
+
+    @BeforeEach
+    void setUp() {
+        ChainIndexCheckpointRepository checkpointRepository = mock(ChainIndexCheckpointRepository.class);
+        recordRepository = mock(ChainVaccineRecordRepository.class);
+        identityRepository = mock(ChainIdentityRepository.class);
+        checkpoint = ChainIndexCheckpoint.builder().id(ChainStateMirror.CHECKPOINT_ID).blockNumber(-1L).build();
+        when(checkpointRepository.findById(ChainStateMirror.CHECKPOINT_ID)).thenReturn(Optional.of(checkpoint));
+        when(checkpointRepository.lockById(ChainStateMirror.CHECKPOINT_ID)).thenReturn(Optional.of(checkpoint));
+        when(recordRepository.findByChainRecordId(any())).thenReturn(Optional.empty());
+        when(identityRepository.findByIdentityHashIgnoreCase(any())).thenReturn(Optional.empty());
+
+        indexer = new ChainEventIndexer(chain, checkpointRepository, recordRepository, identityRepository,
+                mock(VerificationCache.class), mock(DidResolutionCache.class), mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(indexer, "enabled", true);
+        ReflectionTestUtils.setField(indexer, "startBlock", 0L);
+        ReflectionTestUtils.setField(indexer, "maxBlocksPerPoll", 2);
+        ReflectionTestUtils.setField(indexer, "confirmations", 0);
+        ReflectionTestUtils.setField(indexer, "reorgDepth", 2L);
+
+        mirror = new ChainStateMirror(checkpointRepository, recordRepository, identityRepository);
+        ReflectionTestUtils.setField(mirror, "enabled", true);
+        ReflectionTestUtils.setField(mirror, "maxLagBlocks", 2L);
+        ReflectionTestUtils.setField(mirror, "maxStalenessSeconds", 30L);
+    }
+
+    @Test
+    void testFreshMirrorWithoutRowsDefersToGateway() {
+        checkpoint.setBlockNumber(10L);
+        checkpoint.setLatestBlock(10L);
+        checkpoint.setPolledAt(LocalDateTime.now());
+        when(recordRepository.findByIdentityHashIgnoreCaseOrderByChainRecordId("0xabc")).thenReturn(List.of());
+
+        assertNull(mirror.findRecordsByIdentity("0xabc"),
+                "An empty mirror may just not decode the deployed contract's events");
+    }
+
+    @Test
+    void testIndexesPagesAndStampsBlocks() {
+        chain.mine();
+        chain.mine(recordCreated(1L, "QmFirst"));
+        chain.mine(event("VaxSafeIdentity", "IdentityCreated", Map.of("identityHash", "0xabc", "did", "did:vax:1",
+                "guardian", "0x01", "idType", "1", "timestamp", "1700000000")));
+
+        assertEquals(2, indexer.indexNext());
+        assertEquals(1, indexer.indexNext());
+        assertEquals(0, indexer.indexNext());
+
+        assertEquals(2L, checkpoint.getBlockNumber());
+        assertEquals("0xa2", checkpoint.getBlockHash());
+        ArgumentCaptor<ChainVaccineRecord> saved = ArgumentCaptor.forClass(ChainVaccineRecord.class);
+        verify(recordRepository).save(saved.capture());
+        assertEquals(1L, saved.getValue().getChainRecordId());
+        assertEquals("QmFirst", saved.getValue().getIpfsHash());
+        assertEquals(1L, saved.getValue().getCreatedBlock());
+        verify(identityRepository).save(any());
+    }
+
+    @Test
+    void testReorgRewindsAndReplays() {
+        for (int i = 0; i < 5; i++) {
+            chain.mine();
+        }
+        while (indexer.indexNext() > 0) {
+            // catch up to block 4
+        }
+        assertEquals(4L, checkpoint.getBlockNumber());
+
+        // Reorg: every block hash changes and block 3 now holds a record
+        chain.fork = "b";
+        chain.blocks.set(3, List.of(recordCreated(9L, "QmFork")));
+        chain.blocks.get(3).get(0).setBlockNumber(3);
+        chain.mine();
+
+        assertEquals(2, indexer.indexNext());
+        assertEquals(2L, checkpoint.getBlockNumber());
+        assertNull(checkpoint.getBlockHash());
+        verify(recordRepository).deleteCreatedAfter(2L);
+        verify(identityRepository).deleteCreatedAfter(2L);
+        verify(recordRepository).clearIpfsUpdatedAfter(2L);
+        verify(recordRepository, never()).save(any());
+
+        while (indexer.indexNext() > 0) {
+            // replay blocks 3-5 from the fork
+        }
+        assertEquals(5L, checkpoint.getBlockNumber());
+        assertEquals("0xb5", checkpoint.getBlockHash());
+        verify(recordRepository).save(any());
+    }
+
+    private static BlockchainEventPage.ChainEvent recordCreated(Long recordId, String ipfsHash) {
+        return event("VaccineRecord", "RecordCreated", Map.of("recordId", recordId.toString(),
+                "identityHash", "0xabc", "vaccineName", "MMR", "doseNumber", "1", "ipfsHash", ipfsHash));
+    }
+
+    private static BlockchainEventPage.ChainEvent event(String contract, String name, Map<String, String> values) {
+        return new BlockchainEventPage.ChainEvent(contract, name, 0, null, 0, "0xtx", values);
+    }
+}
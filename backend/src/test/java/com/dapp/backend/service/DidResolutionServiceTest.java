@@ -0,0 +1,109 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainIdentityDetails;
+import com.dapp.backend.dto.blockchain.DidIdentityRow;
+import com.dapp.backend.dto.response.DidResolutionResponse;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.repository.FamilyMemberRepository;
+import com.dapp.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DidResolutionServiceTest {
+
+    private static final String CHILD_DID = "did:vax:vietnam:child:0123456789abcdef";
+    private static final String PARENT_DID = "did:vax:vietnam:user:fedcba9876543210";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final FamilyMemberRepository familyMemberRepository = mock(FamilyMemberRepository.class);
+    private final BlockchainService blockchainService = mock(BlockchainService.class);
+    private final IdentityService identityService = mock(IdentityService.class);
+    private DidResolutionCache cache;
+    private DidResolutionService resolutionService;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DidResolutionCache(new SimpleMeterRegistry(), 100, 600, 0);
+        resolutionService = new DidResolutionService(userRepository, familyMemberRepository, blockchainService,
+                identityService, cache);
+        when(identityService.isValidDID(anyString())).thenReturn(true);
+        when(blockchainService.isBlockchainServiceAvailable()).thenReturn(true);
+        when(userRepository.findDidIdentity(anyString())).thenReturn(Optional.empty());
+        when(familyMemberRepository.findDidIdentity(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testAnchoredIdentityIsAssembledAndCached() throws AppException {
+        when(familyMemberRepository.findDidIdentity(CHILD_DID))
+                .thenReturn(Optional.of(new DidIdentityRow(CHILD_DID, "0xabc", "QmProfile", PARENT_DID)));
+        when(blockchainService.getIdentity("0xabc")).thenReturn(new BlockchainIdentityDetails(true,
+                new BlockchainIdentityDetails.IdentityData("0xabc", CHILD_DID, "0xguardian", "1", "1700000000",
+                        true, "QmProfile")));
+
+        DidResolutionResponse response = resolutionService.resolve(CHILD_DID);
+
+        assertEquals(CHILD_DID, response.getDidDocument().getId());
+        assertEquals(PARENT_DID, response.getDidDocument().getController());
+        assertEquals("ipfs://QmProfile", response.getDidDocument().getService().get(0).getServiceEndpoint());
+        assertEquals("CHILD", response.getDidDocumentMetadata().getIdentityType());
+        assertTrue(response.getDidDocumentMetadata().isAnchored());
+        assertSame(response, resolutionService.resolve(CHILD_DID));
+        verify(familyMemberRepository, times(1)).findDidIdentity(CHILD_DID);
+        verify(blockchainService, times(1)).getIdentity("0xabc");
+    }
+
+    @Test
+    void testUnanchoredIdentityUsesNegativeTtl() throws AppException {
+        when(userRepository.findDidIdentity(PARENT_DID))
+                .thenReturn(Optional.of(new DidIdentityRow(PARENT_DID, "0xdef", null)));
+
+        assertFalse(resolutionService.resolve(PARENT_DID).getDidDocumentMetadata().isAnchored());
+        resolutionService.resolve(PARENT_DID);
+
+        verify(userRepository, times(2)).findDidIdentity(PARENT_DID);
+    }
+
+    @Test
+    void testUnknownDidIsRejectedFromCache() {
+        cache = new DidResolutionCache(new SimpleMeterRegistry(), 100, 600, 60);
+        resolutionService = new DidResolutionService(userRepository, familyMemberRepository, blockchainService,
+                identityService, cache);
+
+        assertThrows(AppException.class, () -> resolutionService.resolve(CHILD_DID));
+        assertThrows(AppException.class, () -> resolutionService.resolve(CHILD_DID));
+
+        verify(familyMemberRepository, times(1)).findDidIdentity(CHILD_DID);
+        cache.invalidate(CHILD_DID);
+        assertThrows(AppException.class, () -> resolutionService.resolve(CHILD_DID));
+        verify(familyMemberRepository, times(2)).findDidIdentity(CHILD_DID);
+    }
+
+    @Test
+    void testLookupDuringGatewayOutageIsNotCached() throws AppException {
+        cache = new DidResolutionCache(new SimpleMeterRegistry(), 100, 600, 60);
+        resolutionService = new DidResolutionService(userRepository, familyMemberRepository, blockchainService,
+                identityService, cache);
+        when(blockchainService.isBlockchainServiceAvailable()).thenReturn(false);
+        when(userRepository.findDidIdentity(PARENT_DID))
+                .thenReturn(Optional.of(new DidIdentityRow(PARENT_DID, "0xdef", "QmProfile")));
+
+        resolutionService.resolve(PARENT_DID);
+        resolutionService.resolve(PARENT_DID);
+
+        verify(blockchainService, times(2)).getIdentity("0xdef");
+    }
+}
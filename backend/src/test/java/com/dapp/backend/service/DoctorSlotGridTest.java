@@ -0,0 +1,77 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.enums.SlotStatus;
+import com.dapp.backend.model.DoctorAvailableSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorSlotGridTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void testMasksFollowRealSlots() {
+        DoctorSlotGrid grid = new DoctorSlotGrid(30, START, START.plusDays(1));
+        DoctorAvailableSlot booked = slot(START, LocalTime.of(7, 0), SlotStatus.BOOKED);
+        grid.addAll(List.of(
+                booked,
+                slot(START, LocalTime.of(7, 0), SlotStatus.BLOCKED),
+                slot(START.plusDays(1), LocalTime.of(16, 30), SlotStatus.BLOCKED),
+                slot(START.plusDays(1), LocalTime.of(9, 0), SlotStatus.AVAILABLE)));
+
+        assertEquals(2, grid.days());
+        assertEquals(20, grid.slotsPerDay());
+        assertFalse(grid.isAvailable(0, 0));
+        assertSame(booked, grid.realSlot(0, 0), "First row wins on duplicate start time");
+        assertEquals(SlotStatus.BLOCKED, grid.status(1, 19));
+        assertTrue(grid.isAvailable(1, 4), "A real AVAILABLE row stays available");
+        assertNull(grid.realSlot(0, 1));
+        assertEquals(19, grid.countAvailable(0));
+        assertEquals(1, grid.countBooked(0));
+        assertEquals(1, grid.countBlocked(1));
+        assertEquals(LocalTime.of(16, 30), grid.startTime(19));
+        assertEquals(LocalTime.of(17, 0), grid.endTime(19));
+    }
+
+    @Test
+    void testOffGridRowsIgnored() {
+        DoctorSlotGrid grid = new DoctorSlotGrid(45, START, START);
+        grid.addAll(List.of(
+                slot(START, LocalTime.of(7, 30), SlotStatus.BOOKED),
+                slot(START, LocalTime.of(17, 0), SlotStatus.BOOKED),
+                slot(START.plusDays(3), LocalTime.of(7, 0), SlotStatus.BOOKED)));
+
+        assertEquals(13, grid.slotsPerDay());
+        assertEquals(0, grid.realSlotCount());
+        assertEquals(13, grid.countAvailable(0));
+    }
+
+    @Test
+    void testShortConsultationsSpanSeveralWords() {
+        DoctorSlotGrid grid = new DoctorSlotGrid(5, START, START);
+        grid.add(slot(START, LocalTime.of(16, 55), SlotStatus.BOOKED));
+
+        assertEquals(120, grid.slotsPerDay());
+        assertEquals(SlotStatus.BOOKED, grid.status(0, 119));
+        assertTrue(grid.isAvailable(0, 55), "Bit 55 of the first word must not alias slot 119");
+        assertEquals(119, grid.countAvailable(0));
+    }
+
+    private DoctorAvailableSlot slot(LocalDate date, LocalTime start, SlotStatus status) {
+        return DoctorAvailableSlot.builder()
+                .slotDate(date)
+                .startTime(start)
+                .endTime(start.plusMinutes(30))
+                .status(status)
+                .build();
+    }
+}
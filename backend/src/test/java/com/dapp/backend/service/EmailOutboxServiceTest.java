@@ -0,0 +1,121 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.enums.EmailType;
+import com.dapp.backend.enums.OutboxStatus;
+import com.dapp.backend.model.EmailOutbox;
+import com.dapp.backend.repository.EmailOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxServiceTest {
+
+    private EmailOutboxRepository repository;
+    private EmailService emailService;
+    private EmailOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        emailService = mock(EmailService.class);
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        outboxService = new EmailOutboxService(repository, emailService, new ObjectMapper(),
+                mock(PlatformTransactionManager.class), 2);
+        ReflectionTestUtils.setField(outboxService, "batchSize", 10);
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "backoffBaseSeconds", 30L);
+        ReflectionTestUtils.setField(outboxService, "backoffMaxSeconds", 3600L);
+        ReflectionTestUtils.setField(outboxService, "lockSeconds", 300L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        outboxService.shutdown();
+    }
+
+    @Test
+    void testRelayDue_MarksSentRowsAndReleasesLock() throws Exception {
+        EmailOutbox row = pendingRow(0);
+        when(repository.lockDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(row));
+
+        assertEquals(1, outboxService.relayDue());
+
+        assertEquals(OutboxStatus.SENT, row.getStatus());
+        assertNotNull(row.getSentAt());
+        assertNull(row.getLockedUntil());
+    }
+
+    @Test
+    void testRelayDue_FailedSendIsRescheduledWithBackoff() throws Exception {
+        EmailOutbox row = pendingRow(0);
+        when(repository.lockDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(row));
+        doThrow(new MessagingException("SMTP unavailable")).when(emailService)
+                .sendTemplateEmail(eq(EmailType.APPOINTMENT_CANCELLATION), anyString(), anyMap());
+
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.relayDue();
+
+        assertEquals(OutboxStatus.PENDING, row.getStatus());
+        assertEquals(1, row.getAttempts());
+        assertEquals("SMTP unavailable", row.getLastError());
+        assertTrue(row.getNextAttemptAt().isAfter(before.plusSeconds(23)), "First retry waits about 30 seconds");
+        assertNull(row.getLockedUntil());
+    }
+
+    @Test
+    void testRelayDue_GivesUpAfterMaxAttempts() throws Exception {
+        EmailOutbox row = pendingRow(2);
+        when(repository.lockDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(row));
+        doThrow(new MessagingException("Mailbox unavailable")).when(emailService)
+                .sendTemplateEmail(any(), anyString(), anyMap());
+
+        outboxService.relayDue();
+
+        assertEquals(OutboxStatus.FAILED, row.getStatus());
+        assertEquals(3, row.getAttempts());
+    }
+
+    @Test
+    void testBackoff_GrowsExponentiallyUpToCap() {
+        for (int attempts = 1; attempts <= 12; attempts++) {
+            long expected = Math.min(3600, 30L << (attempts - 1));
+            long delay = outboxService.backoffSeconds(attempts);
+            assertTrue(delay >= expected * 0.8 - 1 && delay <= expected * 1.2 + 1,
+                    "Attempt " + attempts + " waited " + delay + "s");
+        }
+    }
+
+    private EmailOutbox pendingRow(int attempts) {
+        return EmailOutbox.builder()
+                .id(1L)
+                .type(EmailType.APPOINTMENT_CANCELLATION)
+                .recipient("a@vaxsafe.com")
+                .payload("{\"patientName\":\"Nguyen Van A\",\"reason\":\"Center closed\"}")
+                .status(OutboxStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
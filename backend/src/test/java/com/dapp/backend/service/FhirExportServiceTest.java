@@ -0,0 +1,88 @@
+package com.dapp.backend.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.dapp.backend.dto.mapper.fhir.FhirImmunizationMapper;
+import com.dapp.backend.dto.mapper.fhir.FhirPatientMapper;
+import com.dapp.backend.enums.FhirExportFormat;
+import com.dapp.backend.model.FamilyMember;
+import com.dapp.backend.model.User;
+import com.dapp.backend.model.VaccineRecord;
+import com.dapp.backend.repository.FamilyMemberRepository;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FhirExportServiceTest {
+
+    private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+    private FhirExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        VaccineRecordRepository recordRepository = mock(VaccineRecordRepository.class);
+        FamilyMemberRepository familyMemberRepository = mock(FamilyMemberRepository.class);
+
+        User user = User.builder().id(1L).fullName("Nguyen Van A").build();
+        FamilyMember child = FamilyMember.builder().id(2L).fullName("Nguyen Van B").build();
+        VaccineRecord first = VaccineRecord.builder().id(10L).user(user).vaccinationDate(LocalDate.of(2024, 5, 1))
+                .build();
+        VaccineRecord second = VaccineRecord.builder().id(11L).user(user).vaccinationDate(LocalDate.of(2024, 1, 1))
+                .build();
+        VaccineRecord childRecord = VaccineRecord.builder().id(12L).familyMember(child)
+                .vaccinationDate(LocalDate.of(2024, 3, 1)).build();
+
+        // Page size 1: the user's history takes two pages plus an empty one
+        when(recordRepository.findUserHistoryPage(eq(1L), any())).thenReturn(List.of(first));
+        when(recordRepository.findUserHistoryPageAfter(eq(1L), eq(first.getVaccinationDate()), eq(10L), any()))
+                .thenReturn(List.of(second));
+        when(recordRepository.findUserHistoryPageAfter(eq(1L), eq(second.getVaccinationDate()), eq(11L), any()))
+                .thenReturn(List.of());
+        when(familyMemberRepository.findByUserId(1L)).thenReturn(List.of(child));
+        when(recordRepository.findFamilyMemberHistoryPage(eq(2L), any())).thenReturn(List.of(childRecord));
+        when(recordRepository.findFamilyMemberHistoryPageAfter(eq(2L), any(), eq(12L), any())).thenReturn(List.of());
+
+        exportService = new FhirExportService(recordRepository, familyMemberRepository,
+                new FhirImmunizationMapper(new FhirPatientMapper()), FHIR_CONTEXT,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(exportService, "pageSize", 1);
+    }
+
+    @Test
+    void testJsonExportIsOneBundleWithEachPatientOnce() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(1L, FhirExportFormat.JSON, out);
+
+        Bundle bundle = FHIR_CONTEXT.newJsonParser().parseResource(Bundle.class, out.toString(StandardCharsets.UTF_8));
+        assertEquals(Bundle.BundleType.COLLECTION, bundle.getType());
+        // Per record: Immunization + Provenance; plus two distinct patients
+        assertEquals(8, bundle.getEntry().size());
+        assertEquals(2, bundle.getEntry().stream().filter(e -> e.getResource() instanceof Patient).count());
+    }
+
+    @Test
+    void testNdjsonExportWritesOneResourcePerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(1L, FhirExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(8, lines.length);
+        assertEquals(3, List.of(lines).stream().filter(line -> line.contains("\"resourceType\":\"Immunization\""))
+                .count());
+    }
+}
@@ -0,0 +1,138 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.response.PaymentResponse;
+import com.dapp.backend.enums.PaymentMethod;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.IdempotencyRecord;
+import com.dapp.backend.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private final Map<String, IdempotencyRecord> table = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findByIdempotencyKeyAndScopeAndPrincipal(anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.getArgument(0))));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            record.setId(ids.incrementAndGet());
+            table.put(record.getIdempotencyKey(), record);
+            return record;
+        });
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            table.remove(record.getIdempotencyKey());
+            return null;
+        }).when(repository).delete(any());
+
+        idempotencyService = new IdempotencyService(repository, new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "waitSeconds", 10L);
+    }
+
+    @Test
+    void testReplay_ReturnsStoredResponseWithoutRunningAgain() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+
+        PaymentResponse first = idempotencyService.execute("key-1", "booking", Map.of("vaccineId", 1),
+                PaymentResponse.class, () -> createPayment(executions));
+        PaymentResponse replay = idempotencyService.execute("key-1", "booking", Map.of("vaccineId", 1),
+                PaymentResponse.class, () -> createPayment(executions));
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getPaymentId(), replay.getPaymentId());
+        assertEquals(PaymentMethod.CASH, replay.getMethod());
+    }
+
+    @Test
+    void testConcurrentDuplicates_WaitForFirstExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PaymentResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute("key-2", "order", Map.of("items", 2), PaymentResponse.class,
+                            () -> {
+                                Thread.sleep(200);
+                                return createPayment(executions);
+                            });
+                }));
+            }
+            start.countDown();
+            for (Future<PaymentResponse> future : futures) {
+                assertEquals(1L, future.get(30, TimeUnit.SECONDS).getPaymentId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, executions.get(), "Only the first request should reach the service");
+    }
+
+    @Test
+    void testFailedExecution_IsNotStored() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThrows(AppException.class, () -> idempotencyService.execute("key-3", "booking", Map.of("vaccineId", 1),
+                PaymentResponse.class, () -> {
+                    throw new AppException("Vaccine is out of stock!");
+                }));
+        assertTrue(table.isEmpty());
+
+        idempotencyService.execute("key-3", "booking", Map.of("vaccineId", 1), PaymentResponse.class,
+                () -> createPayment(executions));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testReusedKeyWithDifferentBody_Rejected() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        idempotencyService.execute("key-4", "booking", Map.of("vaccineId", 1), PaymentResponse.class,
+                () -> createPayment(executions));
+
+        assertThrows(AppException.class, () -> idempotencyService.execute("key-4", "booking",
+                Map.of("vaccineId", 2), PaymentResponse.class, () -> createPayment(executions)));
+        assertEquals(1, executions.get());
+    }
+
+    private PaymentResponse createPayment(AtomicInteger executions) {
+        PaymentResponse response = new PaymentResponse();
+        response.setPaymentId((long) executions.incrementAndGet());
+        response.setMethod(PaymentMethod.CASH);
+        response.setAmount(500000.0);
+        return response;
+    }
+}
@@ -0,0 +1,119 @@
+package com.dapp.backend.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.dapp.backend.dto.blockchain.IdentityBackfillRow;
+import com.dapp.backend.dto.mapper.fhir.FhirPatientMapper;
+import com.dapp.backend.enums.BackfillStatus;
+import com.dapp.backend.enums.IdentityOwnerType;
+import com.dapp.backend.model.IdentityBackfillRun;
+import com.dapp.backend.repository.FamilyMemberRepository;
+import com.dapp.backend.repository.IdentityBackfillRunRepository;
+import com.dapp.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdentityBackfillServiceTest {
+
+    private final IdentityBackfillRunRepository runRepository = mock(IdentityBackfillRunRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final FamilyMemberRepository familyMemberRepository = mock(FamilyMemberRepository.class);
+    private final IdentityProvisioningService provisioningService = mock(IdentityProvisioningService.class);
+    private final IdentityService identityService = new IdentityService(mock(BlockchainService.class),
+            familyMemberRepository, mock(FhirPatientMapper.class), mock(FhirContext.class));
+    private final IdentityBackfillService backfillService = new IdentityBackfillService(runRepository,
+            userRepository, familyMemberRepository, identityService, provisioningService,
+            mock(DidResolutionCache.class), mock(PlatformTransactionManager.class), 2);
+
+    private final IdentityBackfillRun run = IdentityBackfillRun.builder()
+            .id(1L).status(BackfillStatus.RUNNING).lastUserId(100L).build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(identityService, "identitySalt", "test-salt");
+        ReflectionTestUtils.setField(backfillService, "chunkSize", 3);
+        ReflectionTestUtils.setField(backfillService, "maxPendingJobs", 2000L);
+        ReflectionTestUtils.setField(backfillService, "lockSeconds", 300L);
+        when(runRepository.findFirstByOrderByIdDesc()).thenReturn(Optional.of(run));
+        when(runRepository.tryLock(eq(1L), any(), any())).thenReturn(1);
+        when(runRepository.findById(1L)).thenReturn(Optional.of(run));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        backfillService.shutdown();
+    }
+
+    @Test
+    void testHashesMissingIdentitiesAndQueuesUnanchoredOnes() {
+        String existingHash = "0x" + "cd".repeat(32);
+        when(userRepository.findIdentityBackfillPage(eq(100L), any())).thenReturn(List.of(
+                new IdentityBackfillRow(101L, "Nguyen Van A", LocalDate.of(1990, 1, 2), "012345678901",
+                        null, null, null),
+                new IdentityBackfillRow(102L, "Le Thi C", LocalDate.of(1985, 5, 6), "098765432109",
+                        existingHash, "did:vax:vietnam:user:cdcdcdcdcdcdcdcd", "QmProfile"),
+                new IdentityBackfillRow(103L, "Pham D", null, null, null, null, null)));
+        when(provisioningService.enqueueMissing(any(), any())).thenReturn(2);
+
+        assertEquals(3, backfillService.processNextChunk());
+
+        String expectedHash = identityService.generateUserIdentityHash(com.dapp.backend.model.User.builder()
+                .fullName("Nguyen Van A")
+                .birthday(LocalDate.of(1990, 1, 2))
+                .patientProfile(com.dapp.backend.model.Patient.builder().identityNumber("012345678901").build())
+                .build());
+        verify(userRepository).updateIdentity(101L, expectedHash,
+                "did:vax:vietnam:user:" + expectedHash.substring(2, 18));
+        // Registered without a completed profile: hashed, but not anchored
+        verify(userRepository).updateIdentity(eq(103L), anyString(), anyString());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Boolean>> queued = ArgumentCaptor.forClass(Map.class);
+        verify(provisioningService).enqueueMissing(eq(IdentityOwnerType.USER), queued.capture());
+        assertEquals(Map.of(101L, true, 102L, false), queued.getValue());
+
+        assertEquals(103L, run.getLastUserId());
+        assertEquals(3, run.getScanned());
+        assertEquals(2, run.getHashed());
+        assertEquals(2, run.getEnqueued());
+        assertFalse(run.isUsersDone());
+    }
+
+    @Test
+    void testEmptyScansMoveToFamilyMembersThenComplete() {
+        when(userRepository.findIdentityBackfillPage(eq(100L), any())).thenReturn(List.of());
+        when(familyMemberRepository.findIdentityBackfillPage(eq(0L), any())).thenReturn(List.of());
+
+        assertEquals(1, backfillService.processNextChunk());
+        assertTrue(run.isUsersDone());
+        assertEquals(0, backfillService.processNextChunk());
+        assertEquals(BackfillStatus.COMPLETED, run.getStatus());
+    }
+
+    @Test
+    void testPausesWhileProvisioningQueueIsFull() {
+        when(provisioningService.countPending()).thenReturn(5000L);
+
+        assertEquals(0, backfillService.processNextChunk());
+        verify(userRepository, never()).findIdentityBackfillPage(any(), any());
+    }
+}
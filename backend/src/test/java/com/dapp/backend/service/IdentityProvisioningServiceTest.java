@@ -0,0 +1,140 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainIdentityDetails;
+import com.dapp.backend.dto.blockchain.BlockchainIdentityResponse;
+import com.dapp.backend.enums.IdentityOwnerType;
+import com.dapp.backend.enums.IdentityType;
+import com.dapp.backend.enums.ProvisioningStatus;
+import com.dapp.backend.model.FamilyMember;
+import com.dapp.backend.model.IdentityProvisioningJob;
+import com.dapp.backend.repository.FamilyMemberRepository;
+import com.dapp.backend.repository.IdentityProvisioningJobRepository;
+import com.dapp.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdentityProvisioningServiceTest {
+
+    private static final String IDENTITY_HASH = "0x" + "ab".repeat(32);
+    private static final String DID = "did:vax:vietnam:child:abababababababab";
+
+    private IdentityProvisioningJobRepository jobRepository;
+    private FamilyMemberRepository familyMemberRepository;
+    private BlockchainService blockchainService;
+    private IdentityProvisioningService provisioningService;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(IdentityProvisioningJobRepository.class);
+        familyMemberRepository = mock(FamilyMemberRepository.class);
+        blockchainService = mock(BlockchainService.class);
+        IdentityService identityService = mock(IdentityService.class);
+
+        FamilyMember member = FamilyMember.builder().id(3L).fullName("Tran Thi B")
+                .dateOfBirth(LocalDate.now().minusYears(5)).blockchainIdentityHash(IDENTITY_HASH).did(DID).build();
+        when(familyMemberRepository.findById(3L)).thenReturn(Optional.of(member));
+        when(identityService.toFamilyMemberFhirJson(any())).thenReturn("{\"resourceType\":\"Patient\"}");
+        when(identityService.determineIdentityType(any())).thenReturn(IdentityType.CHILD);
+        when(jobRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        provisioningService = new IdentityProvisioningService(jobRepository, mock(UserRepository.class),
+                familyMemberRepository, identityService, blockchainService, mock(DidResolutionCache.class),
+                mock(PlatformTransactionManager.class), 2);
+        ReflectionTestUtils.setField(provisioningService, "maxAttempts", 10);
+        ReflectionTestUtils.setField(provisioningService, "backoffBaseSeconds", 30L);
+        ReflectionTestUtils.setField(provisioningService, "backoffMaxSeconds", 3600L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        provisioningService.shutdown();
+    }
+
+    @Test
+    void testUploadsProfileThenCreatesIdentity() {
+        IdentityProvisioningJob job = job(ProvisioningStatus.PENDING_IPFS);
+        when(blockchainService.uploadToIpfs(anyString(), anyString())).thenReturn("QmProfile");
+        when(blockchainService.createIdentity(IDENTITY_HASH, DID, IdentityType.CHILD, "QmProfile",
+                "family-member-Tran Thi B")).thenReturn(new BlockchainIdentityResponse(true, null,
+                        new BlockchainIdentityResponse.BlockchainTransactionData("0xtx", 12L)));
+
+        provisioningService.process(job);
+
+        verify(familyMemberRepository).updateIpfsDataHash(3L, "QmProfile");
+        assertEquals(ProvisioningStatus.COMPLETED, job.getStatus());
+        assertEquals("0xtx", job.getTransactionHash());
+        assertNull(job.getLockedUntil());
+    }
+
+    @Test
+    void testChainFailureRetriesWithoutReuploading() {
+        IdentityProvisioningJob job = job(ProvisioningStatus.PENDING_CHAIN);
+        when(blockchainService.createIdentity(any(), any(), any(), any(), any())).thenReturn(null);
+
+        provisioningService.process(job);
+
+        assertEquals(ProvisioningStatus.PENDING_CHAIN, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertTrue(job.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(blockchainService, never()).uploadToIpfs(anyString(), anyString());
+    }
+
+    @Test
+    void testIdentityAlreadyOnChainIsNotCreatedAgain() {
+        IdentityProvisioningJob job = job(ProvisioningStatus.PENDING_CHAIN);
+        BlockchainIdentityDetails.IdentityData data = new BlockchainIdentityDetails.IdentityData();
+        data.setIdentityHash(IDENTITY_HASH);
+        when(blockchainService.getIdentity(IDENTITY_HASH)).thenReturn(new BlockchainIdentityDetails(true, data));
+
+        provisioningService.process(job);
+
+        assertEquals(ProvisioningStatus.COMPLETED, job.getStatus());
+        verify(blockchainService, never()).createIdentity(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testEnqueueIfAbsentOnlyCreatesMissingJobs() {
+        when(jobRepository.findByOwnerTypeAndOwnerId(IdentityOwnerType.USER, 5L))
+                .thenReturn(Optional.of(job(ProvisioningStatus.FAILED)));
+
+        assertFalse(provisioningService.enqueueIfAbsent(IdentityOwnerType.USER, 5L, true),
+                "A failed job keeps its own retry state");
+        assertTrue(provisioningService.enqueueIfAbsent(IdentityOwnerType.USER, 6L, false));
+
+        ArgumentCaptor<IdentityProvisioningJob> saved = ArgumentCaptor.forClass(IdentityProvisioningJob.class);
+        verify(jobRepository).save(saved.capture());
+        assertEquals(6L, saved.getValue().getOwnerId());
+        assertEquals(ProvisioningStatus.PENDING_CHAIN, saved.getValue().getStatus(),
+                "A profile already on IPFS starts at the chain step");
+    }
+
+    private static IdentityProvisioningJob job(ProvisioningStatus status) {
+        return IdentityProvisioningJob.builder()
+                .id(1L)
+                .ownerType(IdentityOwnerType.FAMILY_MEMBER)
+                .ownerId(3L)
+                .status(status)
+                .nextAttemptAt(LocalDateTime.now())
+                .lockedUntil(LocalDateTime.now().plusMinutes(5))
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.model.IpfsContent;
+import com.dapp.backend.repository.IpfsContentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IpfsContentIndexTest {
+
+    private static final String PRETTY = "{\n  \"resourceType\": \"Patient\",\n  \"id\": \"did:vax:1\"\n}";
+    private static final String COMPACT = "{\"resourceType\":\"Patient\",\"id\":\"did:vax:1\"}";
+
+    @Test
+    void testContentHashIgnoresFormattingButNotKeyOrder() {
+        assertEquals(IpfsContentIndex.contentHash(PRETTY), IpfsContentIndex.contentHash(COMPACT));
+        assertNotEquals(IpfsContentIndex.contentHash(COMPACT),
+                IpfsContentIndex.contentHash("{\"id\":\"did:vax:1\",\"resourceType\":\"Patient\"}"));
+    }
+
+    @Test
+    void testFindAndRememberCountHitsAndMisses() {
+        IpfsContentRepository repository = mock(IpfsContentRepository.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        IpfsContentIndex index = new IpfsContentIndex(repository, registry, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(index, "enabled", true);
+        String contentHash = IpfsContentIndex.contentHash(COMPACT);
+
+        when(repository.findByContentHash(anyString())).thenReturn(Optional.empty());
+        assertNull(index.findCid(PRETTY));
+        index.remember(PRETTY, "QmProfile");
+        verify(repository).save(any(IpfsContent.class));
+
+        when(repository.findByContentHash(contentHash))
+                .thenReturn(Optional.of(IpfsContent.builder().contentHash(contentHash).cid("QmProfile").build()));
+        assertEquals("QmProfile", index.findCid(COMPACT));
+        assertEquals(1.0, registry.get("ipfs.upload.dedup").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("ipfs.upload.dedup").tag("result", "miss").counter().count());
+    }
+}
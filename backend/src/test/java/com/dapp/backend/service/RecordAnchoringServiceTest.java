@@ -0,0 +1,307 @@
+package com.dapp.backend.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.dapp.backend.dto.blockchain.BlockchainBatchDetails;
+import com.dapp.backend.dto.blockchain.BlockchainBatchResponse;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordDetails;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordList;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordResponse;
+import com.dapp.backend.dto.mapper.fhir.FhirImmunizationMapper;
+import com.dapp.backend.enums.AnchorStatus;
+import com.dapp.backend.model.Appointment;
+import com.dapp.backend.model.ChainVaccineRecord;
+import com.dapp.backend.model.RecordAnchorJob;
+import com.dapp.backend.model.VaccineRecord;
+import com.dapp.backend.repository.AnchorBatchRepository;
+import com.dapp.backend.repository.ChainVaccineRecordRepository;
+import com.dapp.backend.repository.RecordAnchorJobRepository;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import com.dapp.backend.util.MerkleTree;
+import org.hl7.fhir.r4.model.Bundle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecordAnchoringServiceTest {
+
+    private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+
+    private RecordAnchorJobRepository jobRepository;
+    private VaccineRecordRepository vaccineRecordRepository;
+    private ChainVaccineRecordRepository chainVaccineRecordRepository;
+    private BlockchainService blockchainService;
+    private RecordAnchoringService anchoringService;
+    private VaccineRecord record;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(RecordAnchorJobRepository.class);
+        vaccineRecordRepository = mock(VaccineRecordRepository.class);
+        chainVaccineRecordRepository = mock(ChainVaccineRecordRepository.class);
+        blockchainService = mock(BlockchainService.class);
+        FhirImmunizationMapper mapper = mock(FhirImmunizationMapper.class);
+
+        record = VaccineRecord.builder().id(5L).patientName("Nguyen Van A").build();
+        when(vaccineRecordRepository.findById(5L)).thenReturn(Optional.of(record));
+        when(mapper.toFhirBundle(any())).thenReturn(new Bundle());
+        when(jobRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        anchoringService = new RecordAnchoringService(jobRepository, mock(AnchorBatchRepository.class),
+                vaccineRecordRepository, chainVaccineRecordRepository, blockchainService, mapper, FHIR_CONTEXT,
+                mock(VerificationCache.class), mock(VaccineCertificateService.class),
+                mock(PlatformTransactionManager.class), 1);
+        ReflectionTestUtils.setField(anchoringService, "mode", "single");
+        ReflectionTestUtils.setField(anchoringService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(anchoringService, "backoffBaseSeconds", 30L);
+        ReflectionTestUtils.setField(anchoringService, "backoffMaxSeconds", 3600L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        anchoringService.shutdown();
+    }
+
+    @Test
+    void testProcess_UploadsThenAnchors() {
+        when(blockchainService.uploadToIpfs(anyString())).thenReturn("QmHash");
+        when(blockchainService.createVaccineRecord(any())).thenReturn(chainResponse());
+        RecordAnchorJob job = job(AnchorStatus.PENDING_IPFS);
+
+        anchoringService.process(job);
+
+        assertEquals(AnchorStatus.ANCHORED, job.getStatus());
+        assertNull(job.getLockedUntil());
+        verify(vaccineRecordRepository).updateIpfsContent(eq(5L), eq("QmHash"), anyString());
+        verify(vaccineRecordRepository).updateChainAnchor(5L, "12", "0xabc", 42L);
+        verify(jobRepository).markChainSubmitted(eq(1L), any(LocalDateTime.class));
+        verify(blockchainService, never()).fetchVaccineRecordsByIdentity(any());
+    }
+
+    @Test
+    void testProcess_ChainFailureKeepsIpfsProgress() {
+        when(blockchainService.uploadToIpfs(anyString())).thenReturn("QmHash");
+        when(blockchainService.createVaccineRecord(any())).thenReturn(null);
+        RecordAnchorJob job = job(AnchorStatus.PENDING_IPFS);
+
+        LocalDateTime before = LocalDateTime.now();
+        anchoringService.process(job);
+
+        assertEquals(AnchorStatus.PENDING_CHAIN, job.getStatus(), "Retry should resume at the chain step");
+        assertEquals(1, job.getAttempts());
+        assertTrue(job.getNextAttemptAt().isAfter(before.plusSeconds(23)));
+
+        // The retry reloads a record that already carries its IPFS hash; the failed write left nothing on chain
+        record.setIpfsHash("QmHash");
+        when(blockchainService.fetchVaccineRecordsByIdentity(any()))
+                .thenReturn(new BlockchainVaccineRecordList(true, 0, List.of()));
+        when(blockchainService.createVaccineRecord(any())).thenReturn(chainResponse());
+        anchoringService.process(job);
+
+        assertEquals(AnchorStatus.ANCHORED, job.getStatus());
+        verify(blockchainService).uploadToIpfs(anyString());
+    }
+
+    @Test
+    void testProcess_RetryAfterLostOutcomeLinksExistingChainRecord() {
+        record.setIpfsHash("QmHash");
+        record.setPatientIdentityHash("0xid");
+        record.setAppointment(Appointment.builder().id(9L).build());
+        BlockchainVaccineRecordDetails.VaccineRecordDetailData onChain =
+                new BlockchainVaccineRecordDetails.VaccineRecordDetailData();
+        onChain.setRecordId("12");
+        onChain.setAppointmentId("9");
+        when(blockchainService.fetchVaccineRecordsByIdentity("0xid"))
+                .thenReturn(new BlockchainVaccineRecordList(true, 1, List.of(onChain)));
+        // The earlier attempt sent its write but crashed before saving the chain record id
+        RecordAnchorJob job = job(AnchorStatus.PENDING_CHAIN);
+        job.setChainSubmittedAt(LocalDateTime.now().minusMinutes(15));
+
+        anchoringService.process(job);
+
+        assertEquals(AnchorStatus.ANCHORED, job.getStatus());
+        verify(blockchainService, never()).createVaccineRecord(any());
+        verify(vaccineRecordRepository).updateChainAnchor(5L, "12", null, null);
+    }
+
+    @Test
+    void testProcess_LinkedChainRecordTakesTransactionFromMirror() {
+        record.setIpfsHash("QmHash");
+        record.setPatientIdentityHash("0xid");
+        record.setAppointment(Appointment.builder().id(9L).build());
+        BlockchainVaccineRecordDetails.VaccineRecordDetailData onChain =
+                new BlockchainVaccineRecordDetails.VaccineRecordDetailData();
+        onChain.setRecordId("12");
+        onChain.setAppointmentId("9");
+        when(blockchainService.fetchVaccineRecordsByIdentity("0xid"))
+                .thenReturn(new BlockchainVaccineRecordList(true, 1, List.of(onChain)));
+        ChainVaccineRecord mirrored = ChainVaccineRecord.builder()
+                .chainRecordId(12L)
+                .transactionHash("0xearlier")
+                .createdBlock(40L)
+                .build();
+        when(chainVaccineRecordRepository.findByChainRecordId(12L)).thenReturn(Optional.of(mirrored));
+        RecordAnchorJob job = job(AnchorStatus.PENDING_CHAIN);
+        job.setChainSubmittedAt(LocalDateTime.now().minusMinutes(15));
+
+        anchoringService.process(job);
+
+        assertEquals(AnchorStatus.ANCHORED, job.getStatus());
+        verify(vaccineRecordRepository).updateChainAnchor(5L, "12", "0xearlier", 40L);
+    }
+
+    @Test
+    void testProcess_ChainCheckUnavailableDoesNotWriteAgain() {
+        record.setIpfsHash("QmHash");
+        when(blockchainService.fetchVaccineRecordsByIdentity(any())).thenReturn(null);
+        RecordAnchorJob job = job(AnchorStatus.PENDING_CHAIN);
+        job.setChainSubmittedAt(LocalDateTime.now().minusMinutes(15));
+
+        anchoringService.process(job);
+
+        assertEquals(AnchorStatus.PENDING_CHAIN, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        verify(blockchainService, never()).createVaccineRecord(any());
+    }
+
+    @Test
+    void testProcess_GivesUpAfterMaxAttempts() {
+        when(blockchainService.uploadToIpfs(anyString())).thenReturn(null);
+        RecordAnchorJob job = job(AnchorStatus.PENDING_IPFS);
+        job.setAttempts(2);
+
+        anchoringService.process(job);
+
+        assertEquals(AnchorStatus.FAILED, job.getStatus());
+        verify(blockchainService, never()).createVaccineRecord(any());
+    }
+
+    @Test
+    void testAnchorDueBatch_AnchorsOneRootWithVerifiableProofs() {
+        ReflectionTestUtils.setField(anchoringService, "mode", "batch");
+        ReflectionTestUtils.setField(anchoringService, "batchMaxRecords", 256);
+        ReflectionTestUtils.setField(anchoringService, "batchMinRecords", 3);
+        ReflectionTestUtils.setField(anchoringService, "batchWindowSeconds", 60L);
+
+        List<RecordAnchorJob> jobs = new ArrayList<>();
+        List<VaccineRecord> records = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            jobs.add(RecordAnchorJob.builder().id(id).vaccineRecordId(id).status(AnchorStatus.PENDING_CHAIN)
+                    .nextAttemptAt(LocalDateTime.now()).build());
+            records.add(VaccineRecord.builder().id(id).ipfsHash("Qm" + id)
+                    .contentHash(MerkleTree.toHex(MerkleTree.sha256(("record-" + id).getBytes()))).build());
+        }
+        when(blockchainService.isBlockchainServiceAvailable()).thenReturn(true);
+        when(jobRepository.lockDue(anyCollection(), any(LocalDateTime.class), anyInt())).thenReturn(jobs);
+        when(jobRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(vaccineRecordRepository.findAllById(any())).thenReturn(records);
+        when(blockchainService.getBatchByRoot(anyString())).thenReturn(new BlockchainBatchDetails(true, null));
+        when(blockchainService.anchorBatch(anyString(), eq(5))).thenReturn(new BlockchainBatchResponse(true, "ok",
+                new BlockchainBatchResponse.BatchData("1", "0xbatch", 77L)));
+
+        assertEquals(5, anchoringService.anchorDueBatch());
+
+        ArgumentCaptor<String> root = ArgumentCaptor.forClass(String.class);
+        verify(blockchainService).anchorBatch(root.capture(), eq(5));
+        verify(blockchainService, never()).createVaccineRecord(any());
+        ArgumentCaptor<String> proofs = ArgumentCaptor.forClass(String.class);
+        verify(vaccineRecordRepository, times(5)).updateBatchAnchor(any(), any(), proofs.capture(), eq(77L));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(MerkleTree.verify(MerkleTree.fromHex(records.get(i).getContentHash()),
+                    proofs.getAllValues().get(i), MerkleTree.fromHex(root.getValue())));
+            assertEquals(AnchorStatus.ANCHORED, jobs.get(i).getStatus());
+        }
+        assertFalse(MerkleTree.verify(MerkleTree.fromHex(records.get(0).getContentHash()),
+                proofs.getAllValues().get(1), MerkleTree.fromHex(root.getValue())));
+    }
+
+    @Test
+    void testAnchorDueBatch_RootAlreadyOnChainIsRecordedWithoutRewriting() {
+        ReflectionTestUtils.setField(anchoringService, "mode", "batch");
+        ReflectionTestUtils.setField(anchoringService, "batchMaxRecords", 256);
+        ReflectionTestUtils.setField(anchoringService, "batchMinRecords", 1);
+        ReflectionTestUtils.setField(anchoringService, "batchWindowSeconds", 60L);
+        RecordAnchorJob job = job(AnchorStatus.PENDING_CHAIN);
+        record.setIpfsHash("QmHash");
+        record.setContentHash(MerkleTree.toHex(MerkleTree.sha256("record-5".getBytes())));
+        when(blockchainService.isBlockchainServiceAvailable()).thenReturn(true);
+        when(jobRepository.lockDue(anyCollection(), any(LocalDateTime.class), anyInt())).thenReturn(List.of(job));
+        when(jobRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(vaccineRecordRepository.findAllById(any())).thenReturn(List.of(record));
+        // An earlier attempt's write landed but its outcome was lost
+        when(blockchainService.getBatchByRoot(anyString())).thenReturn(new BlockchainBatchDetails(true,
+                new BlockchainBatchDetails.BatchData("4", null, 1L, null)));
+
+        assertEquals(1, anchoringService.anchorDueBatch());
+
+        verify(blockchainService, never()).anchorBatch(anyString(), anyInt());
+        verify(vaccineRecordRepository).updateBatchAnchor(eq(5L), any(), anyString(), any());
+        assertEquals(AnchorStatus.ANCHORED, job.getStatus());
+    }
+
+    @Test
+    void testProcess_BatchModeHashesPinnedBytes() {
+        ReflectionTestUtils.setField(anchoringService, "mode", "batch");
+        byte[] pinned = "{\"resourceType\":\"Bundle\"}".getBytes();
+        when(blockchainService.uploadToIpfs(anyString())).thenReturn("QmHash");
+        when(blockchainService.fetchFromIpfs("QmHash")).thenReturn(pinned);
+        RecordAnchorJob job = job(AnchorStatus.PENDING_IPFS);
+
+        anchoringService.process(job);
+
+        assertEquals(AnchorStatus.PENDING_CHAIN, job.getStatus());
+        verify(vaccineRecordRepository).updateIpfsContent(5L, "QmHash",
+                MerkleTree.toHex(MerkleTree.sha256(pinned)));
+    }
+
+    @Test
+    void testAnchorDueBatch_WaitsForWindowWhenBatchIsSmall() {
+        ReflectionTestUtils.setField(anchoringService, "mode", "batch");
+        ReflectionTestUtils.setField(anchoringService, "batchMaxRecords", 256);
+        ReflectionTestUtils.setField(anchoringService, "batchMinRecords", 32);
+        ReflectionTestUtils.setField(anchoringService, "batchWindowSeconds", 60L);
+        when(blockchainService.isBlockchainServiceAvailable()).thenReturn(true);
+        when(jobRepository.lockDue(anyCollection(), any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(job(AnchorStatus.PENDING_CHAIN)));
+
+        assertEquals(0, anchoringService.anchorDueBatch());
+        verify(blockchainService, never()).anchorBatch(anyString(), anyInt());
+    }
+
+    private RecordAnchorJob job(AnchorStatus status) {
+        return RecordAnchorJob.builder()
+                .id(1L)
+                .vaccineRecordId(5L)
+                .status(status)
+                .nextAttemptAt(LocalDateTime.now())
+                .lockedUntil(LocalDateTime.now().plusMinutes(10))
+                .build();
+    }
+
+    private BlockchainVaccineRecordResponse chainResponse() {
+        return new BlockchainVaccineRecordResponse(true, "ok",
+                new BlockchainVaccineRecordResponse.VaccineRecordData("12", "0xabc", 42L));
+    }
+}
@@ -0,0 +1,186 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainBatchDetails;
+import com.dapp.backend.dto.blockchain.BlockchainVaccineRecordDetails;
+import com.dapp.backend.dto.blockchain.RecordChainState;
+import com.dapp.backend.enums.AnchorStatus;
+import com.dapp.backend.enums.DiscrepancyType;
+import com.dapp.backend.enums.ReconciliationStatus;
+import com.dapp.backend.model.ReconciliationRun;
+import com.dapp.backend.model.RecordDiscrepancy;
+import com.dapp.backend.repository.ReconciliationRunRepository;
+import com.dapp.backend.repository.RecordDiscrepancyRepository;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import com.dapp.backend.util.MerkleTree;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecordReconciliationServiceTest {
+
+    private final ReconciliationRunRepository runRepository = mock(ReconciliationRunRepository.class);
+    private final RecordDiscrepancyRepository discrepancyRepository = mock(RecordDiscrepancyRepository.class);
+    private final VaccineRecordRepository vaccineRecordRepository = mock(VaccineRecordRepository.class);
+    private final RecordAnchoringService recordAnchoringService = mock(RecordAnchoringService.class);
+    private final BlockchainService blockchainService = mock(BlockchainService.class);
+    private final RecordReconciliationService service = new RecordReconciliationService(runRepository,
+            discrepancyRepository, vaccineRecordRepository, recordAnchoringService, blockchainService,
+            new SimpleMeterRegistry(), mock(PlatformTransactionManager.class), 2);
+
+    private final ReconciliationRun run = ReconciliationRun.builder()
+            .id(1L).status(ReconciliationStatus.RUNNING).lastRecordId(10L).build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "pageSize", 50);
+        ReflectionTestUtils.setField(service, "intervalHours", 24L);
+        ReflectionTestUtils.setField(service, "maxChainReadsPerSecond", 1000);
+        ReflectionTestUtils.setField(service, "pageTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(service, "lockSeconds", 300L);
+        when(runRepository.findFirstByOrderByIdDesc()).thenReturn(Optional.of(run));
+        when(runRepository.tryLock(eq(1L), any(), any())).thenReturn(1);
+        when(runRepository.findById(1L)).thenReturn(Optional.of(run));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    void testPageReportsDiscrepanciesRequeuesAndAdvancesCheckpoint() throws Exception {
+        byte[] contentHash = MerkleTree.sha256("record".getBytes(StandardCharsets.UTF_8));
+        MerkleTree tree = MerkleTree.of(List.of(contentHash, MerkleTree.sha256(new byte[] { 1 })));
+        String hex = MerkleTree.toHex(contentHash);
+        when(blockchainService.isBlockchainServiceAvailable()).thenReturn(true);
+        when(vaccineRecordRepository.findChainStatePage(eq(10L), any())).thenReturn(List.of(
+                new RecordChainState(11L, "QmBatch", null, hex, tree.proof(0), tree.rootHex(), AnchorStatus.ANCHORED),
+                new RecordChainState(12L, "QmForged", null, hex, tree.proof(1), tree.rootHex(), AnchorStatus.ANCHORED),
+                new RecordChainState(13L, null, null, null, null, null, AnchorStatus.PENDING_IPFS),
+                new RecordChainState(14L, "QmStuck", null, null, null, null, AnchorStatus.FAILED),
+                new RecordChainState(15L, "QmGood", "7", null, null, null, AnchorStatus.ANCHORED),
+                new RecordChainState(16L, "QmLocal", "8", null, null, null, AnchorStatus.ANCHORED),
+                new RecordChainState(17L, "QmLost", "9", null, null, null, AnchorStatus.ANCHORED)));
+        when(blockchainService.getBatchByRoot(tree.rootHex())).thenReturn(chainBatch(tree.rootHex()));
+        when(blockchainService.getVaccineRecord(7L)).thenReturn(chainRecord("QmGood"));
+        when(blockchainService.getVaccineRecord(8L)).thenReturn(chainRecord("QmOther"));
+        when(blockchainService.getVaccineRecord(9L)).thenReturn(new BlockchainVaccineRecordDetails(false, null));
+
+        assertEquals(7, service.reconcileNextPage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RecordDiscrepancy>> saved = ArgumentCaptor.forClass(List.class);
+        verify(discrepancyRepository).saveAll(saved.capture());
+        Map<Long, RecordDiscrepancy> byRecord = saved.getValue().stream()
+                .collect(Collectors.toMap(RecordDiscrepancy::getVaccineRecordId, d -> d));
+        assertEquals(4, byRecord.size());
+        assertEquals(DiscrepancyType.MERKLE_PROOF_INVALID, byRecord.get(12L).getType());
+        assertEquals(DiscrepancyType.MISSING_CHAIN_ID, byRecord.get(14L).getType());
+        assertTrue(byRecord.get(14L).isRequeued());
+        assertEquals(DiscrepancyType.IPFS_MISMATCH, byRecord.get(16L).getType());
+        assertEquals(DiscrepancyType.CHAIN_RECORD_NOT_FOUND, byRecord.get(17L).getType());
+
+        verify(recordAnchoringService).requeue(14L);
+        assertEquals(17L, run.getLastRecordId());
+        assertEquals(7, run.getScanned());
+        assertEquals(4, run.getDiscrepancies());
+        assertEquals(1, run.getRequeued());
+        assertNull(run.getLockedUntil());
+    }
+
+    @Test
+    void testBatchRootMissingOnChainIsReportedOncePerRead() throws Exception {
+        byte[] first = MerkleTree.sha256("first".getBytes(StandardCharsets.UTF_8));
+        byte[] second = MerkleTree.sha256("second".getBytes(StandardCharsets.UTF_8));
+        MerkleTree tree = MerkleTree.of(List.of(first, second));
+        when(blockchainService.isBlockchainServiceAvailable()).thenReturn(true);
+        when(vaccineRecordRepository.findChainStatePage(eq(10L), any())).thenReturn(List.of(
+                new RecordChainState(11L, "QmA", null, MerkleTree.toHex(first), tree.proof(0), tree.rootHex(),
+                        AnchorStatus.ANCHORED),
+                new RecordChainState(12L, "QmB", null, MerkleTree.toHex(second), tree.proof(1), tree.rootHex(),
+                        AnchorStatus.ANCHORED)));
+        when(blockchainService.getBatchByRoot(tree.rootHex())).thenReturn(new BlockchainBatchDetails(true, null));
+
+        assertEquals(2, service.reconcileNextPage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RecordDiscrepancy>> saved = ArgumentCaptor.forClass(List.class);
+        verify(discrepancyRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        assertTrue(saved.getValue().stream().allMatch(d -> d.getType() == DiscrepancyType.BATCH_ROOT_NOT_ON_CHAIN),
+                "A locally valid proof against a root the chain never saw is still a discrepancy");
+        verify(blockchainService, times(1)).getBatchByRoot(tree.rootHex());
+    }
+
+    @Test
+    void testExhaustedReadBudgetChecksPartOfPageAndResumesNextTick() throws Exception {
+        ReflectionTestUtils.setField(service, "pageSize", 2);
+        ReflectionTestUtils.setField(service, "maxChainReadsPerSecond", 1);
+        when(blockchainService.isBlockchainServiceAvailable()).thenReturn(true);
+        when(vaccineRecordRepository.findChainStatePage(eq(10L), any())).thenReturn(List.of(
+                new RecordChainState(11L, "QmA", "1", null, null, null, AnchorStatus.ANCHORED),
+                new RecordChainState(12L, "QmB", "2", null, null, null, AnchorStatus.ANCHORED),
+                new RecordChainState(13L, "QmC", "3", null, null, null, AnchorStatus.ANCHORED)));
+        when(vaccineRecordRepository.findChainStatePage(eq(12L), any())).thenReturn(List.of(
+                new RecordChainState(13L, "QmC", "3", null, null, null, AnchorStatus.ANCHORED)));
+        when(blockchainService.getVaccineRecord(1L)).thenReturn(chainRecord("QmA"));
+        when(blockchainService.getVaccineRecord(2L)).thenReturn(chainRecord("QmB"));
+
+        assertEquals(2, service.reconcileNextPage(), "The first tick spends the budget on two reads");
+        assertEquals(12L, run.getLastRecordId());
+
+        assertEquals(0, service.reconcileNextPage(), "The budget has not refilled yet, so nothing is read");
+        verify(blockchainService, never()).getVaccineRecord(3L);
+        assertEquals(12L, run.getLastRecordId());
+        assertEquals(2, run.getScanned());
+        assertEquals(ReconciliationStatus.RUNNING, run.getStatus());
+    }
+
+    @Test
+    void testGatewayOutageMidPageKeepsCheckpoint() throws Exception {
+        when(blockchainService.isBlockchainServiceAvailable()).thenReturn(true, false);
+        when(vaccineRecordRepository.findChainStatePage(eq(10L), any())).thenReturn(List.of(
+                new RecordChainState(11L, "QmGood", "7", null, null, null, AnchorStatus.ANCHORED)));
+        when(blockchainService.getVaccineRecord(anyLong())).thenReturn(null);
+
+        assertEquals(0, service.reconcileNextPage());
+
+        verify(discrepancyRepository, never()).saveAll(any());
+        assertEquals(10L, run.getLastRecordId());
+        assertEquals(ReconciliationStatus.RUNNING, run.getStatus());
+    }
+
+    private static BlockchainBatchDetails chainBatch(String rootHex) {
+        return new BlockchainBatchDetails(true, new BlockchainBatchDetails.BatchData("1", "0x" + rootHex, 2L, null));
+    }
+
+    private static BlockchainVaccineRecordDetails chainRecord(String ipfsHash) {
+        BlockchainVaccineRecordDetails.VaccineRecordDetailData data =
+                new BlockchainVaccineRecordDetails.VaccineRecordDetailData();
+        data.setIpfsHash(ipfsHash);
+        return new BlockchainVaccineRecordDetails(true, data);
+    }
+}
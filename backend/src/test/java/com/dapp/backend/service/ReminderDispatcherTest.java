@@ -0,0 +1,99 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.enums.ReminderStatus;
+import com.dapp.backend.model.VaccinationReminder;
+import com.dapp.backend.repository.VaccinationReminderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReminderDispatcherTest {
+
+    private VaccinationReminderRepository repository;
+    private ReminderDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(VaccinationReminderRepository.class);
+        when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        dispatcher = new ReminderDispatcher(repository, mock(PlatformTransactionManager.class), 2);
+        ReflectionTestUtils.setField(dispatcher, "chunkSize", 2);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 600L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testDispatchCheckpointsEachChunk() {
+        VaccinationReminder first = reminder(1L);
+        VaccinationReminder second = reminder(2L);
+        VaccinationReminder third = reminder(3L);
+        Deque<List<VaccinationReminder>> chunks = new ArrayDeque<>(List.of(List.of(first, second), List.of(third)));
+
+        int sent = dispatcher.dispatch("test", (now, limit) -> chunks.isEmpty() ? List.of() : chunks.poll(),
+                reminder -> {
+                    if (reminder.getId() == 2L) {
+                        throw new IllegalStateException("SMTP timeout");
+                    }
+                    reminder.setStatus(ReminderStatus.SENT);
+                },
+                (reminder, error) -> {
+                    reminder.setStatus(ReminderStatus.FAILED);
+                    reminder.setErrorMessage(error);
+                });
+
+        assertEquals(2, sent);
+        assertEquals(ReminderStatus.FAILED, second.getStatus());
+        assertEquals("SMTP timeout", second.getErrorMessage());
+        assertNull(first.getLockedUntil());
+        verify(repository).recordOutcome(eq(1L), eq(ReminderStatus.SENT), any(), any(), any(), any(), isNull());
+        verify(repository).recordOutcome(eq(2L), eq(ReminderStatus.FAILED), any(), eq("SMTP timeout"), any(),
+                any(), isNull());
+        verify(repository).recordOutcome(eq(3L), eq(ReminderStatus.SENT), any(), any(), any(), any(), isNull());
+    }
+
+    @Test
+    void testUnrecordedFailureKeepsLease() {
+        VaccinationReminder reminder = reminder(1L);
+        Deque<List<VaccinationReminder>> chunks = new ArrayDeque<>(List.of(List.of(reminder)));
+
+        dispatcher.dispatch("test", (now, limit) -> chunks.isEmpty() ? List.of() : chunks.poll(),
+                r -> {
+                    throw new IllegalStateException("SMTP down");
+                },
+                (r, error) -> {
+                    throw new IllegalStateException("Database down");
+                });
+
+        assertNotNull(reminder.getLockedUntil());
+        verify(repository).recordOutcome(eq(1L), eq(ReminderStatus.PENDING), any(), any(), any(), any(),
+                any(LocalDateTime.class));
+        verify(repository, never()).recordOutcome(eq(1L), any(), any(), any(), any(), any(), isNull());
+    }
+
+    private static VaccinationReminder reminder(Long id) {
+        return VaccinationReminder.builder().id(id).status(ReminderStatus.PENDING).retryCount(0).build();
+    }
+}
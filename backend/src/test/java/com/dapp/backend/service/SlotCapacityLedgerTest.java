@@ -0,0 +1,85 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.enums.TimeSlotEnum;
+import com.dapp.backend.model.Appointment;
+import com.dapp.backend.model.Center;
+import com.dapp.backend.repository.AppointmentRepository;
+import com.dapp.backend.repository.CenterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotCapacityLedgerTest {
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final SlotCapacityLedger ledger = new SlotCapacityLedger(appointmentRepository,
+            mock(CenterRepository.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ledger, "horizonDays", 30);
+    }
+
+    @Test
+    void testOccupyDoesNotDoubleCountRowSeenByFirstLoad() {
+        LocalDate date = LocalDate.now().plusDays(3);
+        // The caller's appointment is already flushed, so the first load counts it
+        List<Object[]> rows = List.<Object[]>of(new Object[] {TimeSlotEnum.SLOT_09_00, 1L});
+        when(appointmentRepository.countAppointmentsBySlot(1L, date)).thenReturn(rows);
+
+        ledger.occupy(appointment(date, TimeSlotEnum.SLOT_09_00));
+        assertEquals(1, ledger.getBooked(1L, date, TimeSlotEnum.SLOT_09_00));
+
+        ledger.occupy(appointment(date, TimeSlotEnum.SLOT_09_00));
+        assertEquals(2, ledger.getBooked(1L, date, TimeSlotEnum.SLOT_09_00));
+    }
+
+    @Test
+    void testRangeWithinHorizonIsCached() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        LocalDate end = start.plusDays(6);
+        when(appointmentRepository.countCenterAppointmentsBySlotBetween(1L, start, end)).thenReturn(List.of());
+
+        assertEquals(7, ledger.getBookedCounts(1L, start, end).size());
+        ledger.getBookedCounts(1L, start, end);
+
+        verify(appointmentRepository, times(1)).countCenterAppointmentsBySlotBetween(1L, start, end);
+    }
+
+    @Test
+    void testRangeOutsideHorizonIsNotCached() {
+        LocalDate past = LocalDate.now().minusDays(10);
+        LocalDate farFuture = LocalDate.now().plusDays(40);
+        when(appointmentRepository.countCenterAppointmentsBySlotBetween(1L, past, past.plusDays(2)))
+                .thenReturn(List.<Object[]>of(new Object[] {past, TimeSlotEnum.SLOT_09_00, 4L}));
+        when(appointmentRepository.countCenterAppointmentsBySlotBetween(1L, farFuture, farFuture.plusDays(2)))
+                .thenReturn(List.of());
+
+        int[] firstDay = ledger.getBookedCounts(1L, past, past.plusDays(2)).get(past);
+        assertEquals(4, firstDay[TimeSlotEnum.SLOT_09_00.ordinal()]);
+        ledger.getBookedCounts(1L, past, past.plusDays(2));
+        ledger.getBookedCounts(1L, farFuture, farFuture.plusDays(2));
+        ledger.getBookedCounts(1L, farFuture, farFuture.plusDays(2));
+
+        verify(appointmentRepository, times(2)).countCenterAppointmentsBySlotBetween(1L, past, past.plusDays(2));
+        verify(appointmentRepository, times(2))
+                .countCenterAppointmentsBySlotBetween(1L, farFuture, farFuture.plusDays(2));
+    }
+
+    private static Appointment appointment(LocalDate date, TimeSlotEnum slot) {
+        Appointment appointment = new Appointment();
+        appointment.setCenter(Center.builder().centerId(1L).capacity(300).build());
+        appointment.setScheduledDate(date);
+        appointment.setScheduledTimeSlot(slot);
+        return appointment;
+    }
+}
@@ -0,0 +1,129 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.response.EarliestSlotResponse;
+import com.dapp.backend.enums.SlotStatus;
+import com.dapp.backend.enums.TimeSlotEnum;
+import com.dapp.backend.model.Center;
+import com.dapp.backend.model.Doctor;
+import com.dapp.backend.model.DoctorAvailableSlot;
+import com.dapp.backend.model.User;
+import com.dapp.backend.model.Vaccine;
+import com.dapp.backend.repository.DoctorAvailableSlotRepository;
+import com.dapp.backend.repository.DoctorRepository;
+import com.dapp.backend.repository.VaccineRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SlotSearchServiceTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @Mock
+    private VaccineRepository vaccineRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private DoctorAvailableSlotRepository slotRepository;
+
+    @Mock
+    private SlotCapacityLedger slotCapacityLedger;
+
+    @InjectMocks
+    private SlotSearchService slotSearchService;
+
+    @Test
+    void testEarliestSlots_MergedAcrossCentersInTimeOrder() throws Exception {
+        Center near = Center.builder().centerId(1L).name("Near").capacity(60).latitude(10.77).longitude(106.70).build();
+        Center far = Center.builder().centerId(2L).name("Far").capacity(60).latitude(21.02).longitude(105.83).build();
+        Doctor nearDoctor = doctor(1L, near);
+        Doctor farDoctor = doctor(2L, far);
+
+        when(vaccineRepository.findById(1L)).thenReturn(Optional.of(Vaccine.builder().id(1L).stock(10).build()));
+        when(doctorRepository.findAllAvailable()).thenReturn(List.of(nearDoctor, farDoctor));
+        // Near doctor is busy until 08:00, far doctor is free from 07:00
+        when(slotRepository.findSlotsByDoctorIdsAndDateRange(anyList(), eq(DAY), any())).thenReturn(List.of(
+                slot(nearDoctor, LocalTime.of(7, 0), SlotStatus.BOOKED),
+                slot(nearDoctor, LocalTime.of(7, 30), SlotStatus.BLOCKED)));
+        when(slotCapacityLedger.getBookedCounts(any(), eq(DAY), any())).thenReturn(Map.of());
+
+        List<EarliestSlotResponse> result = slotSearchService.findEarliestSlots(1L, 10.77, 106.70, null, DAY, 1, 4);
+
+        assertEquals(4, result.size());
+        assertEquals(List.of(2L, 2L, 1L, 2L), result.stream().map(EarliestSlotResponse::getDoctorId).toList());
+        assertEquals(LocalTime.of(8, 0), result.get(2).getStartTime());
+        assertEquals(0.0, result.get(2).getDistanceKm(), "Tie on time goes to the nearer center");
+        assertTrue(result.get(3).getDistanceKm() > 1000);
+        verify(slotRepository, times(1)).findSlotsByDoctorIdsAndDateRange(anyList(), any(), any());
+    }
+
+    @Test
+    void testEarliestSlots_SkipsFullCenterBlocksAndRadius() throws Exception {
+        Center center = Center.builder().centerId(1L).name("Near").capacity(60).latitude(10.77).longitude(106.70)
+                .build();
+        Center outside = Center.builder().centerId(2L).name("Far").capacity(60).latitude(21.02).longitude(105.83)
+                .build();
+
+        Map<LocalDate, int[]> booked = new HashMap<>();
+        int[] counts = new int[TimeSlotEnum.values().length];
+        counts[TimeSlotEnum.SLOT_07_00.ordinal()] = 10;
+        booked.put(DAY, counts);
+
+        when(vaccineRepository.findById(1L)).thenReturn(Optional.of(Vaccine.builder().id(1L).stock(10).build()));
+        when(doctorRepository.findAllAvailable()).thenReturn(List.of(doctor(1L, center), doctor(2L, outside)));
+        when(slotRepository.findSlotsByDoctorIdsAndDateRange(eq(List.of(1L)), eq(DAY), any())).thenReturn(List.of());
+        when(slotCapacityLedger.getBookedCounts(eq(1L), eq(DAY), any())).thenReturn(booked);
+
+        List<EarliestSlotResponse> result = slotSearchService.findEarliestSlots(1L, 10.77, 106.70, 50.0, DAY, 1, 1);
+
+        assertEquals(1, result.size());
+        assertEquals(LocalTime.of(9, 0), result.get(0).getStartTime());
+        assertEquals(TimeSlotEnum.SLOT_09_00, result.get(0).getTimeSlot());
+    }
+
+    @Test
+    void testEarliestSlots_OutOfStockVaccine() throws Exception {
+        when(vaccineRepository.findById(1L)).thenReturn(Optional.of(Vaccine.builder().id(1L).stock(0).build()));
+
+        assertTrue(slotSearchService.findEarliestSlots(1L, null, null, null, DAY, 1, 5).isEmpty());
+    }
+
+    private Doctor doctor(Long id, Center center) {
+        return Doctor.builder()
+                .doctorId(id)
+                .center(center)
+                .user(User.builder().id(id).fullName("Doctor " + id).build())
+                .build();
+    }
+
+    private DoctorAvailableSlot slot(Doctor doctor, LocalTime start, SlotStatus status) {
+        return DoctorAvailableSlot.builder()
+                .doctor(doctor)
+                .slotDate(DAY)
+                .startTime(start)
+                .endTime(start.plusMinutes(30))
+                .status(status)
+                .build();
+    }
+}
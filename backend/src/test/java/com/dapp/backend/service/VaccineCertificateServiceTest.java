@@ -0,0 +1,128 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.RecordCertificateClaims;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VaccineCertificateServiceTest {
+
+    private final VaccineRecordRepository vaccineRecordRepository = mock(VaccineRecordRepository.class);
+    private VaccineCertificateService certificateService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        certificateService = new VaccineCertificateService(vaccineRecordRepository,
+                mock(PlatformTransactionManager.class), new ECKeyGenerator(Curve.P_256).generate().toJSONString(), "");
+        ReflectionTestUtils.setField(certificateService, "issuer", "VaxSafe");
+        ReflectionTestUtils.setField(certificateService, "batchEnabled", true);
+        ReflectionTestUtils.setField(certificateService, "batchPageSize", 2);
+    }
+
+    @Test
+    void testCertificateVerifiesWithPublishedKey() throws Exception {
+        String certificate = certificateService.sign(claims(7L, "0xtx"));
+
+        SignedJWT jwt = SignedJWT.parse(certificate);
+        ECKey publicKey = (ECKey) JWKSet.parse(certificateService.getPublicKeys()).getKeys().get(0);
+        assertFalse(publicKey.isPrivate());
+        assertTrue(jwt.verify(new ECDSAVerifier(publicKey)));
+        assertEquals(publicKey.getKeyID(), jwt.getHeader().getKeyID());
+        assertEquals("0xidentity", jwt.getJWTClaimsSet().getSubject());
+        assertEquals("ab12", jwt.getJWTClaimsSet().getStringClaim("contentHash"));
+        assertEquals("0xtx", jwt.getJWTClaimsSet().getStringClaim("tx"));
+        assertEquals(2L, jwt.getJWTClaimsSet().getLongClaim("dose"));
+        assertEquals("2026-03-01", jwt.getJWTClaimsSet().getStringClaim("date"));
+    }
+
+    @Test
+    void testMissingSigningKeyFailsStartup() {
+        assertThrows(IllegalStateException.class, () -> new VaccineCertificateService(vaccineRecordRepository,
+                mock(PlatformTransactionManager.class), " ", ""));
+    }
+
+    @Test
+    void testRetiredKeysStayPublished() throws Exception {
+        ECKey retired = new ECKeyGenerator(Curve.P_256).keyID("2025-key").generate();
+        VaccineCertificateService oldService = new VaccineCertificateService(vaccineRecordRepository,
+                mock(PlatformTransactionManager.class), retired.toJSONString(), "");
+        ReflectionTestUtils.setField(oldService, "issuer", "VaxSafe");
+        String oldCertificate = oldService.sign(claims(7L, "0xtx"));
+
+        VaccineCertificateService rotated = new VaccineCertificateService(vaccineRecordRepository,
+                mock(PlatformTransactionManager.class), new ECKeyGenerator(Curve.P_256).generate().toJSONString(),
+                new JWKSet(retired).toString(false));
+
+        JWKSet published = JWKSet.parse(rotated.getPublicKeys());
+        assertEquals(2, published.getKeys().size());
+        ECKey retiredPublic = (ECKey) published.getKeyByKeyId("2025-key");
+        assertFalse(retiredPublic.isPrivate(), "Only the public half of a retired key is published");
+        assertTrue(SignedJWT.parse(oldCertificate).verify(new ECDSAVerifier(retiredPublic)));
+    }
+
+    @Test
+    void testIssueCertifiesAnchoredRecordsWithoutKnownTransaction() throws Exception {
+        RecordCertificateClaims unanchored = new RecordCertificateClaims(3L, "0xidentity", "ab12", "QmRecord",
+                "Hexaxim", 2, LocalDate.of(2026, 3, 1), null, null, null, null);
+        when(vaccineRecordRepository.findCertificateClaims(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(claims(1L, "0xtx"), claims(2L, null), unanchored));
+
+        assertEquals(2, certificateService.issue(List.of(1L, 2L, 3L)));
+
+        ArgumentCaptor<String> certificate = ArgumentCaptor.forClass(String.class);
+        verify(vaccineRecordRepository).updateCertificate(eq(1L), anyString(), any());
+        verify(vaccineRecordRepository).updateCertificate(eq(2L), certificate.capture(), any());
+        verify(vaccineRecordRepository, never()).updateCertificate(eq(3L), anyString(), any());
+        JWTClaimsSet claims = SignedJWT.parse(certificate.getValue()).getJWTClaimsSet();
+        assertNull(claims.getClaim("tx"));
+        assertEquals("11", claims.getStringClaim("chainRecordId"));
+    }
+
+    @Test
+    void testBatchScanAdvancesAndWraps() {
+        when(vaccineRecordRepository.findUncertifiedAnchoredIds(eq(0L), any())).thenReturn(List.of(3L, 4L));
+        when(vaccineRecordRepository.findUncertifiedAnchoredIds(eq(4L), any())).thenReturn(List.of());
+        when(vaccineRecordRepository.findCertificateClaims(List.of(3L, 4L)))
+                .thenReturn(List.of(claims(3L, "0xa"), claims(4L, "0xb")));
+
+        assertEquals(2, certificateService.issueNextPage());
+        assertEquals(0, certificateService.issueNextPage());
+        certificateService.issueNextPage();
+
+        verify(vaccineRecordRepository, times(2)).findUncertifiedAnchoredIds(eq(0L), any());
+        verify(vaccineRecordRepository, times(4)).updateCertificate(anyLong(), anyString(), any());
+    }
+
+    private static RecordCertificateClaims claims(Long id, String transactionHash) {
+        return new RecordCertificateClaims(id, "0xidentity", "ab12", "QmRecord", "Hexaxim", 2,
+                LocalDate.of(2026, 3, 1), "11", transactionHash, 100L, null);
+    }
+}
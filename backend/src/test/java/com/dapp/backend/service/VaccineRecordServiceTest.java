@@ -0,0 +1,82 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.blockchain.BlockchainBatchDetails;
+import com.dapp.backend.exception.AppException;
+import com.dapp.backend.model.AnchorBatch;
+import com.dapp.backend.model.VaccineRecord;
+import com.dapp.backend.repository.FamilyMemberRepository;
+import com.dapp.backend.repository.VaccineRecordRepository;
+import com.dapp.backend.util.MerkleTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VaccineRecordServiceTest {
+
+    private static final byte[] PINNED = "{\"resourceType\":\"Bundle\",\"id\":\"5\"}".getBytes(StandardCharsets.UTF_8);
+
+    private BlockchainService blockchainService;
+    private VerificationCache verificationCache;
+    private VaccineRecordService vaccineRecordService;
+    private VaccineRecord record;
+    private MerkleTree tree;
+
+    @BeforeEach
+    void setUp() {
+        blockchainService = mock(BlockchainService.class);
+        verificationCache = mock(VerificationCache.class);
+        vaccineRecordService = new VaccineRecordService(mock(VaccineRecordRepository.class),
+                mock(FamilyMemberRepository.class), blockchainService, mock(RecordAnchoringService.class),
+                verificationCache);
+
+        tree = MerkleTree.of(List.of(MerkleTree.sha256(PINNED), MerkleTree.sha256(new byte[] { 1 })));
+        record = VaccineRecord.builder()
+                .id(5L)
+                .ipfsHash("QmRecord")
+                // The stored leaf is never trusted; verification recomputes it from IPFS
+                .contentHash("00")
+                .merkleProof(tree.proof(0))
+                .anchorBatch(AnchorBatch.builder().id(3L).merkleRoot(tree.rootHex()).chainBatchId("7").build())
+                .build();
+        when(blockchainService.fetchFromIpfs("QmRecord")).thenReturn(PINNED);
+    }
+
+    @Test
+    void testVerifyBatchRecord_LeafFromIpfsAndRootOnChain() throws Exception {
+        when(blockchainService.getBatchByRoot(tree.rootHex())).thenReturn(new BlockchainBatchDetails(true,
+                new BlockchainBatchDetails.BatchData("7", "0x" + tree.rootHex(), 2L, null)));
+
+        assertEquals(5L, vaccineRecordService.verifyRecord(record, "QmRecord").getId());
+        verify(verificationCache).putVerified(anyString(), any());
+    }
+
+    @Test
+    void testVerifyBatchRecord_RootMissingOnChain() {
+        when(blockchainService.getBatchByRoot(tree.rootHex())).thenReturn(new BlockchainBatchDetails(true, null));
+
+        AppException e = assertThrows(AppException.class, () -> vaccineRecordService.verifyRecord(record, "QmRecord"));
+        assertTrue(e.getMessage().contains("not found on chain"));
+        verify(verificationCache, never()).putVerified(anyString(), any());
+    }
+
+    @Test
+    void testVerifyBatchRecord_PinnedContentChanged() {
+        when(blockchainService.fetchFromIpfs("QmRecord")).thenReturn("{\"id\":\"6\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(AppException.class, () -> vaccineRecordService.verifyRecord(record, "QmRecord"));
+        verify(blockchainService, never()).getBatchByRoot(anyString());
+        verify(verificationCache, never()).putVerified(anyString(), any());
+    }
+}
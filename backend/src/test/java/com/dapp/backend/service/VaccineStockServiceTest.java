@@ -0,0 +1,153 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.model.Vaccine;
+import com.dapp.backend.repository.VaccineRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against an embedded database so the conditional UPDATE itself is what keeps stock from going negative.
+// Not transactional: every reservation commits on its own, exactly as it does during a booking.
+// 200 threads share 50 connections, so the pool and H2's row-lock wait are sized for a full queue.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.url=jdbc:h2:mem:stock;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=50",
+        "spring.datasource.hikari.connection-timeout=60000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(VaccineStockService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VaccineStockServiceTest {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int THREADS = 200;
+
+    @Autowired
+    private VaccineRepository vaccineRepository;
+
+    @Autowired
+    private VaccineStockService stockService;
+
+    private Long vaccineId;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine vaccine = new Vaccine();
+        vaccine.setSlug("stock-test");
+        vaccine.setName("Stock test");
+        vaccine.setStock(BATCH_SIZE);
+        vaccineId = vaccineRepository.save(vaccine).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vaccineRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentBookings_NeverOversell() throws Exception {
+        List<Integer> booked = runConcurrently(() -> {
+            int count = 0;
+            while (stockService.tryReserve(vaccineId, 1)) {
+                count++;
+            }
+            return count;
+        });
+
+        int totalBooked = booked.stream().mapToInt(Integer::intValue).sum();
+        assertEquals(BATCH_SIZE, totalBooked, "Every dose of the batch should be booked exactly once");
+        assertEquals(0, currentStock(), "Stock should be exhausted, never negative");
+        assertFalse(stockService.tryReserve(vaccineId, 1), "No booking should succeed after sell-out");
+    }
+
+    @Test
+    void testConcurrentOrders_MixedQuantities() throws Exception {
+        List<Integer> reserved = runConcurrently(() -> {
+            int total = 0;
+            for (int i = 0; i < 20; i++) {
+                int quantity = ThreadLocalRandom.current().nextInt(1, 6);
+                if (stockService.tryReserve(vaccineId, quantity)) {
+                    total += quantity;
+                }
+            }
+            return total;
+        });
+
+        int totalReserved = reserved.stream().mapToInt(Integer::intValue).sum();
+        int remaining = currentStock();
+        assertTrue(remaining >= 0, "Stock should never go negative");
+        assertEquals(BATCH_SIZE, totalReserved + remaining, "Reserved plus remaining should equal the batch");
+    }
+
+    @Test
+    void testConcurrentReserveAndRelease() throws Exception {
+        runConcurrently(() -> {
+            for (int i = 0; i < 20; i++) {
+                if (stockService.tryReserve(vaccineId, 1)) {
+                    stockService.release(vaccineId, 1);
+                }
+            }
+            return 0;
+        });
+
+        assertEquals(BATCH_SIZE, currentStock(), "Released doses should all be returned to stock");
+    }
+
+    @Test
+    void testReserve_NotEnoughStock() {
+        assertFalse(stockService.tryReserve(vaccineId, BATCH_SIZE + 1));
+        assertEquals(BATCH_SIZE, currentStock(), "A rejected reservation should not touch stock");
+    }
+
+    private int currentStock() {
+        return vaccineRepository.findById(vaccineId).orElseThrow().getStock();
+    }
+
+    private List<Integer> runConcurrently(Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get(120, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
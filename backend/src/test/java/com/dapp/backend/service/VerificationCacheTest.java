@@ -0,0 +1,53 @@
+package com.dapp.backend.service;
+
+import com.dapp.backend.dto.response.VaccineRecordResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerificationCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testVerifiedAndNegativeEntries() {
+        VerificationCache cache = new VerificationCache(registry, 100, 600, 60);
+        VaccineRecordResponse response = VaccineRecordResponse.builder().id(1L).ipfsHash("QmA").blockNumber(42L)
+                .build();
+
+        assertNull(cache.get("QmA"));
+        cache.putVerified("QmA", response);
+        cache.putNotFound("QmUnknown");
+
+        assertSame(response, cache.get("QmA").response());
+        assertEquals(42L, cache.get("QmA").blockNumber());
+        assertTrue(cache.get("QmUnknown").isNotFound());
+        assertEquals(2.0, registry.get("verification.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("verification.cache.requests").tag("result", "negative_hit").counter().count());
+    }
+
+    @Test
+    void testInvalidateAndExpiry() {
+        VerificationCache cache = new VerificationCache(registry, 100, 600, 0);
+        cache.putVerified("QmA", VaccineRecordResponse.builder().id(1L).build());
+        cache.putNotFound("QmB");
+
+        assertNull(cache.get("QmB"), "Negative entries with zero TTL expire immediately");
+        cache.invalidate("QmA");
+        assertNull(cache.get("QmA"));
+    }
+
+    @Test
+    void testFullCacheDoesNotEvictLiveEntries() {
+        VerificationCache cache = new VerificationCache(registry, 1, 600, 60);
+        cache.putNotFound("QmA");
+        cache.putNotFound("QmB");
+
+        assertTrue(cache.get("QmA").isNotFound());
+        assertNull(cache.get("QmB"));
+    }
+}
@@ -33,12 +33,23 @@ contract VaccineRecord {
         bool isActive;                  // Active status
     }
     
+    // Merkle batch: one root commits to many off-chain records
+    struct Batch {
+        uint256 batchId;                // Unique batch ID
+        bytes32 merkleRoot;             // Root over the records' content hashes
+        uint256 recordCount;            // Number of leaves
+        uint256 anchoredAt;             // Anchoring timestamp
+    }
+    
     // State variables
     uint256 private recordCounter;
+    uint256 private batchCounter;
     
     // Mappings
     mapping(uint256 => Record) public records;
     mapping(bytes32 => uint256[]) public identityRecords; // All records for an identity
+    mapping(uint256 => Batch) public batches;
+    mapping(bytes32 => uint256) public batchIdByRoot;
     
     // Events
     event RecordCreated(
@@ -48,6 +59,7 @@ contract VaccineRecord {
         string vaccineName,
         uint256 doseNumber,
         uint256 vaccinationDate,
+        string ipfsHash,
         uint256 timestamp
     );
     
@@ -57,6 +69,13 @@ contract VaccineRecord {
         uint256 timestamp
     );
     
+    event BatchAnchored(
+        uint256 indexed batchId,
+        bytes32 indexed merkleRoot,
+        uint256 recordCount,
+        uint256 timestamp
+    );
+    
     /**
      * @dev Create a new vaccine record
      */
@@ -116,6 +135,7 @@ contract VaccineRecord {
             _vaccineName,
             _doseNumber,
             _vaccinationDate,
+            _ipfsHash,
             block.timestamp
         );
         
@@ -163,6 +183,48 @@ contract VaccineRecord {
         emit RecordUpdated(_recordId, _ipfsHash, block.timestamp);
     }
     
+    /**
+     * @dev Anchor the Merkle root of a batch of vaccine records
+     * @param _merkleRoot Merkle root over the records' content hashes
+     * @param _recordCount Number of records in the batch
+     */
+    function anchorBatch(bytes32 _merkleRoot, uint256 _recordCount) 
+        external 
+        returns (uint256) 
+    {
+        require(_merkleRoot != bytes32(0), "Invalid merkle root");
+        require(_recordCount > 0, "Batch cannot be empty");
+        require(batchIdByRoot[_merkleRoot] == 0, "Merkle root already anchored");
+        
+        batchCounter++;
+        uint256 newBatchId = batchCounter;
+        
+        batches[newBatchId] = Batch({
+            batchId: newBatchId,
+            merkleRoot: _merkleRoot,
+            recordCount: _recordCount,
+            anchoredAt: block.timestamp
+        });
+        batchIdByRoot[_merkleRoot] = newBatchId;
+        
+        emit BatchAnchored(newBatchId, _merkleRoot, _recordCount, block.timestamp);
+        
+        return newBatchId;
+    }
+    
+    /**
+     * @dev Get an anchored batch
+     * @param _batchId Batch ID
+     */
+    function getBatch(uint256 _batchId) 
+        external 
+        view 
+        returns (Batch memory) 
+    {
+        require(_batchId > 0 && _batchId <= batchCounter, "Invalid batch ID");
+        return batches[_batchId];
+    }
+    
     /**
      * @dev Get total number of records
      */
@@ -41,6 +41,7 @@ contract VaxSafeIdentity {
         string did,
         address indexed guardian,
         IdentityType idType,
+        string ipfsDataHash,
         uint256 timestamp
     );
     
@@ -88,7 +89,7 @@ contract VaxSafeIdentity {
         
         identityExists[_identityHash] = true;
         
-        emit IdentityCreated(_identityHash, _did, _guardian, _idType, block.timestamp);
+        emit IdentityCreated(_identityHash, _did, _guardian, _idType, _ipfsDataHash, block.timestamp);
     }
     
     /**
@@ -0,0 +1,47 @@
+const chainEventsService = require("../services/chain-events.service");
+
+/**
+ * Get contract events for a block range (used by the backend indexer)
+ */
+async function getEvents(req, res) {
+	try {
+		const fromBlock = Number.parseInt(req.query.fromBlock, 10);
+		const maxBlocks = Number.parseInt(req.query.maxBlocks ?? "500", 10);
+		const confirmations = Number.parseInt(req.query.confirmations ?? "0", 10);
+
+		if (
+			Number.isNaN(fromBlock) ||
+			fromBlock < 0 ||
+			Number.isNaN(maxBlocks) ||
+			maxBlocks < 1 ||
+			Number.isNaN(confirmations) ||
+			confirmations < 0
+		) {
+			return res.status(400).json({
+				success: false,
+				message: "fromBlock, maxBlocks and confirmations must be non-negative integers",
+			});
+		}
+
+		const page = await chainEventsService.getEvents(
+			fromBlock,
+			Math.min(maxBlocks, 5000),
+			confirmations,
+		);
+
+		res.json({
+			success: true,
+			data: page,
+		});
+	} catch (error) {
+		res.status(500).json({
+			success: false,
+			message: "Failed to get chain events",
+			error: error.message,
+		});
+	}
+}
+
+module.exports = {
+	getEvents,
+};
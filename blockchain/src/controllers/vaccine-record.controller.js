@@ -156,6 +156,83 @@ async function updateRecordIPFS(req, res) {
 	}
 }
 
+/**
+ * Anchor the Merkle root of a batch of vaccine records
+ */
+async function anchorBatch(req, res) {
+	try {
+		const { merkleRoot, recordCount } = req.body;
+
+		if (!merkleRoot || !recordCount) {
+			return res.status(400).json({
+				success: false,
+				message: "Merkle root and record count are required",
+			});
+		}
+
+		const result = await vaccineRecordService.anchorBatch(
+			merkleRoot,
+			recordCount,
+		);
+
+		res.json({
+			success: true,
+			message: "Batch anchored successfully",
+			data: result,
+		});
+	} catch (error) {
+		res.status(500).json({
+			success: false,
+			message: "Failed to anchor batch",
+			error: error.message,
+		});
+	}
+}
+
+/**
+ * Get an anchored batch
+ */
+async function getBatch(req, res) {
+	try {
+		const { batchId } = req.params;
+
+		const batch = await vaccineRecordService.getBatch(batchId);
+
+		res.json({
+			success: true,
+			data: batch,
+		});
+	} catch (error) {
+		res.status(500).json({
+			success: false,
+			message: "Failed to get batch",
+			error: error.message,
+		});
+	}
+}
+
+/**
+ * Get the batch anchored under a Merkle root; data is null if the root is not on chain
+ */
+async function getBatchByRoot(req, res) {
+	try {
+		const { merkleRoot } = req.params;
+
+		const batch = await vaccineRecordService.getBatchByRoot(merkleRoot);
+
+		res.json({
+			success: true,
+			data: batch,
+		});
+	} catch (error) {
+		res.status(500).json({
+			success: false,
+			message: "Failed to get batch by root",
+			error: error.message,
+		});
+	}
+}
+
 /**
  * Get total number of records
  */
@@ -182,4 +259,7 @@ module.exports = {
 	getRecordsByIdentity,
 	updateRecordIPFS,
 	getTotalRecords,
+	anchorBatch,
+	getBatch,
+	getBatchByRoot,
 };
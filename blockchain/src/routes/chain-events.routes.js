@@ -0,0 +1,8 @@
+const express = require("express");
+const router = express.Router();
+const chainEventsController = require("../controllers/chain-events.controller");
+
+// Get contract events for a block range
+router.get("/", chainEventsController.getEvents);
+
+module.exports = router;
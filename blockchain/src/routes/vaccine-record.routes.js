@@ -5,6 +5,15 @@ const vaccineRecordController = require("../controllers/vaccine-record.controlle
 // Create vaccine record
 router.post("/create", vaccineRecordController.createRecord);
 
+// Anchor a Merkle batch of records
+router.post("/batches", vaccineRecordController.anchorBatch);
+
+// Get anchored batch by Merkle root
+router.get("/batches/root/:merkleRoot", vaccineRecordController.getBatchByRoot);
+
+// Get anchored batch
+router.get("/batches/:batchId", vaccineRecordController.getBatch);
+
 // Get specific record
 router.get("/:recordId", vaccineRecordController.getRecord);
 
@@ -17,6 +17,7 @@ const vaccineRecordRoutes = require("./routes/vaccine-record.routes");
 const transactionRoutes = require("./routes/transaction.routes");
 const ipfsRoutes = require("./routes/ipfsRoutes");
 const blockchainRoutes = require("./routes/blockchain.routes");
+const chainEventsRoutes = require("./routes/chain-events.routes");
 
 const app = express();
 const server = http.createServer(app);
@@ -170,6 +171,7 @@ app.use("/api/vaccine-records", vaccineRecordRoutes);
 app.use("/api/transactions", transactionRoutes);
 app.use("/api/ipfs", ipfsRoutes);
 app.use("/api/blockchain", blockchainRoutes);
+app.use("/api/chain-events", chainEventsRoutes);
 
 // Socket.IO connection handling
 io.on("connection", (socket) => {
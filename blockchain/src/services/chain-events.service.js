@@ -0,0 +1,86 @@
+const { getWeb3 } = require("../config/web3");
+const identityService = require("./identity.service");
+const vaccineRecordService = require("./vaccine-record.service");
+
+/**
+ * Keep only the named event fields (web3 also returns them by position)
+ * and stringify every value so BigInts survive JSON serialization
+ */
+function namedValues(returnValues) {
+	const values = {};
+	for (const key in returnValues) {
+		if (key === "__length__" || /^\d+$/.test(key)) continue;
+		const value = returnValues[key];
+		values[key] = value === null || value === undefined ? null : String(value);
+	}
+	return values;
+}
+
+class ChainEventsService {
+	/**
+	 * Contract events in [fromBlock, toBlock], where toBlock stays `confirmations`
+	 * blocks behind the head and at most `maxBlocks` past fromBlock.
+	 * parentHash is the hash of fromBlock - 1, so the caller can detect a reorg
+	 * under the block it indexed last.
+	 */
+	async getEvents(fromBlock, maxBlocks, confirmations) {
+		const web3 = getWeb3();
+		const latestBlock = Number(await web3.eth.getBlockNumber());
+		const toBlock = Math.min(latestBlock - confirmations, fromBlock + maxBlocks - 1);
+
+		const parentHash =
+			fromBlock > 0 ? (await web3.eth.getBlock(fromBlock - 1)).hash : null;
+
+		if (toBlock < fromBlock) {
+			return {
+				fromBlock,
+				toBlock: fromBlock - 1,
+				latestBlock,
+				parentHash,
+				toBlockHash: parentHash,
+				events: [],
+			};
+		}
+
+		const sources = [
+			{ name: "VaccineRecord", contract: vaccineRecordService.contract },
+			{ name: "VaxSafeIdentity", contract: identityService.contract },
+		];
+
+		const events = [];
+		for (const source of sources) {
+			if (!source.contract) {
+				throw new Error(`${source.name} contract not initialized`);
+			}
+			const logs = await source.contract.getPastEvents("allEvents", {
+				fromBlock,
+				toBlock,
+			});
+			for (const log of logs) {
+				events.push({
+					contract: source.name,
+					event: log.event,
+					blockNumber: Number(log.blockNumber),
+					blockHash: log.blockHash,
+					logIndex: Number(log.logIndex),
+					transactionHash: log.transactionHash,
+					values: namedValues(log.returnValues),
+				});
+			}
+		}
+		events.sort((a, b) => a.blockNumber - b.blockNumber || a.logIndex - b.logIndex);
+
+		const toBlockHash = (await web3.eth.getBlock(toBlock)).hash;
+
+		return {
+			fromBlock,
+			toBlock,
+			latestBlock,
+			parentHash,
+			toBlockHash,
+			events,
+		};
+	}
+}
+
+module.exports = new ChainEventsService();
@@ -327,6 +327,82 @@ class VaccineRecordService {
 		}
 	}
 
+	/**
+	 * Anchor the Merkle root of a batch of vaccine records
+	 */
+	async anchorBatch(merkleRoot, recordCount) {
+		try {
+			if (!this.contract) {
+				throw new Error("Service not initialized");
+			}
+
+			const result = await this.contract.methods
+				.anchorBatch(merkleRoot, recordCount)
+				.send({
+					from: this.accounts[0],
+					gas: 200000,
+				});
+
+			const batchId = result.events.BatchAnchored.returnValues.batchId;
+
+			return sanitizeBigInt({
+				success: true,
+				batchId: batchId,
+				transactionHash: result.transactionHash,
+				blockNumber: result.blockNumber,
+			});
+		} catch (error) {
+			console.error("Error anchoring batch:", error.message);
+			throw error;
+		}
+	}
+
+	/**
+	 * Get an anchored batch
+	 */
+	async getBatch(batchId) {
+		try {
+			if (!this.contract) {
+				throw new Error("Service not initialized");
+			}
+
+			const batch = await this.contract.methods.getBatch(batchId).call();
+
+			return sanitizeBigInt({
+				batchId: batch.batchId,
+				merkleRoot: batch.merkleRoot,
+				recordCount: batch.recordCount,
+				anchoredAt: new Date(Number(batch.anchoredAt) * 1000).toISOString(),
+			});
+		} catch (error) {
+			console.error("Error getting batch:", error.message);
+			throw error;
+		}
+	}
+
+	/**
+	 * Get the batch anchored under a Merkle root, or null if the root was never anchored
+	 */
+	async getBatchByRoot(merkleRoot) {
+		try {
+			if (!this.contract) {
+				throw new Error("Service not initialized");
+			}
+
+			const batchId = await this.contract.methods
+				.batchIdByRoot(merkleRoot)
+				.call();
+			if (BigInt(batchId) === 0n) {
+				return null;
+			}
+
+			return await this.getBatch(batchId);
+		} catch (error) {
+			console.error("Error getting batch by root:", error.message);
+			throw error;
+		}
+	}
+
 	/**
 	 * Get total number of records
 	 */